@@ -0,0 +1,84 @@
+package org.drools.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.benchmarks.model.A;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the creation of factCount * ruleCount activations, with ruleCount rules of different salience,
+ * and their firing. The facts are deleted outside of the measured code, once they have been fired.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AgendaBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int factCount;
+
+    @Param({"1", "16"})
+    public int ruleCount;
+
+    private StatefulKnowledgeSession ksession;
+
+    private A[] facts;
+    private FactHandle[] handles;
+
+    @Setup(Level.Trial)
+    public void setupSession() {
+        StringBuilder drl = new StringBuilder( BenchmarkUtil.IMPORTS );
+        for ( int i = 0; i < ruleCount; i++ ) {
+            drl.append( "rule R" ).append( i ).append( " salience " ).append( i ).append( " when\n" )
+               .append( "    A()\n" )
+               .append( "then\n" )
+               .append( "end\n" );
+        }
+        ksession = BenchmarkUtil.newSession( drl.toString(), Collections.<String, String>emptyMap() );
+
+        facts = new A[factCount];
+        for ( int i = 0; i < factCount; i++ ) {
+            facts[i] = new A( i );
+        }
+        handles = new FactHandle[factCount];
+    }
+
+    @TearDown(Level.Trial)
+    public void disposeSession() {
+        ksession.dispose();
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteFacts() {
+        for ( int i = 0; i < factCount; i++ ) {
+            ksession.delete( handles[i] );
+        }
+        ksession.fireAllRules();
+    }
+
+    @Benchmark
+    public int addAndFire() {
+        for ( int i = 0; i < factCount; i++ ) {
+            handles[i] = ksession.insert( facts[i] );
+        }
+        return ksession.fireAllRules();
+    }
+}
@@ -0,0 +1,102 @@
+package org.drools.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.benchmarks.model.A;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the dispatch of a fact through the CompositeObjectSinkAdapter of its ObjectTypeNode, to sinkCount
+ * alpha nodes constraining the same field. The rules are never fired, so only the alpha network and the
+ * staging of the tuples in the left input adapters are measured.
+ *
+ * The index type is one of:
+ * hash  - equality alpha constraints, hashed by the sink adapter
+ * range - comparison alpha constraints, range indexed by the sink adapter
+ * none  - equality alpha constraints, with the alpha node hashing disabled
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class AlphaNetworkBenchmark {
+
+    @Param({"2", "16", "128"})
+    public int sinkCount;
+
+    @Param({"hash", "range", "none"})
+    public String indexType;
+
+    private StatefulKnowledgeSession ksession;
+
+    private int probeValue;
+
+    private A insertedFact;
+
+    private A updatedFact;
+    private FactHandle updatedHandle;
+
+    @Setup(Level.Trial)
+    public void setupSession() {
+        Map<String, String> kbaseProperties = new HashMap<String, String>();
+        String operator = "==";
+        if ( indexType.equals( "range" ) ) {
+            operator = ">";
+        } else if ( indexType.equals( "none" ) ) {
+            kbaseProperties.put( "drools.alphaNodeHashingThreshold", "0" );
+        } else if ( !indexType.equals( "hash" ) ) {
+            throw new IllegalArgumentException( "Unknown index type: " + indexType );
+        }
+
+        StringBuilder drl = new StringBuilder( BenchmarkUtil.IMPORTS );
+        for ( int i = 0; i < sinkCount; i++ ) {
+            drl.append( "rule R" ).append( i ).append( " when\n" )
+               .append( "    A( value " ).append( operator ).append( " " ).append( i ).append( " )\n" )
+               .append( "then\n" )
+               .append( "end\n" );
+        }
+        ksession = BenchmarkUtil.newSession( drl.toString(), kbaseProperties );
+
+        probeValue = sinkCount / 2;
+        insertedFact = new A( probeValue );
+        updatedFact = new A( probeValue );
+        updatedHandle = ksession.insert( updatedFact );
+    }
+
+    @TearDown(Level.Trial)
+    public void disposeSession() {
+        ksession.dispose();
+    }
+
+    @Benchmark
+    public FactHandle insertAndDelete() {
+        FactHandle handle = ksession.insert( insertedFact );
+        ksession.delete( handle );
+        return handle;
+    }
+
+    @Benchmark
+    public FactHandle update() {
+        updatedFact.setValue( updatedFact.getValue() == probeValue ? probeValue + 1 : probeValue );
+        ksession.update( updatedHandle, updatedFact );
+        return updatedHandle;
+    }
+}
@@ -0,0 +1,55 @@
+package org.drools.benchmarks;
+
+import java.util.Collections;
+import java.util.Map;
+
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.internal.KieBaseConfiguration;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.builder.conf.PhreakOption;
+import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+public class BenchmarkUtil {
+
+    public static final String IMPORTS = "import org.drools.benchmarks.model.*;\n";
+
+    /**
+     * Builds a Phreak kbase out of the given drl, configured with the given kbase properties,
+     * and returns a new session for it.
+     */
+    public static StatefulKnowledgeSession newSession(String drl, Map<String, String> kbaseProperties) {
+        return newSession( drl, kbaseProperties, Collections.<String, String>emptyMap() );
+    }
+
+    /**
+     * Builds a Phreak kbase out of the given drl, configured with the given kbase properties,
+     * and returns a new session for it, configured with the given session properties.
+     */
+    public static StatefulKnowledgeSession newSession(String drl, Map<String, String> kbaseProperties, Map<String, String> sessionProperties) {
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        kbuilder.add( ResourceFactory.newByteArrayResource( drl.getBytes() ),
+                      ResourceType.DRL );
+        if ( kbuilder.hasErrors() ) {
+            throw new IllegalArgumentException( "Unable to compile the benchmark rules: " + kbuilder.getErrors() );
+        }
+
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setOption( PhreakOption.ENABLED );
+        for ( Map.Entry<String, String> property : kbaseProperties.entrySet() ) {
+            kconf.setProperty( property.getKey(), property.getValue() );
+        }
+
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase( kconf );
+        kbase.addKnowledgePackages( kbuilder.getKnowledgePackages() );
+        KieSessionConfiguration sconf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        for ( Map.Entry<String, String> property : sessionProperties.entrySet() ) {
+            sconf.setProperty( property.getKey(), property.getValue() );
+        }
+        return kbase.newStatefulKnowledgeSession( sconf, null );
+    }
+}
@@ -0,0 +1,92 @@
+package org.drools.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.benchmarks.model.A;
+import org.drools.benchmarks.model.B;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the churn of factCount facts, inserted and deleted again, through a chain of two joins,
+ * with and without the drools.tupleRecycling session option. Each A joins the B with the same value,
+ * but no other A, so as for most of the partial matches of a real session the joins never reach the
+ * terminal node. Run it with -prof gc to compare the allocation rate per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class TupleRecyclingBenchmark {
+
+    @Param({"100", "10000"})
+    public int factCount;
+
+    @Param({"false", "true"})
+    public boolean tupleRecycling;
+
+    private StatefulKnowledgeSession ksession;
+
+    private A[] as;
+    private B[] bs;
+    private FactHandle[] aHandles;
+    private FactHandle[] bHandles;
+
+    @Setup(Level.Trial)
+    public void setupSession() {
+        String drl = BenchmarkUtil.IMPORTS +
+                     "rule R when\n" +
+                     "    $a : A()\n" +
+                     "    B( value == $a.value )\n" +
+                     "    A( this != $a, value == $a.value )\n" +
+                     "then\n" +
+                     "end\n";
+        ksession = BenchmarkUtil.newSession( drl,
+                                             Collections.<String, String>emptyMap(),
+                                             Collections.singletonMap( "drools.tupleRecycling", Boolean.toString( tupleRecycling ) ) );
+
+        as = new A[factCount];
+        bs = new B[factCount];
+        for ( int i = 0; i < factCount; i++ ) {
+            as[i] = new A( i );
+            bs[i] = new B( i );
+        }
+        aHandles = new FactHandle[factCount];
+        bHandles = new FactHandle[factCount];
+    }
+
+    @TearDown(Level.Trial)
+    public void disposeSession() {
+        ksession.dispose();
+    }
+
+    @Benchmark
+    public int insertAndDelete() {
+        for ( int i = 0; i < factCount; i++ ) {
+            aHandles[i] = ksession.insert( as[i] );
+            bHandles[i] = ksession.insert( bs[i] );
+        }
+        int fired = ksession.fireAllRules();
+        for ( int i = 0; i < factCount; i++ ) {
+            ksession.delete( bHandles[i] );
+            ksession.delete( aHandles[i] );
+        }
+        return fired + ksession.fireAllRules();
+    }
+}
@@ -0,0 +1,22 @@
+package org.drools.benchmarks.model;
+
+public class A {
+
+    private int value;
+
+    public A(int value) {
+        this.value = value;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public void setValue(int value) {
+        this.value = value;
+    }
+
+    public String toString() {
+        return "A(" + value + ")";
+    }
+}
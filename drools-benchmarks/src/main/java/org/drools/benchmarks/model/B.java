@@ -0,0 +1,22 @@
+package org.drools.benchmarks.model;
+
+public class B {
+
+    private int value;
+
+    public B(int value) {
+        this.value = value;
+    }
+
+    public int getValue() {
+        return value;
+    }
+
+    public void setValue(int value) {
+        this.value = value;
+    }
+
+    public String toString() {
+        return "B(" + value + ")";
+    }
+}
@@ -0,0 +1,183 @@
+package org.drools.benchmarks.phreak;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.drools.benchmarks.BenchmarkUtil;
+import org.drools.benchmarks.model.A;
+import org.drools.benchmarks.model.B;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+/**
+ * Measures the left and right inserts, updates and deletes of a beta node, joining the A facts (left input)
+ * with the B facts (right input) on their value.
+ *
+ * Both memories are filled with memorySize facts before the measurement, the A facts with the values from 0 to
+ * memorySize - 1, the B ones with the values from memorySize to 2 * memorySize - 1, so none of them joins. The
+ * probe facts take a value in the middle of the opposite memory: with an equality constraint they join with a
+ * single fact, with a comparison constraint they join with half of the opposite memory. Each operation
+ * is made on a single probe fact and followed by a fireAllRules, which evaluates the network and fires the
+ * resulting activations. The probe fact is inserted, or removed, outside of the measured code, so the memories
+ * have the same content at each invocation.
+ *
+ * The index type is one of:
+ * hash  - equality join constraint, with the beta memories hash indexed
+ * range - comparison join constraint, with the drools.rangeIndex option set
+ * none  - equality join constraint, with the beta memories indexing disabled
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public abstract class AbstractBetaNodeBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int memorySize;
+
+    @Param({"hash", "range", "none"})
+    public String indexType;
+
+    private StatefulKnowledgeSession ksession;
+
+    private String operation;
+
+    private int leftProbeValue;
+    private int rightProbeValue;
+
+    private A leftFact;
+    private FactHandle leftHandle;
+
+    private B rightFact;
+    private FactHandle rightHandle;
+
+    /**
+     * Returns the right input of the rule, in the form of a drl conditional element matching the B facts with
+     * the given constraint. The left input is bound to $a.
+     */
+    protected abstract String getRightInput(String constraint);
+
+    @Setup(Level.Trial)
+    public void setupSession(BenchmarkParams params) {
+        String benchmark = params.getBenchmark();
+        operation = benchmark.substring( benchmark.lastIndexOf( '.' ) + 1 );
+
+        Map<String, String> kbaseProperties = new HashMap<String, String>();
+        String operator = "==";
+        if ( indexType.equals( "range" ) ) {
+            operator = "<";
+            kbaseProperties.put( "drools.rangeIndex", "true" );
+        } else if ( indexType.equals( "none" ) ) {
+            kbaseProperties.put( "drools.indexLeftBetaMemory", "false" );
+            kbaseProperties.put( "drools.indexRightBetaMemory", "false" );
+        } else if ( !indexType.equals( "hash" ) ) {
+            throw new IllegalArgumentException( "Unknown index type: " + indexType );
+        }
+
+        String drl = BenchmarkUtil.IMPORTS +
+                     "rule R when\n" +
+                     "    $a : A()\n" +
+                     "    " + getRightInput( "value " + operator + " $a.value" ) + "\n" +
+                     "then\n" +
+                     "end\n";
+        ksession = BenchmarkUtil.newSession( drl, kbaseProperties );
+
+        for ( int i = 0; i < memorySize; i++ ) {
+            ksession.insert( new A( i ) );
+            ksession.insert( new B( memorySize + i ) );
+        }
+        ksession.fireAllRules();
+
+        leftProbeValue = memorySize + memorySize / 2;
+        rightProbeValue = memorySize / 2;
+        leftFact = new A( leftProbeValue );
+        rightFact = new B( rightProbeValue );
+    }
+
+    @TearDown(Level.Trial)
+    public void disposeSession() {
+        ksession.dispose();
+    }
+
+    @Setup(Level.Invocation)
+    public void insertProbe() {
+        leftFact.setValue( leftProbeValue );
+        rightFact.setValue( rightProbeValue );
+        if ( operation.startsWith( "left" ) && !operation.equals( "leftInsert" ) ) {
+            leftHandle = ksession.insert( leftFact );
+        } else if ( operation.startsWith( "right" ) && !operation.equals( "rightInsert" ) ) {
+            rightHandle = ksession.insert( rightFact );
+        }
+        ksession.fireAllRules();
+    }
+
+    @TearDown(Level.Invocation)
+    public void removeProbe() {
+        if ( leftHandle != null ) {
+            ksession.delete( leftHandle );
+            leftHandle = null;
+        }
+        if ( rightHandle != null ) {
+            ksession.delete( rightHandle );
+            rightHandle = null;
+        }
+        ksession.fireAllRules();
+    }
+
+    @Benchmark
+    public int leftInsert() {
+        leftHandle = ksession.insert( leftFact );
+        return ksession.fireAllRules();
+    }
+
+    @Benchmark
+    public int leftUpdate() {
+        leftFact.setValue( leftProbeValue + 1 );
+        ksession.update( leftHandle, leftFact );
+        return ksession.fireAllRules();
+    }
+
+    @Benchmark
+    public int leftDelete() {
+        ksession.delete( leftHandle );
+        leftHandle = null;
+        return ksession.fireAllRules();
+    }
+
+    @Benchmark
+    public int rightInsert() {
+        rightHandle = ksession.insert( rightFact );
+        return ksession.fireAllRules();
+    }
+
+    @Benchmark
+    public int rightUpdate() {
+        rightFact.setValue( rightProbeValue + 1 );
+        ksession.update( rightHandle, rightFact );
+        return ksession.fireAllRules();
+    }
+
+    @Benchmark
+    public int rightDelete() {
+        ksession.delete( rightHandle );
+        rightHandle = null;
+        return ksession.fireAllRules();
+    }
+}
@@ -0,0 +1,11 @@
+package org.drools.benchmarks.phreak;
+
+/**
+ * Benchmarks the PhreakAccumulateNode operations, summing the values of the matching B facts.
+ */
+public class AccumulateNodeBenchmark extends AbstractBetaNodeBenchmark {
+
+    protected String getRightInput(String constraint) {
+        return "accumulate( B( " + constraint + ", $v : value ); $sum : sum( $v ) )";
+    }
+}
@@ -0,0 +1,12 @@
+package org.drools.benchmarks.phreak;
+
+/**
+ * Benchmarks the PhreakExistsNode operations. Exists nodes always range index a comparison constraint, whether or
+ * not drools.rangeIndex is set, so with the range index type the right memory is range indexed.
+ */
+public class ExistsNodeBenchmark extends AbstractBetaNodeBenchmark {
+
+    protected String getRightInput(String constraint) {
+        return "exists B( " + constraint + " )";
+    }
+}
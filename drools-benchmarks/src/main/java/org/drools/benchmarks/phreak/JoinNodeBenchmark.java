@@ -0,0 +1,11 @@
+package org.drools.benchmarks.phreak;
+
+/**
+ * Benchmarks the PhreakJoinNode operations.
+ */
+public class JoinNodeBenchmark extends AbstractBetaNodeBenchmark {
+
+    protected String getRightInput(String constraint) {
+        return "B( " + constraint + " )";
+    }
+}
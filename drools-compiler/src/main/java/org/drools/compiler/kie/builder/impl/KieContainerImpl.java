@@ -1,6 +1,8 @@
 package org.drools.compiler.kie.builder.impl;
 
+import org.drools.core.common.InternalRuleBase;
 import org.drools.core.impl.InternalKnowledgeBase;
+import org.drools.core.impl.StatelessKnowledgeSessionImpl;
 import org.drools.compiler.kproject.models.KieBaseModelImpl;
 import org.drools.compiler.kproject.models.KieSessionModelImpl;
 import org.kie.api.KieBase;
@@ -24,8 +26,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.drools.compiler.kie.builder.impl.AbstractKieModule.buildKnowledgePackages;
 import static org.drools.compiler.kie.util.CDIHelper.wireListnersAndWIHs;
@@ -36,12 +40,13 @@ public class KieContainerImpl
 
     private static final Logger        log    = LoggerFactory.getLogger( KieContainerImpl.class );
 
-    private KieProject           kProject;
+    private volatile KieProject           kProject;
 
-    private final Map<String, KieBase> kBases = new HashMap<String, KieBase>();
+    // never modified once published, guarded by this for the writers
+    private volatile Map<String, KieBase> kBases = Collections.emptyMap();
 
     private final Map<String, KieSession> kSessions = new HashMap<String, KieSession>();
-    private final Map<String, StatelessKieSession> statelessKSessions = new HashMap<String, StatelessKieSession>();
+    private final Map<String, StatelessKieSession> statelessKSessions = new ConcurrentHashMap<String, StatelessKieSession>();
 
     private final KieRepository        kr;
 
@@ -56,10 +61,38 @@ public class KieContainerImpl
         return kProject.getGAV();
     }
 
-    public void updateToVersion(ReleaseId releaseId) {
-        kBases.clear();
-        this.kProject = new KieModuleKieProject( (InternalKieModule)kr.getKieModule(releaseId), kr );
-        this.kProject.init();
+    /**
+     * Updates this container to the given version. The KieBases already created are built again for the new
+     * version, on new rulebases, and published together once they are all ready. The sessions of the previous
+     * KieBases keep running against them, while the new sessions and the next executions of the stateless
+     * sessions of this container use the new version.
+     */
+    public synchronized void updateToVersion(ReleaseId releaseId) {
+        KieProject newProject = new KieModuleKieProject( (InternalKieModule)kr.getKieModule(releaseId), kr );
+        newProject.init();
+
+        Map<String, KieBase> newKBases = new HashMap<String, KieBase>();
+        for ( String kBaseName : kBases.keySet() ) {
+            if ( newProject.getKieBaseModel( kBaseName ) != null ) {
+                // a KieBase that doesn't build is left to getKieBase, that reports its errors
+                KieBase kBase = createKieBase( kBaseName, newProject, new ResultsImpl() );
+                if ( kBase != null ) {
+                    newKBases.put( kBaseName,
+                                   kBase );
+                }
+            }
+        }
+
+        this.kProject = newProject;
+        this.kBases = Collections.unmodifiableMap( newKBases );
+
+        for ( Map.Entry<String, StatelessKieSession> entry : statelessKSessions.entrySet() ) {
+            KieSessionModel kSessionModel = newProject.getKieSessionModel( entry.getKey() );
+            if ( kSessionModel != null && newKBases.containsKey( kSessionModel.getKieBaseModel().getName() ) ) {
+                InternalKnowledgeBase kBase = (InternalKnowledgeBase) newKBases.get( kSessionModel.getKieBaseModel().getName() );
+                ((StatelessKnowledgeSessionImpl) entry.getValue()).setRuleBase( (InternalRuleBase) kBase.getRuleBase() );
+            }
+        }
     }
 
     public KieBase getKieBase() {
@@ -75,6 +108,11 @@ public class KieContainerImpl
     }
 
     public KieBase getKieBase(String kBaseName) {
+        KieBase kBase = kBases.get( kBaseName );
+        return kBase != null ? kBase : createAndPublishKieBase( kBaseName );
+    }
+
+    private synchronized KieBase createAndPublishKieBase(String kBaseName) {
         KieBase kBase = kBases.get( kBaseName );
         if ( kBase == null ) {
             ResultsImpl msgs = new ResultsImpl();
@@ -83,16 +121,16 @@ public class KieContainerImpl
                 // build error, throw runtime exception
                 throw new RuntimeException( "Error while creating KieBase" + msgs.filterMessages( Level.ERROR  ) );
             }
-            if ( kBase != null ) {
-                kBases.put( kBaseName,
-                            kBase );
-            }
+            Map<String, KieBase> newKBases = new HashMap<String, KieBase>( kBases );
+            newKBases.put( kBaseName,
+                           kBase );
+            kBases = Collections.unmodifiableMap( newKBases );
         }
         return kBase;
     }
 
     private KieBase createKieBase(String kBaseName, KieProject kieProject, ResultsImpl messages) {
-        KieBaseModelImpl kBaseModel = (KieBaseModelImpl) kProject.getKieBaseModel(kBaseName);
+        KieBaseModelImpl kBaseModel = (KieBaseModelImpl) kieProject.getKieBaseModel(kBaseName);
         CompositeClassLoader cl = kieProject.getClassLoader(); // the most clone the CL, as each builder and rbase populates it
 
         InternalKieModule kModule = kieProject.getKieModuleForKBase( kBaseModel.getName() );
@@ -194,7 +232,8 @@ public class KieContainerImpl
         return kSession;
     }
 
-    public StatelessKieSession newStatelessKieSession(String kSessionName) {
+    // synchronized with updateToVersion, so it doesn't miss a session created against the previous KieBase
+    public synchronized StatelessKieSession newStatelessKieSession(String kSessionName) {
         KieSessionModelImpl kSessionModel = (KieSessionModelImpl) kProject.getKieSessionModel( kSessionName );
         if ( kSessionName == null ) {
             log.error("Unknown KieSession name: " + kSessionName);
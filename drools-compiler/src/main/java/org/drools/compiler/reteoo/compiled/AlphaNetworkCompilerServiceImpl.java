@@ -0,0 +1,16 @@
+package org.drools.compiler.reteoo.compiled;
+
+import java.util.Collection;
+
+import org.drools.core.common.InternalRuleBase;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.reteoo.compiled.AlphaNetworkCompilerService;
+
+public class AlphaNetworkCompilerServiceImpl implements AlphaNetworkCompilerService {
+
+    public void compile(InternalRuleBase ruleBase,
+                        Collection<ObjectTypeNode> objectTypeNodes) {
+        ObjectTypeNodeCompiler.compile( ruleBase, objectTypeNodes );
+    }
+
+}
@@ -5,21 +5,29 @@ import org.drools.core.base.ValueType;
 import org.drools.compiler.compiler.PackageBuilder;
 import org.drools.compiler.compiler.PackageRegistry;
 import org.drools.compiler.lang.descr.PackageDescr;
+import org.drools.core.common.InternalRuleBase;
 import org.drools.core.reteoo.ObjectTypeNode;
 import org.drools.core.reteoo.compiled.AssertHandler;
 import org.drools.core.reteoo.compiled.CompiledNetwork;
 import org.drools.core.reteoo.compiled.DeclarationsHandler;
 import org.drools.core.reteoo.compiled.HashedAlphasDeclaration;
+import org.drools.core.reteoo.compiled.ModifyHandler;
 import org.drools.core.reteoo.compiled.ObjectTypeNodeParser;
 import org.drools.core.reteoo.compiled.SetNodeReferenceHandler;
 import org.drools.compiler.rule.builder.dialect.java.JavaDialect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 
 /**
- * todo: document
+ * Generates, compiles and loads a {@link CompiledNetwork} for the alpha network below an {@link ObjectTypeNode}.
+ * The generated class evaluates the alpha constraints inline, and asserts or modifies straight into the beta and
+ * left input adapter nodes. Retracts don't go through the alpha network, so they need no generated code.
  */
 public class ObjectTypeNodeCompiler {
+    private static final Logger logger = LoggerFactory.getLogger(ObjectTypeNodeCompiler.class);
+
     private static final String NEWLINE = "\n";
     private static final String PACKAGE_NAME = "org.drools.core.reteoo.compiled";
     private static final String BINARY_PACKAGE_NAME = PACKAGE_NAME.replace('.', '/');
@@ -44,8 +52,9 @@ public class ObjectTypeNodeCompiler {
         this.objectTypeNode = objectTypeNode;
 
         ClassObjectType classObjectType = (ClassObjectType) objectTypeNode.getObjectType();
-        this.className = classObjectType.getClassName();
-        generatedClassSimpleName = "Compiled" + classObjectType.getClassName().replace('.', '_') + "Network";
+        // the canonical name, as nested classes are referred to by it in the source
+        this.className = classObjectType.getClassType().getCanonicalName();
+        generatedClassSimpleName = "Compiled" + classObjectType.getClassName().replace('.', '_').replace('$', '_') + "Network" + objectTypeNode.getId();
     }
 
     private String generateSource() {
@@ -70,6 +79,10 @@ public class ObjectTypeNodeCompiler {
         AssertHandler assertHandler = new AssertHandler(builder, className, hashedAlphaDeclarations.size() > 0);
         parser.accept(assertHandler);
 
+        // create modify method
+        ModifyHandler modifyHandler = new ModifyHandler(builder, className, hashedAlphaDeclarations.size() > 0);
+        parser.accept(modifyHandler);
+
         // end of class
         builder.append("}").append(NEWLINE);
 
@@ -104,7 +117,7 @@ public class ObjectTypeNodeCompiler {
                 Object value = hashedValue;
                 // need to quote value if it is a string
                 if (declaration.getValueType() == ValueType.STRING_TYPE) {
-                    value = "\"" + value + "\"";
+                    value = "\"" + value.toString().replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
                 }
 
                 String nodeId = declaration.getNodeId(hashedValue);
@@ -133,7 +146,7 @@ public class ObjectTypeNodeCompiler {
      * @return binary name of generated class
      */
     private String getBinaryName() {
-        return BINARY_PACKAGE_NAME + "." + generatedClassSimpleName + ".class";
+        return BINARY_PACKAGE_NAME + "/" + generatedClassSimpleName + ".class";
     }
 
     private String getPackageName() {
@@ -172,6 +185,9 @@ public class ObjectTypeNodeCompiler {
         dialect.addSrc(compiler.getBinaryName(), source.getBytes());
         pkgBuilder.compileAll();
         pkgBuilder.updateResults();
+        if (pkgBuilder.hasErrors()) {
+            throw new RuntimeException("Unable to compile the network of " + objectTypeNode + ": " + pkgBuilder.getErrors());
+        }
 
         CompiledNetwork network;
         try {
@@ -186,4 +202,36 @@ public class ObjectTypeNodeCompiler {
 
         return network;
     }
+
+    /**
+     * Sets a {@link CompiledNetwork} on each {@link ObjectTypeNode} of the rule base whose network is
+     * {@link ObjectTypeNodeParser#isCompilable() compilable}. The ObjectTypeNodes whose network can't be
+     * compiled, or fails to, keep propagating through the interpreted network.
+     *
+     * @param ruleBase rule base whose networks are compiled
+     */
+    public static void compileAll(InternalRuleBase ruleBase) {
+        compile(ruleBase, ruleBase.getRete().getObjectTypeNodes());
+    }
+
+    /**
+     * Sets a {@link CompiledNetwork} on each of the given {@link ObjectTypeNode}s whose network is
+     * {@link ObjectTypeNodeParser#isCompilable() compilable}, as {@link #compileAll(InternalRuleBase)} does.
+     *
+     * @param ruleBase        rule base the ObjectTypeNodes belong to
+     * @param objectTypeNodes ObjectTypeNodes whose networks are compiled
+     */
+    public static void compile(InternalRuleBase ruleBase, Collection<ObjectTypeNode> objectTypeNodes) {
+        for (ObjectTypeNode objectTypeNode : objectTypeNodes) {
+            if (!new ObjectTypeNodeParser(objectTypeNode).isCompilable()) {
+                continue;
+            }
+            try {
+                // a builder for each network, so that the errors of one don't fail the others
+                objectTypeNode.setCompiledNetwork(compile(new PackageBuilder(ruleBase), objectTypeNode));
+            } catch (RuntimeException e) {
+                logger.warn("Unable to compile the network of " + objectTypeNode + ", it will stay interpreted", e);
+            }
+        }
+    }
 }
@@ -20,6 +20,7 @@ import org.drools.core.base.ClassObjectType;
 import org.drools.core.base.EvaluatorWrapper;
 import org.drools.core.base.ValueType;
 import org.drools.core.base.evaluators.EvaluatorDefinition.Target;
+import org.drools.core.base.field.DoubleFieldImpl;
 import org.drools.core.base.mvel.ActivationPropertyHandler;
 import org.drools.core.base.mvel.MVELCompilationUnit;
 import org.drools.core.base.mvel.MVELCompilationUnit.PropertyHandlerFactoryFixer;
@@ -90,6 +91,7 @@ import org.mvel2.integration.PropertyHandlerFactory;
 import org.mvel2.util.PropertyTools;
 
 import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -1397,9 +1399,15 @@ public class PatternBuilder
                 vtype = ValueType.determineValueType( o.getClass() );
             }
 
-            field = context.getCompilerFactory().getFieldFactory().getFieldValue(o,
-                                                                                 vtype,
-                                                                                 context.getPackageBuilder().getDateFormats());
+            if ( vtype != null && vtype.isIntegerNumber() && vtype != ValueType.BIG_INTEGER_TYPE && isFractional( o ) ) {
+                // keep the literal as it is instead of truncating it to the field's type,
+                // so the alpha network does not index the constraint on a value it does not compare with
+                field = new DoubleFieldImpl( ((Number) o).doubleValue() );
+            } else {
+                field = context.getCompilerFactory().getFieldFactory().getFieldValue(o,
+                                                                                     vtype,
+                                                                                     context.getPackageBuilder().getDateFormats());
+            }
         } catch ( final Exception e ) {
             // we will fallback to regular preducates, so don't raise an error
             e.printStackTrace();
@@ -1407,6 +1415,14 @@ public class PatternBuilder
         return field;
     }
 
+    private static boolean isFractional(Object o) {
+        if ( o instanceof Double || o instanceof Float ) {
+            double d = ((Number) o).doubleValue();
+            return !Double.isInfinite( d ) && d != Math.floor( d );
+        }
+        return o instanceof BigDecimal && ((BigDecimal) o).signum() != 0 && ((BigDecimal) o).stripTrailingZeros().scale() > 0;
+    }
+
     public static void registerReadAccessor( final RuleBuildContext context,
                                              final ObjectType objectType,
                                              final String fieldName,
@@ -0,0 +1,82 @@
+package org.drools.compiler.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.drools.compiler.Cheese;
+import org.drools.compiler.CommonTestMethodBase;
+import org.drools.core.event.AsyncEventDispatcher;
+import org.drools.core.event.rule.impl.AsyncAgendaEventListener;
+import org.drools.core.event.rule.impl.AsyncWorkingMemoryEventListener;
+import org.junit.Test;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.DefaultAgendaEventListener;
+import org.kie.api.event.rule.DefaultWorkingMemoryEventListener;
+import org.kie.api.event.rule.MatchCreatedEvent;
+import org.kie.api.event.rule.ObjectDeletedEvent;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+public class AsyncEventListenersTest extends CommonTestMethodBase {
+
+    @Test
+    public void testEventsAreDeliveredOnTheDispatcherThread() {
+        String str =
+                "package org.drools.compiler.test\n" +
+                "import org.drools.compiler.Cheese\n" +
+                "rule R1 when\n" +
+                "    Cheese()\n" +
+                "then\n" +
+                "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( str );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+
+        // the name of the thread each event was delivered on
+        final List<String> events = Collections.synchronizedList( new ArrayList<String>() );
+        final List<String> threads = Collections.synchronizedList( new ArrayList<String>() );
+
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher();
+        ksession.addEventListener( new AsyncWorkingMemoryEventListener( new DefaultWorkingMemoryEventListener() {
+            public void objectInserted(ObjectInsertedEvent event) {
+                events.add( "inserted" );
+                threads.add( Thread.currentThread().getName() );
+            }
+
+            public void objectDeleted(ObjectDeletedEvent event) {
+                events.add( "deleted" );
+                threads.add( Thread.currentThread().getName() );
+            }
+        }, dispatcher ) );
+        ksession.addEventListener( new AsyncAgendaEventListener( new DefaultAgendaEventListener() {
+            public void matchCreated(MatchCreatedEvent event) {
+                events.add( "created" );
+                threads.add( Thread.currentThread().getName() );
+            }
+
+            public void afterMatchFired(AfterMatchFiredEvent event) {
+                events.add( "fired" );
+                threads.add( Thread.currentThread().getName() );
+            }
+        }, dispatcher ) );
+
+        FactHandle handle = ksession.insert( new Cheese( "stilton", 10 ) );
+        assertEquals( 1, ksession.fireAllRules() );
+        ksession.delete( handle );
+
+        // delivers the queued events before returning
+        dispatcher.dispose();
+        ksession.dispose();
+
+        assertTrue( events.containsAll( Arrays.asList( "inserted", "created", "fired", "deleted" ) ) );
+        assertEquals( events.size(), threads.size() );
+        for ( String thread : threads ) {
+            assertEquals( "drools-async-events", thread );
+        }
+        assertEquals( 0, dispatcher.getDroppedEvents() );
+    }
+}
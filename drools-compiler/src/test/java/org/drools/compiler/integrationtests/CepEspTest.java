@@ -2516,6 +2516,109 @@ public class CepEspTest extends CommonTestMethodBase {
         assertEquals(1, resultsAfter.size());
     }
 
+    @Test
+    public void testEventExpirationWithTimingWheel() throws Exception {
+        String str =
+                "package org.drools.compiler;\n" +
+                "\n" +
+                "import org.drools.compiler.StockTick;\n" +
+                "\n" +
+                "declare StockTick\n" +
+                "    @role( event )\n" +
+                "    @expires( 1s )\n" +
+                "end\n" +
+                "\n" +
+                "rule R when\n" +
+                "    StockTick()\n" +
+                "then\n" +
+                "end";
+
+        KieBaseConfiguration config = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        config.setOption( EventProcessingOption.STREAM );
+        config.setProperty( "drools.expirationTickSize", "100" );
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( config, str );
+
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setOption( ClockTypeOption.get( ClockType.PSEUDO_CLOCK.getId() ) );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession( conf, null );
+
+        PseudoClockScheduler clock = (PseudoClockScheduler) ksession.getSessionClock();
+
+        // the 3 events expire at 1010, 1020 and 1030, all rounded up to the tick ending at 1100
+        List<EventFactHandle> handles = new ArrayList<EventFactHandle>();
+        for ( int i = 1; i <= 3; i++ ) {
+            clock.advanceTime( 10, TimeUnit.MILLISECONDS );
+            handles.add( (EventFactHandle) ksession.insert( new StockTick( i, "ACME", 10, clock.getCurrentTime() ) ) );
+        }
+        assertEquals( 3, ksession.fireAllRules() );
+
+        clock.advanceTime( 1060, TimeUnit.MILLISECONDS );
+        ksession.fireAllRules();
+        assertEquals( 3, ksession.getFactCount() );
+
+        clock.advanceTime( 10, TimeUnit.MILLISECONDS );
+        ksession.fireAllRules();
+        assertEquals( 0, ksession.getFactCount() );
+        for ( EventFactHandle handle : handles ) {
+            assertTrue( handle.isExpired() );
+        }
+
+        // a new event gets a new bucket
+        ksession.insert( new StockTick( 4, "ACME", 10, clock.getCurrentTime() ) );
+        assertEquals( 1, ksession.fireAllRules() );
+        clock.advanceTime( 1000, TimeUnit.MILLISECONDS );
+        ksession.fireAllRules();
+        assertEquals( 0, ksession.getFactCount() );
+    }
+
+    @Test
+    public void testRetractedEventsLeaveTheirExpirationBucket() throws Exception {
+        String str =
+                "package org.drools.compiler;\n" +
+                "\n" +
+                "import org.drools.compiler.StockTick;\n" +
+                "\n" +
+                "declare StockTick\n" +
+                "    @role( event )\n" +
+                "    @expires( 1s )\n" +
+                "end\n" +
+                "\n" +
+                "rule R when\n" +
+                "    StockTick()\n" +
+                "then\n" +
+                "end";
+
+        KieBaseConfiguration config = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        config.setOption( EventProcessingOption.STREAM );
+        config.setProperty( "drools.expirationTickSize", "100" );
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( config, str );
+
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setOption( ClockTypeOption.get( ClockType.PSEUDO_CLOCK.getId() ) );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession( conf, null );
+
+        PseudoClockScheduler clock = (PseudoClockScheduler) ksession.getSessionClock();
+
+        FactHandle first = ksession.insert( new StockTick( 1, "ACME", 10, clock.getCurrentTime() ) );
+        FactHandle second = ksession.insert( new StockTick( 2, "ACME", 10, clock.getCurrentTime() ) );
+        assertEquals( 2, ksession.fireAllRules() );
+        assertEquals( 1000, clock.getTimeToNextJob() );
+
+        // the job of the bucket is kept while it still holds an event
+        ksession.retract( first );
+        assertEquals( 1000, clock.getTimeToNextJob() );
+
+        ksession.retract( second );
+        assertEquals( -1, clock.getTimeToNextJob() );
+
+        // the tick of the cancelled bucket gets a new one
+        ksession.insert( new StockTick( 3, "ACME", 10, clock.getCurrentTime() ) );
+        assertEquals( 1000, clock.getTimeToNextJob() );
+        clock.advanceTime( 1000, TimeUnit.MILLISECONDS );
+        ksession.fireAllRules();
+        assertEquals( 0, ksession.getFactCount() );
+    }
+
     @Test @Ignore
     public void testEventExpirationDuringAccumulate() throws Exception {
         // DROOLS-70
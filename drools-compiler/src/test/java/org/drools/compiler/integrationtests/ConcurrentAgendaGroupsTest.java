@@ -0,0 +1,215 @@
+package org.drools.compiler.integrationtests;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.drools.compiler.CommonTestMethodBase;
+import org.junit.Test;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.conf.PhreakOption;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+public class ConcurrentAgendaGroupsTest extends CommonTestMethodBase {
+
+    private static final String RULES =
+            "package org.drools.compiler.test\n" +
+            "import java.util.concurrent.CountDownLatch\n" +
+            "import java.util.concurrent.TimeUnit\n" +
+            "global CountDownLatch latch\n" +
+            "global java.util.List list\n" +
+            "rule Service agenda-group \"services\" auto-focus true when\n" +
+            "    $i : Integer()\n" +
+            "then\n" +
+            "    // only succeeds if all the consequences are running at the same time\n" +
+            "    latch.countDown();\n" +
+            "    if ( latch.await( 10, TimeUnit.SECONDS ) ) {\n" +
+            "        insert( \"done\" + $i );\n" +
+            "    }\n" +
+            "    retract( $i );\n" +
+            "end\n" +
+            "rule Collect when\n" +
+            "    $s : String()\n" +
+            "then\n" +
+            "    list.add( $s );\n" +
+            "end\n";
+
+    @Test(timeout = 20000)
+    public void testConsequencesOfConcurrentAgendaGroupsFireConcurrently() throws Exception {
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( PhreakOption.ENABLED, RULES );
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty( "drools.concurrentAgendaGroups", "services" );
+        conf.setProperty( "drools.consequenceThreads", "4" );
+        final StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession( conf, null );
+
+        List<String> list = Collections.synchronizedList( new ArrayList<String>() );
+        ksession.setGlobal( "list", list );
+        ksession.setGlobal( "latch", new CountDownLatch( 4 ) );
+
+        Thread engine = new Thread( new Runnable() {
+            public void run() {
+                ksession.fireUntilHalt();
+            }
+        } );
+        engine.start();
+
+        for ( int i = 0; i < 4; i++ ) {
+            ksession.insert( i );
+        }
+
+        while ( list.size() < 4 ) {
+            Thread.sleep( 10 );
+        }
+        ksession.halt();
+        engine.join();
+
+        Collections.sort( list );
+        assertEquals( "[done0, done1, done2, done3]", list.toString() );
+        // the retractions of the concurrent consequences have been executed too
+        assertEquals( 4, ksession.getFactCount() );
+
+        ksession.dispose();
+    }
+
+    @Test(timeout = 20000)
+    public void testSessionAccessorsOfConcurrentConsequencesGoThroughTheFiringThread() throws Exception {
+        String str =
+                "package org.drools.compiler.test\n" +
+                "global java.util.List list\n" +
+                "rule Service agenda-group \"services\" auto-focus true when\n" +
+                "    $i : Integer()\n" +
+                "then\n" +
+                "    kcontext.getKieRuntime().insert( \"kie\" + $i );\n" +
+                "    drools.getEntryPoint( \"DEFAULT\" ).insert( \"ep\" + $i );\n" +
+                "    drools.getWorkingMemory().insert( \"wm\" + $i );\n" +
+                "end\n" +
+                "rule Collect when\n" +
+                "    $s : String()\n" +
+                "then\n" +
+                "    list.add( $s );\n" +
+                "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( PhreakOption.ENABLED, str );
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty( "drools.concurrentAgendaGroups", "services" );
+        final StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession( conf, null );
+
+        List<String> list = Collections.synchronizedList( new ArrayList<String>() );
+        ksession.setGlobal( "list", list );
+
+        Thread engine = new Thread( new Runnable() {
+            public void run() {
+                ksession.fireUntilHalt();
+            }
+        } );
+        engine.start();
+
+        for ( int i = 0; i < 2; i++ ) {
+            ksession.insert( i );
+        }
+
+        while ( list.size() < 6 ) {
+            Thread.sleep( 10 );
+        }
+        ksession.halt();
+        engine.join();
+
+        Collections.sort( list );
+        assertEquals( "[ep0, ep1, kie0, kie1, wm0, wm1]", list.toString() );
+
+        ksession.dispose();
+    }
+
+    @Test(timeout = 20000)
+    public void testFailingConsequenceReleasesTheRunningOnes() throws Exception {
+        String str =
+                "package org.drools.compiler.test\n" +
+                "import java.util.concurrent.CountDownLatch\n" +
+                "import java.util.concurrent.TimeUnit\n" +
+                "global CountDownLatch latch\n" +
+                "global CountDownLatch failed\n" +
+                "global java.util.List list\n" +
+                "rule Fail agenda-group \"services\" auto-focus true when\n" +
+                "    $i : Integer( this == 0 )\n" +
+                "then\n" +
+                "    latch.countDown();\n" +
+                "    latch.await( 10, TimeUnit.SECONDS );\n" +
+                "    failed.countDown();\n" +
+                "    throw new IllegalStateException( \"failed\" );\n" +
+                "end\n" +
+                "rule Service agenda-group \"services\" auto-focus true when\n" +
+                "    $i : Integer( this != 0 )\n" +
+                "then\n" +
+                "    latch.countDown();\n" +
+                "    failed.await( 10, TimeUnit.SECONDS );\n" +
+                "    // leaves the firing thread the time to stop on the failure\n" +
+                "    Thread.sleep( 100 );\n" +
+                "    try {\n" +
+                "        insert( \"done\" + $i );\n" +
+                "    } finally {\n" +
+                "        list.add( $i );\n" +
+                "    }\n" +
+                "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( PhreakOption.ENABLED, str );
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty( "drools.concurrentAgendaGroups", "services" );
+        conf.setProperty( "drools.consequenceThreads", "4" );
+        final StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession( conf, null );
+
+        List<Integer> list = Collections.synchronizedList( new ArrayList<Integer>() );
+        ksession.setGlobal( "list", list );
+        ksession.setGlobal( "latch", new CountDownLatch( 4 ) );
+        ksession.setGlobal( "failed", new CountDownLatch( 1 ) );
+
+        final List<Throwable> errors = Collections.synchronizedList( new ArrayList<Throwable>() );
+        Thread engine = new Thread( new Runnable() {
+            public void run() {
+                try {
+                    ksession.fireUntilHalt();
+                } catch ( Throwable t ) {
+                    errors.add( t );
+                }
+            }
+        } );
+        engine.start();
+
+        for ( int i = 0; i < 4; i++ ) {
+            ksession.insert( i );
+        }
+
+        engine.join();
+        assertEquals( 1, errors.size() );
+        // fireUntilHalt only returns once the other consequences are done
+        Collections.sort( list );
+        assertEquals( "[1, 2, 3]", list.toString() );
+
+        ksession.dispose();
+    }
+
+    @Test
+    public void testFireAllRulesFiresConcurrentAgendaGroupsSequentially() {
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( PhreakOption.ENABLED, RULES );
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty( "drools.concurrentAgendaGroups", "services" );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession( conf, null );
+
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+        // already open, as a single consequence runs at a time
+        ksession.setGlobal( "latch", new CountDownLatch( 0 ) );
+
+        for ( int i = 0; i < 4; i++ ) {
+            ksession.insert( i );
+        }
+        ksession.fireAllRules();
+
+        assertEquals( 4, list.size() );
+        assertEquals( 4, ksession.getFactCount() );
+
+        ksession.dispose();
+    }
+}
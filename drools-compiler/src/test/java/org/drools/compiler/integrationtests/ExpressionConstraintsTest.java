@@ -1,12 +1,16 @@
 package org.drools.compiler.integrationtests;
 
+import org.drools.compiler.Cheese;
 import org.drools.compiler.CommonTestMethodBase;
 import org.drools.compiler.Mailbox;
 import org.drools.compiler.Mailbox.FolderType;
 import org.drools.compiler.Message;
+import org.drools.compiler.Person;
 import org.junit.Assert;
 import org.junit.Test;
+import org.kie.internal.KieBaseConfiguration;
 import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
 import org.kie.internal.runtime.StatefulKnowledgeSession;
 
 /**
@@ -169,4 +173,35 @@ public class ExpressionConstraintsTest extends CommonTestMethodBase {
         rules = ksession.fireAllRules();
         Assert.assertEquals( 2, rules );
     }
+
+    @Test
+    public void testEagerJitting() {
+        String drl = "package org.drools.compiler.integrationtests\n" +
+                     "import " + Person.class.getCanonicalName() + ";\n" +
+                     "import " + Cheese.class.getCanonicalName() + ";\n" +
+                     "rule R1\n" +
+                     "    when\n" +
+                     "        $p : Person( age > 18 || name == \"mark\" )\n" +
+                     "        Cheese( type == $p.likes, price < $p.age )\n" +
+                     "    then\n" +
+                     "end\n";
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setProperty( "drools.eagerJitting", "true" );
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( kconf, drl );
+        StatefulKnowledgeSession ksession = createKnowledgeSession(kbase);
+
+        ksession.insert(new Person("mario", "stilton", 15));
+        ksession.insert(new Person("mark", "brie", 15));
+        ksession.insert(new Person("edson", "stilton", 30));
+        ksession.insert(new Cheese("stilton", 20));
+        ksession.insert(new Cheese("brie", 10));
+        int rules = ksession.fireAllRules();
+        // mark with brie and edson with stilton, evaluated by the jitted constraints after the first facts
+        Assert.assertEquals( 2, rules );
+
+        ksession.insert(new Person("luca", "brie", 40));
+        rules = ksession.fireAllRules();
+        Assert.assertEquals( 1, rules );
+        ksession.dispose();
+    }
 }
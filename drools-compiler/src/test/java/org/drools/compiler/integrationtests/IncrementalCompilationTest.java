@@ -9,6 +9,11 @@ import org.kie.api.builder.KieBuilder;
 import org.kie.api.builder.KieFileSystem;
 import org.kie.api.runtime.KieContainer;
 import org.kie.api.runtime.KieSession;
+import org.kie.api.runtime.StatelessKieSession;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import static junit.framework.Assert.assertEquals;
 
@@ -56,6 +61,61 @@ public class IncrementalCompilationTest {
         assertEquals( 2, ksession.fireAllRules() );
     }
 
+    @Test
+    public void testUpdateToVersionIsCopyOnWrite() throws Exception {
+        String drl1 = "package org.drools.compiler\n" +
+                "global java.util.List list\n" +
+                "rule R1 when\n" +
+                "   $m : Message()\n" +
+                "then\n" +
+                "   list.add( \"R1\" );\n" +
+                "end\n";
+
+        String drl2 = "package org.drools.compiler\n" +
+                "global java.util.List list\n" +
+                "rule R2 when\n" +
+                "   $m : Message( message == \"Hello World\" )\n" +
+                "then\n" +
+                "   list.add( \"R2\" );\n" +
+                "end\n";
+
+        KieServices ks = KieServices.Factory.get();
+
+        KieFileSystem kfs = ks.newKieFileSystem()
+                .write("src/main/resources/r1.drl", drl1);
+
+        KieBuilder kieBuilder = ks.newKieBuilder( kfs ).buildAll();
+        KieContainer kieContainer = ks.newKieContainer(ks.getRepository().getDefaultReleaseId());
+
+        KieSession ksession = kieContainer.newKieSession();
+        StatelessKieSession statelessKsession = kieContainer.getStatelessKieSession();
+
+        kfs.write("src/main/resources/r2.drl", drl2);
+        ((InternalKieBuilder)kieBuilder).createFileSet("src/main/resources/r2.drl").build();
+
+        kieContainer.updateToVersion(ks.getRepository().getDefaultReleaseId());
+
+        // the session of the previous version keeps running against it
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal("list", list);
+        ksession.insert(new Message("Hello World"));
+        ksession.fireAllRules();
+        assertEquals( "[R1]", list.toString() );
+
+        // while the stateless session of the container adopts the new one at its next execution
+        list = new ArrayList<String>();
+        statelessKsession.setGlobal("list", list);
+        statelessKsession.execute(new Message("Hello World"));
+        Collections.sort(list);
+        assertEquals( "[R1, R2]", list.toString() );
+
+        ksession = kieContainer.newKieSession();
+        list = new ArrayList<String>();
+        ksession.setGlobal("list", list);
+        ksession.insert(new Message("Hello World"));
+        assertEquals( 2, ksession.fireAllRules() );
+    }
+
     @Test
     public void testDeletedFile() throws Exception {
         String drl1 = "package org.drools.compiler\n" +
@@ -1,6 +1,8 @@
 package org.drools.compiler.integrationtests;
 
 import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.drools.compiler.Cheese;
@@ -8,6 +10,7 @@ import org.drools.compiler.CommonTestMethodBase;
 import org.drools.compiler.Person;
 import org.drools.core.base.ClassObjectType;
 import org.drools.core.base.DroolsQuery;
+import org.drools.core.common.DefaultBetaConstraints;
 import org.drools.core.common.InternalRuleBase;
 import org.drools.core.common.SingleBetaConstraints;
 import org.drools.core.common.TripleNonIndexSkipBetaConstraints;
@@ -27,6 +30,8 @@ import org.drools.core.reteoo.ObjectTypeNode;
 import org.drools.core.reteoo.ReteooWorkingMemoryInterface;
 import org.drools.core.rule.IndexableConstraint;
 import org.junit.Test;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.KieBaseConfiguration;
 import org.kie.internal.KnowledgeBase;
 import org.kie.internal.KnowledgeBaseFactory;
 import org.kie.internal.builder.KnowledgeBuilder;
@@ -202,6 +207,49 @@ public class IndexingTest extends CommonTestMethodBase {
         assertTrue( bm.getRightTupleMemory() instanceof RightTupleList );          
     }
     
+    @Test
+    public void testBuildsCompositeIndexOnFiveFields() {
+        String drl = "import org.drools.compiler.Person\n" +
+                "rule R1 when\n" +
+                "   Person( $n : name, $l : likes, $a : age, $h : hair, $s : status )\n" +
+                "   Person( name == $n, likes == $l, age == $a, hair == $h, status == $s )\n" +
+                "then\n" +
+                "end\n";
+
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setProperty( "drools.compositeKeyDepth", "5" );
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( kconf, drl );
+
+        ObjectTypeNode node = getObjectTypeNode( kbase, Person.class );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        ReteooWorkingMemoryInterface wm = ((StatefulKnowledgeSessionImpl)ksession).session;
+
+        LeftInputAdapterNode liaNode = (LeftInputAdapterNode) node.getSinkPropagator().getSinks()[0];
+        JoinNode j2 = ( JoinNode ) liaNode.getSinkPropagator().getSinks()[0];
+
+        DefaultBetaConstraints c = ( DefaultBetaConstraints ) j2.getRawConstraints();
+        assertEquals( 5, c.getIndexCount() );
+        BetaMemory bm = ( BetaMemory ) wm.getNodeMemory( j2 );
+        assertTrue( bm.getLeftTupleMemory() instanceof LeftTupleIndexHashTable );
+        assertTrue( bm.getRightTupleMemory() instanceof RightTupleIndexHashTable );
+
+        Person p1 = new Person( "mark", "cheddar", 37 );
+        p1.setHair( "brown" );
+        p1.setStatus( "single" );
+        Person p2 = new Person( "mark", "cheddar", 37 );
+        p2.setHair( "brown" );
+        p2.setStatus( "single" );
+        Person p3 = new Person( "mark", "cheddar", 37 );
+        p3.setHair( "brown" );
+        p3.setStatus( "married" );
+
+        ksession.insert( p1 );
+        ksession.insert( p2 );
+        ksession.insert( p3 );
+        assertEquals( 5, ksession.fireAllRules() );
+        ksession.dispose();
+    }
+
     @Test
     public void testIndexingOnQueryUnification() throws Exception {
         String str = "";
@@ -299,6 +347,42 @@ public class IndexingTest extends CommonTestMethodBase {
         ksession.dispose();
     }
 
+    @Test
+    public void testRangeIndexedAlphasWithFractionalLiteral() {
+        // the price is an int: the literal must not be truncated to 10 when the alpha nodes are range indexed
+        String str = "import org.drools.compiler.*;\n" +
+                "global java.util.List list\n" +
+                "rule GE when Cheese( price >= 10.5 ) then list.add( \"GE\" ); end\n" +
+                "rule GT when Cheese( price > 10.5 ) then list.add( \"GT\" ); end\n" +
+                "rule LE when Cheese( price <= 10.5 ) then list.add( \"LE\" ); end\n" +
+                "rule LT when Cheese( price < 10.5 ) then list.add( \"LT\" ); end\n" +
+                "rule GE20 when Cheese( price >= 20 ) then list.add( \"GE20\" ); end\n" +
+                "rule LT20 when Cheese( price < 20 ) then list.add( \"LT20\" ); end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString(str);
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+
+        ksession.insert( new Cheese( "cheddar", 10 ) );
+        ksession.fireAllRules();
+        assertEquals( 3, list.size() );
+        assertTrue( list.containsAll( Arrays.asList( "LE", "LT", "LT20" ) ) );
+
+        list.clear();
+        ksession.insert( new Cheese( "stilton", 11 ) );
+        ksession.fireAllRules();
+        assertEquals( 3, list.size() );
+        assertTrue( list.containsAll( Arrays.asList( "GE", "GT", "LT20" ) ) );
+
+        list.clear();
+        ksession.insert( new Cheese( "brie", 20 ) );
+        ksession.fireAllRules();
+        assertEquals( 3, list.size() );
+        assertTrue( list.containsAll( Arrays.asList( "GE", "GT", "GE20" ) ) );
+        ksession.dispose();
+    }
+
     @Test
     public void testNotNode() {
         String str = "import org.drools.compiler.*;\n" +
@@ -423,4 +507,118 @@ public class IndexingTest extends CommonTestMethodBase {
 
         ksession.fireAllRules();
     }
+
+    @Test
+    public void testRangeIndexedJoin() {
+        checkRangeIndexedJoin( false );
+        checkRangeIndexedJoin( true );
+    }
+
+    private void checkRangeIndexedJoin(boolean rangeIndex) {
+        String str = "import org.drools.compiler.*;\n" +
+                "global java.util.List list;\n" +
+                "rule R1 when\n" +
+                "   Person( $name : name, $age : age )\n" +
+                "   Cheese( price > $age, $type : type )\n" +
+                "then\n" +
+                "   list.add( \"R1:\" + $name + \":\" + $type );\n" +
+                "end\n" +
+                "rule R2 when\n" +
+                "   Person( $name : name, $age : age, $doubleAge : doubleAge )\n" +
+                "   Cheese( price > $age && < $doubleAge, $type : type )\n" +
+                "then\n" +
+                "   list.add( \"R2:\" + $name + \":\" + $type );\n" +
+                "end\n";
+
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setProperty( "drools.rangeIndex", String.valueOf( rangeIndex ) );
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( kconf, str );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+
+        Person a = new Person( "A", 10 );
+        FactHandle aFh = ksession.insert( a );
+        ksession.insert( new Cheese( "C1", 15 ) );
+        ksession.insert( new Cheese( "C2", 25 ) );
+        Cheese c3 = new Cheese( "C3", 5 );
+        FactHandle c3Fh = ksession.insert( c3 );
+        ksession.insert( new Person( "B", 20 ) );
+
+        assertEquals( 5, ksession.fireAllRules() );
+        assertTrue( list.contains( "R1:A:C1" ) );
+        assertTrue( list.contains( "R1:A:C2" ) );
+        assertTrue( list.contains( "R1:B:C2" ) );
+        assertTrue( list.contains( "R2:A:C1" ) );
+        assertTrue( list.contains( "R2:B:C2" ) );
+
+        list.clear();
+        c3.setPrice( 30 );
+        ksession.update( c3Fh, c3 );
+        assertEquals( 3, ksession.fireAllRules() );
+        assertTrue( list.contains( "R1:A:C3" ) );
+        assertTrue( list.contains( "R1:B:C3" ) );
+        assertTrue( list.contains( "R2:B:C3" ) );
+
+        list.clear();
+        a.setAge( 26 );
+        ksession.update( aFh, a );
+        assertEquals( 2, ksession.fireAllRules() );
+        assertTrue( list.contains( "R1:A:C3" ) );
+        assertTrue( list.contains( "R2:A:C3" ) );
+
+        ksession.delete( c3Fh );
+        assertEquals( 0, ksession.fireAllRules() );
+        ksession.dispose();
+    }
+
+    @Test
+    public void testRangeIndexedAccumulate() {
+        checkRangeIndexedAccumulate( false );
+        checkRangeIndexedAccumulate( true );
+    }
+
+    private void checkRangeIndexedAccumulate(boolean rangeIndex) {
+        String str = "import org.drools.compiler.*;\n" +
+                "global java.util.List list;\n" +
+                "rule R1 when\n" +
+                "   Person( $name : name, $age : age )\n" +
+                "   $count : Number() from accumulate( Cheese( price > $age ), count( 1 ) )\n" +
+                "then\n" +
+                "   list.add( $name + \":\" + $count );\n" +
+                "end\n";
+
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setProperty( "drools.rangeIndex", String.valueOf( rangeIndex ) );
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( kconf, str );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+
+        Person a = new Person( "A", 10 );
+        FactHandle aFh = ksession.insert( a );
+        ksession.insert( new Person( "B", 20 ) );
+        ksession.insert( new Cheese( "C1", 15 ) );
+        ksession.insert( new Cheese( "C2", 25 ) );
+        Cheese c3 = new Cheese( "C3", 5 );
+        FactHandle c3Fh = ksession.insert( c3 );
+
+        assertEquals( 2, ksession.fireAllRules() );
+        assertTrue( list.contains( "A:2" ) );
+        assertTrue( list.contains( "B:1" ) );
+
+        list.clear();
+        c3.setPrice( 30 );
+        ksession.update( c3Fh, c3 );
+        assertEquals( 2, ksession.fireAllRules() );
+        assertTrue( list.contains( "A:3" ) );
+        assertTrue( list.contains( "B:2" ) );
+
+        list.clear();
+        a.setAge( 26 );
+        ksession.update( aFh, a );
+        assertEquals( 1, ksession.fireAllRules() );
+        assertTrue( list.contains( "A:1" ) );
+        ksession.dispose();
+    }
 }
@@ -2,6 +2,9 @@ package org.drools.compiler.integrationtests;
 
 import java.io.StringReader;
 import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import javax.management.AttributeNotFoundException;
 import javax.management.InstanceNotFoundException;
@@ -23,6 +26,7 @@ import org.kie.internal.builder.KnowledgeBuilderFactory;
 import org.kie.api.conf.EventProcessingOption;
 import org.kie.api.conf.MBeansOption;
 import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
 import org.kie.api.io.ResourceType;
 
 public class MBeansMonitoringTest {
@@ -70,6 +74,56 @@ public class MBeansMonitoringTest {
         Assert.assertEquals( 10001, ((Number)expOffset).longValue() );
     }
 
+    @Test
+    public void testFiringLatency() throws Exception {
+        String drl = "package org.drools.compiler.test\n" +
+                     "global java.util.List list\n" +
+                     "rule X\n" +
+                     "when\n" +
+                     "    $s : String()\n" +
+                     "then\n" +
+                     "    list.add( $s );\n" +
+                     "end";
+        KieBaseConfiguration conf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        conf.setOption( MBeansOption.ENABLED );
+
+        KnowledgeBase kbase = loadKnowledgeBase( "latencyKbase",
+                                                 drl,
+                                                 conf );
+        final StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        List<String> list = Collections.synchronizedList( new ArrayList<String>() );
+        ksession.setGlobal( "list", list );
+
+        Thread engine = new Thread( new Runnable() {
+            public void run() {
+                ksession.fireUntilHalt();
+            }
+        } );
+        engine.start();
+        ksession.insert( "wake up" );
+
+        // the latency is recorded when fireUntilHalt picks up the insertion, before it fires the rule
+        long deadline = System.currentTimeMillis() + 10000;
+        while ( list.isEmpty() && System.currentTimeMillis() < deadline ) {
+            Thread.sleep( 10 );
+        }
+        ksession.halt();
+        engine.join();
+        Assert.assertEquals( 1, list.size() );
+
+        MBeanServer mbserver = ManagementFactory.getPlatformMBeanServer();
+        ObjectName ksessionOn = new ObjectName( "org.drools.kbases:type=latencyKbase,group=Sessions,sessionId=Session-" + ksession.getId() );
+        long count = ((Number) mbserver.getAttribute( ksessionOn, "FiringLatencyCount" )).longValue();
+        double average = ((Number) mbserver.getAttribute( ksessionOn, "AverageFiringLatency" )).doubleValue();
+        double max = ((Number) mbserver.getAttribute( ksessionOn, "MaxFiringLatency" )).doubleValue();
+        Assert.assertTrue( count >= 1 );
+        Assert.assertTrue( max > 0 );
+        Assert.assertTrue( average > 0 );
+        Assert.assertTrue( max >= average );
+
+        ksession.dispose();
+    }
+
     private KnowledgeBase loadKnowledgeBase( String id,
                                              String drl,
                                              KieBaseConfiguration conf ) {
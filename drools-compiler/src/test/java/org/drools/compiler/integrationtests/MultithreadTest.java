@@ -24,6 +24,7 @@ import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorCompletionService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.drools.compiler.CommonTestMethodBase;
 import org.drools.compiler.StockTick;
@@ -33,6 +34,7 @@ import org.kie.internal.KnowledgeBase;
 import org.kie.internal.KieBaseConfiguration;
 import org.kie.internal.KnowledgeBaseFactory;
 import org.kie.api.conf.EventProcessingOption;
+import org.kie.api.runtime.KieSessionConfiguration;
 import org.kie.internal.runtime.StatefulKnowledgeSession;
 import org.kie.api.runtime.rule.FactHandle;
 import org.kie.api.runtime.rule.SessionEntryPoint;
@@ -103,6 +105,117 @@ public class MultithreadTest extends CommonTestMethodBase {
         ksession.dispose();
     }
 
+    @Test(timeout = 10000)
+    public void testConcurrentIngestion() throws Exception {
+        String str = "import " + MultithreadTest.Bean.class.getCanonicalName() + "\n" +
+                "global java.util.concurrent.atomic.AtomicInteger counter\n" +
+                "\n" +
+                "rule \"R\"\n" +
+                "when\n" +
+                "    $a : Bean( seed != 1 )\n" +
+                "then\n" +
+                "    counter.incrementAndGet();\n" +
+                "end";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString(str);
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty("drools.concurrentIngestion", "true");
+        final StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession(conf, null);
+        AtomicInteger counter = new AtomicInteger(0);
+        ksession.setGlobal("counter", counter);
+
+        final int OBJECT_NR = 1000;
+        final int THREAD_NR = 8;
+
+        Thread[] producers = new Thread[THREAD_NR];
+        for (int i = 0; i < THREAD_NR; i++) {
+            producers[i] = new Thread(new Runnable() {
+                public void run() {
+                    for (int i = 0; i < OBJECT_NR; i++) {
+                        ksession.insert(new Bean(i));
+                    }
+                }
+            });
+            producers[i].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        assertEquals(OBJECT_NR * THREAD_NR, ksession.getFactCount());
+        ksession.fireAllRules();
+        assertEquals((OBJECT_NR - 1) * THREAD_NR, counter.get());
+        ksession.dispose();
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrentIngestionOfTheSameObjects() throws Exception {
+        String str = "import " + MultithreadTest.Bean.class.getCanonicalName() + "\n" +
+                "global java.util.concurrent.atomic.AtomicInteger counter\n" +
+                "\n" +
+                "rule \"R\"\n" +
+                "when\n" +
+                "    $a : Bean( seed != 1 )\n" +
+                "then\n" +
+                "    counter.incrementAndGet();\n" +
+                "end";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString(str);
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty("drools.concurrentIngestion", "true");
+        final StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession(conf, null);
+        AtomicInteger counter = new AtomicInteger(0);
+        ksession.setGlobal("counter", counter);
+
+        final int OBJECT_NR = 1000;
+        final int THREAD_NR = 8;
+
+        final Bean[] beans = new Bean[OBJECT_NR];
+        for (int i = 0; i < OBJECT_NR; i++) {
+            beans[i] = new Bean(i);
+        }
+        // already stored when the producers insert it again
+        FactHandle stored = ksession.insert(beans[0]);
+
+        final FactHandle[][] handles = new FactHandle[THREAD_NR][OBJECT_NR];
+        Thread[] producers = new Thread[THREAD_NR];
+        for (int i = 0; i < THREAD_NR; i++) {
+            final int producer = i;
+            producers[i] = new Thread(new Runnable() {
+                public void run() {
+                    for (int i = 0; i < OBJECT_NR; i++) {
+                        handles[producer][i] = ksession.insert(beans[i]);
+                    }
+                }
+            });
+            producers[i].start();
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+
+        for (int i = 0; i < OBJECT_NR; i++) {
+            for (int producer = 1; producer < THREAD_NR; producer++) {
+                assertSame(handles[0][i], handles[producer][i]);
+            }
+        }
+        assertSame(stored, handles[0][0]);
+        // inserted again once drained
+        assertSame(stored, ksession.insert(beans[0]));
+
+        assertEquals(OBJECT_NR, ksession.getFactCount());
+        ksession.fireAllRules();
+        assertEquals(OBJECT_NR - 1, counter.get());
+
+        // the handles returned to the producers are alive
+        ksession.update(handles[THREAD_NR - 1][2], beans[2]);
+        ksession.fireAllRules();
+        assertEquals(OBJECT_NR, counter.get());
+        ksession.delete(handles[THREAD_NR - 1][3]);
+        assertEquals(OBJECT_NR - 1, ksession.getFactCount());
+        ksession.dispose();
+    }
+
     public static class Bean {
 
         private int seed;
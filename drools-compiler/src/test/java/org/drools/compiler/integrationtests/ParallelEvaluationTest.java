@@ -0,0 +1,68 @@
+package org.drools.compiler.integrationtests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.compiler.Cheese;
+import org.drools.compiler.CommonTestMethodBase;
+import org.drools.compiler.Person;
+import org.junit.Test;
+import org.kie.internal.KieBaseConfiguration;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.conf.PhreakOption;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+public class ParallelEvaluationTest extends CommonTestMethodBase {
+
+    private String getRules(int ruleCount) {
+        StringBuilder sb = new StringBuilder();
+        sb.append( "package org.drools.compiler.test\n" );
+        sb.append( "import org.drools.compiler.Cheese\n" );
+        sb.append( "import org.drools.compiler.Person\n" );
+        sb.append( "global java.util.List list\n" );
+        for ( int i = 0; i < ruleCount; i++ ) {
+            sb.append( "rule R" + i + " salience " + ( ruleCount - i ) + "\n" );
+            sb.append( "when\n" );
+            sb.append( "    $c : Cheese( price > " + i + " )\n" );
+            sb.append( "    $p : Person( age > " + i + ", likes == $c.type )\n" );
+            sb.append( "    not Cheese( price == " + ( 100 + i ) + " )\n" );
+            sb.append( "then\n" );
+            sb.append( "    list.add( \"R" + i + ":\" + $p.getName() );\n" );
+            sb.append( "end\n" );
+        }
+        return sb.toString();
+    }
+
+    private List<String> fire(boolean parallel, int ruleCount) {
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setProperty( "drools.parallelEvaluation", Boolean.toString( parallel ) );
+        kconf.setProperty( "drools.maxThreads", "4" );
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( null, kconf, PhreakOption.ENABLED, getRules( ruleCount ) );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+
+        for ( int i = 0; i < 20; i++ ) {
+            ksession.insert( new Cheese( "cheese" + ( i % 3 ), i ) );
+            ksession.insert( new Person( "person" + i, "cheese" + ( i % 3 ), i ) );
+        }
+        ksession.fireAllRules();
+
+        ksession.insert( new Cheese( "stilton", 105 ) );
+        ksession.fireAllRules();
+
+        ksession.dispose();
+        return list;
+    }
+
+    @Test
+    public void testParallelEvaluationFiresAsSequential() {
+        List<String> sequential = fire( false, 16 );
+        List<String> parallel = fire( true, 16 );
+
+        assertFalse( sequential.isEmpty() );
+        assertEquals( sequential, parallel );
+    }
+}
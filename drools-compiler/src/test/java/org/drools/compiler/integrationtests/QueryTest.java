@@ -19,12 +19,10 @@ import org.drools.compiler.Worker;
 import org.drools.core.base.ClassObjectType;
 import org.drools.core.base.DroolsQuery;
 import org.drools.core.common.AbstractWorkingMemory;
-import org.drools.core.common.DefaultFactHandle;
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.InternalRuleBase;
-import org.drools.core.util.Entry;
-import org.drools.core.util.ObjectHashMap.ObjectEntry;
-import org.drools.core.util.ObjectHashSet;
+import org.drools.core.util.IntHashMap;
+import org.drools.core.util.Iterator;
 import org.drools.core.impl.StatefulKnowledgeSessionImpl;
 import org.drools.core.reteoo.EntryPointNode;
 import org.drools.core.reteoo.ObjectTypeNode;
@@ -385,19 +383,13 @@ public class QueryTest extends CommonTestMethodBase {
 
         ObjectType key = new ClassObjectType( DroolsQuery.class );
         ObjectTypeNode droolsQueryNode = obnodes.get( key );
-        ObjectHashSet droolsQueryMemory = ((ObjectTypeNodeMemory) abstractWorkingMemory.getNodeMemory( droolsQueryNode )).memory;
+        IntHashMap<InternalFactHandle> droolsQueryMemory = ((ObjectTypeNodeMemory) abstractWorkingMemory.getNodeMemory( droolsQueryNode )).memory;
         assertEquals( 0,
                       droolsQueryMemory.size() );
 
-        Entry[] entries = droolsQueryMemory.getTable();
-        int entryCounter = 0;
-        for ( Entry entry : entries ) {
-            if ( entry != null ) {
-                entryCounter++;
-                ObjectEntry oEntry = (ObjectEntry) entry;
-                DefaultFactHandle factHandle = (DefaultFactHandle) oEntry.getValue();
-                assertNull( factHandle.getObject() );
-            }
+        Iterator<InternalFactHandle> it = droolsQueryMemory.iterator();
+        for ( InternalFactHandle factHandle = it.next(); factHandle != null; factHandle = it.next() ) {
+            assertNull( factHandle.getObject() );
         }
     }
 
@@ -7,12 +7,14 @@ import java.util.List;
 
 import org.drools.compiler.Cheese;
 import org.drools.compiler.CommonTestMethodBase;
+import org.drools.compiler.Person;
 import org.drools.core.FactHandle;
 import org.drools.core.RuleBase;
 import org.drools.core.RuleBaseConfiguration;
 import org.drools.core.RuleBaseFactory;
 import org.drools.core.StatefulSession;
 import org.drools.compiler.compiler.PackageBuilder;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
 import org.drools.core.rule.Package;
 import org.junit.Test;
 import org.kie.internal.KnowledgeBase;
@@ -65,6 +67,56 @@ public class StatefulSessionTest extends CommonTestMethodBase {
         assertSame( o, stilton );
     }
     
+    @Test
+    public void testInsertUpdateDeleteAll() throws Exception {
+        String str = "";
+        str += "package org.kie \n";
+        str += "import org.drools.compiler.Cheese \n";
+        str += "import org.drools.compiler.Person \n";
+        str += "global java.util.List list \n";
+        str += "rule rule1 \n";
+        str += "  when \n";
+        str += "    $c : Cheese( price > 10 ) \n";
+        str += "    Person( likes == $c.type ) \n";
+        str += "  then \n";
+        str += "    list.add( $c ); \n";
+        str += "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( str );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession();
+        List<Cheese> results = new ArrayList<Cheese>();
+        ksession.setGlobal( "list", results );
+
+        StatefulKnowledgeSessionImpl session = (StatefulKnowledgeSessionImpl) ksession;
+        List<Object> facts = new ArrayList<Object>();
+        for ( int i = 0; i < 10; i++ ) {
+            facts.add( new Cheese( "type" + i, i * 5 ) );
+        }
+        facts.add( new Person( "mark", "type1" ) );
+        facts.add( new Person( "edson", "type3" ) );
+        facts.add( facts.get( 0 ) );
+
+        List<? extends org.kie.api.runtime.rule.FactHandle> handles = session.insertAll( facts );
+        assertEquals( facts.size(), handles.size() );
+        assertSame( handles.get( 0 ), handles.get( facts.size() - 1 ) );
+        assertEquals( 12, ksession.getFactCount() );
+
+        ksession.fireAllRules();
+        assertEquals( 1, results.size() );
+        assertSame( facts.get( 3 ), results.get( 0 ) );
+
+        results.clear();
+        for ( int i = 0; i < 10; i++ ) {
+            ((Cheese) facts.get( i )).setPrice( 100 );
+        }
+        session.updateAll( handles.subList( 0, 10 ) );
+        ksession.fireAllRules();
+        assertEquals( 2, results.size() );
+
+        session.deleteAll( handles.subList( 0, 12 ) );
+        assertEquals( 0, ksession.getFactCount() );
+    }
+
     @Test
     public void testSequentialException() {
         RuleBaseConfiguration config = new RuleBaseConfiguration();
@@ -35,6 +35,8 @@ import org.kie.internal.runtime.StatelessKnowledgeSession;
 import org.kie.api.io.Resource;
 import org.kie.api.io.ResourceType;
 import org.kie.api.runtime.ExecutionResults;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.conf.ClockTypeOption;
 
 public class StatelessSessionTest extends CommonTestMethodBase {
     final List list = new ArrayList();
@@ -442,6 +444,76 @@ public class StatelessSessionTest extends CommonTestMethodBase {
         return session;
     }
     
+    @Test
+    public void testPooledWorkingMemoriesAreReset() throws Exception {
+        String str =
+                "package org.drools.compiler.test\n" +
+                "import org.drools.compiler.Cheese\n" +
+                "global java.util.List list\n" +
+                "rule CountCheeses when\n" +
+                "    $n : Number() from accumulate( Cheese(), count( 1 ) )\n" +
+                "then\n" +
+                "    list.add( $n.intValue() + \":\" + System.identityHashCode( drools.getWorkingMemory() ) );\n" +
+                "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( str );
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty( "drools.statelessPoolSize", "2" );
+        StatelessKnowledgeSession session = kbase.newStatelessKnowledgeSession( conf );
+
+        List<String> results = new ArrayList<String>();
+        session.setGlobal( "list", results );
+        for ( int i = 0; i < 5; i++ ) {
+            session.execute( Arrays.asList( new Cheese( "stilton", i ), new Cheese( "brie", i ) ) );
+        }
+
+        // each execution only sees its own facts, but all of them ran on the same working memory
+        assertEquals( 5, results.size() );
+        Set<String> distinct = new HashSet<String>( results );
+        assertEquals( 1, distinct.size() );
+        assertTrue( results.get( 0 ).startsWith( "2:" ) );
+
+        // a change of the rulebase discards the pooled working memories
+        kbase.addKnowledgePackages( loadKnowledgePackagesFromString( str.replace( "CountCheeses", "CountCheeses2" ) ) );
+        session.execute( new Cheese( "stilton", 10 ) );
+        assertEquals( 7, results.size() );
+        assertTrue( results.get( 5 ).startsWith( "1:" ) );
+        assertFalse( distinct.contains( results.get( 5 ) ) );
+    }
+
+    @Test
+    public void testPooledWorkingMemoriesResetTheClockAndActivationNumbers() throws Exception {
+        String str =
+                "package org.drools.compiler.test\n" +
+                "import org.drools.compiler.Cheese\n" +
+                "import org.kie.api.time.SessionPseudoClock\n" +
+                "global java.util.List list\n" +
+                "rule AdvanceClock when\n" +
+                "    Cheese()\n" +
+                "then\n" +
+                "    SessionPseudoClock clock = (SessionPseudoClock) kcontext.getKieRuntime().getSessionClock();\n" +
+                "    list.add( clock.getCurrentTime() + \":\" + ((org.drools.core.spi.Activation) kcontext.getMatch()).getActivationNumber() +\n" +
+                "              \":\" + System.identityHashCode( drools.getWorkingMemory() ) );\n" +
+                "    clock.advanceTime( 10, java.util.concurrent.TimeUnit.SECONDS );\n" +
+                "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( str );
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty( "drools.statelessPoolSize", "1" );
+        conf.setOption( ClockTypeOption.get( "pseudo" ) );
+        StatelessKnowledgeSession session = kbase.newStatelessKnowledgeSession( conf );
+
+        List<String> results = new ArrayList<String>();
+        session.setGlobal( "list", results );
+        session.execute( new Cheese( "stilton", 10 ) );
+        session.execute( new Cheese( "stilton", 10 ) );
+
+        // the second execution reuses the working memory of the first one, as if it were new
+        assertEquals( 2, results.size() );
+        assertTrue( results.get( 0 ).startsWith( "0:" ) );
+        assertEquals( results.get( 0 ), results.get( 1 ) );
+    }
+
     private StatelessKnowledgeSession getSession2(String fileName) throws Exception {
         return getSession2( ResourceFactory.newClassPathResource( fileName, getClass() ) );
     }
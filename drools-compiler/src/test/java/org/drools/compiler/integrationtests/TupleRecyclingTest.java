@@ -0,0 +1,95 @@
+package org.drools.compiler.integrationtests;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.compiler.Cheese;
+import org.drools.compiler.CommonTestMethodBase;
+import org.drools.compiler.Person;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.reteoo.TuplePool;
+import org.junit.Test;
+import org.kie.api.runtime.KieSessionConfiguration;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.conf.PhreakOption;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+public class TupleRecyclingTest extends CommonTestMethodBase {
+
+    private static final String RULES =
+            "package org.drools.compiler.test\n" +
+            "import org.drools.compiler.Cheese\n" +
+            "import org.drools.compiler.Person\n" +
+            "global java.util.List list\n" +
+            "rule R1 when\n" +
+            "    $c : Cheese()\n" +
+            "    $p : Person( likes == $c.type )\n" +
+            "    Person( this != $p, likes == $c.type, age == $p.age )\n" +
+            "then\n" +
+            "    list.add( $p.getName() + \":\" + $c.getType() );\n" +
+            "end\n";
+
+    private List<String> churn(boolean tupleRecycling) {
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( PhreakOption.ENABLED, RULES );
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty( "drools.tupleRecycling", Boolean.toString( tupleRecycling ) );
+        StatefulKnowledgeSession ksession = kbase.newStatefulKnowledgeSession( conf, null );
+
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+
+        for ( int round = 0; round < 10; round++ ) {
+            FactHandle[] cheeses = new FactHandle[3];
+            for ( int i = 0; i < cheeses.length; i++ ) {
+                cheeses[i] = ksession.insert( new Cheese( "cheese" + i, i ) );
+            }
+            Person[] persons = new Person[30];
+            FactHandle[] handles = new FactHandle[persons.length];
+            for ( int i = 0; i < persons.length; i++ ) {
+                persons[i] = new Person( "person" + i, "cheese" + ( i % 3 ), ( i + round ) % 7 );
+                handles[i] = ksession.insert( persons[i] );
+            }
+            ksession.fireAllRules();
+
+            // modifies and deletes both sides of the joins, so that their tuples are released and taken again
+            for ( int i = 0; i < persons.length; i += 2 ) {
+                persons[i].setLikes( "cheese" + ( ( i + 1 ) % 3 ) );
+                ksession.update( handles[i], persons[i] );
+            }
+            ksession.delete( cheeses[round % 3] );
+            ksession.fireAllRules();
+
+            for ( FactHandle handle : handles ) {
+                ksession.delete( handle );
+            }
+            for ( int i = 0; i < cheeses.length; i++ ) {
+                if ( i != round % 3 ) {
+                    ksession.delete( cheeses[i] );
+                }
+            }
+            ksession.fireAllRules();
+        }
+
+        TuplePool tuplePool = ((StatefulKnowledgeSessionImpl) ksession).session.getTuplePool();
+        if ( tupleRecycling ) {
+            assertTrue( tuplePool.getRightTuplesSize() > 0 );
+            assertTrue( tuplePool.getLeftTuplesSize() > 0 );
+        } else {
+            assertNull( tuplePool );
+        }
+
+        ksession.dispose();
+        return list;
+    }
+
+    @Test
+    public void testTupleRecyclingFiresAsWithoutRecycling() {
+        List<String> expected = churn( false );
+        List<String> recycled = churn( true );
+
+        assertFalse( expected.isEmpty() );
+        assertEquals( expected, recycled );
+    }
+}
@@ -1,16 +1,28 @@
 package org.drools.compiler.integrationtests;
 
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.io.StringReader;
+import java.util.List;
 
 import org.drools.core.RuleBase;
 import org.drools.core.RuleBaseFactory;
 import org.drools.core.StatefulSession;
+import org.drools.core.audit.BinaryAuditLog;
+import org.drools.core.audit.WorkingMemoryBinaryFileLogger;
 import org.drools.core.audit.WorkingMemoryFileLogger;
+import org.drools.core.audit.event.ActivationLogEvent;
+import org.drools.core.audit.event.LogEvent;
+import org.drools.core.audit.event.ObjectLogEvent;
 import org.drools.compiler.compiler.PackageBuilder;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import static org.junit.Assert.*;
+
 public class WorkingMemoryLoggerTest {
 
     private static final Reader DRL = new InputStreamReader(
@@ -33,4 +45,53 @@ public class WorkingMemoryLoggerTest {
         }
     }
 
+    @Test(timeout = 10000)
+    public void testBinaryLogConvertsToXml() throws Exception {
+        String drl = "package org.drools.compiler.test\n" +
+                     "rule Hello when\n" +
+                     "    $s : String()\n" +
+                     "then\n" +
+                     "end\n";
+        PackageBuilder builder = new PackageBuilder();
+        builder.addPackageFromDrl( new StringReader( drl ) );
+        RuleBase ruleBase = RuleBaseFactory.newRuleBase();
+        ruleBase.addPackage( builder.getPackage() );
+
+        File dir = File.createTempFile( "audit", "" );
+        dir.delete();
+        dir.mkdir();
+        String fileName = new File( dir, LOG ).getPath();
+
+        StatefulSession session = ruleBase.newStatefulSession();
+        WorkingMemoryBinaryFileLogger logger = new WorkingMemoryBinaryFileLogger( session );
+        logger.setFileName( fileName );
+        session.insert( "hello" );
+        session.fireAllRules();
+        logger.stop();
+        session.dispose();
+
+        List<LogEvent> events = BinaryAuditLog.readEvents( fileName + ".bin" );
+        assertEquals( 0, logger.getDroppedEvents() );
+        boolean inserted = false;
+        boolean fired = false;
+        for ( LogEvent event : events ) {
+            if ( event.getType() == LogEvent.INSERTED ) {
+                inserted |= "hello".equals( ((ObjectLogEvent) event).getObjectToString() );
+            } else if ( event.getType() == LogEvent.AFTER_ACTIVATION_FIRE ) {
+                fired |= "Hello".equals( ((ActivationLogEvent) event).getRule() );
+            }
+        }
+        assertTrue( inserted );
+        assertTrue( fired );
+
+        BinaryAuditLog.convertToXml( fileName + ".bin", fileName + ".log" );
+        BufferedReader reader = new BufferedReader( new FileReader( fileName + ".log" ) );
+        try {
+            assertEquals( "<object-stream>", reader.readLine() );
+            assertEquals( "<org.drools.core.audit.event.ObjectLogEvent>", reader.readLine() );
+        } finally {
+            reader.close();
+        }
+    }
+
 }
@@ -44,13 +44,9 @@ public class MannersBenchmark {
         conf.setPhreakEnabled(true);
         
         final RuleBase ruleBase = RuleBaseFactory.newRuleBase(conf);
+        // run with -Ddrools.compiledAlphaNetwork=true to compare with the compiled alpha network
         ruleBase.addPackage(pkg);
 
-//        for (ObjectTypeNode node : ((InternalRuleBase) ruleBase).getRete().getObjectTypeNodes()) {
-//            CompiledNetwork compiledNetwork = ObjectTypeNodeCompiler.compile(builder, node);
-//            node.setCompiledNetwork(compiledNetwork);
-//        }
-
         String filename;
         if (args.length != 0) {
             String arg = args[0];
@@ -57,6 +57,8 @@ import org.drools.core.impl.StatefulKnowledgeSessionImpl;
 import org.drools.compiler.integrationtests.SerializationHelper;
 import org.drools.core.marshalling.impl.ClassObjectMarshallingStrategyAcceptor;
 import org.drools.core.marshalling.impl.IdentityPlaceholderResolverStrategy;
+import org.drools.core.marshalling.impl.MarshallingConfigurationImpl;
+import org.drools.core.marshalling.impl.ProtobufMarshaller;
 import org.drools.core.marshalling.impl.RuleBaseNodes;
 import org.drools.core.reteoo.MockTupleSource;
 import org.drools.core.reteoo.ObjectTypeNode;
@@ -3085,6 +3087,121 @@ public class MarshallingTest extends CommonTestMethodBase {
                       facts.size() );
     }
 
+    @Test
+    public void testStreamingMarshalling() throws Exception {
+        String str = "package org.drools.compiler\n" +
+                     "global java.util.List list\n" +
+                     "rule \"stilton lovers\"\n" +
+                     "when\n" +
+                     "    $p : Person( cheese != null, cheese.type == \"stilton\" )\n" +
+                     "then\n" +
+                     "    list.add( $p );\n" +
+                     "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( str );
+        KieSession ksession = kbase.newStatefulKnowledgeSession();
+        ksession.setGlobal( "list",
+                            new ArrayList() );
+
+        // more facts than fit in a single record, all sharing the same cheese
+        Cheese stilton = new Cheese( "stilton",
+                                     10 );
+        for ( int i = 0; i < 2500; i++ ) {
+            Person person = new Person( "person" + i,
+                                        i % 100 );
+            person.setCheese( stilton );
+            ksession.insert( person );
+        }
+        ksession.insert( stilton );
+
+        MarshallingConfigurationImpl marshallingConfig = new MarshallingConfigurationImpl();
+        marshallingConfig.setStreaming( true );
+        Marshaller marshaller = new ProtobufMarshaller( kbase,
+                                                        marshallingConfig );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        marshaller.marshall( out,
+                             ksession );
+        ksession.dispose();
+
+        ksession = marshaller.unmarshall( new ByteArrayInputStream( out.toByteArray() ) );
+        ksession.setGlobal( "list",
+                            new ArrayList() );
+
+        assertEquals( 2501,
+                      ksession.getFactCount() );
+        assertEquals( 2500,
+                      ksession.fireAllRules() );
+
+        // the facts of all the records still share the same cheese
+        List<Person> list = (List<Person>) ksession.getGlobal( "list" );
+        Cheese cheese = list.get( 0 ).getCheese();
+        for ( Person person : list ) {
+            assertSame( cheese,
+                        person.getCheese() );
+        }
+        assertTrue( ksession.getObjects().contains( cheese ) );
+
+        // the default marshaller reads the streaming format as well
+        ksession = MarshallerFactory.newMarshaller( kbase ).unmarshall( new ByteArrayInputStream( out.toByteArray() ) );
+        assertEquals( 2501,
+                      ksession.getFactCount() );
+    }
+
+    @Test
+    public void testConcurrentUnmarshalling() throws Exception {
+        String str = "package org.drools.compiler\n" +
+                     "global java.util.List list\n" +
+                     "rule \"adults\"\n" +
+                     "when\n" +
+                     "    $p : Person( age >= 18 )\n" +
+                     "then\n" +
+                     "    list.add( $p.getName() );\n" +
+                     "end\n";
+
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( str );
+        KieSession ksession = kbase.newStatefulKnowledgeSession();
+        for ( int i = 0; i < 5000; i++ ) {
+            ksession.insert( new Person( "person" + i,
+                                         i % 50 ) );
+        }
+
+        MarshallingConfigurationImpl marshallingConfig = new MarshallingConfigurationImpl();
+        marshallingConfig.setUnmarshallingThreads( 4 );
+        Marshaller marshaller = new ProtobufMarshaller( kbase,
+                                                        marshallingConfig );
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        marshaller.marshall( out,
+                             ksession );
+        List<String> names = new ArrayList<String>();
+        for ( Object object : ksession.getObjects() ) {
+            names.add( ((Person) object).getName() );
+        }
+        ksession.dispose();
+
+        ksession = marshaller.unmarshall( new ByteArrayInputStream( out.toByteArray() ) );
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list",
+                            list );
+
+        assertEquals( 5000,
+                      ksession.getFactCount() );
+        List<String> unmarshalledNames = new ArrayList<String>();
+        for ( Object object : ksession.getObjects() ) {
+            unmarshalledNames.add( ((Person) object).getName() );
+        }
+        Collections.sort( names );
+        Collections.sort( unmarshalledNames );
+        assertEquals( names,
+                      unmarshalledNames );
+
+        assertEquals( 3200,
+                      ksession.fireAllRules() );
+        assertEquals( 3200,
+                      list.size() );
+    }
+
     private KieSession marsallStatefulKnowledgeSession(KieSession ksession) throws IOException,
                                                                                                        ClassNotFoundException {
         Globals globals = ksession.getGlobals();
@@ -0,0 +1,138 @@
+package org.drools.compiler.reteoo.compiled;
+
+import org.drools.compiler.Cheese;
+import org.drools.compiler.CommonTestMethodBase;
+import org.drools.core.base.ClassObjectType;
+import org.drools.core.common.InternalRuleBase;
+import org.drools.core.impl.KnowledgeBaseImpl;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.reteoo.compiled.CompiledNetwork;
+import org.junit.Test;
+import org.kie.api.io.ResourceType;
+import org.kie.api.runtime.rule.FactHandle;
+import org.kie.internal.KieBaseConfiguration;
+import org.kie.internal.KnowledgeBase;
+import org.kie.internal.KnowledgeBaseFactory;
+import org.kie.internal.builder.KnowledgeBuilder;
+import org.kie.internal.builder.KnowledgeBuilderFactory;
+import org.kie.internal.io.ResourceFactory;
+import org.kie.internal.runtime.StatefulKnowledgeSession;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class ObjectTypeNodeCompilerTest extends CommonTestMethodBase {
+
+    private static final String DRL =
+            "import " + Cheese.class.getCanonicalName() + ";\n" +
+            "global java.util.List list;\n" +
+            "rule R1 when Cheese( type == \"stilton\" ) then list.add( \"stilton\" ); end\n" +
+            "rule R2 when Cheese( type == \"brie\" ) then list.add( \"brie\" ); end\n" +
+            "rule R3 when Cheese( type == \"cheddar\" ) then list.add( \"cheddar\" ); end\n" +
+            "rule R4 when Cheese( price > 10 ) then list.add( \"expensive\" ); end\n" +
+            "rule R5 when Cheese( price > 10, type == \"brie\" ) then list.add( \"expensive brie\" ); end\n";
+
+    @Test
+    public void testCompiledNetworkMatchesInterpretedOne() {
+        List<String> interpreted = runScenario( false );
+        List<String> compiled = runScenario( true );
+
+        assertEquals( 11, interpreted.size() );
+        Collections.sort( interpreted );
+        Collections.sort( compiled );
+        assertEquals( interpreted, compiled );
+    }
+
+    @Test
+    public void testCompiledNetworkIsRecompiledOnNetworkChanges() {
+        KieBaseConfiguration kconf = KnowledgeBaseFactory.newKnowledgeBaseConfiguration();
+        kconf.setProperty( "drools.compiledAlphaNetwork", "true" );
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( kconf, DRL );
+        InternalRuleBase ruleBase = (InternalRuleBase) ((KnowledgeBaseImpl) kbase).getRuleBase();
+
+        // compiled by the rulebase itself
+        CompiledNetwork network = getCheeseNode( ruleBase ).getCompiledNetwork();
+        assertNotNull( network );
+
+        kbase.removeRule( "defaultpkg", "R4" );
+        assertNotNull( getCheeseNode( ruleBase ).getCompiledNetwork() );
+        assertNotSame( network, getCheeseNode( ruleBase ).getCompiledNetwork() );
+        network = getCheeseNode( ruleBase ).getCompiledNetwork();
+
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        kbuilder.add( ResourceFactory.newByteArrayResource( ( "import " + Cheese.class.getCanonicalName() + ";\n" +
+                                                              "global java.util.List list;\n" +
+                                                              "rule R6 when Cheese( price < 10 ) then list.add( \"cheap\" ); end\n" ).getBytes() ),
+                      ResourceType.DRL );
+        assertFalse( kbuilder.getErrors().toString(), kbuilder.hasErrors() );
+        kbase.addKnowledgePackages( kbuilder.getKnowledgePackages() );
+        assertNotNull( getCheeseNode( ruleBase ).getCompiledNetwork() );
+        assertNotSame( network, getCheeseNode( ruleBase ).getCompiledNetwork() );
+
+        StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+        ksession.insert( new Cheese( "stilton", 5 ) );
+        ksession.insert( new Cheese( "cheddar", 20 ) );
+        ksession.fireAllRules();
+        Collections.sort( list );
+        // no expensive, R4 is removed
+        assertEquals( "[cheap, cheddar, stilton]", list.toString() );
+        ksession.dispose();
+    }
+
+    private List<String> runScenario(boolean compile) {
+        KnowledgeBase kbase = loadKnowledgeBaseFromString( DRL );
+        InternalRuleBase ruleBase = (InternalRuleBase) ((KnowledgeBaseImpl) kbase).getRuleBase();
+        if ( compile ) {
+            ObjectTypeNodeCompiler.compileAll( ruleBase );
+            assertNotNull( getCheeseNode( ruleBase ).getCompiledNetwork() );
+        }
+
+        StatefulKnowledgeSession ksession = createKnowledgeSession( kbase );
+        List<String> list = new ArrayList<String>();
+        ksession.setGlobal( "list", list );
+
+        Cheese stilton = new Cheese( "stilton", 5 );
+        FactHandle stiltonHandle = ksession.insert( stilton );
+        Cheese brie = new Cheese( "brie", 15 );
+        FactHandle brieHandle = ksession.insert( brie );
+        ksession.fireAllRules();
+        // stilton, brie, expensive, expensive brie
+        assertEquals( 4, list.size() );
+
+        stilton.setPrice( 20 );
+        ksession.update( stiltonHandle, stilton );
+        ksession.fireAllRules();
+        // stilton, expensive
+        assertEquals( 6, list.size() );
+
+        brie.setType( "cheddar" );
+        ksession.update( brieHandle, brie );
+        ksession.fireAllRules();
+        // cheddar, expensive
+        assertEquals( 8, list.size() );
+
+        ksession.retract( stiltonHandle );
+        ksession.fireAllRules();
+        assertEquals( 8, list.size() );
+
+        ksession.insert( new Cheese( "brie", 30 ) );
+        ksession.fireAllRules();
+        // brie, expensive, expensive brie
+        assertEquals( 11, list.size() );
+
+        ksession.dispose();
+        return list;
+    }
+
+    private ObjectTypeNode getCheeseNode(InternalRuleBase ruleBase) {
+        for ( ObjectTypeNode otn : ruleBase.getRete().getObjectTypeNodes() ) {
+            if ( otn.getObjectType().equals( new ClassObjectType( Cheese.class ) ) ) {
+                return otn;
+            }
+        }
+        throw new IllegalStateException( "No ObjectTypeNode for Cheese" );
+    }
+}
@@ -38,6 +38,7 @@ import org.drools.core.process.instance.WorkItemManager;
 import org.drools.core.reteoo.EntryPointNode;
 import org.drools.core.reteoo.LIANodePropagation;
 import org.drools.core.reteoo.ObjectTypeConf;
+import org.drools.core.reteoo.TuplePool;
 import org.drools.core.rule.EntryPoint;
 import org.drools.core.rule.Rule;
 import org.drools.core.runtime.impl.ExecutionResultImpl;
@@ -456,6 +457,21 @@ public class MockWorkingMemory implements InternalWorkingMemory {
         
     }
 
+    public List<FactHandle> insertAll(Collection<?> objects) throws FactException {
+        // TODO Auto-generated method stub
+        return null;
+    }
+
+    public void updateAll(Collection<? extends org.kie.api.runtime.rule.FactHandle> handles) throws FactException {
+        // TODO Auto-generated method stub
+        
+    }
+
+    public void deleteAll(Collection<? extends org.kie.api.runtime.rule.FactHandle> handles) throws FactException {
+        // TODO Auto-generated method stub
+        
+    }
+
     public InternalKnowledgeRuntime getKnowledgeRuntime() {
         // TODO Auto-generated method stub
         return null;
@@ -476,6 +492,11 @@ public class MockWorkingMemory implements InternalWorkingMemory {
         return null;
     }
 
+    public TuplePool getTuplePool() {
+        // TODO Auto-generated method stub
+        return null;
+    }
+
     public Map<String, WorkingMemoryEntryPoint> getEntryPoints() {
         // TODO Auto-generated method stub
         return null;
@@ -92,9 +92,13 @@ import org.slf4j.LoggerFactory;
  * drools.shareAlphaNodes  = &lt;true|false&gt;
  * drools.shareBetaNodes = &lt;true|false&gt;
  * drools.alphaNodeHashingThreshold = &lt;1...n&gt;
- * drools.compositeKeyDepth  =&lt;1..3&gt;
+ * drools.compositeKeyDepth  =&lt;1..n&gt;
  * drools.indexLeftBetaMemory = &lt;true/false&gt;
  * drools.indexRightBetaMemory = &lt;true/false&gt;
+ * drools.rangeIndex = &lt;true/false&gt;
+ * drools.compiledAlphaNetwork = &lt;true/false&gt;
+ * drools.eagerJitting = &lt;true/false&gt;
+ * drools.expirationTickSize = &lt;0...n&gt;
  * drools.equalityBehavior = &lt;identity|equality&gt;
  * drools.executorService = &lt;qualified class name&gt;
  * drools.conflictResolver = &lt;qualified class name&gt;
@@ -105,6 +109,7 @@ import org.slf4j.LoggerFactory;
  * drools.classLoaderCacheEnabled = &lt;true|false&gt;
  * drools.phreakEnabled = &lt;true|false&gt;
  * drools.declarativeAgendaEnabled =  &lt;true|false&gt; 
+ * drools.parallelEvaluation = &lt;true|false&gt;
  * </pre>
  */
 public class RuleBaseConfiguration
@@ -133,6 +138,10 @@ public class RuleBaseConfiguration
     private int             compositeKeyDepth;
     private boolean         indexLeftBetaMemory;
     private boolean         indexRightBetaMemory;
+    private boolean         rangeIndex;
+    private boolean         compiledAlphaNetwork;
+    private boolean         eagerJitting;
+    private long            expirationTickSize;
     private AssertBehaviour assertBehaviour;
     private String          executorService;
     private String          consequenceExceptionHandler;
@@ -142,6 +151,10 @@ public class RuleBaseConfiguration
 
     private boolean declarativeAgenda;
 
+    // if "true", and phreak is enabled, independent rule paths
+    // are evaluated concurrently, using up to maxThreads threads
+    private boolean parallelEvaluation;
+
     private EventProcessingOption eventProcessingMode;
 
     private IndexPrecedenceOption indexPrecedenceOption;
@@ -200,6 +213,11 @@ public class RuleBaseConfiguration
         out.writeBoolean(phreakEnabled);
         out.writeBoolean(declarativeAgenda);
         out.writeObject(componentFactory);
+        out.writeBoolean(parallelEvaluation);
+        out.writeBoolean(rangeIndex);
+        out.writeBoolean(compiledAlphaNetwork);
+        out.writeBoolean(eagerJitting);
+        out.writeLong(expirationTickSize);
     }
 
     public void readExternal(ObjectInput in) throws IOException,
@@ -231,6 +249,11 @@ public class RuleBaseConfiguration
         phreakEnabled = in.readBoolean();
         declarativeAgenda = in.readBoolean();
         componentFactory = (ReteooComponentFactory) in.readObject();
+        parallelEvaluation = in.readBoolean();
+        rangeIndex = in.readBoolean();
+        compiledAlphaNetwork = in.readBoolean();
+        eagerJitting = in.readBoolean();
+        expirationTickSize = in.readLong();
     }
 
     /**
@@ -322,6 +345,16 @@ public class RuleBaseConfiguration
             setClassLoaderCacheEnabled(StringUtils.isEmpty(value) ? true : Boolean.valueOf(value));
         } else if ( name.equals( PhreakOption.PROPERTY_NAME ) ) {
             setPhreakEnabled(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( "drools.parallelEvaluation" ) ) {
+            setParallelEvaluation(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( "drools.rangeIndex" ) ) {
+            setRangeIndex(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( "drools.compiledAlphaNetwork" ) ) {
+            setCompiledAlphaNetwork(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( "drools.eagerJitting" ) ) {
+            setEagerJitting(StringUtils.isEmpty(value) ? false : Boolean.valueOf(value));
+        } else if ( name.equals( "drools.expirationTickSize" ) ) {
+            setExpirationTickSize(StringUtils.isEmpty(value) ? 0 : Long.parseLong(value));
         }
     }
 
@@ -377,6 +410,16 @@ public class RuleBaseConfiguration
             return Boolean.toString( isClassLoaderCacheEnabled() );
         } else if ( name.equals( PhreakOption.PROPERTY_NAME ) ) {
             return Boolean.toString( isPhreakEnabled() );
+        } else if ( name.equals( "drools.parallelEvaluation" ) ) {
+            return Boolean.toString( isParallelEvaluation() );
+        } else if ( name.equals( "drools.rangeIndex" ) ) {
+            return Boolean.toString( isRangeIndex() );
+        } else if ( name.equals( "drools.compiledAlphaNetwork" ) ) {
+            return Boolean.toString( isCompiledAlphaNetwork() );
+        } else if ( name.equals( "drools.eagerJitting" ) ) {
+            return Boolean.toString( isEagerJitting() );
+        } else if ( name.equals( "drools.expirationTickSize" ) ) {
+            return Long.toString( getExpirationTickSize() );
         }
 
         return null;
@@ -489,6 +532,21 @@ public class RuleBaseConfiguration
         setDeclarativeAgendaEnabled( Boolean.valueOf( this.chainedProperties.getProperty( DeclarativeAgendaOption.PROPERTY_NAME,
                                                                                           "false" ) ) );        
 
+        setParallelEvaluation( Boolean.valueOf( this.chainedProperties.getProperty( "drools.parallelEvaluation",
+                                                                                    "false" ) ).booleanValue() );
+
+        setRangeIndex( Boolean.valueOf( this.chainedProperties.getProperty( "drools.rangeIndex",
+                                                                            "false" ) ).booleanValue() );
+
+        setCompiledAlphaNetwork( Boolean.valueOf( this.chainedProperties.getProperty( "drools.compiledAlphaNetwork",
+                                                                                      "false" ) ).booleanValue() );
+
+        setEagerJitting( Boolean.valueOf( this.chainedProperties.getProperty( "drools.eagerJitting",
+                                                                              "false" ) ).booleanValue() );
+
+        setExpirationTickSize( Long.parseLong( this.chainedProperties.getProperty( "drools.expirationTickSize",
+                                                                                   "0" ) ) );
+
         this.componentFactory = new ReteooComponentFactory();
 
     }
@@ -606,11 +664,13 @@ public class RuleBaseConfiguration
         return this.compositeKeyDepth;
     }
 
+    /**
+     * Sets the maximum number of equality constraints hashed together in a beta memory index.
+     * Depths above 3 use a generic composite index, so that joins on many fields are not
+     * left to be evaluated tuple by tuple.
+     */
     public void setCompositeKeyDepth(final int compositeKeyDepth) {
         if ( !this.immutable ) {
-            if ( compositeKeyDepth > 3 ) {
-                throw new UnsupportedOperationException( "compositeKeyDepth cannot be greater than 3" );
-            }
             this.compositeKeyDepth = compositeKeyDepth;
         } else {
             throw new UnsupportedOperationException( "Can't set a property after configuration becomes immutable" );
@@ -635,6 +695,64 @@ public class RuleBaseConfiguration
         this.indexRightBetaMemory = indexRightBetaMemory;
     }
 
+    /**
+     * Returns true if the beta memories of join and accumulate nodes can be indexed
+     * on comparison (&lt;, &gt;, &lt;=, &gt;=) constraints, and if two dual comparisons on the same
+     * field are indexed together as a range. Default is false, in which case comparison
+     * indexes are only used by not and exists nodes.
+     */
+    public boolean isRangeIndex() {
+        return this.rangeIndex;
+    }
+
+    public void setRangeIndex(final boolean rangeIndex) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.rangeIndex = rangeIndex;
+    }
+
+    /**
+     * When true, the alpha network below each ObjectTypeNode is compiled to a single class, instead of being walked
+     * node by node. The networks changed by rule additions or removals are compiled again before the rulebase is
+     * unlocked. Networks that cannot be compiled, or when drools-compiler is not available, are propagated through
+     * as usual.
+     */
+    public boolean isCompiledAlphaNetwork() {
+        return this.compiledAlphaNetwork;
+    }
+
+    public void setCompiledAlphaNetwork(final boolean compiledAlphaNetwork) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.compiledAlphaNetwork = compiledAlphaNetwork;
+    }
+
+    /**
+     * When true, the mvel constraints that are not dynamic are compiled to bytecode synchronously, the first time
+     * they are evaluated, instead of being interpreted until they have been evaluated a number of times and then
+     * compiled in background. This trades a slower first evaluation for the absence of a warm-up phase.
+     */
+    public boolean isEagerJitting() {
+        return this.eagerJitting;
+    }
+
+    public void setEagerJitting(final boolean eagerJitting) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.eagerJitting = eagerJitting;
+    }
+
+    /**
+     * When greater than 0, the expirations of the events are grouped in ticks of the given size, in milliseconds,
+     * and the events expiring in the same tick are retracted together, by a single timer job. When 0, a timer job
+     * is scheduled for each event, that expires exactly at its expiration offset.
+     */
+    public long getExpirationTickSize() {
+        return this.expirationTickSize;
+    }
+
+    public void setExpirationTickSize(final long expirationTickSize) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.expirationTickSize = expirationTickSize;
+    }
+
     public IndexPrecedenceOption getIndexPrecedenceOption() {
         return this.indexPrecedenceOption;
     }
@@ -722,7 +840,7 @@ public class RuleBaseConfiguration
     }
 
     /**
-     * If multi-thread evaluation is enabled, this parameter configures the 
+     * If multi-thread or parallel evaluation is enabled, this parameter configures the 
      * maximum number of threads each session can use for concurrent Rete
      * propagation. 
      * 
@@ -794,6 +912,25 @@ public class RuleBaseConfiguration
         this.declarativeAgenda = enabled;
     }    
 
+    /**
+     * Returns true if independent rule paths are evaluated concurrently
+     * when phreak is enabled. Default is false.
+     */
+    public boolean isParallelEvaluation() {
+        return this.parallelEvaluation;
+    }
+
+    /**
+     * Enables the concurrent evaluation of rule paths that share no segment
+     * with any other rule. It is only used when phreak is enabled, and the
+     * number of threads is bounded by maxThreads.
+     * @param parallelEvaluation
+     */
+    public void setParallelEvaluation(boolean parallelEvaluation) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.parallelEvaluation = parallelEvaluation;
+    }
+
     public List<Map<String, Object>> getWorkDefinitions() {
         if ( this.workDefinitions == null ) {
             initWorkDefinitions();
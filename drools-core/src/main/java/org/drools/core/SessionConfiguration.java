@@ -44,9 +44,12 @@ import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
 
 /**
  * SessionConfiguration
@@ -65,6 +68,14 @@ import java.util.Properties;
  * 
  * drools.keepReference = <true|false>
  * drools.clockType = <pseudo|realtime|heartbeat|implicit>
+ * drools.concurrentIngestion = <true|false>
+ * drools.persistence.checkpointInterval = <0 ... n>
+ * drools.offHeapObjectStore = <true|false>
+ * drools.tupleRecycling = <true|false>
+ * drools.concurrentAgendaGroups = <agenda group name, agenda group name, ...>
+ * drools.consequenceThreads = <1 ... n>
+ * drools.statelessPoolSize = <0 ... n>
+ * drools.singleThreaded = <true|false>
  */
 public class SessionConfiguration
     implements
@@ -93,6 +104,22 @@ public class SessionConfiguration
     private transient TimerJobFactoryManager timerJobFactoryManager;
     private TimerJobFactoryType              timerJobFactoryType;
 
+    private boolean                        concurrentIngestion;
+
+    private int                            checkpointInterval;
+
+    private boolean                        offHeapObjectStore;
+
+    private boolean                        tupleRecycling;
+
+    private Set<String>                    concurrentAgendaGroups;
+
+    private int                            consequenceThreads;
+
+    private int                            statelessPoolSize;
+
+    private boolean                        singleThreaded;
+
     public void writeExternal(ObjectOutput out) throws IOException {
         out.writeObject( chainedProperties );
         out.writeBoolean(immutable);
@@ -171,6 +198,30 @@ public class SessionConfiguration
 
         setTimerJobFactoryType( TimerJobFactoryType.resolveTimerJobFactoryType( this.chainedProperties.getProperty( TimerJobFactoryOption.PROPERTY_NAME,
                                                                                                                     TimerJobFactoryType.DEFUALT.getId() ) ) );
+
+        setConcurrentIngestion( Boolean.valueOf( this.chainedProperties.getProperty( "drools.concurrentIngestion",
+                                                                                     "false" ) ).booleanValue() );
+
+        setCheckpointInterval( Integer.parseInt( this.chainedProperties.getProperty( "drools.persistence.checkpointInterval",
+                                                                                     "0" ) ) );
+
+        setOffHeapObjectStore( Boolean.valueOf( this.chainedProperties.getProperty( "drools.offHeapObjectStore",
+                                                                                    "false" ) ).booleanValue() );
+
+        setTupleRecycling( Boolean.valueOf( this.chainedProperties.getProperty( "drools.tupleRecycling",
+                                                                                "false" ) ).booleanValue() );
+
+        setConcurrentAgendaGroups( this.chainedProperties.getProperty( "drools.concurrentAgendaGroups",
+                                                                       "" ) );
+
+        setConsequenceThreads( Integer.parseInt( this.chainedProperties.getProperty( "drools.consequenceThreads",
+                                                                                     "0" ) ) );
+
+        setStatelessPoolSize( Integer.parseInt( this.chainedProperties.getProperty( "drools.statelessPoolSize",
+                                                                                    "0" ) ) );
+
+        setSingleThreaded( Boolean.valueOf( this.chainedProperties.getProperty( "drools.singleThreaded",
+                                                                                "false" ) ).booleanValue() );
     }
 
     public void addDefaultProperties(Properties properties) {
@@ -199,6 +250,22 @@ public class SessionConfiguration
             setTimerJobFactoryType(TimerJobFactoryType.resolveTimerJobFactoryType(StringUtils.isEmpty(value) ? "default" : value));
         } else if ( name.equals( QueryListenerOption.PROPERTY_NAME ) ) {
             setQueryListenerClass( StringUtils.isEmpty( value ) ? QueryListenerOption.STANDARD.getAsString() : value );
+        } else if ( name.equals( "drools.concurrentIngestion" ) ) {
+            setConcurrentIngestion( !StringUtils.isEmpty( value ) && Boolean.parseBoolean( value ) );
+        } else if ( name.equals( "drools.persistence.checkpointInterval" ) ) {
+            setCheckpointInterval( StringUtils.isEmpty( value ) ? 0 : Integer.parseInt( value ) );
+        } else if ( name.equals( "drools.offHeapObjectStore" ) ) {
+            setOffHeapObjectStore( !StringUtils.isEmpty( value ) && Boolean.parseBoolean( value ) );
+        } else if ( name.equals( "drools.tupleRecycling" ) ) {
+            setTupleRecycling( !StringUtils.isEmpty( value ) && Boolean.parseBoolean( value ) );
+        } else if ( name.equals( "drools.concurrentAgendaGroups" ) ) {
+            setConcurrentAgendaGroups( StringUtils.isEmpty( value ) ? "" : value );
+        } else if ( name.equals( "drools.consequenceThreads" ) ) {
+            setConsequenceThreads( StringUtils.isEmpty( value ) ? 0 : Integer.parseInt( value ) );
+        } else if ( name.equals( "drools.statelessPoolSize" ) ) {
+            setStatelessPoolSize( StringUtils.isEmpty( value ) ? 0 : Integer.parseInt( value ) );
+        } else if ( name.equals( "drools.singleThreaded" ) ) {
+            setSingleThreaded( !StringUtils.isEmpty( value ) && Boolean.parseBoolean( value ) );
         }
     }
 
@@ -216,6 +283,29 @@ public class SessionConfiguration
             return this.timerJobFactoryType.toExternalForm();
         } else if ( name.equals( QueryListenerOption.PROPERTY_NAME ) ) {
             return this.queryListener.getAsString();
+        } else if ( name.equals( "drools.concurrentIngestion" ) ) {
+            return Boolean.toString( this.concurrentIngestion );
+        } else if ( name.equals( "drools.persistence.checkpointInterval" ) ) {
+            return Integer.toString( this.checkpointInterval );
+        } else if ( name.equals( "drools.offHeapObjectStore" ) ) {
+            return Boolean.toString( this.offHeapObjectStore );
+        } else if ( name.equals( "drools.tupleRecycling" ) ) {
+            return Boolean.toString( this.tupleRecycling );
+        } else if ( name.equals( "drools.concurrentAgendaGroups" ) ) {
+            StringBuilder sb = new StringBuilder();
+            for ( String agendaGroup : this.concurrentAgendaGroups ) {
+                if ( sb.length() > 0 ) {
+                    sb.append( ',' );
+                }
+                sb.append( agendaGroup );
+            }
+            return sb.toString();
+        } else if ( name.equals( "drools.consequenceThreads" ) ) {
+            return Integer.toString( this.consequenceThreads );
+        } else if ( name.equals( "drools.statelessPoolSize" ) ) {
+            return Integer.toString( this.statelessPoolSize );
+        } else if ( name.equals( "drools.singleThreaded" ) ) {
+            return Boolean.toString( this.singleThreaded );
         }
         return null;
     }
@@ -252,6 +342,133 @@ public class SessionConfiguration
         return this.keepReference;
     }
     
+    /**
+     * Returns true if facts inserted from outside of the rule consequences are queued
+     * by the entry points, instead of being propagated by the inserting thread.
+     */
+    public boolean isConcurrentIngestion() {
+        return this.concurrentIngestion;
+    }
+
+    public void setConcurrentIngestion(boolean concurrentIngestion) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.concurrentIngestion = concurrentIngestion;
+    }
+
+    /**
+     * Returns the maximum number of deltas journaled by a persistent session between two
+     * full snapshots. When it is 0, the default, every transaction stores a full snapshot.
+     *
+     * The journal only reduces the amount of data written: SingleSessionCommandService still
+     * marshals the whole session at the end of each transaction, to compute the delta against
+     * the previous snapshot. It isn't supported by the map based persistence, where the session
+     * is stored in a KnowledgeSessionStorage.
+     */
+    public int getCheckpointInterval() {
+        return this.checkpointInterval;
+    }
+
+    public void setCheckpointInterval(int checkpointInterval) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Returns true if the entry points keep their fact handles in an OffHeapObjectStore,
+     * instead of a SingleThreadedObjectStore.
+     */
+    public boolean isOffHeapObjectStore() {
+        return this.offHeapObjectStore;
+    }
+
+    public void setOffHeapObjectStore(boolean offHeapObjectStore) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.offHeapObjectStore = offHeapObjectStore;
+    }
+
+    /**
+     * Returns true if the join nodes recycle the tuples they delete through a session local TuplePool,
+     * instead of leaving them to the garbage collector.
+     */
+    public boolean isTupleRecycling() {
+        return this.tupleRecycling;
+    }
+
+    public void setTupleRecycling(boolean tupleRecycling) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.tupleRecycling = tupleRecycling;
+    }
+
+    /**
+     * Returns the names of the agenda groups whose activations are fired concurrently by fireUntilHalt,
+     * on the executor of the ExecutorProvider. The working memory actions of their consequences are still
+     * executed one at a time, by the firing thread, through the action queue. Empty by default.
+     *
+     * The same goes for the methods of the working memory, knowledge runtime, entry points and channels the
+     * consequences get from their context, but not for the objects returned by those methods: a consequence
+     * of these agenda groups must only change the session through its context, kcontext or drools, and what
+     * it gets directly from it. If the firing fails, the actions still queued by the running consequences
+     * fail as well.
+     */
+    public Set<String> getConcurrentAgendaGroups() {
+        return this.concurrentAgendaGroups;
+    }
+
+    /**
+     * Sets the agenda groups whose activations are fired concurrently, as a comma separated list of names.
+     */
+    public void setConcurrentAgendaGroups(String concurrentAgendaGroups) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        Set<String> agendaGroups = new LinkedHashSet<String>();
+        for ( String agendaGroup : concurrentAgendaGroups.split( "," ) ) {
+            agendaGroup = agendaGroup.trim();
+            if ( agendaGroup.length() > 0 ) {
+                agendaGroups.add( agendaGroup );
+            }
+        }
+        this.concurrentAgendaGroups = Collections.unmodifiableSet( agendaGroups );
+    }
+
+    /**
+     * Returns the maximum number of consequences of the concurrent agenda groups that can be running at the
+     * same time. When it is 0, the default, it is the number of available processors.
+     */
+    public int getConsequenceThreads() {
+        return this.consequenceThreads;
+    }
+
+    public void setConsequenceThreads(int consequenceThreads) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.consequenceThreads = consequenceThreads;
+    }
+
+    /**
+     * Returns the maximum number of working memories a stateless session keeps, reset, after its executions,
+     * to reuse them instead of building a new one for each execution. When it is 0, the default, they are
+     * disposed.
+     */
+    public int getStatelessPoolSize() {
+        return this.statelessPoolSize;
+    }
+
+    public void setStatelessPoolSize(int statelessPoolSize) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.statelessPoolSize = statelessPoolSize;
+    }
+
+    /**
+     * Returns true if the user guarantees the session is only ever used by one thread at a time: no inserts
+     * from other threads while it fires, nor fireUntilHalt. Its node memories are then kept in a plain array.
+     */
+    public boolean isSingleThreaded() {
+        return this.singleThreaded;
+    }
+
+    public void setSingleThreaded(boolean singleThreaded) {
+        checkCanChange(); // throws an exception if a change isn't possible;
+        this.singleThreaded = singleThreaded;
+    }
+
     public BeliefSystemType getBeliefSystemType() {
         return this.beliefSystemType;
     }
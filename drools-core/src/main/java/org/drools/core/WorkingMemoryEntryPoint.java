@@ -16,6 +16,8 @@
 
 package org.drools.core;
 
+import java.util.Collection;
+import java.util.List;
 
 /**
  * An interface for instances that allow handling of entry-point-scoped
@@ -80,6 +82,44 @@ public interface WorkingMemoryEntryPoint extends org.kie.api.runtime.rule.Sessio
     void update(org.kie.api.runtime.rule.FactHandle handle,
                 Object object) throws FactException;
 
+    /**
+     * Insert all the given facts as a single batch, which is cheaper than
+     * inserting them one by one.
+     * 
+     * @param objects
+     *            The fact objects.
+     * 
+     * @return The fact-handles associated with the objects, in the iteration
+     *         order of the collection.
+     * 
+     * @throws FactException
+     *             If a RuntimeException error occurs.
+     */
+    List<FactHandle> insertAll(Collection<?> objects) throws FactException;
+
+    /**
+     * Inform the WorkingMemory that the facts of all the given handles have
+     * been modified, and update the network as a single batch.
+     * 
+     * @param handles
+     *            The fact-handles associated with the modified facts.
+     * 
+     * @throws FactException
+     *             If a RuntimeException error occurs.
+     */
+    void updateAll(Collection<? extends org.kie.api.runtime.rule.FactHandle> handles) throws FactException;
+
+    /**
+     * Delete all the given facts as a single batch.
+     * 
+     * @param handles
+     *            The fact-handles associated with the facts to delete.
+     * 
+     * @throws FactException
+     *             If a RuntimeException error occurs.
+     */
+    void deleteAll(Collection<? extends org.kie.api.runtime.rule.FactHandle> handles) throws FactException;
+
     public WorkingMemoryEntryPoint getWorkingMemoryEntryPoint(String name);
     
     /**
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2013 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.audit;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.drools.core.audit.event.ActivationLogEvent;
+import org.drools.core.audit.event.LogEvent;
+import org.drools.core.audit.event.ObjectLogEvent;
+import org.drools.core.audit.event.RuleBaseLogEvent;
+import org.drools.core.audit.event.RuleFlowGroupLogEvent;
+import org.drools.core.audit.event.RuleFlowLogEvent;
+import org.drools.core.audit.event.RuleFlowNodeLogEvent;
+import org.drools.core.audit.event.RuleFlowVariableLogEvent;
+
+import com.thoughtworks.xstream.XStream;
+
+/**
+ * The binary format of the audit log written by the WorkingMemoryBinaryFileLogger, and its conversion to
+ * the XML format of the WorkingMemoryFileLogger, read by the audit tooling.
+ *
+ * A file starts with a magic number and the version of the format, followed by the log events, each one
+ * prefixed by its length. A length of 0, or the end of the file, ends the log. An event is its kind, its type
+ * and the fields of its kind, where a String is its length in UTF-8 bytes, -1 for null, and the bytes.
+ */
+public class BinaryAuditLog {
+
+    public static final int   MAGIC             = 0x44524C47; // DRLG
+    public static final short VERSION           = 1;
+    public static final int   HEADER_SIZE       = 6;
+
+    private static final byte EVENT             = 0;
+    private static final byte OBJECT            = 1;
+    private static final byte ACTIVATION        = 2;
+    private static final byte RULEBASE          = 3;
+    private static final byte RULEFLOW          = 4;
+    private static final byte RULEFLOW_NODE     = 5;
+    private static final byte RULEFLOW_VARIABLE = 6;
+    private static final byte RULEFLOW_GROUP    = 7;
+
+    private BinaryAuditLog() {
+    }
+
+    /**
+     * Encodes the given event at the position of the buffer.
+     *
+     * @throws java.nio.BufferOverflowException if the buffer is too small
+     */
+    public static void encode(LogEvent event,
+                              ByteBuffer buffer) {
+        if ( event instanceof ObjectLogEvent ) {
+            ObjectLogEvent objectEvent = (ObjectLogEvent) event;
+            buffer.put( OBJECT ).putInt( event.getType() );
+            buffer.putLong( objectEvent.getFactId() );
+            putString( buffer, objectEvent.getObjectToString() );
+        } else if ( event instanceof ActivationLogEvent ) {
+            ActivationLogEvent activationEvent = (ActivationLogEvent) event;
+            buffer.put( ACTIVATION ).putInt( event.getType() );
+            putString( buffer, activationEvent.getActivationId() );
+            putString( buffer, activationEvent.getRule() );
+            putString( buffer, activationEvent.getDeclarations() );
+            putString( buffer, activationEvent.getRuleFlowGroup() );
+        } else if ( event instanceof RuleBaseLogEvent ) {
+            RuleBaseLogEvent ruleBaseEvent = (RuleBaseLogEvent) event;
+            buffer.put( RULEBASE ).putInt( event.getType() );
+            putString( buffer, ruleBaseEvent.getPackageName() );
+            putString( buffer, ruleBaseEvent.getRuleName() );
+        } else if ( event instanceof RuleFlowNodeLogEvent ) {
+            RuleFlowNodeLogEvent nodeEvent = (RuleFlowNodeLogEvent) event;
+            buffer.put( RULEFLOW_NODE ).putInt( event.getType() );
+            putRuleFlow( buffer, nodeEvent );
+            putString( buffer, nodeEvent.getNodeId() );
+            putString( buffer, nodeEvent.getNodeName() );
+            putString( buffer, nodeEvent.getNodeInstanceId() );
+        } else if ( event instanceof RuleFlowVariableLogEvent ) {
+            RuleFlowVariableLogEvent variableEvent = (RuleFlowVariableLogEvent) event;
+            buffer.put( RULEFLOW_VARIABLE ).putInt( event.getType() );
+            putRuleFlow( buffer, variableEvent );
+            putString( buffer, variableEvent.getVariableId() );
+            putString( buffer, variableEvent.getVariableInstanceId() );
+            putString( buffer, variableEvent.getObjectToString() );
+        } else if ( event instanceof RuleFlowLogEvent ) {
+            buffer.put( RULEFLOW ).putInt( event.getType() );
+            putRuleFlow( buffer, (RuleFlowLogEvent) event );
+        } else if ( event instanceof RuleFlowGroupLogEvent ) {
+            RuleFlowGroupLogEvent groupEvent = (RuleFlowGroupLogEvent) event;
+            buffer.put( RULEFLOW_GROUP ).putInt( event.getType() );
+            putString( buffer, groupEvent.getGroupName() );
+            buffer.putInt( groupEvent.getSize() );
+        } else {
+            // only the type of the events unknown to the format is kept
+            buffer.put( EVENT ).putInt( event.getType() );
+        }
+    }
+
+    private static void putRuleFlow(ByteBuffer buffer,
+                                    RuleFlowLogEvent event) {
+        putString( buffer, event.getProcessId() );
+        putString( buffer, event.getProcessName() );
+        buffer.putLong( event.getProcessInstanceId() );
+    }
+
+    private static void putString(ByteBuffer buffer,
+                                  String string) {
+        if ( string == null ) {
+            buffer.putInt( -1 );
+            return;
+        }
+        byte[] bytes = toBytes( string );
+        buffer.putInt( bytes.length );
+        buffer.put( bytes );
+    }
+
+    /**
+     * Reads the next event of the log, or returns null at the end of the log.
+     */
+    public static LogEvent readEvent(DataInputStream in) throws IOException {
+        int length;
+        try {
+            length = in.readInt();
+        } catch ( EOFException e ) {
+            return null;
+        }
+        if ( length == 0 ) {
+            return null;
+        }
+        // the event is read from its own bytes, so the fields of an unknown kind are skipped
+        byte[] bytes = new byte[length];
+        in.readFully( bytes );
+        return decode( new DataInputStream( new ByteArrayInputStream( bytes ) ) );
+    }
+
+    private static LogEvent decode(DataInputStream in) throws IOException {
+        byte kind = in.readByte();
+        int type = in.readInt();
+        switch ( kind ) {
+            case OBJECT :
+                return new ObjectLogEvent( type,
+                                           in.readLong(),
+                                           readString( in ) );
+            case ACTIVATION :
+                return new ActivationLogEvent( type,
+                                               readString( in ),
+                                               readString( in ),
+                                               readString( in ),
+                                               readString( in ) );
+            case RULEBASE :
+                return new RuleBaseLogEvent( type,
+                                             readString( in ),
+                                             readString( in ) );
+            case RULEFLOW_NODE : {
+                String processId = readString( in );
+                String processName = readString( in );
+                long processInstanceId = in.readLong();
+                return new RuleFlowNodeLogEvent( type,
+                                                 readString( in ),
+                                                 readString( in ),
+                                                 readString( in ),
+                                                 processId,
+                                                 processName,
+                                                 processInstanceId );
+            }
+            case RULEFLOW_VARIABLE : {
+                String processId = readString( in );
+                String processName = readString( in );
+                long processInstanceId = in.readLong();
+                String variableId = readString( in );
+                String variableInstanceId = readString( in );
+                return new RuleFlowVariableLogEvent( type,
+                                                     variableId,
+                                                     variableInstanceId,
+                                                     processId,
+                                                     processName,
+                                                     processInstanceId,
+                                                     readString( in ) );
+            }
+            case RULEFLOW :
+                return new RuleFlowLogEvent( type,
+                                             readString( in ),
+                                             readString( in ),
+                                             in.readLong() );
+            case RULEFLOW_GROUP :
+                return new RuleFlowGroupLogEvent( type,
+                                                  readString( in ),
+                                                  in.readInt() );
+            default :
+                return new LogEvent( type );
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if ( length < 0 ) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully( bytes );
+        return new String( bytes,
+                           "UTF-8" );
+    }
+
+    private static byte[] toBytes(String string) {
+        try {
+            return string.getBytes( "UTF-8" );
+        } catch ( UnsupportedEncodingException e ) {
+            throw new IllegalStateException( e );
+        }
+    }
+
+    /**
+     * Opens the given binary log file, positioned on its first event.
+     */
+    public static DataInputStream open(String fileName) throws IOException {
+        DataInputStream in = new DataInputStream( new BufferedInputStream( new FileInputStream( fileName ) ) );
+        if ( in.readInt() != MAGIC ) {
+            in.close();
+            throw new IOException( fileName + " is not a binary audit log" );
+        }
+        short version = in.readShort();
+        if ( version != VERSION ) {
+            in.close();
+            throw new IOException( "Unsupported binary audit log version " + version + " in " + fileName );
+        }
+        return in;
+    }
+
+    /**
+     * Reads all the events of the given binary log file.
+     */
+    public static List<LogEvent> readEvents(String fileName) throws IOException {
+        List<LogEvent> events = new ArrayList<LogEvent>();
+        DataInputStream in = open( fileName );
+        try {
+            for ( LogEvent event = readEvent( in ); event != null; event = readEvent( in ) ) {
+                events.add( event );
+            }
+        } finally {
+            in.close();
+        }
+        return events;
+    }
+
+    /**
+     * Converts the given binary log file to the XML format of the WorkingMemoryFileLogger.
+     */
+    public static void convertToXml(String binaryFileName,
+                                    String xmlFileName) throws IOException {
+        DataInputStream in = open( binaryFileName );
+        Writer writer = null;
+        try {
+            writer = new FileWriter( xmlFileName,
+                                     false );
+            XStream xstream = new XStream();
+            writer.write( "<object-stream>\n" );
+            for ( LogEvent event = readEvent( in ); event != null; event = readEvent( in ) ) {
+                writer.write( xstream.toXML( event ) + "\n" );
+            }
+            writer.write( "</object-stream>\n" );
+        } finally {
+            in.close();
+            if ( writer != null ) {
+                writer.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2013 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.audit;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import org.drools.core.WorkingMemory;
+import org.drools.core.audit.event.LogEvent;
+import org.drools.core.event.AsyncEventDispatcher;
+import org.kie.internal.event.KnowledgeRuntimeEventManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A logger of events generated by a working memory, that writes them in the binary format of the
+ * BinaryAuditLog, which can convert them to the XML format of the WorkingMemoryFileLogger for the tooling.
+ *
+ * The engine thread only queues the log events in the ring buffer of an AsyncEventDispatcher, and never waits:
+ * they are encoded and written by the thread of the dispatcher, in a file mapped in memory. When a file is full
+ * the log rolls over to the next one: event.bin, event1.bin, event2.bin... If the engine logs faster than the
+ * events can be written, the events that don't fit in the ring buffer are dropped, see getDroppedEvents().
+ *
+ * The files must be set before the first event is logged, and the logger must be stopped to write the events
+ * still queued.
+ */
+public class WorkingMemoryBinaryFileLogger extends WorkingMemoryLogger {
+
+    protected static transient Logger logger = LoggerFactory.getLogger( WorkingMemoryBinaryFileLogger.class );
+
+    private String                        fileName    = "event";
+    private int                           fileSize    = 16 * 1024 * 1024;
+    private int                           capacity    = 8192;
+
+    private volatile AsyncEventDispatcher dispatcher;
+
+    // only accessed by the thread of the dispatcher
+    private int                           nbOfFile    = 0;
+    private RandomAccessFile              file;
+    private MappedByteBuffer              buffer;
+    private ByteBuffer                    eventBuffer = ByteBuffer.allocate( 1024 );
+
+    public WorkingMemoryBinaryFileLogger() {
+    }
+
+    /**
+     * Creates a new WorkingMemoryBinaryFileLogger for the given working memory.
+     */
+    public WorkingMemoryBinaryFileLogger(final WorkingMemory workingMemory) {
+        super( workingMemory );
+    }
+
+    public WorkingMemoryBinaryFileLogger(final KnowledgeRuntimeEventManager session) {
+        super( session );
+    }
+
+    /**
+     * Sets the name of the files the events are logged in, without extension, as .bin is appended to it.
+     * The default is event.bin in the current working directory.
+     */
+    public void setFileName(final String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * Sets the size of each file, after which the log rolls over to the next file. The default is 16MB.
+     */
+    public void setFileSize(final int fileSize) {
+        this.fileSize = fileSize;
+    }
+
+    /**
+     * Sets the number of events that can wait to be written. The default is 8192.
+     */
+    public void setCapacity(final int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @see org.kie.audit.WorkingMemoryLogger
+     */
+    public void logEventCreated(final LogEvent logEvent) {
+        getDispatcher().dispatch( new Runnable() {
+            public void run() {
+                write( logEvent );
+            }
+        } );
+    }
+
+    private AsyncEventDispatcher getDispatcher() {
+        AsyncEventDispatcher dispatcher = this.dispatcher;
+        if ( dispatcher == null ) {
+            synchronized ( this ) {
+                if ( this.dispatcher == null ) {
+                    this.dispatcher = new AsyncEventDispatcher( this.capacity );
+                }
+                dispatcher = this.dispatcher;
+            }
+        }
+        return dispatcher;
+    }
+
+    private void write(LogEvent logEvent) {
+        try {
+            while ( true ) {
+                try {
+                    this.eventBuffer.clear();
+                    BinaryAuditLog.encode( logEvent,
+                                           this.eventBuffer );
+                    break;
+                } catch ( BufferOverflowException e ) {
+                    this.eventBuffer = ByteBuffer.allocate( this.eventBuffer.capacity() * 2 );
+                }
+            }
+            this.eventBuffer.flip();
+
+            int length = this.eventBuffer.remaining();
+            // room for the length of the event, and the 0 length ending the log
+            if ( this.buffer == null || this.buffer.remaining() < length + 8 ) {
+                rollOver( length + 8 );
+            }
+            this.buffer.putInt( length );
+            this.buffer.put( this.eventBuffer );
+        } catch ( final Throwable t ) {
+            logger.error( "error",
+                          t );
+        }
+    }
+
+    private void rollOver(int minSize) throws IOException {
+        if ( this.buffer != null ) {
+            closeFile();
+            this.nbOfFile++;
+        }
+        this.file = new RandomAccessFile( this.fileName + (this.nbOfFile == 0 ? ".bin" : this.nbOfFile + ".bin"),
+                                          "rw" );
+        // the mapped file is filled with 0s, so the log ends right after the last event
+        this.file.setLength( 0 );
+        this.buffer = this.file.getChannel().map( FileChannel.MapMode.READ_WRITE,
+                                                  0,
+                                                  Math.max( this.fileSize, minSize + BinaryAuditLog.HEADER_SIZE ) );
+        this.buffer.putInt( BinaryAuditLog.MAGIC );
+        this.buffer.putShort( BinaryAuditLog.VERSION );
+    }
+
+    private void closeFile() throws IOException {
+        this.buffer.force();
+        this.file.close();
+        this.buffer = null;
+        this.file = null;
+    }
+
+    /**
+     * Returns the number of events dropped because the ring buffer was full.
+     */
+    public long getDroppedEvents() {
+        AsyncEventDispatcher dispatcher = this.dispatcher;
+        return dispatcher != null ? dispatcher.getDroppedEvents() : 0;
+    }
+
+    /**
+     * Writes the events still queued and closes the log.
+     */
+    public synchronized void stop() {
+        if ( this.dispatcher == null ) {
+            return;
+        }
+        this.dispatcher.dispose();
+        try {
+            if ( this.buffer != null ) {
+                closeFile();
+            }
+        } catch ( final IOException e ) {
+            logger.error( "error",
+                          e );
+        }
+    }
+
+}
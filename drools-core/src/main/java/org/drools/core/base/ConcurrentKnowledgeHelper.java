@@ -0,0 +1,410 @@
+/*
+ * Copyright 2013 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.base;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+
+import org.drools.core.FactHandle;
+import org.drools.core.RuntimeDroolsException;
+import org.drools.core.WorkingMemory;
+import org.drools.core.common.InternalKnowledgeRuntime;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.WorkingMemoryAction;
+import org.drools.core.factmodel.traits.Thing;
+import org.drools.core.factmodel.traits.TraitableBean;
+import org.drools.core.impl.StatefulKnowledgeSessionImpl;
+import org.drools.core.marshalling.impl.MarshallerWriteContext;
+import org.drools.core.marshalling.impl.ProtobufMessages;
+import org.drools.core.spi.Activation;
+import org.kie.api.runtime.Channel;
+import org.kie.api.runtime.rule.Match;
+import org.kie.api.runtime.rule.SessionEntryPoint;
+import org.kie.internal.runtime.KnowledgeRuntime;
+
+/**
+ * The KnowledgeHelper of a consequence fired on a worker thread, for the agenda groups of the
+ * "drools.concurrentAgendaGroups" session option.
+ *
+ * The consequence itself runs on the worker thread, but each of its working memory actions is queued on the
+ * action queue of the session, and executed by the thread firing the rules, through executeQueuedActions.
+ * The worker waits for the action to be executed, so it sees the same results, and exceptions, as if it was
+ * firing the consequence itself. The session is never accessed by two threads at the same time, and the
+ * actions of the concurrent consequences are serialized in the order they are queued.
+ *
+ * The working memory, the knowledge runtime, the entry points and the channels a consequence gets from this
+ * helper are proxies of their interface, that execute each of its methods through the action queue as well.
+ * The objects those methods return, such as the agenda, aren't proxied, and must not be used by the
+ * consequence to change the session.
+ */
+public class ConcurrentKnowledgeHelper extends DefaultKnowledgeHelper {
+
+    private volatile Thread consequenceThread;
+
+    public ConcurrentKnowledgeHelper() {
+
+    }
+
+    public ConcurrentKnowledgeHelper(final WorkingMemory workingMemory) {
+        super( workingMemory );
+    }
+
+    /**
+     * Evaluates the consequence of the given activation on the calling thread, queueing its working memory actions.
+     */
+    public void evaluate(final Activation activation) throws Exception {
+        this.consequenceThread = Thread.currentThread();
+        try {
+            // the compiled consequences only read the facts and the globals from it
+            activation.getConsequence().evaluate( this,
+                                                  super.getWorkingMemory() );
+        } finally {
+            this.consequenceThread = null;
+        }
+    }
+
+    private <T> T execute(final Callable<T> callable) {
+        if ( Thread.currentThread() != this.consequenceThread ) {
+            // already on the firing thread
+            try {
+                return callable.call();
+            } catch ( RuntimeException e ) {
+                throw e;
+            } catch ( Exception e ) {
+                throw new RuntimeDroolsException( e );
+            }
+        }
+        ConsequenceAction<T> action = new ConsequenceAction<T>( callable );
+        ((InternalWorkingMemory) getWorkingMemory()).queueWorkingMemoryAction( action );
+        return action.get();
+    }
+
+    /**
+     * Returns a proxy of the given session object, that executes the methods of the given interface through the
+     * action queue when they are called by the consequence.
+     */
+    private <T> T guard(final T target,
+                        final Class<T> type) {
+        if ( target == null || Thread.currentThread() != this.consequenceThread ) {
+            return target;
+        }
+        return type.cast( Proxy.newProxyInstance( type.getClassLoader(),
+                                                  new Class<?>[]{type},
+                                                  new InvocationHandler() {
+                                                      public Object invoke(Object proxy,
+                                                                           final Method method,
+                                                                           final Object[] args) throws Throwable {
+                                                          if ( method.getDeclaringClass() == Object.class ) {
+                                                              return method.invoke( target,
+                                                                                    args );
+                                                          }
+                                                          return execute( new Callable<Object>() {
+                                                              public Object call() throws Exception {
+                                                                  try {
+                                                                      return method.invoke( target,
+                                                                                            args );
+                                                                  } catch ( InvocationTargetException e ) {
+                                                                      if ( e.getCause() instanceof Error ) {
+                                                                          throw (Error) e.getCause();
+                                                                      }
+                                                                      throw (Exception) e.getCause();
+                                                                  }
+                                                              }
+                                                          } );
+                                                      }
+                                                  } ) );
+    }
+
+    private <T> Map<String, T> guard(final Map<String, T> targets,
+                                     final Class<T> type) {
+        Map<String, T> guarded = new HashMap<String, T>();
+        for ( Map.Entry<String, T> entry : targets.entrySet() ) {
+            guarded.put( entry.getKey(),
+                         guard( entry.getValue(),
+                                type ) );
+        }
+        return Collections.unmodifiableMap( guarded );
+    }
+
+    public WorkingMemory getWorkingMemory() {
+        return guard( super.getWorkingMemory(),
+                      WorkingMemory.class );
+    }
+
+    public KnowledgeRuntime getKnowledgeRuntime() {
+        return guard( super.getKnowledgeRuntime(),
+                      KnowledgeRuntime.class );
+    }
+
+    public SessionEntryPoint getEntryPoint(String id) {
+        return guard( super.getEntryPoint( id ),
+                      SessionEntryPoint.class );
+    }
+
+    public Map<String, SessionEntryPoint> getEntryPoints() {
+        return guard( super.getEntryPoints(),
+                      SessionEntryPoint.class );
+    }
+
+    public Channel getChannel(String id) {
+        return guard( super.getChannel( id ),
+                      Channel.class );
+    }
+
+    public Map<String, Channel> getChannels() {
+        return guard( super.getChannels(),
+                      Channel.class );
+    }
+
+    public FactHandle insert(final Object object,
+                             final boolean dynamic) {
+        return execute( new Callable<FactHandle>() {
+            public FactHandle call() {
+                return ConcurrentKnowledgeHelper.super.insert( object,
+                                                               dynamic );
+            }
+        } );
+    }
+
+    public void insertLogical(final Object object,
+                              final Object value,
+                              final boolean dynamic) {
+        execute( new Callable<Object>() {
+            public Object call() {
+                ConcurrentKnowledgeHelper.super.insertLogical( object,
+                                                               value,
+                                                               dynamic );
+                return null;
+            }
+        } );
+    }
+
+    public void update(final FactHandle handle,
+                       final Object newObject) {
+        execute( new Callable<Object>() {
+            public Object call() {
+                ConcurrentKnowledgeHelper.super.update( handle,
+                                                        newObject );
+                return null;
+            }
+        } );
+    }
+
+    public void update(final FactHandle handle,
+                       final long mask,
+                       final Class<?> modifiedClass) {
+        execute( new Callable<Object>() {
+            public Object call() {
+                ConcurrentKnowledgeHelper.super.update( handle,
+                                                        mask,
+                                                        modifiedClass );
+                return null;
+            }
+        } );
+    }
+
+    public void update(final Object object,
+                       final long mask,
+                       final Class<?> modifiedClass) {
+        execute( new Callable<Object>() {
+            public Object call() {
+                ConcurrentKnowledgeHelper.super.update( object,
+                                                        mask,
+                                                        modifiedClass );
+                return null;
+            }
+        } );
+    }
+
+    public void retract(final Object object) {
+        execute( new Callable<Object>() {
+            public Object call() {
+                ConcurrentKnowledgeHelper.super.retract( object );
+                return null;
+            }
+        } );
+    }
+
+    public void retract(final FactHandle handle) {
+        execute( new Callable<Object>() {
+            public Object call() {
+                ConcurrentKnowledgeHelper.super.retract( handle );
+                return null;
+            }
+        } );
+    }
+
+    public FactHandle getFactHandle(final Object object) {
+        return execute( new Callable<FactHandle>() {
+            public FactHandle call() {
+                return ConcurrentKnowledgeHelper.super.getFactHandle( object );
+            }
+        } );
+    }
+
+    public FactHandle getFactHandle(final FactHandle handle) {
+        return execute( new Callable<FactHandle>() {
+            public FactHandle call() {
+                return ConcurrentKnowledgeHelper.super.getFactHandle( handle );
+            }
+        } );
+    }
+
+    public void setFocus(final String focus) {
+        execute( new Callable<Object>() {
+            public Object call() {
+                ConcurrentKnowledgeHelper.super.setFocus( focus );
+                return null;
+            }
+        } );
+    }
+
+    public void blockMatch(final Match act) {
+        execute( new Callable<Object>() {
+            public Object call() {
+                ConcurrentKnowledgeHelper.super.blockMatch( act );
+                return null;
+            }
+        } );
+    }
+
+    public void unblockAllMatches(final Match act) {
+        execute( new Callable<Object>() {
+            public Object call() {
+                ConcurrentKnowledgeHelper.super.unblockAllMatches( act );
+                return null;
+            }
+        } );
+    }
+
+    public void cancelMatch(final Match act) {
+        execute( new Callable<Object>() {
+            public Object call() {
+                ConcurrentKnowledgeHelper.super.cancelMatch( act );
+                return null;
+            }
+        } );
+    }
+
+    public <T, K> T don(final K core,
+                        final Class<T> trait,
+                        final boolean logical) {
+        return execute( new Callable<T>() {
+            public T call() {
+                return ConcurrentKnowledgeHelper.super.don( core,
+                                                            trait,
+                                                            logical );
+            }
+        } );
+    }
+
+    public <T, K, X extends TraitableBean> Thing<K> shed(final TraitableBean<K, X> core,
+                                                         final Class<T> trait) {
+        return execute( new Callable<Thing<K>>() {
+            public Thing<K> call() {
+                return ConcurrentKnowledgeHelper.super.shed( core,
+                                                             trait );
+            }
+        } );
+    }
+
+    /**
+     * A working memory action of a concurrent consequence, that the worker thread waits for.
+     */
+    public static class ConsequenceAction<T>
+        implements
+        WorkingMemoryAction {
+        private final Callable<T>    callable;
+        private final CountDownLatch done = new CountDownLatch( 1 );
+        private T                    result;
+        private Throwable            error;
+
+        public ConsequenceAction(Callable<T> callable) {
+            this.callable = callable;
+        }
+
+        public void execute(InternalWorkingMemory workingMemory) {
+            try {
+                this.result = this.callable.call();
+            } catch ( Throwable t ) {
+                // rethrown by the consequence
+                this.error = t;
+            } finally {
+                this.done.countDown();
+            }
+        }
+
+        public void execute(InternalKnowledgeRuntime kruntime) {
+            execute( ((StatefulKnowledgeSessionImpl) kruntime).getInternalWorkingMemory() );
+        }
+
+        /**
+         * Releases the consequence waiting for this action, that fails as the action is never executed.
+         */
+        public void cancel() {
+            this.error = new RuntimeDroolsException( "The rules stopped firing before the working memory action was executed" );
+            this.done.countDown();
+        }
+
+        public T get() {
+            try {
+                this.done.await();
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeDroolsException( "Interrupted while waiting for a working memory action",
+                                                  e );
+            }
+            if ( this.error instanceof RuntimeException ) {
+                throw (RuntimeException) this.error;
+            } else if ( this.error instanceof Error ) {
+                throw (Error) this.error;
+            } else if ( this.error != null ) {
+                throw new RuntimeDroolsException( this.error );
+            }
+            return this.result;
+        }
+
+        public void write(MarshallerWriteContext context) throws IOException {
+            throw new UnsupportedOperationException( "Should not be present in network on serialisation" );
+        }
+
+        public ProtobufMessages.ActionQueue.Action serialize(MarshallerWriteContext context) throws IOException {
+            throw new UnsupportedOperationException( "Should not be present in network on serialisation" );
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+        }
+
+        public void readExternal(ObjectInput in) throws IOException,
+                                                ClassNotFoundException {
+        }
+
+        public String toString() {
+            return "[ConsequenceAction " + this.callable + "]\n";
+        }
+    }
+}
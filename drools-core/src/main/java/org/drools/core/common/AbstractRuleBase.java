@@ -115,6 +115,9 @@ abstract public class AbstractRuleBase
      */
     private final ReentrantLock                           statefulSessionLock          = new ReentrantLock();
 
+    // incremented each time the rulebase is write locked, to detect the sessions built before a change
+    private final AtomicInteger                           lockCounter                  = new AtomicInteger( 0 );
+
     private int                                           additionsSinceLock;
     private int                                           removalsSinceLock;
 
@@ -144,6 +147,10 @@ abstract public class AbstractRuleBase
         return this.workingMemoryCounter.get();
     }
 
+    public int getLockCounter() {
+        return this.lockCounter.get();
+    }
+
     /**
      * Construct.
      *
@@ -477,6 +484,7 @@ abstract public class AbstractRuleBase
         // Always lock to increase the counter
         this.lock.writeLock();
         if ( firstLock ) {
+            this.lockCounter.incrementAndGet();
             this.additionsSinceLock = 0;
             this.removalsSinceLock = 0;
             this.eventSupport.fireAfterRuleBaseLocked();
@@ -486,6 +494,7 @@ abstract public class AbstractRuleBase
     public void unlock() {
         boolean lastUnlock = this.lock.getWriteHoldCount() == 1;
         if (lastUnlock) {
+            networkUpdated();
             this.eventSupport.fireBeforeRuleBaseUnlocked();
         }
         this.lock.writeUnlock();
@@ -494,6 +503,13 @@ abstract public class AbstractRuleBase
         }
     }
 
+    /**
+     * Called holding the write lock, before it is released by the thread that took it first, so that
+     * the changes made to the network can be completed at once. It must not throw.
+     */
+    protected void networkUpdated() {
+    }
+
     public void readLock() {
         this.lock.readLock();
     }
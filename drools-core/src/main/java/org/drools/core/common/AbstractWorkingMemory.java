@@ -58,6 +58,7 @@ import org.drools.core.reteoo.LIANodePropagation;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.ObjectTypeConf;
 import org.drools.core.reteoo.RuleTerminalNode;
+import org.drools.core.reteoo.TuplePool;
 import org.drools.core.rule.Declaration;
 import org.drools.core.rule.EntryPoint;
 import org.drools.core.rule.Rule;
@@ -72,6 +73,7 @@ import org.drools.core.spi.GlobalResolver;
 import org.drools.core.time.AcceptsTimerJobFactoryManager;
 import org.drools.core.time.TimerService;
 import org.drools.core.time.TimerServiceFactory;
+import org.drools.core.time.impl.PseudoClockScheduler;
 import org.drools.core.type.DateFormats;
 import org.drools.core.type.DateFormatsImpl;
 import org.kie.api.event.process.ProcessEventListener;
@@ -179,6 +181,8 @@ public abstract class AbstractWorkingMemory
 
     private transient ObjectMarshallingStrategyStore             marshallingStore;
 
+    private TuplePool                                            tuplePool;
+
     // ------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------
@@ -257,7 +261,11 @@ public abstract class AbstractWorkingMemory
         this.handleFactory = handleFactory;
         this.environment = environment;
 
-        nodeMemories = new ConcurrentNodeMemories( this.ruleBase );
+        if ( this.config.isSingleThreaded() ) {
+            nodeMemories = new SingleThreadedNodeMemories( this.ruleBase );
+        } else {
+            nodeMemories = new ConcurrentNodeMemories( this.ruleBase );
+        }
         actionQueue = new ConcurrentLinkedQueue<WorkingMemoryAction>();
 
         Globals globals = (Globals) this.environment.get( EnvironmentName.GLOBALS );
@@ -284,6 +292,10 @@ public abstract class AbstractWorkingMemory
 
         this.sequential = conf.isSequential();
 
+        if ( this.config.isTupleRecycling() ) {
+            this.tuplePool = new TuplePool();
+        }
+
         if ( initialFactHandle == null ) {
             this.initialFactHandle = handleFactory.newFactHandle( InitialFactImpl.getInstance(),
                                                                   null,
@@ -394,6 +406,10 @@ public abstract class AbstractWorkingMemory
         return this.config;
     }
 
+    public TuplePool getTuplePool() {
+        return this.tuplePool;
+    }
+
     public void reset() {
         throw new UnsupportedOperationException( "This should not be called" );
     }
@@ -426,6 +442,27 @@ public abstract class AbstractWorkingMemory
         // this.workItemManager.clear();
     }
 
+    /**
+     * Resets this working memory to the state of a new one, keeping its entry points, agenda, timer service
+     * and event supports, so that a pooled stateless session can reuse it. The pseudo clock, if any, is set
+     * back to 0, so it must have no pending jobs.
+     *
+     * The node memories are dropped, and created again lazily by the next execution, rather than cleared in
+     * place: the beta, accumulate, from and query memories, and the segment and path memories linking them,
+     * each have their own structure and linking state, and none of them has a clear method. Dropping them
+     * costs one array allocation, and an execution only creates again the memories of the nodes it reaches.
+     */
+    public void resetForReuse() {
+        // the initial fact handle of the constructor took the id and recency 0
+        reset( 0,
+               0,
+               0 );
+        this.agenda.reset();
+        if ( this.timerService instanceof PseudoClockScheduler ) {
+            ((PseudoClockScheduler) this.timerService).setStartupTime( 0 );
+        }
+    }
+
     public void setWorkingMemoryEventSupport(WorkingMemoryEventSupport workingMemoryEventSupport) {
         this.workingMemoryEventSupport = workingMemoryEventSupport;
     }
@@ -630,6 +667,8 @@ public abstract class AbstractWorkingMemory
                     }
                 }
 
+                flushPendingInserts();
+
                 // do we need to call this in advance?
                 executeQueuedActions();
 
@@ -646,6 +685,24 @@ public abstract class AbstractWorkingMemory
         return 0;
     }
 
+    /**
+     * Propagates the facts queued by the entry points when concurrent ingestion is enabled.
+     */
+    public void flushPendingInserts() {
+        for ( WorkingMemoryEntryPoint ep : this.entryPoints.values() ) {
+            ((NamedEntryPoint) ep).flushPendingInserts();
+        }
+    }
+
+    public boolean hasPendingInserts() {
+        for ( WorkingMemoryEntryPoint ep : this.entryPoints.values() ) {
+            if ( ((NamedEntryPoint) ep).hasPendingInserts() ) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Keeps firing activations until a halt is called. If in a given moment,
      * there is no activation to fire, it will wait for an activation to be
@@ -907,6 +964,18 @@ public abstract class AbstractWorkingMemory
                                        activation );
     }
 
+    public List<FactHandle> insertAll(final Collection<?> objects) throws FactException {
+        return this.defaultEntryPoint.insertAll( objects );
+    }
+
+    public void updateAll(final Collection<? extends org.kie.api.runtime.rule.FactHandle> handles) throws FactException {
+        this.defaultEntryPoint.updateAll( handles );
+    }
+
+    public void deleteAll(final Collection<? extends org.kie.api.runtime.rule.FactHandle> handles) throws FactException {
+        this.defaultEntryPoint.deleteAll( handles );
+    }
+
     public void executeQueuedActions() {
         try {
             startOperation();
@@ -1235,7 +1304,7 @@ public abstract class AbstractWorkingMemory
     }
 
     public long getFactCount() {
-        return getObjectStore().size();
+        return this.defaultEntryPoint.getFactCount();
     }
 
     public long getTotalFactCount() {
@@ -17,23 +17,33 @@
 package org.drools.core.common;
 
 import java.util.concurrent.atomic.AtomicReferenceArray;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
- * A concurrent implementation for the node memories interface
+ * A concurrent, lock-free, implementation for the node memories interface.
+ *
+ * The memories are kept in fixed size chunks, pre-sized from the node count of the rulebase. Growing the
+ * table only copies the references to the chunks, so a memory never moves once it is set, and it is created
+ * with a single compare-and-set: when two threads create the memory of the same node at the same time, the
+ * memory of the one that loses the race is discarded.
  */
 public class ConcurrentNodeMemories implements NodeMemories {
 
-    private AtomicReferenceArray<Memory> memories;
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE  = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK  = CHUNK_SIZE - 1;
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ConcurrentNodeMemories, AtomicReferenceArray[]> CHUNKS =
+            AtomicReferenceFieldUpdater.newUpdater( ConcurrentNodeMemories.class, AtomicReferenceArray[].class, "chunks" );
 
-    private Lock                         lock;
-    private InternalRuleBase             rulebase;
+    private volatile AtomicReferenceArray<Memory>[] chunks;
+
+    private InternalRuleBase                         rulebase;
 
     public ConcurrentNodeMemories( InternalRuleBase rulebase ) {
         this.rulebase = rulebase;
-        this.memories = new AtomicReferenceArray<Memory>( this.rulebase.getNodeCount() );
-        this.lock = new ReentrantLock();
+        this.chunks = newChunks( this.rulebase.getNodeCount(), null );
     }
 
     /**
@@ -41,87 +51,90 @@ public class ConcurrentNodeMemories implements NodeMemories {
      * @see org.kie.common.NodeMemories#clearNodeMemory(org.kie.common.MemoryFactory)
      */
     public void clearNodeMemory( MemoryFactory node ) {
-        this.memories.set( node.getId(),
-                           null );
+        AtomicReferenceArray<Memory>[] chunks = this.chunks;
+        if ( node.getId() >>> CHUNK_SHIFT < chunks.length ) {
+            chunks[node.getId() >>> CHUNK_SHIFT].set( node.getId() & CHUNK_MASK,
+                                                      null );
+        }
     }
     
     public void clear() {
-        this.memories = new AtomicReferenceArray<Memory>( this.rulebase.getNodeCount() );
+        this.chunks = newChunks( this.rulebase.getNodeCount(), null );
     }
 
     /**
      * @inheritDoc
      *
-     * The implementation tries to delay locking as much as possible, by running
-     * some potentialy unsafe opperations out of the critical session. In case it
-     * fails the checks, it will move into the critical sessions and re-check everything
-     * before effectively doing any change on data structures. 
+     * Never locks: an existing memory is returned by two array reads, a missing one is created and
+     * compare-and-set in its slot.
      *
      * @see org.kie.common.NodeMemories#getNodeMemory(org.kie.common.MemoryFactory)
      */
     public Memory getNodeMemory(MemoryFactory node, InternalWorkingMemory wm) {
-        if( node.getId() >= this.memories.length() ) {
-            resize( node );
+        int id = node.getId();
+        AtomicReferenceArray<Memory>[] chunks = this.chunks;
+        if ( id >>> CHUNK_SHIFT >= chunks.length ) {
+            chunks = resize( id );
         }
-        Memory memory = this.memories.get( node.getId() );
+        AtomicReferenceArray<Memory> chunk = chunks[id >>> CHUNK_SHIFT];
+        Memory memory = chunk.get( id & CHUNK_MASK );
 
         if( memory == null ) {
-            memory = createNodeMemory( node, wm );
+            memory = createNodeMemory( node, wm, chunk, id & CHUNK_MASK );
         }
 
         return memory;
     }
 
+    private Memory createNodeMemory( MemoryFactory node,
+                                     InternalWorkingMemory wm,
+                                     AtomicReferenceArray<Memory> chunk,
+                                     int index ) {
+        Memory memory = node.createMemory( this.rulebase.getConfiguration(), wm );
+        while ( !chunk.compareAndSet( index, null, memory ) ) {
+            Memory existing = chunk.get( index );
+            if ( existing != null ) {
+                // created first by another thread
+                return existing;
+            }
+        }
+        return memory;
+    }
 
     /**
-     * Checks if a memory does not exists for the given node and
-     * creates it.
-     * @param index 
-     * 
-     * @param node
-     * @return
+     * Grows the table to hold the given node, unless another thread already did it.
      */
-    private Memory createNodeMemory( MemoryFactory node,
-                                     InternalWorkingMemory wm ) {
-        try {
-            this.lock.lock();
-            // need to try again in a synchronized code block to make sure
-            // it was not created yet
-            Memory memory = this.memories.get( node.getId() );
-            if( memory == null ) {
-                memory = node.createMemory( this.rulebase.getConfiguration(), wm );
-
-                if( !this.memories.compareAndSet( node.getId(), null, memory ) ) {
-                    memory = this.memories.get( node.getId() );
-                }
-
+    private AtomicReferenceArray<Memory>[] resize( int nodeId ) {
+        while ( true ) {
+            AtomicReferenceArray<Memory>[] chunks = this.chunks;
+            if ( nodeId >>> CHUNK_SHIFT < chunks.length ) {
+                return chunks;
+            }
+            // adding some buffer for new nodes, so that we reduce array copies
+            int size = Math.max( this.rulebase.getNodeCount(), nodeId + 32 );
+            AtomicReferenceArray<Memory>[] newChunks = newChunks( size, chunks );
+            if ( CHUNKS.compareAndSet( this, chunks, newChunks ) ) {
+                return newChunks;
             }
-            return memory;
-        } finally {
-            this.lock.unlock();
-
         }
     }
 
     /**
-     * @param node
+     * Returns the chunks for the given number of nodes, sharing the existing ones.
      */
-    private void resize( MemoryFactory node ) {
-        try {
-            this.lock.lock();
-            if( node.getId() >= this.memories.length() ) {
-                // adding some buffer for new nodes, so that we reduce array copies
-                int size = Math.max( this.rulebase.getNodeCount(), node.getId() + 32 );
-                AtomicReferenceArray<Memory> newMem = new AtomicReferenceArray<Memory>( size );
-                for ( int i = 0; i < this.memories.length(); i++ ) {
-                    newMem.set( i,
-                                this.memories.get( i ) );
-                }
-                this.memories = newMem;
-            }
-        } finally {
-            this.lock.unlock();
+    @SuppressWarnings("unchecked")
+    private static AtomicReferenceArray<Memory>[] newChunks( int size,
+                                                             AtomicReferenceArray<Memory>[] chunks ) {
+        AtomicReferenceArray<Memory>[] newChunks = new AtomicReferenceArray[ Math.max( 1, ( size + CHUNK_MASK ) >>> CHUNK_SHIFT ) ];
+        int existing = 0;
+        if ( chunks != null ) {
+            existing = Math.min( chunks.length, newChunks.length );
+            System.arraycopy( chunks, 0, newChunks, 0, existing );
+        }
+        for ( int i = existing; i < newChunks.length; i++ ) {
+            newChunks[i] = new AtomicReferenceArray<Memory>( CHUNK_SIZE );
         }
+        return newChunks;
     }
 
     public void setRuleBaseReference( InternalRuleBase ruleBase ) {
@@ -129,11 +142,11 @@ public class ConcurrentNodeMemories implements NodeMemories {
     }
 
     public Memory peekNodeMemory(int nodeId) {
-        return this.memories.get( nodeId );
+        return this.chunks[nodeId >>> CHUNK_SHIFT].get( nodeId & CHUNK_MASK );
     }
 
     public int length() {
-        return this.memories.length();
+        return this.chunks.length << CHUNK_SHIFT;
     }
 
 }
@@ -17,10 +17,15 @@
 package org.drools.core.common;
 
 import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.SessionConfiguration;
 import org.drools.core.WorkingMemory;
+import org.drools.core.base.ConcurrentKnowledgeHelper;
 import org.drools.core.base.DefaultKnowledgeHelper;
 import org.drools.core.common.RuleFlowGroupImpl.DeactivateCallback;
+import org.drools.core.marshalling.impl.MarshallerWriteContext;
+import org.drools.core.marshalling.impl.ProtobufMessages;
 import org.drools.core.util.ClassUtils;
+import org.drools.core.phreak.ParallelRuleNetworkEvaluator;
 import org.drools.core.phreak.RuleNetworkEvaluatorActivation;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.ObjectTypeConf;
@@ -43,6 +48,7 @@ import org.drools.core.time.impl.Timer;
 import org.kie.api.event.rule.MatchCancelledCause;
 import org.kie.api.runtime.process.ProcessInstance;
 import org.kie.api.runtime.rule.Match;
+import org.kie.internal.concurrent.ExecutorProviderFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -56,7 +62,11 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Rule-firing Agenda.
@@ -121,12 +131,27 @@ public class DefaultAgenda
     
     private ActivationsFilter                                   activationsFilter;
 
+    private final FiringNotifier                                notifier           = new FiringNotifier();
+
     private volatile boolean                                    isFiringActivation = false;
 
     private volatile boolean                                    mustNotifyHalt     = false;
 
     private boolean                                             unlinkingEnabled;                          
 
+    private ParallelRuleNetworkEvaluator                        parallelEvaluator;
+
+    private Set<String>                                         concurrentAgendaGroups;
+
+    private int                                                 consequenceThreads;
+
+    private Executor                                            consequenceExecutor;
+
+    private boolean                                             concurrentFiring;
+
+    // the consequences running on the consequenceExecutor, or whose firing hasn't been ended yet by the action queue
+    private final AtomicInteger                                 concurrentActivations = new AtomicInteger();
+
     // ------------------------------------------------------------
     // Constructors
     // ------------------------------------------------------------
@@ -184,6 +209,10 @@ public class DefaultAgenda
         this.declarativeAgenda =  rb.getConfiguration().isDeclarativeAgenda();
         
         this.unlinkingEnabled = rb.getConfiguration().isPhreakEnabled();
+
+        if ( this.unlinkingEnabled && rb.getConfiguration().isParallelEvaluation() ) {
+            this.parallelEvaluator = new ParallelRuleNetworkEvaluator( rb.getConfiguration().getMaxThreads() );
+        }
     }
     
     public RuleNetworkEvaluatorActivation createRuleNetworkEvaluatorActivation(final int salience,
@@ -225,6 +254,12 @@ public class DefaultAgenda
             this.knowledgeHelper = rbc.getComponentFactory().getKnowledgeHelperFactory().newSequentialKnowledgeHelper( this.workingMemory );
         } else {
             this.knowledgeHelper = rbc.getComponentFactory().getKnowledgeHelperFactory().newStatefulKnowledgeHelper( this.workingMemory );
+            SessionConfiguration sessionConf = this.workingMemory.getSessionConfiguration();
+            if ( sessionConf != null && !sessionConf.getConcurrentAgendaGroups().isEmpty() ) {
+                this.concurrentAgendaGroups = sessionConf.getConcurrentAgendaGroups();
+                this.consequenceThreads = sessionConf.getConsequenceThreads() > 0 ? sessionConf.getConsequenceThreads() : Runtime.getRuntime().availableProcessors();
+                this.consequenceExecutor = ExecutorProviderFactory.getExecutorProvider().getExecutor();
+            }
         }
     }
 
@@ -1084,6 +1119,30 @@ public class DefaultAgenda
         }
     }
 
+    /**
+     * Resets this agenda to the state of a new one. Unlike clear, it drops the rule network evaluators too,
+     * so it can be reused by a working memory whose node memories have been cleared.
+     */
+    public void reset() {
+        clear();
+
+        this.agendaGroups.clear();
+        this.activationGroups.clear();
+        this.ruleFlowGroups.clear();
+        this.stagedActivations = null;
+
+        this.main = this.agendaGroupFactory.createAgendaGroup( AgendaGroup.MAIN,
+                                                               (InternalRuleBase) this.workingMemory.getRuleBase() );
+        this.agendaGroups.put( AgendaGroup.MAIN,
+                               this.main );
+        this.focusStack.clear();
+        this.focusStack.add( this.main );
+        this.currentModule = null;
+
+        this.activationCounter = 0;
+        this.halt.set( false );
+    }
+
     public void clearAndCancel() {
         // Cancel all items and fire a Cancelled event for each Activation
         for (InternalAgendaGroup internalAgendaGroup : this.agendaGroups.values()) {
@@ -1316,13 +1375,20 @@ public class DefaultAgenda
                         
                         // if that item is allowed to fire
                         if ( filter == null || filter.accept( item ) ) {                            
-                            if (  this.unlinkingEnabled && item.isRuleNetworkEvaluatorActivation() ) {
+                            if (  this.unlinkingEnabled && item.isRuleNetworkEvaluatorActivation() && this.parallelEvaluator != null ) {
+                                evaluateNetworks( (RuleNetworkEvaluatorActivation) item, group, filter );
+                                result = 0;
+                            } else if (  this.unlinkingEnabled && item.isRuleNetworkEvaluatorActivation() ) {
                                 item.setActivated( false );                             
                                 int count = ((RuleNetworkEvaluatorActivation)item).evaluateNetwork( this.workingMemory );
                                 //if ( count > 0 ) {
                                 //    addActivation( item, true );
                                 //}
                                 result = 0;
+                            } else if ( ruleFlowGroup == null && isConcurrentActivation( item ) ) {
+                                // fire it on the consequence executor
+                                fireActivationConcurrently( item );
+                                result = 1;
                             } else {
                                 // fire it
                                 fireActivation( item );
@@ -1360,6 +1426,27 @@ public class DefaultAgenda
         return result;
     }
 
+    /**
+     * Evaluates the given rule network evaluator, together with all the evaluators
+     * immediately following it in the agenda group, so that the independent ones
+     * can be evaluated concurrently.
+     */
+    private void evaluateNetworks(final RuleNetworkEvaluatorActivation item,
+                                  final InternalAgendaGroup group,
+                                  final AgendaFilter filter) {
+        List<RuleNetworkEvaluatorActivation> items = new ArrayList<RuleNetworkEvaluatorActivation>();
+        items.add( item );
+        for ( AgendaItem next = (AgendaItem) group.peekNext(); next != null; next = (AgendaItem) group.peekNext() ) {
+            if ( !next.isRuleNetworkEvaluatorActivation() || next.getActivationNode() != null || ( filter != null && !filter.accept( next ) ) ) {
+                break;
+            }
+            group.getNext();
+            items.add( (RuleNetworkEvaluatorActivation) next );
+        }
+        this.parallelEvaluator.evaluateNetworks( items,
+                                                 this.workingMemory );
+    }
+
     /**
      * Fire this item.
      * 
@@ -1401,16 +1488,8 @@ public class DefaultAgenda
                 this.knowledgeHelper.cancelRemainingPreviousLogicalDependencies();
                 this.knowledgeHelper.reset();
             } catch ( final Exception e ) {
-                if ( this.legacyConsequenceExceptionHandler != null ) {
-                    this.legacyConsequenceExceptionHandler.handleException( activation,
-                                                                            this.workingMemory,
-                                                                            e );
-                } else if ( this.consequenceExceptionHandler != null ) {
-                    this.consequenceExceptionHandler.handleException( activation, this.workingMemory.getKnowledgeRuntime(),
-                                                                      e );
-                } else {
-                    throw new RuntimeException( e );
-                }
+                handleConsequenceException( activation,
+                                            e );
             } finally {
                 if ( activation.getFactHandle() != null ) {
                     // update the Activation in the WM
@@ -1418,21 +1497,7 @@ public class DefaultAgenda
                     workingMemory.getEntryPointNode().modifyActivation( factHandle, activation.getPropagationContext(), workingMemory );
                     activation.getPropagationContext().evaluateActionQueue( workingMemory );
                 }
-                // if the tuple contains expired events 
-                for ( LeftTuple tuple = activation.getTuple(); tuple != null; tuple = tuple.getParent() ) {
-                    if ( tuple.getLastHandle().isEvent() ) {
-                        EventFactHandle handle = (EventFactHandle) tuple.getLastHandle();
-                        // decrease the activation count for the event
-                        handle.decreaseActivationsCount();
-                        // handles "expire" only in stream mode.
-                        if ( handle.isExpired() ) {
-                            if ( handle.getActivationsCount() <= 0 ) {
-                                // and if no more activations, retract the handle
-                                handle.getEntryPoint().retract( handle );
-                            }
-                        }
-                    }
-                }
+                retractExpiredEvents( activation );
             }
 
             eventsupport.getAgendaEventSupport().fireAfterActivationFired( activation,
@@ -1450,6 +1515,217 @@ public class DefaultAgenda
     }
 
 
+    private void handleConsequenceException(final Activation activation,
+                                            final Exception e) {
+        if ( this.legacyConsequenceExceptionHandler != null ) {
+            this.legacyConsequenceExceptionHandler.handleException( activation,
+                                                                    this.workingMemory,
+                                                                    e );
+        } else if ( this.consequenceExceptionHandler != null ) {
+            this.consequenceExceptionHandler.handleException( activation, this.workingMemory.getKnowledgeRuntime(),
+                                                              e );
+        } else {
+            throw new RuntimeException( e );
+        }
+    }
+
+    private void retractExpiredEvents(final Activation activation) {
+        // if the tuple contains expired events 
+        for ( LeftTuple tuple = activation.getTuple(); tuple != null; tuple = tuple.getParent() ) {
+            if ( tuple.getLastHandle().isEvent() ) {
+                EventFactHandle handle = (EventFactHandle) tuple.getLastHandle();
+                // decrease the activation count for the event
+                handle.decreaseActivationsCount();
+                // handles "expire" only in stream mode.
+                if ( handle.isExpired() ) {
+                    if ( handle.getActivationsCount() <= 0 ) {
+                        // and if no more activations, retract the handle
+                        handle.getEntryPoint().retract( handle );
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns true if the given activation can be fired on the consequence executor: fireUntilHalt is running,
+     * its rule belongs to one of the "drools.concurrentAgendaGroups", and it isn't bound to an activation group
+     * or to the declarative agenda, that must see the consequences fired one at a time.
+     */
+    private boolean isConcurrentActivation(final AgendaItem item) {
+        return this.concurrentFiring && item.getActivationGroupNode() == null && item.getFactHandle() == null &&
+               this.concurrentAgendaGroups.contains( item.getRule().getAgendaGroup() );
+    }
+
+    /**
+     * Fires the consequence of this item on the consequence executor. Its working memory actions are queued
+     * by a ConcurrentKnowledgeHelper, and executed by this thread, together with the end of the firing, through
+     * executeQueuedActions.
+     */
+    private void fireActivationConcurrently(final AgendaItem activation) {
+        final EventSupport eventsupport = (EventSupport) this.workingMemory;
+
+        eventsupport.getAgendaEventSupport().fireBeforeActivationFired( activation,
+                                                                        this.workingMemory );
+        activation.setActivated( false );
+
+        final ConcurrentKnowledgeHelper helper = new ConcurrentKnowledgeHelper( this.workingMemory );
+        helper.setActivation( activation );
+        if ( log.isTraceEnabled() ) {
+            log.trace( "Fire concurrently \"{}\" \n{}", activation.getRule().getName(), activation.getTuple() );
+        }
+
+        this.concurrentActivations.incrementAndGet();
+        try {
+            this.consequenceExecutor.execute( new Runnable() {
+                public void run() {
+                    Throwable error = null;
+                    try {
+                        helper.evaluate( activation );
+                    } catch ( Throwable t ) {
+                        error = t;
+                    }
+                    workingMemory.queueWorkingMemoryAction( new ConcurrentActivationFiredAction( activation,
+                                                                                                 helper,
+                                                                                                 error ) );
+                }
+            } );
+        } catch ( RuntimeException e ) {
+            // rejected by the executor
+            this.concurrentActivations.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private synchronized void concurrentActivationFired(final Activation activation,
+                                                        final ConcurrentKnowledgeHelper helper,
+                                                        final Throwable error) {
+        this.concurrentActivations.decrementAndGet();
+        try {
+            if ( error instanceof Error ) {
+                throw (Error) error;
+            } else if ( error != null ) {
+                handleConsequenceException( activation,
+                                            (Exception) error );
+            } else {
+                helper.cancelRemainingPreviousLogicalDependencies();
+                helper.reset();
+            }
+        } finally {
+            retractExpiredEvents( activation );
+        }
+
+        ((EventSupport) this.workingMemory).getAgendaEventSupport().fireAfterActivationFired( activation,
+                                                                                             this.workingMemory );
+        unstageActivations();
+    }
+
+    /**
+     * Executes the queued actions until all the consequences running on the consequence executor are done.
+     */
+    private void waitForConcurrentActivations() {
+        boolean interrupted = false;
+        while ( this.concurrentActivations.get() > 0 ) {
+            this.notifier.consume();
+            this.workingMemory.executeQueuedActions();
+            if ( this.concurrentActivations.get() > 0 ) {
+                try {
+                    this.notifier.await();
+                } catch ( InterruptedException e ) {
+                    // the workers are waiting for their actions, so the queue must be drained anyway
+                    interrupted = true;
+                }
+            }
+        }
+        if ( interrupted ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Fails the actions the running consequences are waiting for, until they are all done, when fireUntilHalt
+     * stops on an exception and won't execute them anymore. The firing of those consequences isn't ended, and
+     * the other queued actions are left for the next firing.
+     */
+    private void cancelConcurrentActivations() {
+        Queue<WorkingMemoryAction> actionQueue = ((AbstractWorkingMemory) this.workingMemory).getActionQueue();
+        boolean interrupted = false;
+        while ( this.concurrentActivations.get() > 0 ) {
+            this.notifier.consume();
+            for ( Iterator<WorkingMemoryAction> it = actionQueue.iterator(); it.hasNext(); ) {
+                WorkingMemoryAction action = it.next();
+                if ( action instanceof ConcurrentKnowledgeHelper.ConsequenceAction ) {
+                    it.remove();
+                    ((ConcurrentKnowledgeHelper.ConsequenceAction<?>) action).cancel();
+                } else if ( action instanceof ConcurrentActivationFiredAction ) {
+                    it.remove();
+                    this.concurrentActivations.decrementAndGet();
+                }
+            }
+            if ( this.concurrentActivations.get() > 0 ) {
+                try {
+                    this.notifier.await();
+                } catch ( InterruptedException e ) {
+                    // the workers would never be released
+                    interrupted = true;
+                }
+            }
+        }
+        if ( interrupted ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Ends the firing of a consequence run on the consequence executor, on the thread firing the rules.
+     */
+    private class ConcurrentActivationFiredAction
+        implements
+        WorkingMemoryAction {
+        private final Activation                activation;
+        private final ConcurrentKnowledgeHelper helper;
+        private final Throwable                 error;
+
+        private ConcurrentActivationFiredAction(Activation activation,
+                                                ConcurrentKnowledgeHelper helper,
+                                                Throwable error) {
+            this.activation = activation;
+            this.helper = helper;
+            this.error = error;
+        }
+
+        public void execute(InternalWorkingMemory workingMemory) {
+            concurrentActivationFired( this.activation,
+                                       this.helper,
+                                       this.error );
+        }
+
+        public void execute(InternalKnowledgeRuntime kruntime) {
+            concurrentActivationFired( this.activation,
+                                       this.helper,
+                                       this.error );
+        }
+
+        public void write(MarshallerWriteContext context) throws IOException {
+            throw new UnsupportedOperationException( "Should not be present in network on serialisation" );
+        }
+
+        public ProtobufMessages.ActionQueue.Action serialize(MarshallerWriteContext context) throws IOException {
+            throw new UnsupportedOperationException( "Should not be present in network on serialisation" );
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+        }
+
+        public void readExternal(ObjectInput in) throws IOException,
+                                                ClassNotFoundException {
+        }
+
+        public String toString() {
+            return "[ConcurrentActivationFiredAction activation=" + this.activation + "]\n";
+        }
+    }
+
     public synchronized boolean fireTimedActivation( final Activation activation, boolean saveForLater ) throws ConsequenceException {
         //TODO : "save for later" : put activation in queue if halted, then dispatch again on next fire
         if ( ! this.halt.get() ) {
@@ -1518,20 +1794,35 @@ public class DefaultAgenda
     public void fireUntilHalt(final AgendaFilter agendaFilter) {
         unstageActivations();
         this.halt.set( false );
-        while ( continueFiring( -1 ) ) {
-            boolean fired = fireNextItem( agendaFilter ) >= 0 || 
-                                !((AbstractWorkingMemory) this.workingMemory).getActionQueue().isEmpty();
-            this.workingMemory.executeQueuedActions();
-            if ( !fired ) {
-                try {
-                    synchronized ( this.halt ) {
-                        if( !this.halt.get() ) this.halt.wait();
+        this.concurrentFiring = this.concurrentAgendaGroups != null;
+        boolean completed = false;
+        try {
+            while ( continueFiring( -1 ) ) {
+                // consumed before looking for work, so any work added from now on signals the notifier again
+                this.notifier.consume();
+                ((AbstractWorkingMemory) this.workingMemory).flushPendingInserts();
+                // when all the consequence threads are busy, only the queued actions are executed until one is done
+                boolean fired = ( this.concurrentActivations.get() < this.consequenceThreads || !this.concurrentFiring ) && fireNextItem( agendaFilter ) >= 0 ||
+                                    !((AbstractWorkingMemory) this.workingMemory).getActionQueue().isEmpty() ||
+                                    ((AbstractWorkingMemory) this.workingMemory).hasPendingInserts();
+                this.workingMemory.executeQueuedActions();
+                if ( !fired ) {
+                    try {
+                        this.notifier.await();
+                    } catch ( InterruptedException e ) {
+                        this.halt.set( true );
                     }
-                } catch ( InterruptedException e ) {
-                    this.halt.set( true );
+                } else {
+                    this.workingMemory.executeQueuedActions();
                 }
-            } else {
-                this.workingMemory.executeQueuedActions();
+            }
+            waitForConcurrentActivations();
+            completed = true;
+        } finally {
+            this.concurrentFiring = false;
+            if ( !completed ) {
+                // a consequence, or an action, failed: releases the consequences still running
+                cancelConcurrentActivations();
             }
         }
     }
@@ -1567,9 +1858,14 @@ public class DefaultAgenda
     }
 
     public void notifyHalt() {
-        synchronized ( this.halt ) {
-            this.halt.notifyAll();
-        }
+        this.notifier.signal();
+    }
+
+    /**
+     * Returns the notifier waking up fireUntilHalt, with the latency between the insertion of new work and its evaluation.
+     */
+    public FiringNotifier getFiringNotifier() {
+        return this.notifier;
     }
 
     public void halt() {
@@ -44,6 +44,8 @@ public class DefaultBetaConstraints
 
     private transient boolean           disableIndexing;
 
+    private transient boolean           rangeIndex;
+
     private BetaNodeFieldConstraint[] constraints;
 
     private IndexPrecedenceOption indexPrecedenceOption;
@@ -66,6 +68,7 @@ public class DefaultBetaConstraints
                                   final boolean disableIndexing) {
         this.constraints = constraints;
         this.disableIndexing = disableIndexing;
+        this.rangeIndex = conf.isRangeIndex();
         this.indexPrecedenceOption = conf.getIndexPrecedenceOption();
     }
 
@@ -87,7 +90,7 @@ public class DefaultBetaConstraints
 
     public void initIndexes(int depth, short betaNodeType) {
         indexed = 0;
-        boolean[] indexable = isIndexableForNode(indexPrecedenceOption, betaNodeType, depth, constraints);
+        boolean[] indexable = isIndexableForNode(indexPrecedenceOption, betaNodeType, depth, constraints, rangeIndex);
         for (boolean i : indexable) {
             if (i) {
                 indexed++;
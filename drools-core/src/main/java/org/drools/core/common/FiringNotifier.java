@@ -0,0 +1,125 @@
+/*
+ * Copyright 2013 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.common;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Signals the thread running fireUntilHalt that there is new work for it: inserted facts, activations or
+ * queued actions.
+ *
+ * The signal is a lock-free flag, holding the time of the first signal not consumed yet by the firing loop.
+ * The signals are coalesced: while the flag is set, as it is while the firing loop is busy, signalling
+ * costs a single volatile read, and only the first signal after the loop consumed the previous ones can
+ * unpark it. The firing loop must consume the signal before looking for work, and await it when it finds none,
+ * so no signal can be missed.
+ *
+ * It also keeps the latency between the first signal and its consumption, published by the session MBean.
+ */
+public class FiringNotifier {
+
+    private final AtomicLong signalledAt = new AtomicLong();
+
+    private volatile Thread  waiter;
+
+    private final AtomicLong latencyCount = new AtomicLong();
+    private final AtomicLong latencyTotal = new AtomicLong();
+    private final AtomicLong latencyMax   = new AtomicLong();
+
+    /**
+     * Signals the firing loop that there is new work, unparking it if it is waiting.
+     */
+    public void signal() {
+        if ( this.signalledAt.get() == 0 && this.signalledAt.compareAndSet( 0, now() ) ) {
+            Thread thread = this.waiter;
+            if ( thread != null ) {
+                LockSupport.unpark( thread );
+            }
+        }
+    }
+
+    /**
+     * Consumes the pending signal, if any, recording its latency. Returns true if there was one.
+     */
+    public boolean consume() {
+        long signalTime = this.signalledAt.getAndSet( 0 );
+        if ( signalTime == 0 ) {
+            return false;
+        }
+        long latency = System.nanoTime() - signalTime;
+        this.latencyCount.incrementAndGet();
+        this.latencyTotal.addAndGet( latency );
+        for ( long max = this.latencyMax.get(); latency > max && !this.latencyMax.compareAndSet( max, latency ); max = this.latencyMax.get() ) {
+            // retry until the max is updated or greater than this latency
+        }
+        return true;
+    }
+
+    /**
+     * Parks the calling thread until a signal is pending. Only the firing loop may wait.
+     *
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void await() throws InterruptedException {
+        this.waiter = Thread.currentThread();
+        try {
+            while ( this.signalledAt.get() == 0 ) {
+                LockSupport.park( this );
+                if ( Thread.interrupted() ) {
+                    throw new InterruptedException();
+                }
+            }
+        } finally {
+            this.waiter = null;
+        }
+    }
+
+    private static long now() {
+        long now = System.nanoTime();
+        // 0 means not signalled
+        return now != 0 ? now : 1;
+    }
+
+    /**
+     * Returns the number of signals consumed by the firing loop.
+     */
+    public long getLatencyCount() {
+        return this.latencyCount.get();
+    }
+
+    /**
+     * Returns the average time, in nanoseconds, between the first signal and its consumption.
+     */
+    public double getAverageLatency() {
+        long count = this.latencyCount.get();
+        return count > 0 ? (double) this.latencyTotal.get() / (double) count : 0;
+    }
+
+    /**
+     * Returns the maximum time, in nanoseconds, between the first signal and its consumption.
+     */
+    public long getMaxLatency() {
+        return this.latencyMax.get();
+    }
+
+    public void resetLatency() {
+        this.latencyCount.set( 0 );
+        this.latencyTotal.set( 0 );
+        this.latencyMax.set( 0 );
+    }
+}
@@ -118,6 +118,11 @@ public interface InternalAgenda
 
     public void clear();
 
+    /**
+     * Resets the agenda to the state of a new one, dropping all its activations and groups.
+     */
+    public void reset();
+
     public void setWorkingMemory(final InternalWorkingMemory workingMemory);
 
     /**
@@ -139,6 +144,10 @@ public interface InternalAgenda
      */
     public void halt();
 
+    /**
+     * Signals fireUntilHalt that there is new work to evaluate, waking it up if it is waiting.
+     * It is cheap to call repeatedly, as the signals are coalesced until fireUntilHalt consumes them.
+     */
     public void notifyHalt();
 
     /**
@@ -49,6 +49,12 @@ public interface InternalRuleBase
     
     int nextWorkingMemoryCounter();
 
+    /**
+     * Returns the number of times this rulebase has been write locked, to modify it.
+     * The state cached by a session is stale if the counter changed since the session was built.
+     */
+    int getLockCounter();
+
     FactHandleFactory newFactHandleFactory();
     
     FactHandleFactory newFactHandleFactory(int id, long counter) throws IOException ;
@@ -28,6 +28,7 @@ import org.drools.core.event.WorkingMemoryEventSupport;
 import org.drools.core.reteoo.EntryPointNode;
 import org.drools.core.reteoo.LIANodePropagation;
 import org.drools.core.reteoo.ObjectTypeConf;
+import org.drools.core.reteoo.TuplePool;
 import org.drools.core.rule.EntryPoint;
 import org.drools.core.rule.Rule;
 import org.drools.core.runtime.impl.ExecutionResultImpl;
@@ -130,6 +131,12 @@ public interface InternalWorkingMemory
     public Map<String, ? extends SessionEntryPoint> getEntryPoints();
 
     public SessionConfiguration getSessionConfiguration();
+
+    /**
+     * Returns the pool recycling the tuples of the join nodes, or null when the
+     * drools.tupleRecycling option isn't enabled for this session.
+     */
+    public TuplePool getTuplePool();
     
     
     public void startBatchExecution(ExecutionResultImpl results);
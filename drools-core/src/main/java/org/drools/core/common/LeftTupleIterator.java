@@ -1,9 +1,8 @@
 package org.drools.core.common;
 
 import org.drools.core.util.FastIterator;
+import org.drools.core.util.IntHashMap;
 import org.drools.core.util.Iterator;
-import org.drools.core.util.ObjectHashSet;
-import org.drools.core.util.ObjectHashSet.ObjectEntry;
 import org.drools.core.reteoo.AccumulateNode;
 import org.drools.core.reteoo.AccumulateNode.AccumulateMemory;
 import org.drools.core.reteoo.BetaMemory;
@@ -34,8 +33,8 @@ public class LeftTupleIterator
     private LeftTuple             currentLeftTuple;
 
     // Iterates object type nodes
-    private ObjectEntry           factHandleEntry;
-    Iterator                      otnIterator;
+    private InternalFactHandle    factHandle;
+    Iterator<InternalFactHandle>  otnIterator;
 
     LeftTupleIterator() {
 
@@ -117,12 +116,11 @@ public class LeftTupleIterator
             }
             otn = (ObjectTypeNode) os;
 
-            ObjectHashSet memory = ((ObjectTypeNodeMemory) wm.getNodeMemory( otn )).memory;
+            IntHashMap<InternalFactHandle> memory = ((ObjectTypeNodeMemory) wm.getNodeMemory( otn )).memory;
             otnIterator = memory.iterator();
 
-            for ( factHandleEntry = (ObjectEntry) otnIterator.next(); factHandleEntry != null; factHandleEntry = (ObjectEntry) otnIterator.next() ) {
-                InternalFactHandle handle = (InternalFactHandle) factHandleEntry.getValue();
-                for ( LeftTuple leftTuple = handle.getFirstLeftTuple(); leftTuple != null; leftTuple = leftTuple.getLeftParentNext() ) {
+            for ( factHandle = otnIterator.next(); factHandle != null; factHandle = otnIterator.next() ) {
+                for ( LeftTuple leftTuple = factHandle.getFirstLeftTuple(); leftTuple != null; leftTuple = leftTuple.getLeftParentNext() ) {
                     if ( leftTuple.getLeftTupleSink() == sink ) {
                         return leftTuple;
                     }
@@ -168,7 +166,7 @@ public class LeftTupleIterator
                                       LeftTuple leftTuple,
                                       InternalWorkingMemory wm) {
 
-        if ( factHandleEntry != null ) {
+        if ( factHandle != null ) {
             LeftTuple leftParent = leftTuple.getLeftParent();
             
             while ( leftTuple != null ) {
@@ -209,22 +207,21 @@ public class LeftTupleIterator
                 return null;
             }
 
-            if ( factHandleEntry == null ) {
+            if ( factHandle == null ) {
                 // we've exhausted this OTN
                 return null;
             }
 
             // We have exhausted the current FactHandle, now try the next                     
-            for ( factHandleEntry = (ObjectEntry) otnIterator.next(); factHandleEntry != null; factHandleEntry = (ObjectEntry) otnIterator.next() ) {
-                InternalFactHandle handle = (InternalFactHandle) factHandleEntry.getValue();
-                for ( leftTuple = handle.getFirstLeftTuple(); leftTuple != null; leftTuple = leftTuple.getLeftParentNext() ) {
+            for ( factHandle = otnIterator.next(); factHandle != null; factHandle = otnIterator.next() ) {
+                for ( leftTuple = factHandle.getFirstLeftTuple(); leftTuple != null; leftTuple = leftTuple.getLeftParentNext() ) {
                     if ( leftTuple.getLeftTupleSink() == sink ) {
                         return leftTuple;
                     }
                 }
             }
             // We've exhausted this OTN so set the iterator to null
-            factHandleEntry = null;
+            factHandle = null;
             otnIterator = null;
 
         } else if ( source instanceof JoinNode || source instanceof NotNode|| source instanceof FromNode || source instanceof AccumulateNode ) {
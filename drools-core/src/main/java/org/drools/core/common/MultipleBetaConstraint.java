@@ -20,6 +20,7 @@ public abstract class MultipleBetaConstraint implements BetaConstraints {
     protected boolean[]                 indexed;
     private IndexPrecedenceOption       indexPrecedenceOption;
     private transient boolean           disableIndexing;
+    private transient boolean           rangeIndex;
 
     public MultipleBetaConstraint() { }
 
@@ -28,6 +29,7 @@ public abstract class MultipleBetaConstraint implements BetaConstraints {
                                    boolean disableIndexing) {
         this.constraints = constraints;
         this.disableIndexing = disableIndexing;
+        this.rangeIndex = conf.isRangeIndex();
         this.indexPrecedenceOption = conf.getIndexPrecedenceOption();
     }
 
@@ -60,7 +62,7 @@ public abstract class MultipleBetaConstraint implements BetaConstraints {
     }
 
     public final void initIndexes(int depth, short betaNodeType) {
-        indexed = isIndexableForNode(indexPrecedenceOption, betaNodeType, depth, constraints);
+        indexed = isIndexableForNode(indexPrecedenceOption, betaNodeType, depth, constraints, rangeIndex);
     }
 
     public final boolean isIndexed() {
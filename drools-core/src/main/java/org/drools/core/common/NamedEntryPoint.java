@@ -20,10 +20,17 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.drools.core.FactException;
@@ -33,9 +40,9 @@ import org.drools.core.RuleBaseConfiguration.AssertBehaviour;
 import org.drools.core.RuntimeDroolsException;
 import org.drools.core.WorkingMemoryEntryPoint;
 import org.drools.core.base.ClassObjectType;
+import org.drools.core.facttemplates.Fact;
+import org.drools.core.util.IntHashMap;
 import org.drools.core.util.Iterator;
-import org.drools.core.util.ObjectHashSet;
-import org.drools.core.util.ObjectHashSet.ObjectEntry;
 import org.drools.core.impl.StatefulKnowledgeSessionImpl.ObjectStoreWrapper;
 import org.drools.core.reteoo.EntryPointNode;
 import org.drools.core.reteoo.ObjectTypeConf;
@@ -83,6 +90,21 @@ public class NamedEntryPoint
     
     protected Set<InternalFactHandle>       dynamicFacts = null;
 
+    /**
+     * Handles inserted, but not yet propagated, when the session uses concurrent ingestion.
+     * It is null otherwise.
+     */
+    private final Queue<InternalFactHandle> pendingInserts;
+
+    /**
+     * The handles of the facts of this entry point, pending or propagated, by object, when the session
+     * uses concurrent ingestion, so that a producer inserting an object again gets its handle back without
+     * taking the lock. It is null otherwise, and only used once seeded with the facts of the object store.
+     */
+    private final ConcurrentMap<Object, InternalFactHandle> ingestedHandles;
+    private volatile boolean                                ingestedHandlesSeeded;
+    private final boolean                                   identityIngestion;
+
     public NamedEntryPoint(EntryPoint entryPoint,
                            EntryPointNode entryPointNode,
                            AbstractWorkingMemory wm) {
@@ -103,12 +125,30 @@ public class NamedEntryPoint
         this.lock = lock;
         this.typeConfReg = new ObjectTypeConfigurationRegistry( this.ruleBase );
         this.handleFactory = this.wm.getFactHandleFactory();
-        this.objectStore = new SingleThreadedObjectStore( this.ruleBase.getConfiguration(),
-                                                          this.lock );
+        if ( this.wm.getSessionConfiguration() != null && this.wm.getSessionConfiguration().isOffHeapObjectStore() ) {
+            this.objectStore = new OffHeapObjectStore( this.ruleBase.getConfiguration(),
+                                                       this.lock );
+        } else {
+            this.objectStore = new SingleThreadedObjectStore( this.ruleBase.getConfiguration(),
+                                                              this.lock );
+        }
+        if ( this.wm.getSessionConfiguration() != null && this.wm.getSessionConfiguration().isConcurrentIngestion() ) {
+            this.pendingInserts = new ConcurrentLinkedQueue<InternalFactHandle>();
+            this.ingestedHandles = new ConcurrentHashMap<Object, InternalFactHandle>();
+        } else {
+            this.pendingInserts = null;
+            this.ingestedHandles = null;
+        }
+        this.identityIngestion = AssertBehaviour.IDENTITY.equals( this.ruleBase.getConfiguration().getAssertBehaviour() );
     }
 
     public void reset() {
         this.objectStore.clear();
+        if ( this.pendingInserts != null ) {
+            this.pendingInserts.clear();
+            this.ingestedHandles.clear();
+            this.ingestedHandlesSeeded = false;
+        }
     }
     
     public ObjectStore getObjectStore() {
@@ -153,6 +193,13 @@ public class NamedEntryPoint
             return null;
         }
 
+        if ( this.pendingInserts != null && rule == null && !logical && !dynamic ) {
+            InternalFactHandle handle = enqueueInsert( object );
+            if ( handle != null ) {
+                return handle;
+            }
+        }
+
         try {
             this.wm.startOperation();
 
@@ -188,6 +235,8 @@ public class NamedEntryPoint
             try {
                 this.lock.lock();
                 this.ruleBase.readLock();
+                drainPendingInserts();
+                seedIngestedHandles();
                 // check if the object already exists in the WM
                 handle = this.objectStore.getHandleForObject( object );
 
@@ -265,6 +314,13 @@ public class NamedEntryPoint
                     if ( handle != null ) {
                         return handle;
                     }
+                    if ( this.ingestedHandles != null ) {
+                        // queued by a concurrent producer since the drain
+                        handle = this.ingestedHandles.get( ingestionKey( object ) );
+                        if ( handle != null ) {
+                            return handle;
+                        }
+                    }
                     handle = createHandle( object,
                                            typeConf );
                 }
@@ -294,6 +350,152 @@ public class NamedEntryPoint
 
     }
 
+    /**
+     * Creates the handle for the given object and queues it, without taking any lock.
+     * The propagation happens later, when the queue is drained by the thread owning the
+     * session lock. An object already inserted, or already queued, gets its existing handle.
+     * Returns null if the object type needs the locked insert, because it is TMS enabled or
+     * dynamic, or if the handles of the facts already stored are not known yet.
+     */
+    private InternalFactHandle enqueueInsert(final Object object) {
+        if ( !this.ingestedHandlesSeeded ) {
+            return null;
+        }
+        ObjectTypeConf typeConf = this.typeConfReg.getObjectTypeConf( this.entryPoint,
+                                                                      object );
+        if ( typeConf.isTMSEnabled() || typeConf.isDynamic() || this.wm.isSequential() ) {
+            return null;
+        }
+
+        Object key = ingestionKey( object );
+        InternalFactHandle handle = this.ingestedHandles.get( key );
+        if ( handle != null ) {
+            return handle;
+        }
+        handle = this.handleFactory.newFactHandle( object,
+                                                   typeConf,
+                                                   this.wm,
+                                                   this );
+        InternalFactHandle existing = this.ingestedHandles.putIfAbsent( key,
+                                                                        handle );
+        if ( existing != null ) {
+            // another producer inserted the same object first
+            this.handleFactory.destroyFactHandle( handle );
+            return existing;
+        }
+        this.pendingInserts.offer( handle );
+        ((InternalAgenda) this.wm.getAgenda()).notifyHalt();
+        return handle;
+    }
+
+    public boolean hasPendingInserts() {
+        return this.pendingInserts != null && !this.pendingInserts.isEmpty();
+    }
+
+    /**
+     * Propagates all the facts queued by concurrent producers, in the order they were inserted.
+     */
+    public void flushPendingInserts() {
+        if ( !hasPendingInserts() ) {
+            return;
+        }
+        try {
+            this.lock.lock();
+            this.ruleBase.readLock();
+            this.wm.startOperation();
+            drainPendingInserts();
+        } finally {
+            this.wm.endOperation();
+            this.ruleBase.readUnlock();
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Must be called holding the session lock, so that queued facts are propagated
+     * before any other operation on this entry point.
+     */
+    private void drainPendingInserts() {
+        if ( this.pendingInserts == null ) {
+            return;
+        }
+        for ( InternalFactHandle handle = this.pendingInserts.poll(); handle != null; handle = this.pendingInserts.poll() ) {
+            // the producers share the handle of an object through ingestedHandles, so it is not stored yet
+            Object object = handle.getObject();
+            ObjectTypeConf typeConf = this.typeConfReg.getObjectTypeConf( this.entryPoint,
+                                                                          object );
+            this.objectStore.addHandle( handle,
+                                        object );
+            PropagationContext propagationContext = new PropagationContextImpl( this.wm.getNextPropagationIdCounter(),
+                                                                                PropagationContext.INSERTION,
+                                                                                null,
+                                                                                null,
+                                                                                handle,
+                                                                                this.entryPoint );
+            insert( handle,
+                    object,
+                    null,
+                    null,
+                    typeConf,
+                    propagationContext );
+        }
+    }
+
+    /**
+     * Must be called holding the session lock. Registers the facts already in the object store, such as the
+     * ones restored by unmarshalling, before the producers are allowed to bypass the lock.
+     */
+    private void seedIngestedHandles() {
+        if ( this.ingestedHandles == null || this.ingestedHandlesSeeded ) {
+            return;
+        }
+        for ( java.util.Iterator<?> it = this.objectStore.iterateFactHandles(); it.hasNext(); ) {
+            InternalFactHandle handle = (InternalFactHandle) it.next();
+            this.ingestedHandles.putIfAbsent( ingestionKey( handle.getObject() ),
+                                              handle );
+        }
+        this.ingestedHandlesSeeded = true;
+    }
+
+    private Object ingestionKey(Object object) {
+        return this.identityIngestion ? new IdentityKey( object ) : object;
+    }
+
+    private void forgetIngestedHandle(InternalFactHandle handle,
+                                      Object object) {
+        if ( this.ingestedHandles != null ) {
+            this.ingestedHandles.remove( ingestionKey( object ),
+                                         handle );
+        }
+    }
+
+    private void rememberIngestedHandle(InternalFactHandle handle,
+                                        Object object) {
+        if ( this.ingestedHandles != null ) {
+            this.ingestedHandles.putIfAbsent( ingestionKey( object ),
+                                              handle );
+        }
+    }
+
+    /**
+     * Compares the inserted objects by identity, as the object store does with the identity assert behaviour.
+     */
+    private static class IdentityKey {
+        private final Object object;
+
+        private IdentityKey(Object object) {
+            this.object = object;
+        }
+
+        public int hashCode() {
+            return System.identityHashCode( this.object );
+        }
+
+        public boolean equals(Object other) {
+            return other instanceof IdentityKey && ((IdentityKey) other).object == this.object;
+        }
+    }
+
     private void insertWhenHandleExists(final Object object,
                                               final Object tmsValue,
                                               boolean logical,
@@ -409,122 +611,147 @@ public class NamedEntryPoint
             this.ruleBase.readLock();
             this.wm.startOperation();
             this.ruleBase.executeQueuedActions();
+            drainPendingInserts();
+
+            return update( handle,
+                           updateLogical,
+                           object,
+                           mask,
+                           modifiedClass,
+                           activation,
+                           null );
+        } finally {
+            this.wm.endOperation();
+            this.ruleBase.readUnlock();
+            this.lock.unlock();
+        }
+    }
 
+    /**
+     * Must be called holding the session lock. The batchTypeConfs map is null, unless the update is
+     * part of a batch: the type configurations are then cached in it, and the activations are only
+     * unstaged once, at the end of the batch.
+     */
+    private InternalFactHandle update(InternalFactHandle handle,
+                                      final boolean updateLogical,
+                                      final Object object,
+                                      final long mask,
+                                      final Class<?> modifiedClass,
+                                      final Activation activation,
+                                      final Map<Class<?>, ObjectTypeConf> batchTypeConfs) throws FactException {
+        // the handle might have been disconnected, so reconnect if it has
+        if ( handle.isDisconnected() ) {
+            handle = this.objectStore.reconnect( handle );
+        }
 
-            // the handle might have been disconnected, so reconnect if it has
-            if ( handle.isDisconnected() ) {
-                handle = this.objectStore.reconnect( handle );
-            }
+        final Object originalObject = handle.getObject();
+        
+        if ( handle.getEntryPoint() != this ) {
+            throw new IllegalArgumentException( "Invalid Entry Point. You updated the FactHandle on entry point '" + handle.getEntryPoint().getEntryPointId() + "' instead of '" + getEntryPointId() + "'" );
+        }
+        
+        final ObjectTypeConf typeConf = getObjectTypeConf( object,
+                                                           batchTypeConfs );
 
-            final Object originalObject = handle.getObject();
-            
-            if ( handle.getEntryPoint() != this ) {
-                throw new IllegalArgumentException( "Invalid Entry Point. You updated the FactHandle on entry point '" + handle.getEntryPoint().getEntryPointId() + "' instead of '" + getEntryPointId() + "'" );
-            }
-            
-            final ObjectTypeConf typeConf = this.typeConfReg.getObjectTypeConf( this.entryPoint,
-                                                                                object );
+        // only needed if we maintain tms, but either way we must get it before we do the update
+        int status = -1;
+        if ( typeConf.isTMSEnabled() ) {
+            status = handle.getEqualityKey().getStatus();
+        }
 
-            // only needed if we maintain tms, but either way we must get it before we do the update
-            int status = -1;
-            if ( typeConf.isTMSEnabled() ) {
-                status = handle.getEqualityKey().getStatus();
-            }
 
+        if ( handle.getId() == -1 || object == null || (handle.isEvent() && ((EventFactHandle) handle).isExpired()) ) {
+            // the handle is invalid, most likely already retracted, so return and we cannot assert a null object
+            return handle;
+        }
 
-            if ( handle.getId() == -1 || object == null || (handle.isEvent() && ((EventFactHandle) handle).isExpired()) ) {
-                // the handle is invalid, most likely already retracted, so return and we cannot assert a null object
-                return handle;
-            }
+        if ( activation != null ) {
+            // release resources so that they can be GC'ed
+            activation.getPropagationContext().releaseResources();
+        }
 
-            if ( activation != null ) {
-                // release resources so that they can be GC'ed
-                activation.getPropagationContext().releaseResources();
+        if ( originalObject != object || !AssertBehaviour.IDENTITY.equals( this.ruleBase.getConfiguration().getAssertBehaviour() ) ) {
+            this.objectStore.removeHandle( handle );
+            forgetIngestedHandle( handle,
+                                  originalObject );
+
+            // set anyway, so that it updates the hashCodes
+            handle.setObject( object );
+            this.objectStore.addHandle( handle,
+                                        object );
+            rememberIngestedHandle( handle,
+                                    object );
+        }
+
+        this.handleFactory.increaseFactHandleRecency( handle );
+        Rule rule = activation == null ? null : activation.getRule();
+        final PropagationContext propagationContext = new PropagationContextImpl( this.wm.getNextPropagationIdCounter(),
+                                                                                  PropagationContext.MODIFICATION,
+                                                                                  rule,
+                                                                                  (activation == null) ? null : activation.getTuple(),
+                                                                                  handle,
+                                                                                  entryPoint,
+                                                                                  mask,
+                                                                                  modifiedClass,
+                                                                                  null );
+        
+        if ( typeConf.isTMSEnabled() ) {
+            EqualityKey newKey = tms.get( object );
+            EqualityKey oldKey = handle.getEqualityKey();
+            if ( newKey == null ) {                    
+                if ( oldKey.getStatus() == EqualityKey.JUSTIFIED ) {
+                    // new target key is JUSTFIED, updates are always STATED
+                    TruthMaintenanceSystemHelper.removeLogicalDependencies( oldKey.getFactHandle(), propagationContext );
+                }
+                
+                oldKey.removeFactHandle( handle );
+                // If the equality key is now empty, then remove it
+                if ( oldKey.isEmpty() ) {
+                    getTruthMaintenanceSystem().remove( oldKey );
+                }                    
+                
+                newKey = new EqualityKey( handle,
+                                          EqualityKey.STATED ); // updates are always stated
+                handle.setEqualityKey( newKey );
+                getTruthMaintenanceSystem().put( newKey );
+            } else if ( newKey != oldKey ) {
+                oldKey.removeFactHandle( handle );
+                // If the equality key is now empty, then remove it
+                if ( oldKey.isEmpty() ) {
+                    getTruthMaintenanceSystem().remove( oldKey );
+                }  
+                
+                if ( newKey.getStatus() == EqualityKey.JUSTIFIED ) {
+                    // new target key is JUSTITIED, updates are always STATED
+                    TruthMaintenanceSystemHelper.removeLogicalDependencies( newKey.getFactHandle(), propagationContext );
+                    newKey.setStatus( EqualityKey.STATED );
+                }
+                // the caller needs the new handle
+                handle = newKey.getFactHandle();
+            } else if ( !updateLogical &&  oldKey.getStatus() == EqualityKey.JUSTIFIED  ) {
+                // new target key is JUSTIFIED, updates are always STATED
+                TruthMaintenanceSystemHelper.removeLogicalDependencies( oldKey.getFactHandle(), propagationContext );                     
             }
+        }
 
-            if ( originalObject != object || !AssertBehaviour.IDENTITY.equals( this.ruleBase.getConfiguration().getAssertBehaviour() ) ) {
-                this.objectStore.removeHandle( handle );
+        this.entryPointNode.modifyObject( handle,
+                                          propagationContext,
+                                          typeConf,
+                                          this.wm );
+        
+        propagationContext.evaluateActionQueue( this.wm );
 
-                // set anyway, so that it updates the hashCodes
-                handle.setObject( object );
-                this.objectStore.addHandle( handle,
-                                            object );
-            }
+        this.wm.workingMemoryEventSupport.fireObjectUpdated( propagationContext,
+                                                             handle,
+                                                             originalObject,
+                                                             object,
+                                                             this.wm );
 
-            this.handleFactory.increaseFactHandleRecency( handle );
-            Rule rule = activation == null ? null : activation.getRule();
-            final PropagationContext propagationContext = new PropagationContextImpl( this.wm.getNextPropagationIdCounter(),
-                                                                                      PropagationContext.MODIFICATION,
-                                                                                      rule,
-                                                                                      (activation == null) ? null : activation.getTuple(),
-                                                                                      handle,
-                                                                                      entryPoint,
-                                                                                      mask,
-                                                                                      modifiedClass,
-                                                                                      null );
-            
-            if ( typeConf.isTMSEnabled() ) {
-                EqualityKey newKey = tms.get( object );
-                EqualityKey oldKey = handle.getEqualityKey();
-                if ( newKey == null ) {                    
-                    if ( oldKey.getStatus() == EqualityKey.JUSTIFIED ) {
-                        // new target key is JUSTFIED, updates are always STATED
-                        TruthMaintenanceSystemHelper.removeLogicalDependencies( oldKey.getFactHandle(), propagationContext );
-                    }
-                    
-                    oldKey.removeFactHandle( handle );
-                    // If the equality key is now empty, then remove it
-                    if ( oldKey.isEmpty() ) {
-                        getTruthMaintenanceSystem().remove( oldKey );
-                    }                    
-                    
-                    newKey = new EqualityKey( handle,
-                                              EqualityKey.STATED ); // updates are always stated
-                    handle.setEqualityKey( newKey );
-                    getTruthMaintenanceSystem().put( newKey );
-                } else if ( newKey != oldKey ) {
-                    oldKey.removeFactHandle( handle );
-                    // If the equality key is now empty, then remove it
-                    if ( oldKey.isEmpty() ) {
-                        getTruthMaintenanceSystem().remove( oldKey );
-                    }  
-                    
-                    if ( newKey.getStatus() == EqualityKey.JUSTIFIED ) {
-                        // new target key is JUSTITIED, updates are always STATED
-                        TruthMaintenanceSystemHelper.removeLogicalDependencies( newKey.getFactHandle(), propagationContext );
-                        newKey.setStatus( EqualityKey.STATED );
-                    }
-                    // the caller needs the new handle
-                    handle = newKey.getFactHandle();
-                } else if ( !updateLogical &&  oldKey.getStatus() == EqualityKey.JUSTIFIED  ) {
-                    // new target key is JUSTIFIED, updates are always STATED
-                    TruthMaintenanceSystemHelper.removeLogicalDependencies( oldKey.getFactHandle(), propagationContext );                     
-                }
-            }
+        this.wm.executeQueuedActions();
 
-            this.entryPointNode.modifyObject( handle,
-                                              propagationContext,
-                                              typeConf,
-                                              this.wm );
-            
-            propagationContext.evaluateActionQueue( this.wm );
-
-            this.wm.workingMemoryEventSupport.fireObjectUpdated( propagationContext,
-                                                                 handle,
-                                                                 originalObject,
-                                                                 object,
-                                                                 this.wm );
-
-           this.wm.executeQueuedActions();
-           
-           if ( rule == null ) {
-               // This is not needed for internal WM actions as the firing rule will unstage
-               this.wm.getAgenda().unstageActivations();
-           }           
-        } finally {
-            this.wm.endOperation();
-            this.ruleBase.readUnlock();
-            this.lock.unlock();
+        if ( rule == null && batchTypeConfs == null ) {
+            // This is not needed for internal WM actions as the firing rule will unstage
+            this.wm.getAgenda().unstageActivations();
         }
         return handle;
     }
@@ -552,94 +779,273 @@ public class NamedEntryPoint
             this.ruleBase.readLock();
             this.wm.startOperation();
             this.ruleBase.executeQueuedActions();
+            drainPendingInserts();
 
-            InternalFactHandle handle = (InternalFactHandle) factHandle;
-            if ( handle.getId() == -1 ) {
-                // can't retract an already retracted handle
-                return;
-            }
+            delete( (InternalFactHandle) factHandle,
+                    rule,
+                    activation,
+                    null );
+        } finally {
+            this.wm.endOperation();
+            this.ruleBase.readUnlock();
+            this.lock.unlock();
+        }
+    }
 
-            // the handle might have been disconnected, so reconnect if it has
-            if ( handle.isDisconnected() ) {
-                handle = this.objectStore.reconnect( handle );
-            }
-            
-            if ( handle.getEntryPoint() != this ) {
-                throw new IllegalArgumentException( "Invalid Entry Point. You updated the FactHandle on entry point '" + handle.getEntryPoint().getEntryPointId() + "' instead of '" + getEntryPointId() + "'" );
-            }            
+    /**
+     * Must be called holding the session lock, the batchTypeConfs map is used as in the
+     * update method.
+     */
+    private void delete(InternalFactHandle handle,
+                        final Rule rule,
+                        final Activation activation,
+                        final Map<Class<?>, ObjectTypeConf> batchTypeConfs) throws FactException {
+        if ( handle.getId() == -1 ) {
+            // can't retract an already retracted handle
+            return;
+        }
 
-            final Object object = handle.getObject();
-            
-            final ObjectTypeConf typeConf = this.typeConfReg.getObjectTypeConf( this.entryPoint,
-                                                                                object );
+        // the handle might have been disconnected, so reconnect if it has
+        if ( handle.isDisconnected() ) {
+            handle = this.objectStore.reconnect( handle );
+        }
+        
+        if ( handle.getEntryPoint() != this ) {
+            throw new IllegalArgumentException( "Invalid Entry Point. You updated the FactHandle on entry point '" + handle.getEntryPoint().getEntryPointId() + "' instead of '" + getEntryPointId() + "'" );
+        }            
 
-            if( typeConf.isSupportsPropertyChangeListeners() ) {
-                removePropertyChangeListener( handle, true );
-            }          
+        final Object object = handle.getObject();
+        
+        final ObjectTypeConf typeConf = getObjectTypeConf( object,
+                                                           batchTypeConfs );
+
+        if( typeConf.isSupportsPropertyChangeListeners() ) {
+            removePropertyChangeListener( handle, true );
+        }          
+        
+        if ( activation != null ) {
+            // release resources so that they can be GC'ed
+            activation.getPropagationContext().releaseResources();
+        }
+        final PropagationContext propagationContext = new PropagationContextImpl( this.wm.getNextPropagationIdCounter(),
+                                                                                  PropagationContext.DELETION,
+                                                                                  rule,
+                                                                                  (activation == null) ? null : activation.getTuple(),
+                                                                                  handle,
+                                                                                  this.entryPoint );
+
+        this.entryPointNode.retractObject( handle,
+                                           propagationContext,
+                                           typeConf,
+                                           this.wm );
+
+        if ( typeConf.isTMSEnabled() ) {
+            TruthMaintenanceSystem tms = getTruthMaintenanceSystem();
+
+            // TMS.removeLogicalDependency also cleans up Handles from the EqualityKey
+            // This can happen on the logical retraction of the last FH, where it's cleaned up in the TMS and also in the main network.
+            // However when the user retracts the FH to a logical set of insertions, then we need to clean up the TMS here.
+                                               
+            // Update the equality key, which maintains a list of stated FactHandles
+            final EqualityKey key = handle.getEqualityKey();
+
+            // Its justified so attempt to remove any logical dependencies for the handle
+            if ( key.getStatus() == EqualityKey.JUSTIFIED ) {
+                TruthMaintenanceSystemHelper.removeLogicalDependencies( handle, propagationContext );
+            } 
+            key.removeFactHandle( handle );
+            handle.setEqualityKey( null );
             
-            if ( activation != null ) {
-                // release resources so that they can be GC'ed
-                activation.getPropagationContext().releaseResources();
+            // If the equality key is now empty, then remove it
+            if ( key.isEmpty() ) {
+                tms.remove( key );
             }
-            final PropagationContext propagationContext = new PropagationContextImpl( this.wm.getNextPropagationIdCounter(),
-                                                                                      PropagationContext.DELETION,
-                                                                                      rule,
-                                                                                      (activation == null) ? null : activation.getTuple(),
-                                                                                      handle,
-                                                                                      this.entryPoint );
-
-            this.entryPointNode.retractObject( handle,
-                                               propagationContext,
-                                               typeConf,
-                                               this.wm );
-
-            if ( typeConf.isTMSEnabled() ) {
-                TruthMaintenanceSystem tms = getTruthMaintenanceSystem();
-
-                // TMS.removeLogicalDependency also cleans up Handles from the EqualityKey
-                // This can happen on the logical retraction of the last FH, where it's cleaned up in the TMS and also in the main network.
-                // However when the user retracts the FH to a logical set of insertions, then we need to clean up the TMS here.
-                                                   
-                // Update the equality key, which maintains a list of stated FactHandles
-                final EqualityKey key = handle.getEqualityKey();
-
-                // Its justified so attempt to remove any logical dependencies for the handle
-                if ( key.getStatus() == EqualityKey.JUSTIFIED ) {
-                    TruthMaintenanceSystemHelper.removeLogicalDependencies( handle, propagationContext );
-                } 
-                key.removeFactHandle( handle );
-                handle.setEqualityKey( null );
-                
-                // If the equality key is now empty, then remove it
-                if ( key.isEmpty() ) {
-                    tms.remove( key );
+        }
+
+        propagationContext.evaluateActionQueue( this.wm );
+        
+
+        this.wm.workingMemoryEventSupport.fireObjectRetracted( propagationContext,
+                                                               handle,
+                                                               object,
+                                                               this.wm );
+
+        this.wm.executeQueuedActions();
+        
+        this.objectStore.removeHandle( handle );
+        forgetIngestedHandle( handle,
+                              object );
+        this.handleFactory.destroyFactHandle( handle );            
+        
+        if ( rule == null && batchTypeConfs == null ) {
+            // This is not needed for internal WM actions as the firing rule will unstage
+            this.wm.getAgenda().unstageActivations();
+        }            
+    }
+    
+    /**
+     * Inserts all the given objects, taking the session lock only once. The ObjectTypeConf is
+     * resolved once per class, and the activations are unstaged once, after the last object
+     * has been propagated into the staged tuple sets.
+     *
+     * @return the handles, in the iteration order of the objects
+     */
+    public List<FactHandle> insertAll(final Collection<?> objects) throws FactException {
+        final List<FactHandle> handles = new ArrayList<FactHandle>( objects.size() );
+        if ( objects.isEmpty() ) {
+            return handles;
+        }
+        try {
+            this.wm.startOperation();
+            this.lock.lock();
+            this.ruleBase.readLock();
+            drainPendingInserts();
+            this.ruleBase.executeQueuedActions();
+            this.wm.executeQueuedActions();
+
+            final Map<Class<?>, ObjectTypeConf> typeConfs = new HashMap<Class<?>, ObjectTypeConf>();
+            for ( Object object : objects ) {
+                if ( object == null ) {
+                    // you cannot assert a null object
+                    handles.add( null );
+                    continue;
                 }
-            }
 
-            propagationContext.evaluateActionQueue( this.wm );
-            
+                ObjectTypeConf typeConf = getObjectTypeConf( object,
+                                                             typeConfs );
+                if ( typeConf.isTMSEnabled() || typeConf.isDynamic() || this.wm.isSequential() ) {
+                    // these need the equality keys or the listeners set up by the single insert
+                    handles.add( insert( object ) );
+                    continue;
+                }
 
-            this.wm.workingMemoryEventSupport.fireObjectRetracted( propagationContext,
-                                                                   handle,
-                                                                   object,
-                                                                   this.wm );
+                InternalFactHandle handle = this.objectStore.getHandleForObject( object );
+                if ( handle == null ) {
+                    handle = createHandle( object,
+                                           typeConf );
+                    final PropagationContext propagationContext = new PropagationContextImpl( this.wm.getNextPropagationIdCounter(),
+                                                                                              PropagationContext.INSERTION,
+                                                                                              null,
+                                                                                              null,
+                                                                                              handle,
+                                                                                              this.entryPoint );
+                    this.entryPointNode.assertObject( handle,
+                                                      propagationContext,
+                                                      typeConf,
+                                                      this.wm );
+
+                    propagationContext.evaluateActionQueue( this.wm );
+
+                    this.wm.workingMemoryEventSupport.fireObjectInserted( propagationContext,
+                                                                          handle,
+                                                                          object,
+                                                                          this.wm );
+                }
+                handles.add( handle );
+            }
 
             this.wm.executeQueuedActions();
-            
-            this.objectStore.removeHandle( handle );
-            this.handleFactory.destroyFactHandle( handle );            
-            
-            if ( rule == null ) {
-                // This is not needed for internal WM actions as the firing rule will unstage
-                this.wm.getAgenda().unstageActivations();
-            }            
+            this.wm.getAgenda().unstageActivations();
+        } finally {
+            this.ruleBase.readUnlock();
+            this.lock.unlock();
+            this.wm.endOperation();
+        }
+        return handles;
+    }
+
+    /**
+     * Updates all the given handles with the objects they currently refer to, taking the session
+     * lock only once and unstaging the activations after the last update.
+     */
+    public void updateAll(final Collection<? extends org.kie.api.runtime.rule.FactHandle> factHandles) throws FactException {
+        if ( factHandles.isEmpty() ) {
+            return;
+        }
+        try {
+            this.lock.lock();
+            this.ruleBase.readLock();
+            this.wm.startOperation();
+            this.ruleBase.executeQueuedActions();
+            drainPendingInserts();
+
+            final Map<Class<?>, ObjectTypeConf> typeConfs = new HashMap<Class<?>, ObjectTypeConf>();
+            for ( org.kie.api.runtime.rule.FactHandle factHandle : factHandles ) {
+                if ( factHandle == null ) {
+                    throw new IllegalArgumentException( "FactHandle cannot be null " );
+                }
+                InternalFactHandle handle = (InternalFactHandle) factHandle;
+                update( handle,
+                        false,
+                        handle.getObject(),
+                        Long.MAX_VALUE,
+                        Object.class,
+                        null,
+                        typeConfs );
+            }
+
+            this.wm.getAgenda().unstageActivations();
         } finally {
             this.wm.endOperation();
             this.ruleBase.readUnlock();
             this.lock.unlock();
         }
     }
-    
+
+    /**
+     * Deletes all the given handles, taking the session lock only once and unstaging the
+     * activations after the last delete.
+     */
+    public void deleteAll(final Collection<? extends org.kie.api.runtime.rule.FactHandle> factHandles) throws FactException {
+        if ( factHandles.isEmpty() ) {
+            return;
+        }
+        try {
+            this.lock.lock();
+            this.ruleBase.readLock();
+            this.wm.startOperation();
+            this.ruleBase.executeQueuedActions();
+            drainPendingInserts();
+
+            final Map<Class<?>, ObjectTypeConf> typeConfs = new HashMap<Class<?>, ObjectTypeConf>();
+            for ( org.kie.api.runtime.rule.FactHandle factHandle : factHandles ) {
+                if ( factHandle == null ) {
+                    throw new IllegalArgumentException( "FactHandle cannot be null " );
+                }
+                delete( (InternalFactHandle) factHandle,
+                        null,
+                        null,
+                        typeConfs );
+            }
+
+            this.wm.getAgenda().unstageActivations();
+        } finally {
+            this.wm.endOperation();
+            this.ruleBase.readUnlock();
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * Resolves the type configuration through the given batch cache, when there is one. Fact templates
+     * are not cached, as they all share the same class.
+     */
+    private ObjectTypeConf getObjectTypeConf(final Object object,
+                                             final Map<Class<?>, ObjectTypeConf> batchTypeConfs) {
+        if ( batchTypeConfs == null || object instanceof Fact ) {
+            return this.typeConfReg.getObjectTypeConf( this.entryPoint,
+                                                       object );
+        }
+        ObjectTypeConf typeConf = batchTypeConfs.get( object.getClass() );
+        if ( typeConf == null ) {
+            typeConf = this.typeConfReg.getObjectTypeConf( this.entryPoint,
+                                                           object );
+            batchTypeConfs.put( object.getClass(),
+                                typeConf );
+        }
+        return typeConf;
+    }
+
     protected void addPropertyChangeListener(final InternalFactHandle handle, final boolean dynamicFlag ) {
         Object object = handle.getObject();
         try {
@@ -719,6 +1125,7 @@ public class NamedEntryPoint
     }
 
     public FactHandle getFactHandle(Object object) {
+        flushPendingInserts();
         return this.objectStore.getHandleForObject( object );
     }
 
@@ -740,6 +1147,7 @@ public class NamedEntryPoint
 
     @SuppressWarnings("unchecked")
     public <T extends org.kie.api.runtime.rule.FactHandle> Collection<T> getFactHandles() {
+        flushPendingInserts();
         return new ObjectStoreWrapper( this.objectStore,
                                        null,
                                        ObjectStoreWrapper.FACT_HANDLE );
@@ -747,6 +1155,7 @@ public class NamedEntryPoint
 
     @SuppressWarnings("unchecked")
     public <T extends org.kie.api.runtime.rule.FactHandle> Collection<T> getFactHandles(org.kie.api.runtime.ObjectFilter filter) {
+        flushPendingInserts();
         return new ObjectStoreWrapper( this.objectStore,
                                        filter,
                                        ObjectStoreWrapper.FACT_HANDLE );
@@ -754,6 +1163,7 @@ public class NamedEntryPoint
 
     @SuppressWarnings("unchecked")
     public Collection<? extends Object> getObjects() {
+        flushPendingInserts();
         return new ObjectStoreWrapper( this.objectStore,
                                        null,
                                        ObjectStoreWrapper.OBJECT );
@@ -761,6 +1171,7 @@ public class NamedEntryPoint
 
     @SuppressWarnings("unchecked")
     public Collection<? extends Object> getObjects(org.kie.api.runtime.ObjectFilter filter) {
+        flushPendingInserts();
         return new ObjectStoreWrapper( this.objectStore,
                                        filter,
                                        ObjectStoreWrapper.OBJECT );
@@ -771,6 +1182,7 @@ public class NamedEntryPoint
     }
 
     public long getFactCount() {
+        flushPendingInserts();
         return this.objectStore.size();
     }
     
@@ -783,6 +1195,8 @@ public class NamedEntryPoint
                                                    this );
         this.objectStore.addHandle( handle,
                                     object );
+        rememberIngestedHandle( handle,
+                                object );
         return handle;
     }    
     
@@ -802,24 +1216,17 @@ public class NamedEntryPoint
         final ClassObjectType cot = new ClassObjectType( object.getClass() );
         final Map<ObjectType, ObjectTypeNode> map = source.getObjectTypeNodes( EntryPoint.DEFAULT );
         final ObjectTypeNode node = map.get( cot );
-        final ObjectHashSet memory = ((ObjectTypeNodeMemory) this.wm.getNodeMemory( node )).memory;
+        final IntHashMap<InternalFactHandle> memory = ((ObjectTypeNodeMemory) this.wm.getNodeMemory( node )).memory;
       
         // All objects of this type that are already there were certainly stated,
         // since this method call happens at the first logical insert, for any given type.
-        org.drools.core.util.Iterator it = memory.iterator();
+        Iterator<InternalFactHandle> it = memory.iterator();
 
-        for ( Object obj = it.next(); obj != null; obj = it.next() ) {
-          
-            org.drools.core.util.ObjectHashSet.ObjectEntry holder = (org.drools.core.util.ObjectHashSet.ObjectEntry) obj;
-    
-            InternalFactHandle handle = (InternalFactHandle) holder.getValue();
-            
-            if ( handle != null) {
-                EqualityKey key = new EqualityKey( handle );
-                handle.setEqualityKey( key );
-                key.setStatus(EqualityKey.STATED);
-                getTruthMaintenanceSystem().put(key);
-            }
+        for ( InternalFactHandle handle = it.next(); handle != null; handle = it.next() ) {
+            EqualityKey key = new EqualityKey( handle );
+            handle.setEqualityKey( key );
+            key.setStatus(EqualityKey.STATED);
+            getTruthMaintenanceSystem().put(key);
         }
       
         // Enable TMS for this type.
@@ -860,10 +1267,9 @@ public class NamedEntryPoint
                 // only, as the facts will always be in their concrete object type nodes
                 // even if they were also asserted into higher level OTNs as well
                 ObjectTypeNode otn = conf.getConcreteObjectTypeNode();
-                final ObjectHashSet memory = ((ObjectTypeNodeMemory) this.getInternalWorkingMemory().getNodeMemory( otn )).memory;
-                Iterator it = memory.iterator();
-                for ( ObjectEntry entry = (ObjectEntry) it.next(); entry != null; entry = (ObjectEntry) it.next() ) {
-                    InternalFactHandle handle = (InternalFactHandle) entry.getValue();
+                final IntHashMap<InternalFactHandle> memory = ((ObjectTypeNodeMemory) this.getInternalWorkingMemory().getNodeMemory( otn )).memory;
+                Iterator<InternalFactHandle> it = memory.iterator();
+                for ( InternalFactHandle handle = it.next(); handle != null; handle = it.next() ) {
                     removePropertyChangeListener( handle, false );
                 }
             }
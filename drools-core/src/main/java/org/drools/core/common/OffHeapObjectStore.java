@@ -0,0 +1,365 @@
+package org.drools.core.common;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.Lock;
+
+import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.RuleBaseConfiguration.AssertBehaviour;
+import org.drools.core.util.AbstractHashTable;
+import org.kie.api.runtime.ObjectFilter;
+import org.kie.api.runtime.rule.FactHandle;
+
+/**
+ * An ObjectStore keeping its hash tables out of the java heap, for sessions holding so many facts that the
+ * entries of the ObjectHashMaps used by the SingleThreadedObjectStore make the old generation collections
+ * too long.
+ *
+ * Each handle takes a slot, and the only reference kept on heap for it is an element of the handles array.
+ * For each slot a record in a direct ByteBuffer holds the handle id, its identity and equality hash codes and
+ * the next slots in the identity and equality bucket chains, while the heads of the chains are kept in direct
+ * IntBuffers. The records are allocated in slabs of SLAB_SLOTS records, never released until the store is
+ * cleared, and the slots of the removed handles are reused.
+ *
+ * Lookups behave as the ones of the ObjectHashMaps with the IdentityAssertMapComparator and the
+ * EqualityAssertMapComparator: handles are looked up by their cached hash codes and their id, objects by
+ * their hash code and identity or equality.
+ */
+public class OffHeapObjectStore
+    implements
+    ObjectStore {
+
+    public static final int       SLAB_SLOTS       = 1 << 14;
+
+    // the layout of a record
+    private static final int      ID               = 0;
+    private static final int      IDENTITY_HASH    = 4;
+    private static final int      EQUALITY_HASH    = 8;
+    private static final int      NEXT_IDENTITY    = 12;
+    private static final int      NEXT_EQUALITY    = 16;
+    private static final int      RECORD_SIZE      = 20;
+
+    private static final int      EMPTY            = -1;
+    private static final int      INITIAL_CAPACITY = 1 << 10;
+    private static final float    LOAD_FACTOR      = 0.75f;
+
+    private final boolean         identity;
+    private final Lock            lock;
+
+    private final List<ByteBuffer> slabs           = new ArrayList<ByteBuffer>();
+    private InternalFactHandle[]  handles;
+    // the number of slots ever taken, the free ones are chained through their NEXT_IDENTITY field
+    private int                   slots;
+    private int                   freeSlot;
+    private int                   size;
+
+    private IntBuffer             identityBuckets;
+    // null when the assert behaviour is identity, as the identity chains are then the only ones
+    private IntBuffer             equalityBuckets;
+    private int                   threshold;
+
+    public OffHeapObjectStore(RuleBaseConfiguration conf,
+                              Lock lock) {
+        this.identity = AssertBehaviour.IDENTITY.equals( conf.getAssertBehaviour() );
+        this.lock = lock;
+        clear();
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public void clear() {
+        this.slabs.clear();
+        this.handles = new InternalFactHandle[INITIAL_CAPACITY];
+        this.slots = 0;
+        this.freeSlot = EMPTY;
+        this.size = 0;
+        this.identityBuckets = newBuckets( INITIAL_CAPACITY );
+        this.equalityBuckets = this.identity ? null : newBuckets( INITIAL_CAPACITY );
+        this.threshold = (int) (INITIAL_CAPACITY * LOAD_FACTOR);
+    }
+
+    public Object getObjectForHandle(FactHandle handle) {
+        try {
+            this.lock.lock();
+
+            // Make sure the FactHandle is from this WorkingMemory
+            int slot = findHandle( (InternalFactHandle) handle );
+            return slot == EMPTY ? null : this.handles[slot].getObject();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public InternalFactHandle getHandleForObject(Object object) {
+        if ( object == null ) {
+            return null;
+        }
+        int slot = this.identity ? findIdentical( object ) : findEqual( object );
+        return slot == EMPTY ? null : this.handles[slot];
+    }
+
+    public InternalFactHandle reconnect(FactHandle factHandle) {
+        int slot = findHandle( (InternalFactHandle) factHandle );
+        return slot == EMPTY ? null : this.handles[slot];
+    }
+
+    public InternalFactHandle getHandleForObjectIdentity(Object object) {
+        int slot = findIdentical( object );
+        return slot == EMPTY ? null : this.handles[slot];
+    }
+
+    public void updateHandle(InternalFactHandle handle,
+                             Object object) {
+        removeHandle( handle );
+        handle.setObject( object );
+        addHandle( handle,
+                   object );
+    }
+
+    public void addHandle(InternalFactHandle handle,
+                          Object object) {
+        if ( this.size >= this.threshold ) {
+            resize( this.identityBuckets.capacity() << 1 );
+        }
+
+        int slot = takeSlot();
+        this.handles[slot] = handle;
+        this.size++;
+
+        int identityHash = AbstractHashTable.rehash( handle.getIdentityHashCode() );
+        setInt( slot, ID, handle.getId() );
+        setInt( slot, IDENTITY_HASH, identityHash );
+        link( this.identityBuckets, slot, identityHash, NEXT_IDENTITY );
+        if ( !this.identity ) {
+            int equalityHash = AbstractHashTable.rehash( handle.getObjectHashCode() );
+            setInt( slot, EQUALITY_HASH, equalityHash );
+            link( this.equalityBuckets, slot, equalityHash, NEXT_EQUALITY );
+        }
+    }
+
+    public void removeHandle(final FactHandle handle) {
+        int slot = findHandle( (InternalFactHandle) handle );
+        if ( slot == EMPTY ) {
+            return;
+        }
+
+        // the stored hash codes locate the chains, even if the ones cached by the handle changed since
+        unlink( this.identityBuckets, slot, getInt( slot, IDENTITY_HASH ), NEXT_IDENTITY );
+        if ( !this.identity ) {
+            unlink( this.equalityBuckets, slot, getInt( slot, EQUALITY_HASH ), NEXT_EQUALITY );
+        }
+
+        this.handles[slot] = null;
+        setInt( slot, NEXT_IDENTITY, this.freeSlot );
+        this.freeSlot = slot;
+        this.size--;
+    }
+
+    public Iterator iterateObjects() {
+        return new SlotIterator( false,
+                                 null );
+    }
+
+    public Iterator iterateObjects(ObjectFilter filter) {
+        return new SlotIterator( false,
+                                 filter );
+    }
+
+    public Iterator iterateFactHandles() {
+        return new SlotIterator( true,
+                                 null );
+    }
+
+    public Iterator iterateFactHandles(ObjectFilter filter) {
+        return new SlotIterator( true,
+                                 filter );
+    }
+
+    /**
+     * Returns the slot of the handle with the same id, looking it up by the hash code the handle caches
+     * for the assert map, or EMPTY.
+     */
+    private int findHandle(InternalFactHandle handle) {
+        int id = handle.getId();
+        int slot;
+        if ( this.identity ) {
+            int hash = AbstractHashTable.rehash( handle.getIdentityHashCode() );
+            slot = this.identityBuckets.get( hash & (this.identityBuckets.capacity() - 1) );
+            while ( slot != EMPTY && (getInt( slot, IDENTITY_HASH ) != hash || getInt( slot, ID ) != id) ) {
+                slot = getInt( slot, NEXT_IDENTITY );
+            }
+        } else {
+            int hash = AbstractHashTable.rehash( handle.getObjectHashCode() );
+            slot = this.equalityBuckets.get( hash & (this.equalityBuckets.capacity() - 1) );
+            while ( slot != EMPTY && (getInt( slot, EQUALITY_HASH ) != hash || getInt( slot, ID ) != id) ) {
+                slot = getInt( slot, NEXT_EQUALITY );
+            }
+        }
+        return slot;
+    }
+
+    private int findIdentical(Object object) {
+        int hash = AbstractHashTable.rehash( System.identityHashCode( object ) );
+        int slot = this.identityBuckets.get( hash & (this.identityBuckets.capacity() - 1) );
+        while ( slot != EMPTY && (getInt( slot, IDENTITY_HASH ) != hash || this.handles[slot].getObject() != object) ) {
+            slot = getInt( slot, NEXT_IDENTITY );
+        }
+        return slot;
+    }
+
+    private int findEqual(Object object) {
+        int hash = AbstractHashTable.rehash( object.hashCode() );
+        int slot = this.equalityBuckets.get( hash & (this.equalityBuckets.capacity() - 1) );
+        while ( slot != EMPTY ) {
+            if ( getInt( slot, EQUALITY_HASH ) == hash ) {
+                Object other = this.handles[slot].getObject();
+                if ( object == other || object.equals( other ) ) {
+                    return slot;
+                }
+            }
+            slot = getInt( slot, NEXT_EQUALITY );
+        }
+        return slot;
+    }
+
+    private int takeSlot() {
+        if ( this.freeSlot != EMPTY ) {
+            int slot = this.freeSlot;
+            this.freeSlot = getInt( slot, NEXT_IDENTITY );
+            return slot;
+        }
+
+        int slot = this.slots++;
+        if ( slot == this.slabs.size() * SLAB_SLOTS ) {
+            this.slabs.add( ByteBuffer.allocateDirect( SLAB_SLOTS * RECORD_SIZE ).order( ByteOrder.nativeOrder() ) );
+        }
+        if ( slot == this.handles.length ) {
+            InternalFactHandle[] newHandles = new InternalFactHandle[this.handles.length << 1];
+            System.arraycopy( this.handles, 0, newHandles, 0, this.handles.length );
+            this.handles = newHandles;
+        }
+        return slot;
+    }
+
+    // new handles are added at the head of their chains, as the ObjectHashMap does
+    private void link(IntBuffer buckets,
+                      int slot,
+                      int hash,
+                      int next) {
+        int index = hash & (buckets.capacity() - 1);
+        setInt( slot, next, buckets.get( index ) );
+        buckets.put( index, slot );
+    }
+
+    private void unlink(IntBuffer buckets,
+                        int slot,
+                        int hash,
+                        int next) {
+        int index = hash & (buckets.capacity() - 1);
+        int current = buckets.get( index );
+        if ( current == slot ) {
+            buckets.put( index, getInt( slot, next ) );
+            return;
+        }
+        while ( current != EMPTY ) {
+            int following = getInt( current, next );
+            if ( following == slot ) {
+                setInt( current, next, getInt( slot, next ) );
+                return;
+            }
+            current = following;
+        }
+    }
+
+    private void resize(int capacity) {
+        this.identityBuckets = newBuckets( capacity );
+        if ( !this.identity ) {
+            this.equalityBuckets = newBuckets( capacity );
+        }
+        for ( int slot = 0; slot < this.slots; slot++ ) {
+            if ( this.handles[slot] != null ) {
+                link( this.identityBuckets, slot, getInt( slot, IDENTITY_HASH ), NEXT_IDENTITY );
+                if ( !this.identity ) {
+                    link( this.equalityBuckets, slot, getInt( slot, EQUALITY_HASH ), NEXT_EQUALITY );
+                }
+            }
+        }
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static IntBuffer newBuckets(int capacity) {
+        IntBuffer buckets = ByteBuffer.allocateDirect( capacity * 4 ).order( ByteOrder.nativeOrder() ).asIntBuffer();
+        for ( int i = 0; i < capacity; i++ ) {
+            buckets.put( i, EMPTY );
+        }
+        return buckets;
+    }
+
+    private int getInt(int slot,
+                       int field) {
+        return this.slabs.get( slot / SLAB_SLOTS ).getInt( (slot % SLAB_SLOTS) * RECORD_SIZE + field );
+    }
+
+    private void setInt(int slot,
+                        int field,
+                        int value) {
+        this.slabs.get( slot / SLAB_SLOTS ).putInt( (slot % SLAB_SLOTS) * RECORD_SIZE + field, value );
+    }
+
+    /**
+     * Iterates the handles, or their objects, in slot order.
+     */
+    private class SlotIterator
+        implements
+        Iterator {
+        private final boolean      factHandles;
+        private final ObjectFilter filter;
+        private int                slot = -1;
+        private InternalFactHandle next;
+
+        private SlotIterator(boolean factHandles,
+                             ObjectFilter filter) {
+            this.factHandles = factHandles;
+            this.filter = filter;
+            setNext();
+        }
+
+        public boolean hasNext() {
+            return this.next != null;
+        }
+
+        public Object next() {
+            InternalFactHandle current = this.next;
+            if ( current == null ) {
+                throw new NoSuchElementException( "No more elements to return" );
+            }
+            setNext();
+            return this.factHandles ? current : current.getObject();
+        }
+
+        private void setNext() {
+            this.next = null;
+            while ( this.next == null && ++this.slot < slots ) {
+                InternalFactHandle handle = handles[this.slot];
+                if ( handle != null && (this.filter == null || this.filter.accept( handle.getObject() )) ) {
+                    this.next = handle;
+                }
+            }
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException( "remove() is not support" );
+        }
+    }
+}
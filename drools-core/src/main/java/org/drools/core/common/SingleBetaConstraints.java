@@ -42,6 +42,8 @@ public class SingleBetaConstraints
 
     private transient boolean             disableIndex;
 
+    private transient boolean             rangeIndex;
+
     public SingleBetaConstraints() {
 
     }
@@ -65,6 +67,7 @@ public class SingleBetaConstraints
                                  final boolean disableIndex) {
         this.constraint = constraint;
         this.disableIndex = disableIndex;
+        this.rangeIndex = conf != null && conf.isRangeIndex();
     }
 
     public void init(BuildContext context, short betaNodeType) {
@@ -78,7 +81,7 @@ public class SingleBetaConstraints
     }
 
     public void initIndexes(int depth, short betaNodeType) {
-        indexed = depth >= 1 && IndexUtil.isIndexableForNode(betaNodeType, constraint);
+        indexed = depth >= 1 && IndexUtil.isIndexableForNode(betaNodeType, constraint, rangeIndex);
     }
 
     public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
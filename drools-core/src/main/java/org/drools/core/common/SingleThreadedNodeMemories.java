@@ -0,0 +1,80 @@
+/*
+ * Copyright 2013 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.common;
+
+/**
+ * An unsynchronized implementation for the node memories interface, for the sessions declared
+ * single threaded through the "drools.singleThreaded" session option. The memories are kept in a plain
+ * array, so getting a memory has no volatile read.
+ */
+public class SingleThreadedNodeMemories implements NodeMemories {
+
+    private Memory[]         memories;
+
+    private InternalRuleBase rulebase;
+
+    public SingleThreadedNodeMemories( InternalRuleBase rulebase ) {
+        this.rulebase = rulebase;
+        this.memories = new Memory[ this.rulebase.getNodeCount() ];
+    }
+
+    public void clearNodeMemory( MemoryFactory node ) {
+        if ( node.getId() < this.memories.length ) {
+            this.memories[node.getId()] = null;
+        }
+    }
+
+    public void clear() {
+        this.memories = new Memory[ this.rulebase.getNodeCount() ];
+    }
+
+    public Memory getNodeMemory(MemoryFactory node, InternalWorkingMemory wm) {
+        if ( node.getId() >= this.memories.length ) {
+            resize( node );
+        }
+        Memory memory = this.memories[node.getId()];
+
+        if ( memory == null ) {
+            memory = node.createMemory( this.rulebase.getConfiguration(), wm );
+            // creating a memory can create the memories of other nodes, and grow the array, so it's read again
+            this.memories[node.getId()] = memory;
+        }
+
+        return memory;
+    }
+
+    private void resize( MemoryFactory node ) {
+        // adding some buffer for new nodes, so that we reduce array copies
+        int size = Math.max( this.rulebase.getNodeCount(), node.getId() + 32 );
+        Memory[] newMem = new Memory[ size ];
+        System.arraycopy( this.memories, 0, newMem, 0, this.memories.length );
+        this.memories = newMem;
+    }
+
+    public void setRuleBaseReference( InternalRuleBase ruleBase ) {
+        this.rulebase = ruleBase;
+    }
+
+    public Memory peekNodeMemory(int nodeId) {
+        return this.memories[nodeId];
+    }
+
+    public int length() {
+        return this.memories.length;
+    }
+
+}
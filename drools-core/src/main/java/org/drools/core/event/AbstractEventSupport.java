@@ -24,6 +24,7 @@ import java.util.Collections;
 import java.util.EventListener;
 import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
@@ -40,6 +41,20 @@ public abstract class AbstractEventSupport<E extends EventListener> implements E
 
     private static final long serialVersionUID = 510l;
 
+    private static final Iterator<?> EMPTY_ITERATOR = new Iterator<Object>() {
+        public boolean hasNext() {
+            return false;
+        }
+
+        public Object next() {
+            throw new NoSuchElementException();
+        }
+
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    };
+
     private List<E> listeners = new CopyOnWriteArrayList<E>();
 
     @SuppressWarnings("unchecked")
@@ -51,7 +66,15 @@ public abstract class AbstractEventSupport<E extends EventListener> implements E
         out.writeObject(listeners);
     }
 
+    /**
+     * Returns an iterator on the current snapshot of the listeners. As the fire methods only create their
+     * event when it has a next listener, a support without listeners, the common case, allocates nothing.
+     */
+    @SuppressWarnings("unchecked")
     protected final Iterator<E> getEventListenersIterator() {
+        if ( listeners.isEmpty() ) {
+            return (Iterator<E>) EMPTY_ITERATOR;
+        }
         return listeners.iterator();
     }
 
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2013 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.event;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.drools.core.common.FiringNotifier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Delivers the events of the asynchronous listeners, AsyncAgendaEventListener and
+ * AsyncWorkingMemoryEventListener, on its own daemon thread, so that the listeners never slow down
+ * the thread of the engine.
+ *
+ * The events are passed through a bounded ring buffer: the engine threads claim a slot with a
+ * compare-and-set and never wait. When the buffer is full the event is dropped and counted, instead of
+ * blocking the engine. The events of a thread are delivered in the order they are fired, but they refer to
+ * the live activations and facts, that may have changed by the time the listener sees them.
+ */
+public class AsyncEventDispatcher {
+
+    protected static final transient Logger logger = LoggerFactory.getLogger( AsyncEventDispatcher.class );
+
+    private final AtomicReferenceArray<Runnable> ring;
+    private final int                            mask;
+
+    // the next slot to claim by the engine threads, and the next one to deliver
+    private final AtomicLong                     tail    = new AtomicLong();
+    private volatile long                        head;
+
+    private final AtomicLong                     dropped = new AtomicLong();
+
+    private final FiringNotifier                 notifier = new FiringNotifier();
+
+    private final Thread                         thread;
+    private volatile boolean                     running  = true;
+
+    public AsyncEventDispatcher() {
+        this( 4096 );
+    }
+
+    /**
+     * @param capacity the number of events that can wait for delivery, rounded up to a power of 2
+     */
+    public AsyncEventDispatcher(int capacity) {
+        int size = Integer.highestOneBit( Math.max( 2, capacity ) - 1 ) << 1;
+        this.ring = new AtomicReferenceArray<Runnable>( size );
+        this.mask = size - 1;
+        this.thread = new Thread( new Runnable() {
+            public void run() {
+                deliver();
+            }
+        }, "drools-async-events" );
+        this.thread.setDaemon( true );
+        this.thread.start();
+    }
+
+    /**
+     * Queues the given listener call, without ever blocking. Returns false if the buffer is full, or the
+     * dispatcher is disposed, and the call is dropped.
+     */
+    public boolean dispatch(Runnable call) {
+        long slot;
+        do {
+            slot = this.tail.get();
+            if ( !this.running || slot - this.head > this.mask ) {
+                this.dropped.incrementAndGet();
+                return false;
+            }
+        } while ( !this.tail.compareAndSet( slot, slot + 1 ) );
+
+        this.ring.set( (int) slot & this.mask, call );
+        this.notifier.signal();
+        return true;
+    }
+
+    private void deliver() {
+        try {
+            while ( true ) {
+                this.notifier.consume();
+                // read after consuming the signal, as dispose signals after stopping
+                if ( !this.running ) {
+                    break;
+                }
+                if ( !deliverQueued() ) {
+                    this.notifier.await();
+                }
+            }
+        } catch ( InterruptedException e ) {
+            // stops delivering
+        }
+        // delivers what was queued before the dispatcher was disposed
+        deliverQueued();
+    }
+
+    /**
+     * Delivers the queued calls, returns false if there was none.
+     */
+    private boolean deliverQueued() {
+        boolean delivered = false;
+        for ( long next = this.head; next < this.tail.get(); next = this.head ) {
+            int index = (int) next & this.mask;
+            Runnable call = this.ring.get( index );
+            if ( call == null ) {
+                // the slot is claimed, but the event isn't written yet
+                Thread.yield();
+                continue;
+            }
+            this.ring.set( index, null );
+            this.head = next + 1;
+            try {
+                call.run();
+            } catch ( Throwable t ) {
+                logger.error( "Asynchronous event listener failed", t );
+            }
+            delivered = true;
+        }
+        return delivered;
+    }
+
+    /**
+     * Returns the number of events dropped because the buffer was full.
+     */
+    public long getDroppedEvents() {
+        return this.dropped.get();
+    }
+
+    /**
+     * Returns the number of events waiting for delivery.
+     */
+    public long getQueuedEvents() {
+        return this.tail.get() - this.head;
+    }
+
+    /**
+     * Stops the delivery thread, once the events already queued are delivered.
+     */
+    public void dispose() {
+        this.running = false;
+        // not interrupted, as the listeners may be using interruptible channels
+        this.notifier.signal();
+        try {
+            this.thread.join();
+        } catch ( InterruptedException e ) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2013 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.event.rule.impl;
+
+import org.drools.core.event.AsyncEventDispatcher;
+import org.kie.api.event.rule.AfterMatchFiredEvent;
+import org.kie.api.event.rule.AgendaEventListener;
+import org.kie.api.event.rule.AgendaGroupPoppedEvent;
+import org.kie.api.event.rule.AgendaGroupPushedEvent;
+import org.kie.api.event.rule.BeforeMatchFiredEvent;
+import org.kie.api.event.rule.MatchCancelledEvent;
+import org.kie.api.event.rule.MatchCreatedEvent;
+import org.kie.api.event.rule.RuleFlowGroupActivatedEvent;
+import org.kie.api.event.rule.RuleFlowGroupDeactivatedEvent;
+
+/**
+ * Delivers the agenda events to the given listener on the thread of an AsyncEventDispatcher, instead of
+ * the thread of the engine. It is registered on the session in place of the listener.
+ */
+public class AsyncAgendaEventListener
+    implements
+    AgendaEventListener {
+
+    private final AgendaEventListener  delegate;
+    private final AsyncEventDispatcher dispatcher;
+
+    public AsyncAgendaEventListener(AgendaEventListener delegate,
+                                    AsyncEventDispatcher dispatcher) {
+        this.delegate = delegate;
+        this.dispatcher = dispatcher;
+    }
+
+    public AgendaEventListener getDelegate() {
+        return this.delegate;
+    }
+
+    public void matchCancelled(final MatchCancelledEvent event) {
+        this.dispatcher.dispatch( new Runnable() {
+            public void run() {
+                delegate.matchCancelled( event );
+            }
+        } );
+    }
+
+    public void matchCreated(final MatchCreatedEvent event) {
+        this.dispatcher.dispatch( new Runnable() {
+            public void run() {
+                delegate.matchCreated( event );
+            }
+        } );
+    }
+
+    public void afterMatchFired(final AfterMatchFiredEvent event) {
+        this.dispatcher.dispatch( new Runnable() {
+            public void run() {
+                delegate.afterMatchFired( event );
+            }
+        } );
+    }
+
+    public void agendaGroupPopped(final AgendaGroupPoppedEvent event) {
+        this.dispatcher.dispatch( new Runnable() {
+            public void run() {
+                delegate.agendaGroupPopped( event );
+            }
+        } );
+    }
+
+    public void agendaGroupPushed(final AgendaGroupPushedEvent event) {
+        this.dispatcher.dispatch( new Runnable() {
+            public void run() {
+                delegate.agendaGroupPushed( event );
+            }
+        } );
+    }
+
+    public void beforeMatchFired(final BeforeMatchFiredEvent event) {
+        this.dispatcher.dispatch( new Runnable() {
+            public void run() {
+                delegate.beforeMatchFired( event );
+            }
+        } );
+    }
+
+    public void beforeRuleFlowGroupActivated(final RuleFlowGroupActivatedEvent event) {
+        this.dispatcher.dispatch( new Runnable() {
+            public void run() {
+                delegate.beforeRuleFlowGroupActivated( event );
+            }
+        } );
+    }
+
+    public void afterRuleFlowGroupActivated(final RuleFlowGroupActivatedEvent event) {
+        this.dispatcher.dispatch( new Runnable() {
+            public void run() {
+                delegate.afterRuleFlowGroupActivated( event );
+            }
+        } );
+    }
+
+    public void beforeRuleFlowGroupDeactivated(final RuleFlowGroupDeactivatedEvent event) {
+        this.dispatcher.dispatch( new Runnable() {
+            public void run() {
+                delegate.beforeRuleFlowGroupDeactivated( event );
+            }
+        } );
+    }
+
+    public void afterRuleFlowGroupDeactivated(final RuleFlowGroupDeactivatedEvent event) {
+        this.dispatcher.dispatch( new Runnable() {
+            public void run() {
+                delegate.afterRuleFlowGroupDeactivated( event );
+            }
+        } );
+    }
+}
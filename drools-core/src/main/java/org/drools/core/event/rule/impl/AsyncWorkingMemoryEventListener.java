@@ -0,0 +1,69 @@
+/*
+ * Copyright 2013 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.event.rule.impl;
+
+import org.drools.core.event.AsyncEventDispatcher;
+import org.kie.api.event.rule.ObjectDeletedEvent;
+import org.kie.api.event.rule.ObjectInsertedEvent;
+import org.kie.api.event.rule.ObjectUpdatedEvent;
+import org.kie.api.event.rule.WorkingMemoryEventListener;
+
+/**
+ * Delivers the working memory events to the given listener on the thread of an AsyncEventDispatcher, instead of
+ * the thread of the engine. It is registered on the session in place of the listener.
+ */
+public class AsyncWorkingMemoryEventListener
+    implements
+    WorkingMemoryEventListener {
+
+    private final WorkingMemoryEventListener delegate;
+    private final AsyncEventDispatcher        dispatcher;
+
+    public AsyncWorkingMemoryEventListener(WorkingMemoryEventListener delegate,
+                                           AsyncEventDispatcher dispatcher) {
+        this.delegate = delegate;
+        this.dispatcher = dispatcher;
+    }
+
+    public WorkingMemoryEventListener getDelegate() {
+        return this.delegate;
+    }
+
+    public void objectInserted(final ObjectInsertedEvent event) {
+        this.dispatcher.dispatch( new Runnable() {
+            public void run() {
+                delegate.objectInserted( event );
+            }
+        } );
+    }
+
+    public void objectUpdated(final ObjectUpdatedEvent event) {
+        this.dispatcher.dispatch( new Runnable() {
+            public void run() {
+                delegate.objectUpdated( event );
+            }
+        } );
+    }
+
+    public void objectDeleted(final ObjectDeletedEvent event) {
+        this.dispatcher.dispatch( new Runnable() {
+            public void run() {
+                delegate.objectDeleted( event );
+            }
+        } );
+    }
+}
@@ -295,6 +295,18 @@ public class StatefulKnowledgeSessionImpl
                              object );
     }
 
+    public List<? extends FactHandle> insertAll(Collection<?> objects) {
+        return this.session.insertAll( objects );
+    }
+
+    public void updateAll(Collection<? extends FactHandle> factHandles) {
+        this.session.updateAll( factHandles );
+    }
+
+    public void deleteAll(Collection<? extends FactHandle> factHandles) {
+        this.session.deleteAll( factHandles );
+    }
+
     public FactHandle getFactHandle(Object object) {
         return this.session.getFactHandle( object );
     }
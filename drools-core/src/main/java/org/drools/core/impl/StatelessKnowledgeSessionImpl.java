@@ -20,6 +20,8 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 
 import org.drools.core.SessionConfiguration;
 import org.drools.core.base.MapGlobalResolver;
@@ -59,7 +61,7 @@ public class StatelessKnowledgeSessionImpl
     implements
     StatelessKnowledgeSession, StatelessKieSession {
 
-    private InternalRuleBase                                                  ruleBase;
+    private volatile InternalRuleBase                                         ruleBase;
     private KnowledgeAgent                                                    kagent;
     private AgendaFilter                                                      agendaFilter;
     private MapGlobalResolver                                                 sessionGlobals            = new MapGlobalResolver();
@@ -76,6 +78,9 @@ public class StatelessKnowledgeSessionImpl
 
     private KieSessionConfiguration                                     conf;
     private Environment                                                       environment;
+
+    /** The reset working memories kept for the next executions, null unless drools.statelessPoolSize is set */
+    private BlockingQueue<PooledSession>                                      sessionPool;
     
     public StatelessKnowledgeSessionImpl() {
     }
@@ -88,19 +93,37 @@ public class StatelessKnowledgeSessionImpl
         this.conf = (conf != null) ? conf : SessionConfiguration.getDefaultInstance();
         this.environment = EnvironmentFactory.newEnvironment();
 
+        int poolSize = ((SessionConfiguration) this.conf).getStatelessPoolSize();
+        if ( poolSize > 0 ) {
+            this.sessionPool = new ArrayBlockingQueue<PooledSession>( poolSize );
+        }
+
         if ( this.ruleBase != null ) {
-            // FIXME: this same code exists in ReteooRuleBase#newStatelessSession()
-            this.ruleBase.lock();
-            try {
-                if ( ruleBase.getConfiguration().isSequential() ) {
-                    this.ruleBase.getReteooBuilder().order();
-                }
-            } finally {
-                this.ruleBase.unlock();
+            orderIfSequential( this.ruleBase );
+        }
+    }
+
+    private static void orderIfSequential(InternalRuleBase ruleBase) {
+        // FIXME: this same code exists in ReteooRuleBase#newStatelessSession()
+        ruleBase.lock();
+        try {
+            if ( ruleBase.getConfiguration().isSequential() ) {
+                ruleBase.getReteooBuilder().order();
             }
+        } finally {
+            ruleBase.unlock();
         }
     }
 
+    /**
+     * Switches this session to a new version of its rulebase, as the KieContainer does when it is updated.
+     * The executions in progress complete against the previous rulebase, the next ones use the new one.
+     */
+    public void setRuleBase(final InternalRuleBase ruleBase) {
+        orderIfSequential( ruleBase );
+        this.ruleBase = ruleBase;
+    }
+
     public InternalRuleBase getRuleBase() {
         if ( this.kagent != null ) {
             // if we have an agent always get the rulebase from there
@@ -114,21 +137,22 @@ public class StatelessKnowledgeSessionImpl
     }
 
     public StatefulKnowledgeSession newWorkingMemory() {
-        if ( this.kagent != null ) {
-            // if we have an agent always get the rulebase from there
-            this.ruleBase = (InternalRuleBase) ((KnowledgeBaseImpl) this.kagent.getKnowledgeBase()).ruleBase;
-        }
-        this.ruleBase.readLock();
+        return newWorkingMemory( getRuleBase() );
+    }
+
+    private StatefulKnowledgeSession newWorkingMemory(final InternalRuleBase ruleBase) {
+        // the rulebase is read once, as it can be switched while the working memory is built
+        ruleBase.readLock();
         try {
-            ReteooWorkingMemory wm = new ReteooWorkingMemory( this.ruleBase.nextWorkingMemoryCounter(),
-                                                              this.ruleBase,
+            ReteooWorkingMemory wm = new ReteooWorkingMemory( ruleBase.nextWorkingMemoryCounter(),
+                                                              ruleBase,
                                                               (SessionConfiguration) this.conf,
                                                               this.environment );
 
             // we don't pass the mapped listener wrappers to the session constructor anymore,
             // because they would be ignored anyway, since the wm already contains those listeners
             StatefulKnowledgeSessionImpl ksession = new StatefulKnowledgeSessionImpl( wm,
-                                                                                      new KnowledgeBaseImpl( this.ruleBase ) );
+                                                                                      new KnowledgeBaseImpl( ruleBase ) );
 
             ((Globals) wm.getGlobalResolver()).setDelegate( this.sessionGlobals );
             if (!initialized) {
@@ -154,20 +178,84 @@ public class StatelessKnowledgeSessionImpl
                 processRuntime.setProcessEventSupport( this.processEventSupport );
             }
 
-            final InternalFactHandle handle =  wm.getFactHandleFactory().newFactHandle( InitialFactImpl.getInstance(),
-                                                                                        wm.getObjectTypeConfigurationRegistry().getObjectTypeConf( EntryPoint.DEFAULT,
-                                                                                                                                                   InitialFactImpl.getInstance() ),
-                                                                                        wm,
-                                                                                        wm);
-
-            wm.queueWorkingMemoryAction( new WorkingMemoryReteAssertAction( handle,
-                                                                            false,
-                                                                            true,
-                                                                            null,
-                                                                            null ) );
+            insertInitialFact( wm );
             return ksession;
         } finally {
-            this.ruleBase.readUnlock();
+            ruleBase.readUnlock();
+        }
+    }
+
+    private void insertInitialFact(ReteooWorkingMemory wm) {
+        final InternalFactHandle handle =  wm.getFactHandleFactory().newFactHandle( InitialFactImpl.getInstance(),
+                                                                                    wm.getObjectTypeConfigurationRegistry().getObjectTypeConf( EntryPoint.DEFAULT,
+                                                                                                                                               InitialFactImpl.getInstance() ),
+                                                                                    wm,
+                                                                                    wm);
+
+        wm.queueWorkingMemoryAction( new WorkingMemoryReteAssertAction( handle,
+                                                                        false,
+                                                                        true,
+                                                                        null,
+                                                                        null ) );
+    }
+
+    /**
+     * Returns a working memory for an execution: a pooled one, if it was built against the current rulebase,
+     * or a new one.
+     */
+    private PooledSession borrowSession() {
+        if ( this.sessionPool != null ) {
+            InternalRuleBase currentRuleBase = getRuleBase();
+            for ( PooledSession pooled = this.sessionPool.poll(); pooled != null; pooled = this.sessionPool.poll() ) {
+                if ( pooled.isBuiltAgainst( currentRuleBase ) ) {
+                    ReteooWorkingMemory wm = (ReteooWorkingMemory) pooled.ksession.session;
+                    ((Globals) wm.getGlobalResolver()).setDelegate( this.sessionGlobals );
+                    insertInitialFact( wm );
+                    return pooled;
+                }
+                pooled.ksession.dispose();
+            }
+        }
+        // read before building it, so a concurrent change of the rulebase can only make it look stale
+        InternalRuleBase ruleBase = getRuleBase();
+        int lockCounter = ruleBase.getLockCounter();
+        return new PooledSession( (StatefulKnowledgeSessionImpl) newWorkingMemory( ruleBase ),
+                                  lockCounter );
+    }
+
+    /**
+     * Resets the working memory of a successful execution and returns it to the pool, if there is room for it.
+     * It is disposed otherwise, or if it still has timers or process instances, or the rulebase changed.
+     */
+    private void releaseSession(PooledSession pooled) {
+        if ( this.sessionPool != null && pooled.isBuiltAgainst( getRuleBase() ) ) {
+            ReteooWorkingMemory wm = (ReteooWorkingMemory) pooled.ksession.session;
+            InternalProcessRuntime processRuntime = wm.getProcessRuntime();
+            if ( wm.getTimerService().getTimerJobInstances( wm.getId() ).isEmpty() &&
+                 ( processRuntime == null || processRuntime.getProcessInstances().isEmpty() ) ) {
+                wm.resetForReuse();
+                // drops the globals set on the session by the last execution
+                wm.setGlobalResolver( new MapGlobalResolver() );
+                if ( this.sessionPool.offer( pooled ) ) {
+                    return;
+                }
+            }
+        }
+        pooled.ksession.dispose();
+    }
+
+    private static class PooledSession {
+        private final StatefulKnowledgeSessionImpl ksession;
+        private final int                          lockCounter;
+
+        private PooledSession(StatefulKnowledgeSessionImpl ksession,
+                              int lockCounter) {
+            this.ksession = ksession;
+            this.lockCounter = lockCounter;
+        }
+
+        private boolean isBuiltAgainst(InternalRuleBase ruleBase) {
+            return this.ksession.session.getRuleBase() == ruleBase && this.lockCounter == ruleBase.getLockCounter();
         }
     }
 
@@ -250,7 +338,9 @@ public class StatelessKnowledgeSessionImpl
     }
 
     public <T> T execute(Command<T> command) {
-        StatefulKnowledgeSession ksession = newWorkingMemory();
+        PooledSession pooled = borrowSession();
+        StatefulKnowledgeSession ksession = pooled.ksession;
+        boolean completed = false;
 
         FixedKnowledgeCommandContext context = new FixedKnowledgeCommandContext( new ContextImpl( "ksession",
                                                                                         null ),
@@ -278,6 +368,7 @@ public class StatelessKnowledgeSessionImpl
             if ( autoFireAllRules ) {
                 ksession.fireAllRules( );
             }
+            completed = true;
             if ( command instanceof BatchExecutionCommandImpl) {
                 ExecutionResults result = ((StatefulKnowledgeSessionImpl) ksession).session.getExecutionResult();
                 return (T) result;
@@ -286,26 +377,32 @@ public class StatelessKnowledgeSessionImpl
             }
         } finally {
             ((StatefulKnowledgeSessionImpl) ksession).session.endBatchExecution();
-            ksession.dispose();
+            if ( completed ) {
+                releaseSession( pooled );
+            } else {
+                ksession.dispose();
+            }
         }
     }
 
     public void execute(Object object) {
-        StatefulKnowledgeSession ksession = newWorkingMemory();
+        PooledSession pooled = borrowSession();
+        StatefulKnowledgeSession ksession = pooled.ksession;
 
         ksession.insert( object );
         ksession.fireAllRules( );
-        ksession.dispose();
+        releaseSession( pooled );
     }
 
     public void execute(Iterable objects) {
-        StatefulKnowledgeSession ksession = newWorkingMemory();
+        PooledSession pooled = borrowSession();
+        StatefulKnowledgeSession ksession = pooled.ksession;
 
         for ( Object object : objects ) {
             ksession.insert( object );
         }
         ksession.fireAllRules( );
-        ksession.dispose();
+        releaseSession( pooled );
     }
     
     public Environment getEnvironment() {
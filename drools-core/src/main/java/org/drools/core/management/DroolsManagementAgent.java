@@ -29,7 +29,6 @@ import javax.management.StandardMBean;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.reteoo.ReteooRuleBase;
 import org.kie.api.management.KieManagementAgentMBean;
-import org.kie.api.management.KieSessionMonitoringMBean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -109,7 +108,7 @@ public class DroolsManagementAgent
     public void registerKnowledgeSession(InternalWorkingMemory ksession) {
         KieSessionMonitoringImpl mbean = new KieSessionMonitoringImpl( ksession );
         try {
-            final StandardMBean adapter = new StandardMBean( mbean, KieSessionMonitoringMBean.class );
+            final StandardMBean adapter = new StandardMBean( mbean, DroolsSessionMonitoringMBean.class );
             registerMBean( ksession,
                            adapter,
                            mbean.getName() );
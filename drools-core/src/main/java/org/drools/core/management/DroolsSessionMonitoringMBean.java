@@ -0,0 +1,44 @@
+/*
+ * Copyright 2013 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.management;
+
+import org.kie.api.management.KieSessionMonitoringMBean;
+
+/**
+ * The management interface of the knowledge session MBean, with the attributes specific to the Drools
+ * implementation of the session.
+ */
+public interface DroolsSessionMonitoringMBean extends KieSessionMonitoringMBean {
+
+    /**
+     * Returns the average time, in milliseconds, that the work inserted from other threads waits
+     * before fireUntilHalt evaluates it.
+     */
+    double getAverageFiringLatency();
+
+    /**
+     * Returns the maximum time, in milliseconds, that the work inserted from other threads waited
+     * before fireUntilHalt evaluated it.
+     */
+    double getMaxFiringLatency();
+
+    /**
+     * Returns the number of times fireUntilHalt was woken up by new work, that is the number of
+     * latencies the average and the maximum are computed from.
+     */
+    long getFiringLatencyCount();
+}
@@ -26,6 +26,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import javax.management.ObjectName;
 
 import org.drools.core.WorkingMemory;
+import org.drools.core.common.DefaultAgenda;
 import org.drools.core.common.InternalRuleBase;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.event.ActivationCancelledEvent;
@@ -45,12 +46,11 @@ import org.kie.api.event.process.ProcessNodeLeftEvent;
 import org.kie.api.event.process.ProcessNodeTriggeredEvent;
 import org.kie.api.event.process.ProcessStartedEvent;
 import org.kie.api.event.process.ProcessVariableChangedEvent;
-import org.kie.api.management.KieSessionMonitoringMBean;
 
 /**
  * An MBean to monitor a given knowledge session
  */
-public class KieSessionMonitoringImpl implements KieSessionMonitoringMBean {
+public class KieSessionMonitoringImpl implements DroolsSessionMonitoringMBean {
 
     private static final String KSESSION_PREFIX = "org.drools.kbases";
     
@@ -87,6 +87,9 @@ public class KieSessionMonitoringImpl implements KieSessionMonitoringMBean {
     public void reset() {
         this.agendaStats.reset();
         this.processStats.reset();
+        if ( this.ksession.getAgenda() instanceof DefaultAgenda ) {
+            ((DefaultAgenda) this.ksession.getAgenda()).getFiringNotifier().resetLatency();
+        }
     }
 
     public InternalWorkingMemory getKsession() {
@@ -168,6 +171,36 @@ public class KieSessionMonitoringImpl implements KieSessionMonitoringMBean {
         return fires > 0 ? (((double) time / (double) fires) / (double) NANO_TO_MILLISEC) : 0;
     }
     
+    /* (non-Javadoc)
+     * @see org.drools.core.management.DroolsSessionMonitoringMBean#getAverageFiringLatency()
+     */
+    public double getAverageFiringLatency() {
+        if ( !(this.ksession.getAgenda() instanceof DefaultAgenda) ) {
+            return 0;
+        }
+        return ((DefaultAgenda) this.ksession.getAgenda()).getFiringNotifier().getAverageLatency() / (double) NANO_TO_MILLISEC;
+    }
+
+    /* (non-Javadoc)
+     * @see org.drools.core.management.DroolsSessionMonitoringMBean#getMaxFiringLatency()
+     */
+    public double getMaxFiringLatency() {
+        if ( !(this.ksession.getAgenda() instanceof DefaultAgenda) ) {
+            return 0;
+        }
+        return (double) ((DefaultAgenda) this.ksession.getAgenda()).getFiringNotifier().getMaxLatency() / (double) NANO_TO_MILLISEC;
+    }
+
+    /* (non-Javadoc)
+     * @see org.drools.core.management.DroolsSessionMonitoringMBean#getFiringLatencyCount()
+     */
+    public long getFiringLatencyCount() {
+        if ( !(this.ksession.getAgenda() instanceof DefaultAgenda) ) {
+            return 0;
+        }
+        return ((DefaultAgenda) this.ksession.getAgenda()).getFiringNotifier().getLatencyCount();
+    }
+
     /* (non-Javadoc)
      * @see org.drools.core.management.KnowledgeSessionMonitoringMBean#getStatsForRule(java.lang.String)
      */
@@ -72,6 +72,9 @@ public class MarshallerReaderContext extends ObjectInputStream {
     public Object                                                                  parameterObject;
     public ClassLoader                                                             classLoader;
 
+    // the maximum number of threads unmarshalling fact objects concurrently
+    public int                                                                     unmarshallingThreads = 1;
+
     public MarshallerReaderContext(InputStream stream,
                                    InternalRuleBase ruleBase,
                                    Map<Integer, BaseNode> sinks,
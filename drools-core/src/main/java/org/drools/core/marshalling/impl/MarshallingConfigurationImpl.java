@@ -26,6 +26,8 @@ public class MarshallingConfigurationImpl
     private ObjectMarshallingStrategyStore objectMarshallingStrategyStore;
     private boolean                            marshallProcessInstances;
     private boolean                            marshallWorkItems;
+    private boolean                            streaming;
+    private int                                unmarshallingThreads = 1;
 
     public MarshallingConfigurationImpl() {
         this( null,
@@ -59,6 +61,35 @@ public class MarshallingConfigurationImpl
         this.marshallWorkItems = marshallWorkItems;
     }
 
+    /**
+     * Returns true if sessions are marshalled as a stream of records, instead of as a single message.
+     * Sessions are unmarshalled from both formats regardless of this setting.
+     */
+    public boolean isStreaming() {
+        return this.streaming;
+    }
+
+    public void setStreaming(boolean streaming) {
+        this.streaming = streaming;
+    }
+
+    /**
+     * Returns the maximum number of threads used to unmarshall the fact objects of a session through
+     * their ObjectMarshallingStrategy. The default is 1, meaning facts are unmarshalled by the calling
+     * thread. Only raise it when all the strategies used by the session are thread safe and don't read
+     * from the ObjectInputStream they are given.
+     */
+    public int getUnmarshallingThreads() {
+        return this.unmarshallingThreads;
+    }
+
+    public void setUnmarshallingThreads(int unmarshallingThreads) {
+        if ( unmarshallingThreads < 1 ) {
+            throw new IllegalArgumentException( "The number of unmarshalling threads must be at least 1, was " + unmarshallingThreads );
+        }
+        this.unmarshallingThreads = unmarshallingThreads;
+    }
+
     public ObjectMarshallingStrategyStore getObjectMarshallingStrategyStore() {
         return this.objectMarshallingStrategyStore;
     }
@@ -55,13 +55,16 @@ import org.drools.core.process.instance.WorkItem;
 import org.drools.core.reteoo.AccumulateNode.AccumulateContext;
 import org.drools.core.reteoo.AccumulateNode.AccumulateMemory;
 import org.drools.core.reteoo.BetaNode;
+import org.drools.core.reteoo.ExpirationTimingWheel.ExpirationBucket;
 import org.drools.core.reteoo.FromNode.FromMemory;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.LeftTupleSink;
 import org.drools.core.reteoo.NodeTypeEnums;
 import org.drools.core.reteoo.ObjectTypeNode;
+import org.drools.core.reteoo.ObjectTypeNode.ExpireJobContextTimerOutputMarshaller;
 import org.drools.core.reteoo.QueryElementNode;
 import org.drools.core.reteoo.ReteooWorkingMemory;
+import org.drools.core.reteoo.ReteooWorkingMemory.WorkingMemoryReteExpireAction;
 import org.drools.core.reteoo.RightTuple;
 import org.drools.core.reteoo.RuleTerminalNode;
 import org.drools.core.reteoo.WindowNode;
@@ -1092,8 +1095,19 @@ public class OutputMarshaller {
                           } );
         
         for ( TimerJobInstance timer : sortedTimers ) {
-            outCtx.writeShort( PersisterEnums.DEFAULT_TIMER );
             JobContext jctx = ((SelfRemovalJobContext)timer.getJobContext()).getJobContext();
+            if ( jctx instanceof ExpirationBucket ) {
+                // an expiration bucket is stored as a single expire timer per event
+                ExpirationBucket bucket = (ExpirationBucket) jctx;
+                for ( WorkingMemoryReteExpireAction expireAction : bucket.getExpireActions() ) {
+                    outCtx.writeShort( PersisterEnums.DEFAULT_TIMER );
+                    ExpireJobContextTimerOutputMarshaller.write( expireAction,
+                                                                 bucket.getTimestamp(),
+                                                                 outCtx );
+                }
+                continue;
+            }
+            outCtx.writeShort( PersisterEnums.DEFAULT_TIMER );
             TimersOutputMarshaller writer =  outCtx.writersByClass.get( jctx.getClass() );
             writer.write( jctx, outCtx );              
         }
@@ -48,6 +48,20 @@ import com.google.protobuf.ExtensionRegistry;
 import com.google.protobuf.Message;
 
 public class PersisterHelper {
+
+    /**
+     * Written at the beginning of a session marshalled as a stream of records. Its first byte is 0,
+     * that is never a valid protobuf field tag, so it can't be confused with the Header of a session
+     * marshalled as a single message.
+     */
+    public static final int STREAM_FORMAT_MAGIC = 0x00445301;
+
+    public static final int STREAM_END          = 0;
+    public static final int STREAM_SESSION      = 1;
+    public static final int STREAM_ENTRY_POINT  = 2;
+    public static final int STREAM_PROCESS_DATA = 3;
+    public static final int STREAM_TIMERS       = 4;
+
     public static WorkingMemoryAction readWorkingMemoryAction(MarshallerReaderContext context) throws IOException,
                                                                                               ClassNotFoundException {
         int type = context.readShort();
@@ -244,9 +258,17 @@ public class PersisterHelper {
     }
 
     public static ProtobufMessages.Header readFromStreamWithHeaderPreloaded( MarshallerReaderContext context, ExtensionRegistry registry ) throws IOException, ClassNotFoundException {
+        return readFromStreamWithHeaderPreloaded( context, registry, new byte[0] );
+    }
+
+    /**
+     * Reads the Header of a session marshalled as a single message, whose first bytes have been
+     * already read from the stream, looking for the STREAM_FORMAT_MAGIC.
+     */
+    public static ProtobufMessages.Header readFromStreamWithHeaderPreloaded( MarshallerReaderContext context, ExtensionRegistry registry, byte[] prefix ) throws IOException, ClassNotFoundException {
         // we preload the stream into a byte[] to overcome a message size limit
         // imposed by protobuf as per https://issues.jboss.org/browse/DROOLS-25
-        byte[] preloaded = preload(context.stream);
+        byte[] preloaded = preload(context.stream, prefix);
         ProtobufMessages.Header _header = ProtobufMessages.Header.parseFrom( preloaded, registry );
 
         return loadStrategiesCheckSignature(context, _header);
@@ -255,9 +277,10 @@ public class PersisterHelper {
     /* Method that preloads the source stream into a byte array to bypass the message size limitations in Protobuf unmarshalling.
        (Protobuf does not enforce a message size limit when unmarshalling from a byte array)
     */
-    private static byte[] preload(InputStream stream) throws IOException {
+    private static byte[] preload(InputStream stream, byte[] prefix) throws IOException {
         byte[] buf = new byte[4096];
         ByteArrayOutputStream preloaded = new ByteArrayOutputStream();
+        preloaded.write(prefix);
 
         int read;
         while((read = stream.read(buf)) != -1) {
@@ -326,6 +349,78 @@ public class PersisterHelper {
         }
     }
     
+    /**
+     * Reads the first 4 bytes of a marshalled session, that are the STREAM_FORMAT_MAGIC if it was
+     * marshalled as a stream of records.
+     */
+    public static byte[] readFormatPrefix( MarshallerReaderContext context ) throws IOException {
+        byte[] prefix = new byte[4];
+        context.readFully( prefix );
+        return prefix;
+    }
+
+    public static boolean isStreamFormat( byte[] prefix ) {
+        return byteArrayToInt( prefix ) == STREAM_FORMAT_MAGIC;
+    }
+
+    /**
+     * Writes a record of a session marshalled as a stream: its type, the contexts of the strategies
+     * used to marshal the objects in the payload and the payload itself. The strategy contexts are
+     * then reset, so each record only carries its own objects. The contexts are written through the
+     * same ObjectOutputStream for the whole session, so objects shared by different records are still
+     * unmarshalled as the same instance.
+     */
+    public static void writeStreamRecord( MarshallerWriteContext context,
+                                          int type,
+                                          Message payload ) throws IOException {
+        context.writeByte( type );
+
+        context.writeInt( context.usedStrategies.size() );
+        for( Entry<ObjectMarshallingStrategy,Integer> entry : context.usedStrategies.entrySet() ) {
+            context.writeInt( entry.getValue().intValue() );
+            context.writeUTF( entry.getKey().getClass().getName() );
+            Context ctx = context.strategyContext.get( entry.getKey() );
+            context.writeBoolean( ctx != null );
+            if( ctx != null ) {
+                ctx.write( context );
+            }
+            context.strategyContext.put( entry.getKey(), entry.getKey().createContext() );
+        }
+
+        byte[] buff = payload.toByteArray();
+        context.writeInt( buff.length );
+        context.write( buff );
+    }
+
+    /**
+     * Reads the strategy contexts and the payload of a record written by writeStreamRecord, whose type
+     * has been already read.
+     */
+    public static byte[] readStreamRecord( MarshallerReaderContext context ) throws IOException, ClassNotFoundException {
+        int strategies = context.readInt();
+        for ( int i = 0; i < strategies; i++ ) {
+            int id = context.readInt();
+            String name = context.readUTF();
+            ObjectMarshallingStrategy strategyObject = context.usedStrategies.get( id );
+            if ( strategyObject == null ) {
+                strategyObject = context.resolverStrategyFactory.getStrategyObject( name );
+                if ( strategyObject == null ) {
+                    throw new IllegalStateException( "No strategy of type " + name + " available." );
+                }
+                context.usedStrategies.put( id, strategyObject );
+            }
+            Context ctx = strategyObject.createContext();
+            if ( context.readBoolean() && ctx != null ) {
+                ctx.read( context );
+            }
+            context.strategyContexts.put( strategyObject, ctx );
+        }
+
+        byte[] buff = new byte[context.readInt()];
+        context.readFully( buff );
+        return buff;
+    }
+
     public static ExtensionRegistry buildRegistry(MarshallerReaderContext context, ProcessMarshaller processMarshaller ) {
         ExtensionRegistry registry = ExtensionRegistry.newInstance();
         if( processMarshaller != null ) {
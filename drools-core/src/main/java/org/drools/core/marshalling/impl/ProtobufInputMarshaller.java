@@ -24,6 +24,9 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 
 import org.drools.core.SessionConfiguration;
@@ -70,6 +73,7 @@ import org.kie.api.marshalling.ObjectMarshallingStrategy;
 import org.kie.api.runtime.Environment;
 import org.kie.api.runtime.EnvironmentName;
 import org.kie.api.runtime.rule.SessionEntryPoint;
+import org.kie.internal.concurrent.ExecutorProviderFactory;
 
 import com.google.protobuf.ExtensionRegistry;
 
@@ -81,6 +85,9 @@ import com.google.protobuf.ExtensionRegistry;
 public class ProtobufInputMarshaller {
     // NOTE: all variables prefixed with _ (underscore) are protobuf structs
 
+    // below this many handles per thread, unmarshalling them concurrently isn't worth it
+    private static final int MIN_HANDLES_PER_UNMARSHALLING_TASK = 256;
+
     private static ProcessMarshaller processMarshaller = createProcessMarshaller();
 
     private static ProcessMarshaller createProcessMarshaller() {
@@ -104,7 +111,24 @@ public class ProtobufInputMarshaller {
                                                     MarshallerReaderContext context) throws IOException,
                                                                                     ClassNotFoundException {
 
-        ProtobufMessages.KnowledgeSession _session = loadAndParseSession( context );
+        ExtensionRegistry registry = PersisterHelper.buildRegistry( context, processMarshaller );
+        byte[] prefix = PersisterHelper.readFormatPrefix( context );
+        if ( PersisterHelper.isStreamFormat( prefix ) ) {
+            ProtobufMessages.KnowledgeSession _session = readSessionRecord( context,
+                                                                            registry );
+            DefaultAgenda agenda = resetSession( session,
+                                                 context,
+                                                 _session );
+            return readSessionStream( _session,
+                                      session,
+                                      agenda,
+                                      context,
+                                      registry );
+        }
+
+        ProtobufMessages.KnowledgeSession _session = loadAndParseSession( context,
+                                                                          registry,
+                                                                          prefix );
 
         DefaultAgenda agenda = resetSession( session,
                                              context,
@@ -143,7 +167,26 @@ public class ProtobufInputMarshaller {
                                                     SessionConfiguration config) throws IOException,
                                                                                 ClassNotFoundException {
 
-        ProtobufMessages.KnowledgeSession _session = loadAndParseSession( context );
+        ExtensionRegistry registry = PersisterHelper.buildRegistry( context, processMarshaller );
+        byte[] prefix = PersisterHelper.readFormatPrefix( context );
+        if ( PersisterHelper.isStreamFormat( prefix ) ) {
+            ProtobufMessages.KnowledgeSession _session = readSessionRecord( context,
+                                                                            registry );
+            ReteooStatefulSession session = createAndInitializeSession( context,
+                                                                        id,
+                                                                        environment,
+                                                                        config,
+                                                                        _session );
+            return readSessionStream( _session,
+                                      session,
+                                      (DefaultAgenda) session.getAgenda(),
+                                      context,
+                                      registry );
+        }
+
+        ProtobufMessages.KnowledgeSession _session = loadAndParseSession( context,
+                                                                          registry,
+                                                                          prefix );
 
         ReteooStatefulSession session = createAndInitializeSession( context,
                                                                     id,
@@ -205,19 +248,122 @@ public class ProtobufInputMarshaller {
         return session;
     }
 
-    private static ProtobufMessages.KnowledgeSession loadAndParseSession(MarshallerReaderContext context) throws IOException, ClassNotFoundException {
-        ExtensionRegistry registry = PersisterHelper.buildRegistry( context, processMarshaller );
-
-        ProtobufMessages.Header _header = PersisterHelper.readFromStreamWithHeaderPreloaded(context, registry);
+    private static ProtobufMessages.KnowledgeSession loadAndParseSession(MarshallerReaderContext context,
+                                                                         ExtensionRegistry registry,
+                                                                         byte[] prefix) throws IOException, ClassNotFoundException {
+        ProtobufMessages.Header _header = PersisterHelper.readFromStreamWithHeaderPreloaded(context, registry, prefix);
  
         return ProtobufMessages.KnowledgeSession.parseFrom( _header.getPayload(), registry );
     }
 
+    private static ProtobufMessages.KnowledgeSession readSessionRecord(MarshallerReaderContext context,
+                                                                       ExtensionRegistry registry) throws IOException, ClassNotFoundException {
+        int type = context.readByte();
+        if ( type != PersisterHelper.STREAM_SESSION ) {
+            throw new IllegalStateException( "Unexpected record type " + type + " at the beginning of the session stream." );
+        }
+        return ProtobufMessages.KnowledgeSession.parseFrom( PersisterHelper.readStreamRecord( context ), registry );
+    }
+
     public static ReteooStatefulSession readSession(ProtobufMessages.KnowledgeSession _session,
                                                     ReteooStatefulSession session,
                                                     DefaultAgenda agenda,
                                                     MarshallerReaderContext context) throws IOException,
                                                                                     ClassNotFoundException {
+        initSession( _session,
+                     session,
+                     agenda,
+                     context );
+        
+        for ( ProtobufMessages.EntryPoint _ep : _session.getRuleData().getEntryPointList() ) {
+            SessionEntryPoint wmep = context.wm.getEntryPoints().get( _ep.getEntryPointId() );
+            readFactHandles( context,
+                             _ep,
+                             ((NamedEntryPoint) wmep).getObjectStore() );
+            readTruthMaintenanceSystem( context,
+                                        wmep,
+                                        _ep);            
+        }
+
+        readActionQueue(context,
+                _session.getRuleData());
+        
+        if ( _session.hasProcessData() ) {
+            readProcessData( context,
+                             _session.getProcessData() );
+        }
+
+        if( _session.hasTimers() ) { 
+            for( ProtobufMessages.Timers.Timer _timer : _session.getTimers().getTimerList() ) {
+                readTimer( context,
+                           _timer );
+            }
+        }
+
+        // remove the activations filter
+        agenda.setActivationsFilter( null );
+
+        return session;
+    }
+
+    /**
+     * Reads the records following the first one, of a session written by ProtobufOutputMarshaller.writeSessionStream()
+     */
+    private static ReteooStatefulSession readSessionStream(ProtobufMessages.KnowledgeSession _session,
+                                                           ReteooStatefulSession session,
+                                                           DefaultAgenda agenda,
+                                                           MarshallerReaderContext context,
+                                                           ExtensionRegistry registry) throws IOException,
+                                                                                      ClassNotFoundException {
+        initSession( _session,
+                     session,
+                     agenda,
+                     context );
+
+        int type = context.readByte();
+        while ( type == PersisterHelper.STREAM_ENTRY_POINT ) {
+            ProtobufMessages.EntryPoint _ep = ProtobufMessages.EntryPoint.parseFrom( PersisterHelper.readStreamRecord( context ), registry );
+            SessionEntryPoint wmep = context.wm.getEntryPoints().get( _ep.getEntryPointId() );
+            readFactHandles( context,
+                             _ep,
+                             ((NamedEntryPoint) wmep).getObjectStore() );
+            readTruthMaintenanceSystem( context,
+                                        wmep,
+                                        _ep );
+            type = context.readByte();
+        }
+
+        readActionQueue( context,
+                         _session.getRuleData() );
+
+        if ( type == PersisterHelper.STREAM_PROCESS_DATA ) {
+            readProcessData( context,
+                             ProtobufMessages.ProcessData.parseFrom( PersisterHelper.readStreamRecord( context ), registry ) );
+            type = context.readByte();
+        }
+
+        while ( type == PersisterHelper.STREAM_TIMERS ) {
+            for ( ProtobufMessages.Timers.Timer _timer : ProtobufMessages.Timers.parseFrom( PersisterHelper.readStreamRecord( context ), registry ).getTimerList() ) {
+                readTimer( context,
+                           _timer );
+            }
+            type = context.readByte();
+        }
+
+        if ( type != PersisterHelper.STREAM_END ) {
+            throw new IllegalStateException( "Unknown record type " + type + " while deserializing session." );
+        }
+
+        // remove the activations filter
+        agenda.setActivationsFilter( null );
+
+        return session;
+    }
+
+    private static void initSession(ProtobufMessages.KnowledgeSession _session,
+                                    ReteooStatefulSession session,
+                                    DefaultAgenda agenda,
+                                    MarshallerReaderContext context) {
         GlobalResolver globalResolver = (GlobalResolver) context.env.get( EnvironmentName.GLOBALS );
         if( globalResolver != null ) {
             session.setGlobalResolver( globalResolver );
@@ -243,51 +389,25 @@ public class ProtobufInputMarshaller {
 
         readInitialFactHandle( context, 
                                _session.getRuleData() );
-        
-        for ( ProtobufMessages.EntryPoint _ep : _session.getRuleData().getEntryPointList() ) {
-            SessionEntryPoint wmep = context.wm.getEntryPoints().get( _ep.getEntryPointId() );
-            readFactHandles( context,
-                             _ep,
-                             ((NamedEntryPoint) wmep).getObjectStore() );
-            readTruthMaintenanceSystem( context,
-                                        wmep,
-                                        _ep);            
-        }
-
-        readActionQueue(context,
-                _session.getRuleData());
-        
+    }
 
+    private static void readProcessData(MarshallerReaderContext context,
+                                        ProtobufMessages.ProcessData _processData) throws IOException,
+                                                                                  ClassNotFoundException {
         if (processMarshaller != null) {
-            if( _session.hasProcessData() ) {
-                context.parameterObject = _session.getProcessData();
-                processMarshaller.readProcessInstances( context );
-                
-                context.parameterObject = _session.getProcessData();
-                processMarshaller.readWorkItems( context );
-                
-                // This actually does ALL timers, due to backwards compatability issues
-                // It will read in old JBPM binaries, but always write to the new binary format.
-                context.parameterObject = _session.getProcessData();
-                processMarshaller.readProcessTimers( context );
-            }
+            context.parameterObject = _processData;
+            processMarshaller.readProcessInstances( context );
+            
+            context.parameterObject = _processData;
+            processMarshaller.readWorkItems( context );
+            
+            // This actually does ALL timers, due to backwards compatability issues
+            // It will read in old JBPM binaries, but always write to the new binary format.
+            context.parameterObject = _processData;
+            processMarshaller.readProcessTimers( context );
         } else {
-            if ( _session.hasProcessData() ) {
-                throw new IllegalStateException( "No process marshaller, unable to unmarshall process data." );
-            }
+            throw new IllegalStateException( "No process marshaller, unable to unmarshall process data." );
         }
-
-        if( _session.hasTimers() ) { 
-            for( ProtobufMessages.Timers.Timer _timer : _session.getTimers().getTimerList() ) {
-                readTimer( context,
-                           _timer );
-            }
-        }
-
-        // remove the activations filter
-        agenda.setActivationsFilter( null );
-
-        return session;
     }
     
     private static void readNodeMemories(MarshallerReaderContext context,
@@ -426,11 +546,25 @@ public class ProtobufInputMarshaller {
         InternalWorkingMemory wm = context.wm;
 
         SessionEntryPoint entryPoint = context.wm.getEntryPoints().get( _ep.getEntryPointId() );
+        List<ProtobufMessages.FactHandle> _handles = _ep.getHandleList();
+        // the objects are unmarshalled up front when more threads are allowed, while the handles
+        // are still asserted one at a time, in order, as the network and the agenda aren't thread safe
+        Object[] objects = null;
+        int tasks = Math.min( context.unmarshallingThreads,
+                              _handles.size() / MIN_HANDLES_PER_UNMARSHALLING_TASK );
+        if ( tasks > 1 ) {
+            objects = unmarshallObjectsConcurrently( context,
+                                                     _handles,
+                                                     tasks );
+        }
+
         // load the handles
-        for ( ProtobufMessages.FactHandle _handle : _ep.getHandleList() ) {
-            InternalFactHandle handle = readFactHandle( context,
-                                                        entryPoint,
-                                                        _handle );
+        for ( int i = 0, length = _handles.size(); i < length; i++ ) {
+            ProtobufMessages.FactHandle _handle = _handles.get( i );
+            InternalFactHandle handle = readFactHandle( entryPoint,
+                                                        _handle,
+                                                        objects != null ? objects[i] : unmarshallObject( context,
+                                                                                                         _handle ) );
 
             context.handles.put( handle.getId(),
                                  handle );
@@ -476,20 +610,82 @@ public class ProtobufInputMarshaller {
         propagationContext.cleanReaderContext();
     }
 
+    /**
+     * Unmarshalls the objects of the given handles, splitting them in contiguous ranges among at most
+     * the given number of tasks. The strategies and their contexts are only read, so they are shared
+     * by all the tasks.
+     */
+    private static Object[] unmarshallObjectsConcurrently(final MarshallerReaderContext context,
+                                                          final List<ProtobufMessages.FactHandle> _handles,
+                                                          int tasks) throws IOException,
+                                                                    ClassNotFoundException {
+        final Object[] objects = new Object[_handles.size()];
+        int rangeSize = (objects.length + tasks - 1) / tasks;
+
+        CompletionService<Object> completionService = ExecutorProviderFactory.getExecutorProvider().getCompletionService();
+        for ( int i = 0; i < tasks; i++ ) {
+            final int start = i * rangeSize;
+            final int end = Math.min( start + rangeSize,
+                                      objects.length );
+            completionService.submit( new Callable<Object>() {
+                public Object call() throws Exception {
+                    for ( int j = start; j < end; j++ ) {
+                        objects[j] = unmarshallObject( context,
+                                                       _handles.get( j ) );
+                    }
+                    return null;
+                }
+            } );
+        }
+
+        Throwable error = null;
+        for ( int i = 0; i < tasks; i++ ) {
+            try {
+                completionService.take().get();
+            } catch ( InterruptedException e ) {
+                Thread.currentThread().interrupt();
+                error = e;
+            } catch ( ExecutionException e ) {
+                error = e.getCause();
+            }
+        }
+        if ( error instanceof IOException ) {
+            throw (IOException) error;
+        } else if ( error instanceof ClassNotFoundException ) {
+            throw (ClassNotFoundException) error;
+        } else if ( error != null ) {
+            throw new RuntimeException( "Unable to unmarshall fact objects concurrently",
+                                        error );
+        }
+        return objects;
+    }
+
+    private static Object unmarshallObject(MarshallerReaderContext context,
+                                           FactHandle _handle) throws IOException,
+                                                              ClassNotFoundException {
+        if ( !_handle.hasStrategyIndex() ) {
+            return null;
+        }
+        ObjectMarshallingStrategy strategy = context.usedStrategies.get( _handle.getStrategyIndex() );
+        return strategy.unmarshal( context.strategyContexts.get( strategy ),
+                                   context,
+                                   _handle.getObject().toByteArray(),
+                                   (context.ruleBase == null)?null:context.ruleBase.getRootClassLoader() );
+    }
+
     public static InternalFactHandle readFactHandle(MarshallerReaderContext context,
                                                     SessionEntryPoint entryPoint,
                                                     FactHandle _handle) throws IOException,
                                                                        ClassNotFoundException {
-        Object object = null;
-        ObjectMarshallingStrategy strategy = null;
-        if ( _handle.hasStrategyIndex() ) {
-            strategy = context.usedStrategies.get( _handle.getStrategyIndex() );
-            object = strategy.unmarshal( context.strategyContexts.get( strategy ),
-                                         context,
-                                         _handle.getObject().toByteArray(), 
-                                         (context.ruleBase == null)?null:context.ruleBase.getRootClassLoader() );
-        }
+        return readFactHandle( entryPoint,
+                               _handle,
+                               unmarshallObject( context,
+                                                 _handle ) );
+    }
 
+    private static InternalFactHandle readFactHandle(SessionEntryPoint entryPoint,
+                                                     FactHandle _handle,
+                                                     Object object) {
         InternalFactHandle handle = null;
         switch ( _handle.getType() ) {
             case FACT : {
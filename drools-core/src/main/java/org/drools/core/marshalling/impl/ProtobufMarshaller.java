@@ -16,9 +16,14 @@
 
 package org.drools.core.marshalling.impl;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -64,6 +69,8 @@ public class ProtobufMarshaller
         TIMER_READERS.put( ProtobufMessages.Timers.TimerType.EXPIRE_VALUE, new ExpireJobContextTimerInputMarshaller() );
     }
     
+    private static final int CHANNEL_BUFFER_SIZE = 64 * 1024;
+
     KieBase                       kbase;
     GlobalResolver                      globalResolver;
     RuleBaseConfiguration ruleBaseConfig;
@@ -107,6 +114,7 @@ public class ProtobufMarshaller
                                                                        this.marshallingConfig.isMarshallProcessInstances(),
                                                                        this.marshallingConfig.isMarshallWorkItems(),
                                                                        environment );
+        context.unmarshallingThreads = getUnmarshallingThreads();
 
         int id = ((ReteooRuleBase) ((KnowledgeBaseImpl) this.kbase).ruleBase).nextWorkingMemoryCounter();
         RuleBaseConfiguration conf = ((ReteooRuleBase) ((KnowledgeBaseImpl) this.kbase).ruleBase).getConfiguration();
@@ -134,6 +142,7 @@ public class ProtobufMarshaller
                                                                        this.marshallingConfig.isMarshallProcessInstances(),
                                                                        marshallingConfig.isMarshallWorkItems(),
                                                                        ksession.getEnvironment() );
+        context.unmarshallingThreads = getUnmarshallingThreads();
 
         ProtobufInputMarshaller.readSession( (ReteooStatefulSession) ((StatefulKnowledgeSessionImpl) ksession).session,
                                              context );
@@ -161,10 +170,40 @@ public class ProtobufMarshaller
                                                                      this.marshallingConfig.isMarshallWorkItems(),
                                                                      ksession.getEnvironment() );
         context.clockTime = clockTime;
-        ProtobufOutputMarshaller.writeSession( context );
+        if ( this.marshallingConfig instanceof MarshallingConfigurationImpl && ((MarshallingConfigurationImpl) this.marshallingConfig).isStreaming() ) {
+            ProtobufOutputMarshaller.writeSessionStream( context );
+        } else {
+            ProtobufOutputMarshaller.writeSession( context );
+        }
         context.close();
     }
 
+    /**
+     * Marshalls the session into a channel, for instance a FileChannel.
+     */
+    public void marshall(final WritableByteChannel channel,
+                         final KieSession ksession) throws IOException {
+        OutputStream stream = new BufferedOutputStream( Channels.newOutputStream( channel ),
+                                                        CHANNEL_BUFFER_SIZE );
+        marshall( stream,
+                  ksession );
+    }
+
+    /**
+     * Unmarshalls the session from a channel, for instance a FileChannel, into an existing session.
+     */
+    public void unmarshall(final ReadableByteChannel channel,
+                           final KieSession ksession) throws IOException,
+                                                             ClassNotFoundException {
+        unmarshall( new BufferedInputStream( Channels.newInputStream( channel ),
+                                             CHANNEL_BUFFER_SIZE ),
+                    ksession );
+    }
+
+    private int getUnmarshallingThreads() {
+        return this.marshallingConfig instanceof MarshallingConfigurationImpl ? ((MarshallingConfigurationImpl) this.marshallingConfig).getUnmarshallingThreads() : 1;
+    }
+
     public MarshallingConfiguration getMarshallingConfiguration() {
         return marshallingConfig;
     }
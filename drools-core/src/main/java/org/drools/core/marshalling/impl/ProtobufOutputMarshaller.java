@@ -48,6 +48,7 @@ import org.drools.core.common.RuleFlowGroupImpl;
 import org.drools.core.common.TruthMaintenanceSystem;
 import org.drools.core.common.WorkingMemoryAction;
 import org.drools.core.util.FastIterator;
+import org.drools.core.util.KeyStoreHelper;
 import org.drools.core.util.LinkedListEntry;
 import org.drools.core.util.ObjectHashMap;
 import org.drools.core.util.ObjectHashMap.ObjectEntry;
@@ -57,11 +58,14 @@ import org.drools.core.marshalling.impl.ProtobufMessages.Timers;
 import org.drools.core.marshalling.impl.ProtobufMessages.Timers.Timer;
 import org.drools.core.reteoo.AccumulateNode.AccumulateContext;
 import org.drools.core.reteoo.AccumulateNode.AccumulateMemory;
+import org.drools.core.reteoo.ExpirationTimingWheel.ExpirationBucket;
 import org.drools.core.reteoo.FromNode.FromMemory;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.NodeTypeEnums;
+import org.drools.core.reteoo.ObjectTypeNode.ExpireJobContextTimerOutputMarshaller;
 import org.drools.core.reteoo.QueryElementNode.QueryElementNodeMemory;
 import org.drools.core.reteoo.ReteooWorkingMemory;
+import org.drools.core.reteoo.ReteooWorkingMemory.WorkingMemoryReteExpireAction;
 import org.drools.core.reteoo.RightInputAdapterNode.RiaNodeMemory;
 import org.drools.core.reteoo.RightTuple;
 import org.drools.core.rule.Rule;
@@ -99,6 +103,11 @@ public class ProtobufOutputMarshaller {
         }
     }
 
+    /**
+     * The maximum number of fact handles or timers in a record of a session marshalled as a stream.
+     */
+    public static final int STREAM_CHUNK_SIZE = 1000;
+
     public static void writeSession(MarshallerWriteContext context) throws IOException {
 
         ProtobufMessages.KnowledgeSession _session = serializeSession( context );
@@ -107,30 +116,91 @@ public class ProtobufOutputMarshaller {
                                                  _session );              
     }
 
-    private static ProtobufMessages.KnowledgeSession serializeSession(MarshallerWriteContext context) throws IOException {
+    /**
+     * Writes the session as a stream of records, instead of building a single message for the whole
+     * session. The first record holds the agenda, the node memories and the action queue, then the fact
+     * handles and the timers are written in records of at most STREAM_CHUNK_SIZE elements, in the order
+     * they are stored, without sorting them. So the memory needed doesn't grow with the number of facts.
+     *
+     * The signature of a signed session covers the whole payload, so signed sessions are always written
+     * as a single message.
+     */
+    public static void writeSessionStream(MarshallerWriteContext context) throws IOException {
+        if ( new KeyStoreHelper().isSigned() ) {
+            writeSession( context );
+            return;
+        }
+
         ReteooWorkingMemory wm = (ReteooWorkingMemory) context.wm;
         wm.getAgenda().unstageActivations();
 
-        ProtobufMessages.RuleData.Builder _ruleData = ProtobufMessages.RuleData.newBuilder();
+        context.writeInt( PersisterHelper.STREAM_FORMAT_MAGIC );
 
-        long time = 0;
-        if ( context.wm.getTimerService() instanceof PseudoClockScheduler ) {
-            time = context.clockTime;
+        ProtobufMessages.RuleData.Builder _ruleData = writeRuleData( context );
+        writeActionQueue( context,
+                          _ruleData );
+        PersisterHelper.writeStreamRecord( context,
+                                           PersisterHelper.STREAM_SESSION,
+                                           newSession( context ).setRuleData( _ruleData.build() ).build() );
+
+        ObjectMarshallingStrategyStore objectMarshallingStrategyStore = context.objectMarshallingStrategyStore;
+        for ( SessionEntryPoint wmep : wm.getEntryPoints().values() ) {
+            ProtobufMessages.EntryPoint.Builder _epb = ProtobufMessages.EntryPoint.newBuilder();
+            _epb.setEntryPointId( wmep.getEntryPointId() );
+            for ( Iterator< ? > it = ((NamedEntryPoint) wmep).getObjectStore().iterateFactHandles(); it.hasNext(); ) {
+                _epb.addHandle( writeFactHandle( context,
+                                                 objectMarshallingStrategyStore,
+                                                 (InternalFactHandle) it.next() ) );
+                if ( _epb.getHandleCount() == STREAM_CHUNK_SIZE ) {
+                    PersisterHelper.writeStreamRecord( context,
+                                                       PersisterHelper.STREAM_ENTRY_POINT,
+                                                       _epb.build() );
+                    _epb = ProtobufMessages.EntryPoint.newBuilder();
+                    _epb.setEntryPointId( wmep.getEntryPointId() );
+                }
+            }
+
+            // the truth maintenance system is read after all the fact handles of its entry point
+            writeTruthMaintenanceSystem( context,
+                                         wmep,
+                                         _epb );
+            PersisterHelper.writeStreamRecord( context,
+                                               PersisterHelper.STREAM_ENTRY_POINT,
+                                               _epb.build() );
         }
-        _ruleData.setLastId( wm.getFactHandleFactory().getId() );
-        _ruleData.setLastRecency( wm.getFactHandleFactory().getRecency() );
 
-        InternalFactHandle handle = context.wm.getInitialFactHandle();
-        ProtobufMessages.FactHandle _ifh = ProtobufMessages.FactHandle.newBuilder()
-                .setType( ProtobufMessages.FactHandle.HandleType.INITIAL_FACT )
-                .setId( handle.getId() )
-                .setRecency( handle.getRecency() )
-                .build();
-        _ruleData.setInitialFact( _ifh );
+        if ( processMarshaller != null ) {
+            PersisterHelper.writeStreamRecord( context,
+                                               PersisterHelper.STREAM_PROCESS_DATA,
+                                               writeProcessData( context ) );
+        }
+
+        ProtobufMessages.Timers.Builder _timers = ProtobufMessages.Timers.newBuilder();
+        for ( TimerJobInstance timer : context.wm.getTimerService().getTimerJobInstances( context.wm.getId() ) ) {
+            writeTimer( timer,
+                        _timers,
+                        context );
+            if ( _timers.getTimerCount() >= STREAM_CHUNK_SIZE ) {
+                PersisterHelper.writeStreamRecord( context,
+                                                   PersisterHelper.STREAM_TIMERS,
+                                                   _timers.build() );
+                _timers = ProtobufMessages.Timers.newBuilder();
+            }
+        }
+        if ( _timers.getTimerCount() > 0 ) {
+            PersisterHelper.writeStreamRecord( context,
+                                               PersisterHelper.STREAM_TIMERS,
+                                               _timers.build() );
+        }
 
-        writeAgenda( context, _ruleData );
+        context.writeByte( PersisterHelper.STREAM_END );
+    }
 
-        writeNodeMemories( context, _ruleData );
+    private static ProtobufMessages.KnowledgeSession serializeSession(MarshallerWriteContext context) throws IOException {
+        ReteooWorkingMemory wm = (ReteooWorkingMemory) context.wm;
+        wm.getAgenda().unstageActivations();
+
+        ProtobufMessages.RuleData.Builder _ruleData = writeRuleData( context );
 
         for ( SessionEntryPoint wmep : wm.getEntryPoints().values() ) {
             org.drools.core.marshalling.impl.ProtobufMessages.EntryPoint.Builder _epb = ProtobufMessages.EntryPoint.newBuilder();
@@ -149,28 +219,11 @@ public class ProtobufOutputMarshaller {
         writeActionQueue( context,
                           _ruleData );
 
-        ProtobufMessages.KnowledgeSession.Builder _session = ProtobufMessages.KnowledgeSession.newBuilder()
-                .setMultithread( false )
-                .setTime( time )
+        ProtobufMessages.KnowledgeSession.Builder _session = newSession( context )
                 .setRuleData( _ruleData.build() );
 
         if ( processMarshaller != null ) {
-            Builder _pdata = ProtobufMessages.ProcessData.newBuilder();
-            if ( context.marshalProcessInstances ) {
-                context.parameterObject = _pdata;
-                processMarshaller.writeProcessInstances( context );
-            }
-
-            if ( context.marshalWorkItems ) {
-                context.parameterObject = _pdata;
-                processMarshaller.writeWorkItems( context );
-            }
-
-            // this now just assigns the writer, it will not write out any timer information
-            context.parameterObject = _pdata;
-            processMarshaller.writeProcessTimers( context );
-
-            _session.setProcessData( _pdata.build() );
+            _session.setProcessData( writeProcessData( context ) );
         }
 
         Timers _timers = writeTimers( context.wm.getTimerService().getTimerJobInstances(context.wm.getId()),
@@ -182,6 +235,57 @@ public class ProtobufOutputMarshaller {
         return _session.build();
     }
 
+    private static ProtobufMessages.KnowledgeSession.Builder newSession(MarshallerWriteContext context) {
+        long time = 0;
+        if ( context.wm.getTimerService() instanceof PseudoClockScheduler ) {
+            time = context.clockTime;
+        }
+        return ProtobufMessages.KnowledgeSession.newBuilder()
+                .setMultithread( false )
+                .setTime( time );
+    }
+
+    private static ProtobufMessages.RuleData.Builder writeRuleData(MarshallerWriteContext context) throws IOException {
+        ReteooWorkingMemory wm = (ReteooWorkingMemory) context.wm;
+
+        ProtobufMessages.RuleData.Builder _ruleData = ProtobufMessages.RuleData.newBuilder();
+        _ruleData.setLastId( wm.getFactHandleFactory().getId() );
+        _ruleData.setLastRecency( wm.getFactHandleFactory().getRecency() );
+
+        InternalFactHandle handle = context.wm.getInitialFactHandle();
+        ProtobufMessages.FactHandle _ifh = ProtobufMessages.FactHandle.newBuilder()
+                .setType( ProtobufMessages.FactHandle.HandleType.INITIAL_FACT )
+                .setId( handle.getId() )
+                .setRecency( handle.getRecency() )
+                .build();
+        _ruleData.setInitialFact( _ifh );
+
+        writeAgenda( context, _ruleData );
+
+        writeNodeMemories( context, _ruleData );
+
+        return _ruleData;
+    }
+
+    private static ProtobufMessages.ProcessData writeProcessData(MarshallerWriteContext context) throws IOException {
+        Builder _pdata = ProtobufMessages.ProcessData.newBuilder();
+        if ( context.marshalProcessInstances ) {
+            context.parameterObject = _pdata;
+            processMarshaller.writeProcessInstances( context );
+        }
+
+        if ( context.marshalWorkItems ) {
+            context.parameterObject = _pdata;
+            processMarshaller.writeWorkItems( context );
+        }
+
+        // this now just assigns the writer, it will not write out any timer information
+        context.parameterObject = _pdata;
+        processMarshaller.writeProcessTimers( context );
+
+        return _pdata.build();
+    }
+
     private static void writeAgenda(MarshallerWriteContext context,
                                     ProtobufMessages.RuleData.Builder _ksb) throws IOException {
         InternalWorkingMemory wm = context.wm;
@@ -727,18 +831,35 @@ public class ProtobufOutputMarshaller {
 
             ProtobufMessages.Timers.Builder _timers = ProtobufMessages.Timers.newBuilder();
             for ( TimerJobInstance timer : sortedTimers ) {
-                JobContext jctx = ((SelfRemovalJobContext) timer.getJobContext()).getJobContext();
-                TimersOutputMarshaller writer = outCtx.writersByClass.get( jctx.getClass() );
-                Timer _timer = writer.serialize( jctx, outCtx );
-                if (_timer != null) {
-                    _timers.addTimer( _timer );
-                }
+                writeTimer( timer,
+                            _timers,
+                            outCtx );
             }
             return _timers.build();
         }
         return null;
     }
 
+    private static void writeTimer(TimerJobInstance timer,
+                                   ProtobufMessages.Timers.Builder _timers,
+                                   MarshallerWriteContext outCtx) {
+        JobContext jctx = ((SelfRemovalJobContext) timer.getJobContext()).getJobContext();
+        if ( jctx instanceof ExpirationBucket ) {
+            // an expiration bucket is stored as a single expire timer per event
+            ExpirationBucket bucket = (ExpirationBucket) jctx;
+            for ( WorkingMemoryReteExpireAction expireAction : bucket.getExpireActions() ) {
+                _timers.addTimer( ExpireJobContextTimerOutputMarshaller.serialize( expireAction,
+                                                                                   bucket.getTimestamp() ) );
+            }
+            return;
+        }
+        TimersOutputMarshaller writer = outCtx.writersByClass.get( jctx.getClass() );
+        Timer _timer = writer.serialize( jctx, outCtx );
+        if (_timer != null) {
+            _timers.addTimer( _timer );
+        }
+    }
+
     public static ProtobufMessages.Trigger writeTrigger(Trigger trigger,
                                                         MarshallerWriteContext outCtx) {
         if ( trigger instanceof CronTrigger ) {
@@ -0,0 +1,200 @@
+package org.drools.core.phreak;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+
+import org.drools.core.RuntimeDroolsException;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.common.LeftTupleSets;
+import org.drools.core.reteoo.BetaNode;
+import org.drools.core.reteoo.LeftTupleSource;
+import org.drools.core.reteoo.NodeTypeEnums;
+import org.drools.core.reteoo.PathMemory;
+import org.drools.core.reteoo.SegmentMemory;
+import org.drools.core.reteoo.TerminalNode;
+import org.kie.internal.concurrent.ExecutorProviderFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Evaluates a batch of rule paths, running the independent ones concurrently.
+ *
+ * A path is independent when none of the segments it evaluates is shared with another rule,
+ * and all its nodes only touch their own memories (join, not, exists and eval nodes).
+ * Independent paths are evaluated on worker threads, with their terminal node output deferred;
+ * once all workers are done the deferred output is handed to the agenda, and the remaining
+ * paths are evaluated, in the order the paths were given. So the agenda content does not
+ * depend on thread scheduling.
+ */
+public class ParallelRuleNetworkEvaluator {
+
+    private static final Logger log = LoggerFactory.getLogger(ParallelRuleNetworkEvaluator.class);
+
+    private final RuleNetworkEvaluator networkEvaluator = new RuleNetworkEvaluator();
+
+    private final int maxThreads;
+
+    public ParallelRuleNetworkEvaluator(int maxThreads) {
+        this.maxThreads = maxThreads > 0 ? maxThreads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public void evaluateNetworks(List<RuleNetworkEvaluatorActivation> items,
+                                 InternalWorkingMemory wm) {
+        DeferredTerminalEvaluator[] evaluators = new DeferredTerminalEvaluator[items.size()];
+        List<DeferredTerminalEvaluator> independent = new ArrayList<DeferredTerminalEvaluator>();
+        for (int i = 0; i < evaluators.length; i++) {
+            RuleNetworkEvaluatorActivation item = items.get(i);
+            if (isIndependentPath(item.getPathMemory())) {
+                evaluators[i] = new DeferredTerminalEvaluator(item, wm);
+                independent.add(evaluators[i]);
+            }
+        }
+
+        if (independent.size() > 1) {
+            evaluateConcurrently(independent);
+        } else if (independent.size() == 1) {
+            independent.get(0).evaluate();
+        }
+
+        // all the workers are done, so any link notification from here must reach the agenda
+        for (DeferredTerminalEvaluator evaluator : independent) {
+            evaluator.item.setActivated(false);
+        }
+
+        for (int i = 0; i < evaluators.length; i++) {
+            if (evaluators[i] != null) {
+                evaluators[i].flushTerminalNode();
+            } else {
+                RuleNetworkEvaluatorActivation item = items.get(i);
+                item.setActivated(false);
+                networkEvaluator.evaluateNetwork(item.getPathMemory(), wm);
+            }
+        }
+    }
+
+    private void evaluateConcurrently(List<DeferredTerminalEvaluator> independent) {
+        int tasks = Math.min(maxThreads, independent.size());
+        List<List<DeferredTerminalEvaluator>> partitions = new ArrayList<List<DeferredTerminalEvaluator>>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            partitions.add(new ArrayList<DeferredTerminalEvaluator>());
+        }
+        for (int i = 0, length = independent.size(); i < length; i++) {
+            partitions.get(i % tasks).add(independent.get(i));
+        }
+
+        CompletionService<Object> completionService = ExecutorProviderFactory.getExecutorProvider().getCompletionService();
+        for (final List<DeferredTerminalEvaluator> partition : partitions) {
+            completionService.submit(new Callable<Object>() {
+                public Object call() {
+                    for (DeferredTerminalEvaluator evaluator : partition) {
+                        evaluator.evaluate();
+                    }
+                    return partition;
+                }
+            });
+        }
+
+        Throwable error = null;
+        for (int i = 0; i < tasks; i++) {
+            try {
+                completionService.take().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                error = e;
+            } catch (ExecutionException e) {
+                error = e.getCause();
+            }
+        }
+        if (error != null) {
+            throw new RuntimeDroolsException("Error during parallel rule network evaluation", error);
+        }
+    }
+
+    /**
+     * Returns true if the given path can be evaluated concurrently with any other independent path.
+     * The initial segment is ignored when it contains only the LeftInputAdapterNode, as it is never
+     * evaluated: its tuples are staged directly in the child segments.
+     */
+    public static boolean isIndependentPath(PathMemory rmem) {
+        TerminalNode rtn = rmem.getRuleTerminalNode();
+        if (rtn.getType() != NodeTypeEnums.RuleTerminalNode) {
+            return false;
+        }
+
+        SegmentMemory[] smems = rmem.getSegmentMemories();
+        if (smems == null) {
+            return false;
+        }
+        for (int i = 0; i < smems.length; i++) {
+            SegmentMemory smem = smems[i];
+            if (smem == null) {
+                return false;
+            }
+            if (i == 0 && smem.getRootNode() == smem.getTipNode()) {
+                continue;
+            }
+            if (smem.getPathMemories().size() != 1) {
+                return false;
+            }
+        }
+
+        for (LeftTupleSource lts = rtn.getLeftTupleSource(); lts.getType() != NodeTypeEnums.LeftInputAdapterNode; lts = lts.getLeftTupleSource()) {
+            switch (lts.getType()) {
+                case NodeTypeEnums.JoinNode:
+                case NodeTypeEnums.NotNode:
+                case NodeTypeEnums.ExistsNode:
+                    if (((BetaNode) lts).isRightInputIsRiaNode()) {
+                        return false;
+                    }
+                    break;
+                case NodeTypeEnums.EvalConditionNode:
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private static class DeferredTerminalEvaluator extends RuleNetworkEvaluator {
+
+        private final RuleNetworkEvaluatorActivation item;
+        private final PathMemory                     rmem;
+        private final InternalWorkingMemory          wm;
+        private final List<LeftTupleSets>            terminalTuples = new ArrayList<LeftTupleSets>();
+
+        private DeferredTerminalEvaluator(RuleNetworkEvaluatorActivation item,
+                                          InternalWorkingMemory wm) {
+            this.item = item;
+            this.rmem = item.getPathMemory();
+            this.wm = wm;
+        }
+
+        public void evaluate() {
+            if (log.isTraceEnabled()) {
+                log.trace("Parallel evaluation of {}", rmem);
+            }
+            evaluateNetwork(rmem, wm);
+        }
+
+        @Override
+        protected void doRuleTerminalNode(TerminalNode rtn,
+                                          InternalWorkingMemory wm,
+                                          LeftTupleSets srcTuples) {
+            // keep each batch apart, so inserts, updates and deletes are replayed in the order they reached the node
+            LeftTupleSets tuples = new LeftTupleSets();
+            tuples.addAll(srcTuples);
+            terminalTuples.add(tuples);
+        }
+
+        public void flushTerminalNode() {
+            for (LeftTupleSets tuples : terminalTuples) {
+                super.doRuleTerminalNode(rmem.getRuleTerminalNode(), wm, tuples);
+            }
+            terminalTuples.clear();
+        }
+    }
+}
@@ -112,6 +112,14 @@ public class RuleNetworkEvaluator {
         return 0;
     }
 
+    protected void doRuleTerminalNode(TerminalNode rtn,
+                                      InternalWorkingMemory wm,
+                                      LeftTupleSets srcTuples) {
+        pRtNode.doNode(rtn,
+                       wm,
+                       srcTuples);
+    }
+
     public static String indent(int size) {
         StringBuilder sbuilder = new StringBuilder();
         for (int i = 0; i < size; i++) {
@@ -251,9 +259,9 @@ public class RuleNetworkEvaluator {
                                    srcTuples,
                                    stack);
                 } else {
-                    pRtNode.doNode(rtn,
-                                   wm,
-                                   srcTuples);
+                    doRuleTerminalNode(rtn,
+                                       wm,
+                                       srcTuples);
                 }
                 return;
             } else if (NodeTypeEnums.RightInputAdaterNode == node.getType()) {
@@ -783,6 +791,7 @@ public class RuleNetworkEvaluator {
             RightTupleMemory rtm = bm.getRightTupleMemory();
             ContextEntry[] contextEntry = bm.getContext();
             BetaConstraints constraints = joinNode.getRawConstraints();
+            TuplePool tuplePool = wm.getTuplePool();
 
             for (LeftTuple leftTuple = srcLeftTuples.getInsertFirst(); leftTuple != null; ) {
                 LeftTuple next = leftTuple.getStagedNext();
@@ -806,12 +815,11 @@ public class RuleNetworkEvaluator {
                                                                          it); rightTuple != null; rightTuple = (RightTuple) it.next(rightTuple)) {
                     if (constraints.isAllowedCachedLeft(contextEntry,
                                                         rightTuple.getFactHandle())) {
-                        trgLeftTuples.addInsert(sink.createLeftTuple(leftTuple,
-                                                                     rightTuple,
-                                                                     null,
-                                                                     null,
-                                                                     sink,
-                                                                     useLeftMemory));
+                        trgLeftTuples.addInsert(createChild(sink,
+                                                            leftTuple,
+                                                            rightTuple,
+                                                            useLeftMemory,
+                                                            tuplePool));
                     }
 
                 }
@@ -831,6 +839,7 @@ public class RuleNetworkEvaluator {
             RightTupleMemory rtm = bm.getRightTupleMemory();
             ContextEntry[] contextEntry = bm.getContext();
             BetaConstraints constraints = joinNode.getRawConstraints();
+            TuplePool tuplePool = wm.getTuplePool();
 
             for (RightTuple rightTuple = srcRightTuples.getInsertFirst(); rightTuple != null; ) {
                 RightTuple next = rightTuple.getStagedNext();
@@ -852,12 +861,11 @@ public class RuleNetworkEvaluator {
 
                     if (constraints.isAllowedCachedRight(contextEntry,
                                                          leftTuple)) {
-                        trgLeftTuples.addInsert(sink.createLeftTuple(leftTuple,
-                                                                     rightTuple,
-                                                                     null,
-                                                                     null,
-                                                                     sink,
-                                                                     true));
+                        trgLeftTuples.addInsert(createChild(sink,
+                                                            leftTuple,
+                                                            rightTuple,
+                                                            true,
+                                                            tuplePool));
                     }
                 }
                 rightTuple.clearStaged();
@@ -866,6 +874,28 @@ public class RuleNetworkEvaluator {
             constraints.resetFactHandle(contextEntry);
         }
 
+        private static LeftTuple createChild(LeftTupleSink sink,
+                                             LeftTuple leftTuple,
+                                             RightTuple rightTuple,
+                                             boolean leftTupleMemoryEnabled,
+                                             TuplePool tuplePool) {
+            if (tuplePool != null && sink.getType() == NodeTypeEnums.JoinNode) {
+                // the JoinNodeLeftTuples are the only LeftTuples recycled by the pool
+                return tuplePool.newJoinNodeLeftTuple(leftTuple,
+                                                      rightTuple,
+                                                      null,
+                                                      null,
+                                                      sink,
+                                                      leftTupleMemoryEnabled);
+            }
+            return sink.createLeftTuple(leftTuple,
+                                        rightTuple,
+                                        null,
+                                        null,
+                                        sink,
+                                        leftTupleMemoryEnabled);
+        }
+
         public void doLeftUpdates(JoinNode joinNode,
                                   LeftTupleSink sink,
                                   BetaMemory bm,
@@ -896,7 +926,8 @@ public class RuleNetworkEvaluator {
 
                 // first check our index (for indexed nodes only) hasn't changed and we are returning the same bucket
                 // if rightTuple is null, we assume there was a bucket change and that bucket is empty        
-                if (childLeftTuple != null && rtm.isIndexed() && !it.isFullIterator() && (rightTuple == null || (rightTuple.getMemory() != childLeftTuple.getRightParent().getMemory()))) {
+                // comparison indexes have no buckets and do not keep the children in iteration order, so always start again
+                if (childLeftTuple != null && rtm.isIndexed() && !it.isFullIterator() && (rtm.getIndexType().isComparison() || rightTuple == null || (rightTuple.getMemory() != childLeftTuple.getRightParent().getMemory()))) {
                     // our index has changed, so delete all the previous propagations
                     while (childLeftTuple != null) {
                         childLeftTuple = deleteLeftChild(childLeftTuple, trgLeftTuples, stagedLeftTuples);
@@ -1004,7 +1035,8 @@ public class RuleNetworkEvaluator {
 
                 // first check our index (for indexed nodes only) hasn't changed and we are returning the same bucket
                 // We assume a bucket change if leftTuple == null        
-                if (childLeftTuple != null && ltm.isIndexed() && !it.isFullIterator() && (leftTuple == null || (leftTuple.getMemory() != childLeftTuple.getLeftParent().getMemory()))) {
+                // comparison indexes have no buckets and do not keep the children in iteration order, so always start again
+                if (childLeftTuple != null && ltm.isIndexed() && !it.isFullIterator() && (ltm.getIndexType().isComparison() || leftTuple == null || (leftTuple.getMemory() != childLeftTuple.getLeftParent().getMemory()))) {
                     // our index has changed, so delete all the previous propagations
                     while (childLeftTuple != null) {
                         childLeftTuple = deleteRightChild(childLeftTuple, trgLeftTuples, stagedLeftTuples);
@@ -1102,6 +1134,7 @@ public class RuleNetworkEvaluator {
                                   LeftTupleSets trgLeftTuples,
                                   LeftTupleSets stagedLeftTuples) {
             LeftTupleMemory ltm = bm.getLeftTupleMemory();
+            TuplePool tuplePool = wm.getTuplePool();
 
             for (LeftTuple leftTuple = srcLeftTuples.getDeleteFirst(); leftTuple != null; ) {
                 LeftTuple next = leftTuple.getStagedNext();
@@ -1116,6 +1149,9 @@ public class RuleNetworkEvaluator {
                     while (childLeftTuple != null) {
                         childLeftTuple = deleteLeftChild(childLeftTuple, trgLeftTuples, stagedLeftTuples);
                     }
+                } else if (tuplePool != null) {
+                    // the children staged for deletion downstream still reach their parent, so only a tuple without children can be recycled
+                    tuplePool.release(leftTuple);
                 }
                 leftTuple.clearStaged();
                 leftTuple = next;
@@ -1129,6 +1165,7 @@ public class RuleNetworkEvaluator {
                                    LeftTupleSets trgLeftTuples,
                                    LeftTupleSets stagedLeftTuples) {
             RightTupleMemory rtm = bm.getRightTupleMemory();
+            TuplePool tuplePool = wm.getTuplePool();
 
             for (RightTuple rightTuple = srcRightTuples.getDeleteFirst(); rightTuple != null; ) {
                 RightTuple next = rightTuple.getStagedNext();
@@ -1146,6 +1183,10 @@ public class RuleNetworkEvaluator {
                     }
                 }
                 rightTuple.clearStaged();
+                if (tuplePool != null) {
+                    // the children have been unlinked from it, and only hold its fact handle
+                    tuplePool.release(rightTuple);
+                }
                 rightTuple = next;
             }
         }
@@ -2447,7 +2488,8 @@ public class RuleNetworkEvaluator {
 
                 // first check our index (for indexed nodes only) hasn't changed and we are returning the same bucket
                 // if rightTuple is null, we assume there was a bucket change and that bucket is empty
-                if (childLeftTuple != null && rtm.isIndexed() && !rightIt.isFullIterator() && (rightTuple == null || (rightTuple.getMemory() != childLeftTuple.getRightParent().getMemory()))) {
+                // comparison indexes have no buckets and do not keep the children in iteration order, so always start again
+                if (childLeftTuple != null && rtm.isIndexed() && !rightIt.isFullIterator() && (rtm.getIndexType().isComparison() || rightTuple == null || (rightTuple.getMemory() != childLeftTuple.getRightParent().getMemory()))) {
                     // our index has changed, so delete all the previous matchings
                     removePreviousMatchesForLeftTuple(accNode,
                                                       accumulate,
@@ -2598,7 +2640,8 @@ public class RuleNetworkEvaluator {
 
                 // first check our index (for indexed nodes only) hasn't changed and we are returning the same bucket
                 // We assume a bucket change if leftTuple == null
-                if (childLeftTuple != null && ltm.isIndexed() && !leftIt.isFullIterator() && (leftTuple == null || (leftTuple.getMemory() != childLeftTuple.getLeftParent().getMemory()))) {
+                // comparison indexes have no buckets and do not keep the children in iteration order, so always start again
+                if (childLeftTuple != null && ltm.isIndexed() && !leftIt.isFullIterator() && (ltm.getIndexType().isComparison() || leftTuple == null || (leftTuple.getMemory() != childLeftTuple.getLeftParent().getMemory()))) {
                     // our index has changed, so delete all the previous matches
                     removePreviousMatchesForRightTuple(accNode,
                                                        accumulate,
@@ -30,6 +30,10 @@ public class RuleNetworkEvaluatorActivation extends AgendaItem {
         this.rmem = rmem;
     }
 
+    public PathMemory getPathMemory() {
+        return rmem;
+    }
+
     public int evaluateNetwork(InternalWorkingMemory wm) {
         return this.networkEvaluator.evaluateNetwork(rmem, wm);
     }
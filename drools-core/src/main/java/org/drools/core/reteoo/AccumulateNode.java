@@ -376,7 +376,8 @@ public class AccumulateNode extends BetaNode {
 
         // first check our index (for indexed nodes only) hasn't changed and we are returning the same bucket
         // if rightTuple is null, we assume there was a bucket change and that bucket is empty
-        if ( childLeftTuple != null && rightMemory.isIndexed() && !rightIt.isFullIterator() &&  (rightTuple == null || (rightTuple.getMemory() !=  childLeftTuple.getRightParent().getMemory())) ) {
+        // comparison indexes have no buckets and do not keep the children in iteration order, so always start again
+        if ( childLeftTuple != null && rightMemory.isIndexed() && !rightIt.isFullIterator() &&  (rightMemory.getIndexType().isComparison() || rightTuple == null || (rightTuple.getMemory() !=  childLeftTuple.getRightParent().getMemory())) ) {
             // our index has changed, so delete all the previous matchings
             removePreviousMatchesForLeftTuple( leftTuple,
                                                workingMemory,
@@ -500,7 +501,8 @@ public class AccumulateNode extends BetaNode {
 
         // first check our index (for indexed nodes only) hasn't changed and we are returning the same bucket
         // We assume a bucket change if leftTuple == null
-        if ( childLeftTuple != null && leftMemory.isIndexed() && !leftIt.isFullIterator() && (leftTuple == null || (leftTuple.getMemory() != childLeftTuple.getLeftParent().getMemory())) ) {
+        // comparison indexes have no buckets and do not keep the children in iteration order, so always start again
+        if ( childLeftTuple != null && leftMemory.isIndexed() && !leftIt.isFullIterator() && (leftMemory.getIndexType().isComparison() || leftTuple == null || (leftTuple.getMemory() != childLeftTuple.getLeftParent().getMemory())) ) {
             // our index has changed, so delete all the previous matches
             removePreviousMatchesForRightTuple( rightTuple,
                                                 context,
@@ -27,7 +27,11 @@ import org.drools.core.spi.Tuple;
 import java.util.Arrays;
 
 /**
- * A parent class for all specific LeftTuple specializations
+ * A parent class for all specific LeftTuple specializations.
+ *
+ * It only holds the links every tuple needs, so that the tuples that can never have children nor be stored
+ * in a left memory, like the ones of the terminal nodes, don't pay for them. The tuples of the other nodes
+ * extend ParentLeftTuple, that adds the links to the children and to the node memory.
  * @author etirelli
  *
  */
@@ -52,19 +56,10 @@ public class BaseLeftTuple
     private LeftTuple          rightParentPrevious;
     private LeftTuple          rightParentNext;
 
-    // children
-    private LeftTuple          firstChild;
-    private LeftTuple          lastChild;
-
     private LeftTupleSink      sink;
     
     private PropagationContext   propagationContext;    
     
-    // node memory
-    protected LeftTupleList      memory;
-    protected Entry              next;
-    protected Entry              previous;    
-    
     protected short              stagedType;
     protected LeftTuple          stagedNext;
     protected LeftTuple          stagedPrevious;        
@@ -170,6 +165,61 @@ public class BaseLeftTuple
                              final LeftTuple currentRightChild,
                              final LeftTupleSink sink,
                              final boolean leftTupleMemoryEnabled) {
+        link( leftTuple,
+              rightTuple,
+              currentLeftChild,
+              currentRightChild,
+              sink,
+              leftTupleMemoryEnabled );
+    }
+
+    /**
+     * Reinitialises a tuple taken from a TuplePool, as the constructor with the same arguments would have done.
+     */
+    public void reInit(final LeftTuple leftTuple,
+                       final RightTuple rightTuple,
+                       final LeftTuple currentLeftChild,
+                       final LeftTuple currentRightChild,
+                       final LeftTupleSink sink,
+                       final boolean leftTupleMemoryEnabled) {
+        reset();
+        link( leftTuple,
+              rightTuple,
+              currentLeftChild,
+              currentRightChild,
+              sink,
+              leftTupleMemoryEnabled );
+    }
+
+    /**
+     * Clears all the references of this tuple, so that once released to a TuplePool
+     * it doesn't retain the facts and tuples it was joining.
+     */
+    public void reset() {
+        this.index = 0;
+        this.handle = null;
+        this.parent = null;
+        this.leftParent = null;
+        this.leftParentPrevious = null;
+        this.leftParentNext = null;
+        this.rightParent = null;
+        this.rightParentPrevious = null;
+        this.rightParentNext = null;
+        this.sink = null;
+        this.propagationContext = null;
+        this.stagedType = LeftTuple.NONE;
+        this.stagedNext = null;
+        this.stagedPrevious = null;
+        this.object = null;
+        this.peer = null;
+    }
+
+    private void link(final LeftTuple leftTuple,
+                      final RightTuple rightTuple,
+                      final LeftTuple currentLeftChild,
+                      final LeftTuple currentRightChild,
+                      final LeftTupleSink sink,
+                      final boolean leftTupleMemoryEnabled) {
         this.handle = rightTuple.getFactHandle();
         this.index = leftTuple.getIndex() + 1;
         this.parent = leftTuple;
@@ -669,19 +719,20 @@ public class BaseLeftTuple
     }
 
     public LeftTuple getFirstChild() {
-        return firstChild;
+        return null;
     }
 
     public void setFirstChild(LeftTuple firstChild) {
-        this.firstChild = firstChild;
+        // only cleared when the tuple is unlinked, as it can't have children
+        assert firstChild == null : "This tuple can't have children";
     }
 
     public LeftTuple getLastChild() {
-        return lastChild;
+        return null;
     }
 
     public void setLastChild(LeftTuple lastChild) {
-        this.lastChild = lastChild;
+        assert lastChild == null : "This tuple can't have children";
     }
 
     public LeftTupleSink getSink() {
@@ -705,42 +756,43 @@ public class BaseLeftTuple
      * @see org.kie.reteoo.LeftTuple#getMemory()
      */
     public LeftTupleList getMemory() {
-        return this.memory;
+        return null;
     }
 
     /* (non-Javadoc)
      * @see org.kie.reteoo.LeftTuple#setMemory(org.kie.core.util.LeftTupleList)
      */
     public void setMemory(LeftTupleList memory) {
-        this.memory = memory;
+        // only cleared when the tuple is unlinked, as it is never stored in a node memory
+        assert memory == null : "This tuple can't be stored in a node memory";
     }
 
     /* (non-Javadoc)
      * @see org.kie.reteoo.LeftTuple#getPrevious()
      */
     public Entry getPrevious() {
-        return previous;
+        return null;
     }
 
     /* (non-Javadoc)
      * @see org.kie.reteoo.LeftTuple#setPrevious(org.kie.core.util.Entry)
      */
     public void setPrevious(Entry previous) {
-        this.previous = previous;
+        assert previous == null : "This tuple can't be stored in a node memory";
     }
 
     /* (non-Javadoc)
      * @see org.kie.reteoo.LeftTuple#setNext(org.kie.core.util.Entry)
      */
     public void setNext(final Entry next) {
-        this.next = next;
+        assert next == null : "This tuple can't be stored in a node memory";
     }
 
     /* (non-Javadoc)
      * @see org.kie.reteoo.LeftTuple#getNext()
      */
     public Entry getNext() {
-        return this.next;
+        return null;
     }               
 
     public short getStagedType() {
@@ -841,7 +893,7 @@ public class BaseLeftTuple
         buf.append( istr );
         buf.append( toExternalString() );
         buf.append( "\n" );
-        for( LeftTuple leftTuple = this.firstChild; leftTuple != null; leftTuple = leftTuple.getLeftParentNext() ) {
+        for( LeftTuple leftTuple = getFirstChild(); leftTuple != null; leftTuple = leftTuple.getLeftParentNext() ) {
             buf.append( leftTuple.toTupleTree( indent+4 ) );
         }
         return buf.toString();
@@ -894,9 +946,7 @@ public class BaseLeftTuple
     }
 
     public void clear() {
-        this.previous = null;
-        this.next = null;
-        this.memory = null;
+        // nothing to clear, as this tuple is never stored in a node memory
     }   
     
     public void initPeer(BaseLeftTuple original, LeftTupleSink sink) {
@@ -311,7 +311,11 @@ public abstract class BetaNode extends LeftTupleSource
                               final InternalWorkingMemory wm ) {
         final BetaMemory memory = (BetaMemory) getBetaMemoryFromRightInput(this, wm);
 
-        RightTuple rightTuple = createRightTuple( factHandle,
+        TuplePool tuplePool = wm.getTuplePool();
+        RightTuple rightTuple = tuplePool != null && context.getActiveWindowTupleList() == null ?
+                                tuplePool.newRightTuple( factHandle,
+                                                         this ) :
+                                createRightTuple( factHandle,
                                                   this,
                                                   context );
         rightTuple.setPropagationContext( context );
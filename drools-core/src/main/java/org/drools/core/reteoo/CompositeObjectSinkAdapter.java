@@ -27,6 +27,7 @@ import org.drools.core.util.LinkedList;
 import org.drools.core.util.LinkedListNode;
 import org.drools.core.util.ObjectHashMap;
 import org.drools.core.util.ObjectHashMap.ObjectEntry;
+import org.drools.core.util.index.IndexUtil.ConstraintType;
 import org.drools.core.rule.IndexableConstraint;
 import org.drools.core.spi.AlphaNodeFieldConstraint;
 import org.drools.core.spi.FieldValue;
@@ -39,8 +40,12 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 
+import static org.drools.core.util.BitMaskUtil.intersect;
+
 public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
 
     //    /** You can override this property via a system property (eg -Ddrools.hashThreshold=4) */
@@ -58,6 +63,8 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
 
     ObjectHashMap             hashedSinkMap;
 
+    LinkedList<RangeIndex>    rangeIndexes;
+
     private int               alphaNodeHashingThreshold;
 
     public CompositeObjectSinkAdapter() {
@@ -78,6 +85,7 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
         hashableSinks = (ObjectSinkNodeList) in.readObject();
         hashedFieldIndexes = (LinkedList) in.readObject();
         hashedSinkMap = (ObjectHashMap) in.readObject();
+        rangeIndexes = (LinkedList) in.readObject();
         alphaNodeHashingThreshold = in.readInt();
     }
 
@@ -87,6 +95,7 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
         out.writeObject( hashableSinks );
         out.writeObject( hashedFieldIndexes );
         out.writeObject( hashedSinkMap );
+        out.writeObject( rangeIndexes );
         out.writeInt( alphaNodeHashingThreshold );
     }
 
@@ -102,6 +111,10 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
         return this.hashedSinkMap;
     }
 
+    public LinkedList<RangeIndex> getRangeIndexes() {
+        return this.rangeIndexes;
+    }
+
     public void addObjectSink(final ObjectSink sink) {
         if ( sink.getType() ==  NodeTypeEnums.AlphaNode ) {
             final AlphaNode alphaNode = (AlphaNode) sink;
@@ -138,6 +151,20 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
                     }
                     return;
                 }
+
+                if ( isRangeIndexable( indexableConstraint ) ) {
+                    final InternalReadAccessor readAccessor = indexableConstraint.getFieldExtractor();
+                    final RangeIndex rangeIndex = registerRangeIndex( readAccessor.getIndex(),
+                                                                      readAccessor );
+
+                    if ( rangeIndex.getCount() >= this.alphaNodeHashingThreshold ) {
+                        if ( !rangeIndex.isIndexed() ) {
+                            indexRangeSinks( rangeIndex );
+                        }
+                        rangeIndex.add( alphaNode );
+                        return;
+                    }
+                }
             }
         }
 
@@ -147,6 +174,24 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
 
         this.otherSinks.add( (ObjectSinkNode) sink );
     }
+
+    /**
+     * Returns true if the constraint compares a primitive numeric field with a literal (field &gt; 10, field &lt;= 2.5, ...),
+     * so the node can be added to the sorted RangeIndex of its field.
+     */
+    private boolean isRangeIndexable(final IndexableConstraint indexableConstraint) {
+        if ( this.alphaNodeHashingThreshold == 0 || !indexableConstraint.getConstraintType().isComparison() ) {
+            return false;
+        }
+        final FieldValue value = indexableConstraint.getField();
+        final InternalReadAccessor readAccessor = indexableConstraint.getFieldExtractor();
+        return value != null && !value.isNull() && readAccessor != null &&
+               RangeIndex.isIndexableType( readAccessor.getValueType() ) &&
+               // an integral field compared with a fractional literal can't be keyed on the literal's long value
+               !( RangeIndex.isIntegral( readAccessor.getValueType() ) && value.getDoubleValue() != value.getLongValue() ) &&
+               // our current implementation does not support indexing of deeply nested properties
+               !( readAccessor instanceof MVELObjectClassFieldReader );
+    }
     
     
 
@@ -186,6 +231,18 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
 
                     return;
                 }
+
+                if ( isRangeIndexable( indexableConstraint ) ) {
+                    final RangeIndex rangeIndex = unregisterRangeIndex( indexableConstraint.getFieldExtractor().getIndex() );
+
+                    if ( rangeIndex.isIndexed() ) {
+                        rangeIndex.remove( alphaNode );
+                        if ( rangeIndex.getCount() < this.alphaNodeHashingThreshold ) {
+                            unIndexRangeSinks( rangeIndex );
+                        }
+                        return;
+                    }
+                }
             }
         }
 
@@ -276,6 +333,89 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
         fieldIndex.setHashed( false );
     }
 
+    void indexRangeSinks(final RangeIndex rangeIndex) {
+        final int index = rangeIndex.getIndex();
+
+        ObjectSinkNode currentSink = this.otherSinks != null ? this.otherSinks.getFirst() : null;
+        while ( currentSink != null ) {
+            final ObjectSinkNode sink = currentSink;
+            // position to the next sink now, as this one may be removed
+            currentSink = currentSink.getNextObjectSinkNode();
+
+            if ( sink.getType() == NodeTypeEnums.AlphaNode ) {
+                final AlphaNodeFieldConstraint fieldConstraint = ((AlphaNode) sink).getConstraint();
+                if ( fieldConstraint instanceof IndexableConstraint &&
+                     isRangeIndexable( (IndexableConstraint) fieldConstraint ) &&
+                     index == ((IndexableConstraint) fieldConstraint).getFieldExtractor().getIndex() ) {
+                    rangeIndex.add( (AlphaNode) sink );
+                    this.otherSinks.remove( sink );
+                }
+            }
+        }
+
+        if ( this.otherSinks != null && this.otherSinks.isEmpty() ) {
+            this.otherSinks = null;
+        }
+
+        rangeIndex.setIndexed( true );
+    }
+
+    void unIndexRangeSinks(final RangeIndex rangeIndex) {
+        if ( this.otherSinks == null ) {
+            this.otherSinks = new ObjectSinkNodeList();
+        }
+        for ( AlphaNode alphaNode : rangeIndex.getSinks() ) {
+            this.otherSinks.add( alphaNode );
+        }
+        rangeIndex.clear();
+        rangeIndex.setIndexed( false );
+    }
+
+    private RangeIndex registerRangeIndex(final int index,
+                                          final InternalReadAccessor fieldExtractor) {
+        if ( this.rangeIndexes == null ) {
+            this.rangeIndexes = new LinkedList<RangeIndex>();
+        }
+
+        RangeIndex rangeIndex = findRangeIndex( index );
+        if ( rangeIndex == null ) {
+            rangeIndex = new RangeIndex( index,
+                                         fieldExtractor );
+            this.rangeIndexes.add( rangeIndex );
+        }
+
+        rangeIndex.increaseCounter();
+
+        return rangeIndex;
+    }
+
+    private RangeIndex unregisterRangeIndex(final int index) {
+        final RangeIndex rangeIndex = findRangeIndex( index );
+        rangeIndex.decreaseCounter();
+
+        // if the count is 0 then remove it from the linkedlist
+        if ( rangeIndex.getCount() == 0 ) {
+            this.rangeIndexes.remove( rangeIndex );
+
+            // if the linkedlist is empty then null it
+            if ( this.rangeIndexes.isEmpty() ) {
+                this.rangeIndexes = null;
+            }
+        }
+
+        return rangeIndex;
+    }
+
+    private RangeIndex findRangeIndex(final int index) {
+        for ( RangeIndex node = this.rangeIndexes.getFirst(); node != null; node = node.getNext() ) {
+            if ( node.getIndex() == index ) {
+                return node;
+            }
+        }
+
+        return null;
+    }
+
     /**
      * Returns a FieldIndex which Keeps a count on how many times a particular field is used with an equality check
      * in the sinks.
@@ -367,6 +507,14 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             }
         }
 
+        if ( this.rangeIndexes != null ) {
+            for ( RangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                if ( rangeIndex.isIndexed() ) {
+                    rangeIndex.propagateAssertObject( factHandle, context, workingMemory );
+                }
+            }
+        }
+
         // propagate unhashed
         if ( this.hashableSinks != null ) {
             for ( ObjectSinkNode sink = this.hashableSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
@@ -416,6 +564,14 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             }
         }
 
+        if ( this.rangeIndexes != null ) {
+            for ( RangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                if ( rangeIndex.isIndexed() ) {
+                    rangeIndex.propagateModifyObject( factHandle, modifyPreviousTuples, context, workingMemory );
+                }
+            }
+        }
+
         // propagate unhashed
         if ( this.hashableSinks != null ) {
             for ( ObjectSinkNode sink = this.hashableSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
@@ -465,6 +621,18 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             }
         }
 
+        if ( this.rangeIndexes != null ) {
+            for ( RangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                if ( !rangeIndex.isIndexed() ) {
+                    continue;
+                }
+                // the modify may move the fact across any of the bounds, so all of them must be told
+                for ( AlphaNode sink : rangeIndex.getSinks() ) {
+                    sink.getSinkPropagator().byPassModifyToBetaNode( factHandle, modifyPreviousTuples, context, workingMemory );
+                }
+            }
+        }
+
         // propagate unhashed
         if ( this.hashableSinks != null ) {
             for ( ObjectSinkNode sink = this.hashableSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
@@ -537,6 +705,16 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
                 }
             }
         }
+
+        if ( this.rangeIndexes != null ) {
+            for ( RangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                for ( AlphaNode sink : rangeIndex.getSinks() ) {
+                    if ( candidate.equals( sink ) ) {
+                        return sink;
+                    }
+                }
+            }
+        }
         return null;
     }
 
@@ -562,6 +740,14 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             }
         }
 
+        if ( this.rangeIndexes != null ) {
+            for ( RangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                for ( AlphaNode sink : rangeIndex.getSinks() ) {
+                    sinks[at++] = sink;
+                }
+            }
+        }
+
         if ( this.hashableSinks != null ) {
             for ( ObjectSinkNode sink = this.hashableSinks.getFirst(); sink != null; sink = sink.getNextObjectSinkNode() ) {
                 sinks[at++] = sink;
@@ -595,7 +781,13 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
     }     
 
     public int size() {
-        return (this.otherSinks != null ? this.otherSinks.size() : 0) + (this.hashableSinks != null ? this.hashableSinks.size() : 0) + (this.hashedSinkMap != null ? this.hashedSinkMap.size() : 0);
+        int size = (this.otherSinks != null ? this.otherSinks.size() : 0) + (this.hashableSinks != null ? this.hashableSinks.size() : 0) + (this.hashedSinkMap != null ? this.hashedSinkMap.size() : 0);
+        if ( this.rangeIndexes != null ) {
+            for ( RangeIndex rangeIndex = this.rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext() ) {
+                size += rangeIndex.size();
+            }
+        }
+        return size;
     }
 
     public static class HashKey
@@ -966,4 +1158,304 @@ public class CompositeObjectSinkAdapter extends AbstractObjectSinkAdapter {
             this.previous = previous;
         }
     }
+
+    /**
+     * Keeps the alpha nodes comparing the same primitive numeric field with a literal (field &gt; 10, field &lt;= 2.5, ...)
+     * sorted by their literal, so the nodes matching a fact value are found with a binary search instead of being
+     * evaluated one by one.
+     * The nodes of the ascending constraints (&gt;, &gt;=) that match a value are a prefix of lowerBounds, while the ones
+     * of the descending constraints (&lt;, &lt;=) are a suffix of upperBounds.
+     */
+    public static class RangeIndex
+        implements
+        LinkedListNode<RangeIndex>,
+        Externalizable {
+        private static final long    serialVersionUID = 510l;
+        private int                  index;
+        private InternalReadAccessor fieldExtractor;
+
+        private int                  count;
+
+        private boolean              indexed;
+
+        private List<AlphaNode>      sinks            = new ArrayList<AlphaNode>();
+
+        private transient RangeEntry[] lowerBounds    = new RangeEntry[0];
+        private transient RangeEntry[] upperBounds    = new RangeEntry[0];
+
+        private RangeIndex           previous;
+        private RangeIndex           next;
+
+        public RangeIndex() {
+        }
+
+        public RangeIndex(final int index,
+                          final InternalReadAccessor fieldExtractor) {
+            this.index = index;
+            this.fieldExtractor = fieldExtractor;
+        }
+
+        public void readExternal(ObjectInput in) throws IOException,
+                                                ClassNotFoundException {
+            index = in.readInt();
+            fieldExtractor = (InternalReadAccessor) in.readObject();
+            count = in.readInt();
+            indexed = in.readBoolean();
+            sinks = (List<AlphaNode>) in.readObject();
+            // the alpha nodes may not be fully deserialized yet, so the bounds are sorted on first use
+            lowerBounds = null;
+            upperBounds = null;
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeInt( index );
+            out.writeObject( fieldExtractor );
+            out.writeInt( count );
+            out.writeBoolean( indexed );
+            out.writeObject( sinks );
+        }
+
+        public static boolean isIndexableType(final ValueType valueType) {
+            return isIntegral( valueType ) || valueType == ValueType.PDOUBLE_TYPE;
+        }
+
+        private static boolean isIntegral(final ValueType valueType) {
+            return valueType == ValueType.PINTEGER_TYPE || valueType == ValueType.PLONG_TYPE ||
+                   valueType == ValueType.PSHORT_TYPE || valueType == ValueType.PBYTE_TYPE;
+        }
+
+        public InternalReadAccessor getFieldExtractor() {
+            return this.fieldExtractor;
+        }
+
+        public int getIndex() {
+            return this.index;
+        }
+
+        public int getCount() {
+            return this.count;
+        }
+
+        public boolean isIndexed() {
+            return this.indexed;
+        }
+
+        public void setIndexed(final boolean indexed) {
+            this.indexed = indexed;
+        }
+
+        public void increaseCounter() {
+            this.count++;
+        }
+
+        public void decreaseCounter() {
+            this.count--;
+        }
+
+        public List<AlphaNode> getSinks() {
+            return this.sinks;
+        }
+
+        public int size() {
+            return this.sinks.size();
+        }
+
+        public void add(final AlphaNode sink) {
+            this.sinks.add( sink );
+            sortBounds();
+        }
+
+        public void remove(final AlphaNode sink) {
+            this.sinks.remove( sink );
+            sortBounds();
+        }
+
+        public void clear() {
+            this.sinks.clear();
+            sortBounds();
+        }
+
+        private void sortBounds() {
+            final boolean integral = isIntegral( this.fieldExtractor.getValueType() );
+            final List<RangeEntry> lower = new ArrayList<RangeEntry>();
+            final List<RangeEntry> upper = new ArrayList<RangeEntry>();
+            for ( AlphaNode sink : this.sinks ) {
+                final IndexableConstraint constraint = (IndexableConstraint) sink.getConstraint();
+                final ConstraintType type = constraint.getConstraintType();
+                final RangeEntry entry = new RangeEntry( sink,
+                                                         constraint.getField(),
+                                                         integral,
+                                                         type == ConstraintType.GREATER_OR_EQUAL || type == ConstraintType.LESS_OR_EQUAL );
+                if ( type.isAscending() ) {
+                    lower.add( entry );
+                } else {
+                    upper.add( entry );
+                }
+            }
+
+            this.lowerBounds = lower.toArray( new RangeEntry[lower.size()] );
+            // on ties the inclusive bounds come first, as they match the tied value
+            Arrays.sort( this.lowerBounds, new RangeEntryComparator( true ) );
+            this.upperBounds = upper.toArray( new RangeEntry[upper.size()] );
+            // on ties the exclusive bounds come first, so the inclusive ones are in the matching suffix
+            Arrays.sort( this.upperBounds, new RangeEntryComparator( false ) );
+        }
+
+        /**
+         * Returns the position of the first entry following the given value, considering an inclusive entry
+         * equal to the value as preceding it when inclusiveFirst is true, and as following it otherwise.
+         */
+        private static int search(final RangeEntry[] entries,
+                                  final long lvalue,
+                                  final double dvalue,
+                                  final boolean inclusiveFirst) {
+            int low = 0;
+            int high = entries.length;
+            while ( low < high ) {
+                final int mid = (low + high) >>> 1;
+                final RangeEntry entry = entries[mid];
+                int cmp = entry.compareTo( lvalue, dvalue );
+                if ( cmp == 0 ) {
+                    cmp = entry.inclusive == inclusiveFirst ? -1 : 1;
+                }
+                if ( cmp < 0 ) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private void ensureBounds() {
+            if ( this.lowerBounds == null ) {
+                sortBounds();
+            }
+        }
+
+        public void propagateAssertObject(final InternalFactHandle factHandle,
+                                          final PropagationContext context,
+                                          final InternalWorkingMemory workingMemory) {
+            ensureBounds();
+            final Object object = factHandle.getObject();
+            long lvalue = 0;
+            double dvalue = 0;
+            if ( isIntegral( this.fieldExtractor.getValueType() ) ) {
+                lvalue = this.fieldExtractor.getLongValue( workingMemory, object );
+            } else {
+                dvalue = this.fieldExtractor.getDoubleValue( workingMemory, object );
+                if ( Double.isNaN( dvalue ) ) {
+                    return;
+                }
+            }
+
+            // go straight to the AlphaNodes' propagators, as we know they're true and no need to retest
+            for ( int i = 0, length = search( this.lowerBounds, lvalue, dvalue, true ); i < length; i++ ) {
+                this.lowerBounds[i].sink.getSinkPropagator().propagateAssertObject( factHandle, context, workingMemory );
+            }
+            for ( int i = search( this.upperBounds, lvalue, dvalue, false ), length = this.upperBounds.length; i < length; i++ ) {
+                this.upperBounds[i].sink.getSinkPropagator().propagateAssertObject( factHandle, context, workingMemory );
+            }
+        }
+
+        public void propagateModifyObject(final InternalFactHandle factHandle,
+                                          final ModifyPreviousTuples modifyPreviousTuples,
+                                          final PropagationContext context,
+                                          final InternalWorkingMemory workingMemory) {
+            ensureBounds();
+            final Object object = factHandle.getObject();
+            long lvalue = 0;
+            double dvalue = 0;
+            if ( isIntegral( this.fieldExtractor.getValueType() ) ) {
+                lvalue = this.fieldExtractor.getLongValue( workingMemory, object );
+            } else {
+                dvalue = this.fieldExtractor.getDoubleValue( workingMemory, object );
+                if ( Double.isNaN( dvalue ) ) {
+                    return;
+                }
+            }
+
+            for ( int i = 0, length = search( this.lowerBounds, lvalue, dvalue, true ); i < length; i++ ) {
+                doPropagateModifyObject( this.lowerBounds[i].sink, factHandle, modifyPreviousTuples, context, workingMemory );
+            }
+            for ( int i = search( this.upperBounds, lvalue, dvalue, false ), length = this.upperBounds.length; i < length; i++ ) {
+                doPropagateModifyObject( this.upperBounds[i].sink, factHandle, modifyPreviousTuples, context, workingMemory );
+            }
+        }
+
+        private static void doPropagateModifyObject(final AlphaNode sink,
+                                                    final InternalFactHandle factHandle,
+                                                    final ModifyPreviousTuples modifyPreviousTuples,
+                                                    final PropagationContext context,
+                                                    final InternalWorkingMemory workingMemory) {
+            // same as AlphaNode.modifyObject, minus the constraint evaluation
+            if ( intersect( context.getModificationMask(), sink.getInferredMask() ) ) {
+                sink.getSinkPropagator().propagateModifyObject( factHandle, modifyPreviousTuples, context, workingMemory );
+            } else {
+                sink.byPassModifyToBetaNode( factHandle, modifyPreviousTuples, context, workingMemory );
+            }
+        }
+
+        public RangeIndex getNext() {
+            return this.next;
+        }
+
+        public RangeIndex getPrevious() {
+            return this.previous;
+        }
+
+        public void setNext(final RangeIndex next) {
+            this.next = next;
+        }
+
+        public void setPrevious(final RangeIndex previous) {
+            this.previous = previous;
+        }
+    }
+
+    private static class RangeEntry {
+        private final AlphaNode sink;
+        private final boolean   integral;
+        private final long      lvalue;
+        private final double    dvalue;
+        private final boolean   inclusive;
+
+        private RangeEntry(final AlphaNode sink,
+                           final FieldValue value,
+                           final boolean integral,
+                           final boolean inclusive) {
+            this.sink = sink;
+            this.integral = integral;
+            this.lvalue = integral ? value.getLongValue() : 0;
+            this.dvalue = integral ? 0 : value.getDoubleValue();
+            this.inclusive = inclusive;
+        }
+
+        private int compareTo(final long lvalue,
+                              final double dvalue) {
+            if ( this.integral ) {
+                return this.lvalue < lvalue ? -1 : this.lvalue == lvalue ? 0 : 1;
+            }
+            return this.dvalue < dvalue ? -1 : this.dvalue == dvalue ? 0 : 1;
+        }
+    }
+
+    private static class RangeEntryComparator
+        implements
+        Comparator<RangeEntry> {
+        private final boolean inclusiveFirst;
+
+        private RangeEntryComparator(final boolean inclusiveFirst) {
+            this.inclusiveFirst = inclusiveFirst;
+        }
+
+        public int compare(final RangeEntry e1,
+                           final RangeEntry e2) {
+            final int cmp = e1.compareTo( e2.lvalue, e2.dvalue );
+            if ( cmp != 0 || e1.inclusive == e2.inclusive ) {
+                return cmp;
+            }
+            return e1.inclusive == this.inclusiveFirst ? -1 : 1;
+        }
+    }
 }
@@ -449,6 +449,18 @@ public class DisposedReteooWorkingMemory implements ReteooWorkingMemoryInterface
         throw new IllegalStateException( ERRORMSG );
     }
 
+    public List<FactHandle> insertAll( Collection<?> objects ) throws FactException {
+        throw new IllegalStateException( ERRORMSG );
+    }
+
+    public void updateAll( Collection<? extends org.kie.api.runtime.rule.FactHandle> handles ) throws FactException {
+        throw new IllegalStateException( ERRORMSG );
+    }
+
+    public void deleteAll( Collection<? extends org.kie.api.runtime.rule.FactHandle> handles ) throws FactException {
+        throw new IllegalStateException( ERRORMSG );
+    }
+
     public void dispose() {
         // lets not raise an exception on a second dispose call
     }
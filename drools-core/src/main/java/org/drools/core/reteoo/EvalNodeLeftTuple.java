@@ -21,7 +21,7 @@ import java.util.Arrays;
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.spi.PropagationContext;
 
-public class EvalNodeLeftTuple extends BaseLeftTuple {
+public class EvalNodeLeftTuple extends ParentLeftTuple {
 
     private static final long serialVersionUID = 540l;
 
@@ -0,0 +1,189 @@
+package org.drools.core.reteoo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.InternalWorkingMemory;
+import org.drools.core.reteoo.ReteooWorkingMemory.WorkingMemoryReteExpireAction;
+import org.drools.core.time.Job;
+import org.drools.core.time.JobContext;
+import org.drools.core.time.JobHandle;
+import org.drools.core.time.TimerService;
+import org.drools.core.time.impl.PointInTimeTrigger;
+
+/**
+ * Schedules the expiration of the events asserted through an ObjectTypeNode, in a working memory.
+ *
+ * The expiration timestamps are rounded up to the next multiple of the tick size, and the events expiring
+ * at the same tick are kept in the same bucket. A single job is scheduled on the session TimerService for
+ * each bucket, when its first event is added, and when it fires it queues the expire actions of all the events
+ * of the bucket. So scheduling an expiration only adds the handle to a set, and the TimerService, being it
+ * the JDKTimerService or the PseudoClockScheduler, holds one job per tick instead of one per event.
+ *
+ * A retracted event is removed from its bucket, and the job of a bucket left empty is cancelled.
+ *
+ * Events expire up to tickSize - 1 milliseconds later than their expiration offset, never earlier.
+ */
+public class ExpirationTimingWheel {
+
+    public static final ExpireBucketJob job = new ExpireBucketJob();
+
+    private final ObjectTypeNode                                node;
+    private final long                                          tickSize;
+    private final Map<Long, ExpirationBucket>                   buckets      = new HashMap<Long, ExpirationBucket>();
+    private final Map<InternalFactHandle, ExpirationBucket>     handleBuckets = new HashMap<InternalFactHandle, ExpirationBucket>();
+
+    // events are mostly inserted in timestamp order, so they usually land in the last used bucket
+    private ExpirationBucket                                    lastBucket;
+
+    public ExpirationTimingWheel(ObjectTypeNode node,
+                                 long tickSize) {
+        this.node = node;
+        this.tickSize = tickSize;
+    }
+
+    public long getTickSize() {
+        return tickSize;
+    }
+
+    public synchronized void scheduleExpiration(InternalFactHandle factHandle,
+                                                long timestamp,
+                                                InternalWorkingMemory workingMemory) {
+        long tick = timestamp / tickSize;
+        if ( timestamp % tickSize != 0 ) {
+            tick++;
+        }
+
+        ExpirationBucket bucket = lastBucket;
+        if ( bucket == null || bucket.tick != tick || bucket.expired ) {
+            bucket = buckets.get( tick );
+            if ( bucket == null ) {
+                bucket = new ExpirationBucket( this, tick, workingMemory );
+                buckets.put( tick, bucket );
+                TimerService clock = workingMemory.getTimerService();
+                JobHandle handle = clock.scheduleJob( job,
+                                                      bucket,
+                                                      new PointInTimeTrigger( bucket.getTimestamp(),
+                                                                              null,
+                                                                              null ) );
+                bucket.setJobHandle( handle );
+            }
+            lastBucket = bucket;
+        }
+        bucket.factHandles.add( factHandle );
+        handleBuckets.put( factHandle,
+                           bucket );
+    }
+
+    /**
+     * Removes the given retracted event from its bucket, if its expiration is still pending, and cancels the job of
+     * the bucket when it was the last event in it.
+     */
+    public synchronized void unscheduleExpiration(InternalFactHandle factHandle,
+                                                  InternalWorkingMemory workingMemory) {
+        ExpirationBucket bucket = handleBuckets.remove( factHandle );
+        if ( bucket == null ) {
+            return;
+        }
+        bucket.factHandles.remove( factHandle );
+        if ( bucket.factHandles.isEmpty() ) {
+            expire( bucket );
+            workingMemory.getTimerService().removeJob( bucket.getJobHandle() );
+        }
+    }
+
+    private synchronized List<InternalFactHandle> expire(ExpirationBucket bucket) {
+        if ( bucket.expired ) {
+            // its last event was retracted while the job was firing
+            return Collections.emptyList();
+        }
+        buckets.remove( bucket.tick );
+        bucket.expired = true;
+        if ( lastBucket == bucket ) {
+            lastBucket = null;
+        }
+        List<InternalFactHandle> factHandles = new ArrayList<InternalFactHandle>( bucket.factHandles );
+        for ( InternalFactHandle factHandle : factHandles ) {
+            handleBuckets.remove( factHandle );
+        }
+        bucket.factHandles.clear();
+        return factHandles;
+    }
+
+    public static class ExpirationBucket
+            implements
+            JobContext {
+
+        private final transient ExpirationTimingWheel   wheel;
+        private final long                              tick;
+        private final transient InternalWorkingMemory   workingMemory;
+        private final Set<InternalFactHandle>           factHandles = new LinkedHashSet<InternalFactHandle>();
+        private JobHandle                               handle;
+        private boolean                                 expired;
+
+        private ExpirationBucket(ExpirationTimingWheel wheel,
+                                 long tick,
+                                 InternalWorkingMemory workingMemory) {
+            this.wheel = wheel;
+            this.tick = tick;
+            this.workingMemory = workingMemory;
+        }
+
+        public long getTimestamp() {
+            return tick * wheel.tickSize;
+        }
+
+        public ObjectTypeNode getNode() {
+            return wheel.node;
+        }
+
+        /**
+         * Returns a single expire action for each event in this bucket that is still in the working memory.
+         * Used by the marshallers, that store the buckets in the same format as the per event expirations.
+         */
+        public List<WorkingMemoryReteExpireAction> getExpireActions() {
+            synchronized ( wheel ) {
+                List<WorkingMemoryReteExpireAction> actions = new ArrayList<WorkingMemoryReteExpireAction>( factHandles.size() );
+                for ( InternalFactHandle factHandle : factHandles ) {
+                    if ( factHandle.isValid() ) {
+                        actions.add( new WorkingMemoryReteExpireAction( factHandle,
+                                                                        wheel.node ) );
+                    }
+                }
+                return actions;
+            }
+        }
+
+        public JobHandle getJobHandle() {
+            return this.handle;
+        }
+
+        public void setJobHandle(JobHandle jobHandle) {
+            this.handle = jobHandle;
+        }
+    }
+
+    /**
+     * Queues an expire action for each event of the bucket, the same action as the per event expirations, so that
+     * the action queue never holds anything the marshallers don't know.
+     */
+    public static class ExpireBucketJob
+            implements
+            Job {
+
+        public void execute(JobContext ctx) {
+            ExpirationBucket bucket = (ExpirationBucket) ctx;
+            ObjectTypeNode node = bucket.getNode();
+            for ( InternalFactHandle factHandle : bucket.wheel.expire( bucket ) ) {
+                bucket.workingMemory.queueWorkingMemoryAction( new WorkingMemoryReteExpireAction( factHandle,
+                                                                                                  node ) );
+            }
+        }
+    }
+}
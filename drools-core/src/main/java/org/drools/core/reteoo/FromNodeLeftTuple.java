@@ -21,7 +21,7 @@ import org.drools.core.util.Entry;
 import org.drools.core.util.index.LeftTupleList;
 import org.drools.core.spi.PropagationContext;
 
-public class FromNodeLeftTuple extends BaseLeftTuple {
+public class FromNodeLeftTuple extends ParentLeftTuple {
     private static final long  serialVersionUID = 540l;
 
     public FromNodeLeftTuple() {
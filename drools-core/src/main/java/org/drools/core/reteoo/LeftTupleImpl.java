@@ -21,7 +21,7 @@ import java.util.Arrays;
 import org.drools.core.common.InternalFactHandle;
 import org.drools.core.spi.PropagationContext;
 
-public class LeftTupleImpl extends BaseLeftTuple {
+public class LeftTupleImpl extends ParentLeftTuple {
     private static final long serialVersionUID = 540l;
 
     private RightTuple blocker;
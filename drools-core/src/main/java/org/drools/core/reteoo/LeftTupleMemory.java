@@ -16,6 +16,7 @@
 
 package org.drools.core.reteoo;
 
+import org.drools.core.reteoo.RightTupleMemory.IndexType;
 import org.drools.core.util.Entry;
 import org.drools.core.util.FastIterator;
 import org.drools.core.util.Iterator;
@@ -54,4 +55,6 @@ public interface LeftTupleMemory {
      */    
     public FastIterator fullFastIterator(LeftTuple leftTuple);
 
+    public IndexType getIndexType();
+
 }
@@ -22,12 +22,14 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.lang.reflect.Field;
 
+import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.util.AbstractHashTable;
 import org.drools.core.util.Entry;
 import org.drools.core.util.FastIterator;
 import org.drools.core.util.LinkedList;
-import org.drools.core.util.ObjectHashSet;
+import org.drools.core.util.IntHashMap;
+import org.drools.core.util.Iterator;
 import org.drools.core.util.ReflectiveVisitor;
 import org.drools.core.util.index.RightTupleIndexHashTable;
 import org.drools.core.util.index.RightTupleList;
@@ -83,8 +85,8 @@ public class MemoryVisitor extends ReflectiveVisitor
     public void visitObjectTypeNode(final ObjectTypeNode node) {
         logger.info( indent() + node );
 
-        ObjectHashSet memory = (ObjectHashSet) workingMemory.getNodeMemory( node );
-        checkObjectHashSet( memory );
+        IntHashMap<InternalFactHandle> memory = ((ObjectTypeNode.ObjectTypeNodeMemory) workingMemory.getNodeMemory( node )).memory;
+        checkIntHashMap( memory );
 
         this.indent++;
         try {
@@ -209,22 +211,14 @@ public class MemoryVisitor extends ReflectiveVisitor
     //        }
     //    }
 
-    private void checkObjectHashSet(ObjectHashSet memory) {
-        FastIterator it = LinkedList.fastIterator;
-        final Entry[] entries = memory.getTable();
+    private void checkIntHashMap(IntHashMap<InternalFactHandle> memory) {
+        Iterator<InternalFactHandle> it = memory.iterator();
         int factCount = 0;
-        int bucketCount = 0;
-        for ( int i = 0, length = entries.length; i < length; i++ ) {
-            if ( entries[i] != null ) {
-                Entry  entry = (Entry ) entries[i];
-                while ( entry != null ) {
-                  entry = it.next( entry );
-                  factCount++;
-                }
-            }
+        for ( InternalFactHandle handle = it.next(); handle != null; handle = it.next() ) {
+            factCount++;
         }
         
-        logger.info( indent() + "ObjectHashSet: " + memory.size() + ":" + factCount );
+        logger.info( indent() + "IntHashMap: " + memory.size() + ":" + factCount );
         if( factCount != memory.size() ) {
             logger.info( indent() + "error" );
         }
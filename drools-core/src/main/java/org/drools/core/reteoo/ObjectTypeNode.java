@@ -24,14 +24,14 @@ import org.drools.core.common.AbstractRuleBase;
 import org.drools.core.common.DroolsObjectInputStream;
 import org.drools.core.common.EventFactHandle;
 import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.InternalRuleBase;
 import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.Memory;
 import org.drools.core.common.MemoryFactory;
 import org.drools.core.common.PropagationContextImpl;
 import org.drools.core.common.UpdateContext;
+import org.drools.core.util.IntHashMap;
 import org.drools.core.util.Iterator;
-import org.drools.core.util.ObjectHashSet;
-import org.drools.core.util.ObjectHashSet.ObjectEntry;
 import org.drools.core.marshalling.impl.MarshallerReaderContext;
 import org.drools.core.marshalling.impl.MarshallerWriteContext;
 import org.drools.core.marshalling.impl.PersisterEnums;
@@ -257,10 +257,16 @@ public class ObjectTypeNode extends ObjectSource
         return this.objectType.isAssignableFrom( objectType );
     }
 
+    public CompiledNetwork getCompiledNetwork() {
+        return this.compiledNetwork;
+    }
+
     public void setCompiledNetwork(CompiledNetwork compiledNetwork) {
         this.compiledNetwork = compiledNetwork;
 
-        this.compiledNetwork.setObjectTypeNode( this );
+        if ( this.compiledNetwork != null ) {
+            this.compiledNetwork.setObjectTypeNode( this );
+        }
     }
 
     /**
@@ -283,8 +289,8 @@ public class ObjectTypeNode extends ObjectSource
 
         if ( objectMemoryEnabled && !(queryNode && !((DroolsQuery) factHandle.getObject()).isOpen()) ) {
             final ObjectTypeNodeMemory memory = (ObjectTypeNodeMemory) workingMemory.getNodeMemory( this );
-            memory.memory.add( factHandle,
-                               false );
+            memory.memory.put( factHandle.getId(),
+                               factHandle );
         }
 
         if ( compiledNetwork != null ) {
@@ -300,24 +306,45 @@ public class ObjectTypeNode extends ObjectSource
 
         if ( context.getReaderContext() == null && this.objectType.isEvent() && this.expirationOffset >= 0 && this.expirationOffset != Long.MAX_VALUE ) {
             // schedule expiration
-            WorkingMemoryReteExpireAction expire = new WorkingMemoryReteExpireAction( factHandle,
-                                                                                      this );
             TimerService clock = workingMemory.getTimerService();
 
             long nextTimestamp = Math.max( clock.getCurrentTime() + this.expirationOffset,
                                            ((EventFactHandle) factHandle).getEndTimestamp() + this.expirationOffset );
-            JobContext jobctx = new ExpireJobContext( expire,
-                                                      workingMemory );
-            JobHandle handle = clock.scheduleJob( job,
-                                                  jobctx,
-                                                  new PointInTimeTrigger( nextTimestamp,
-                                                                          null,
-                                                                          null ) );
-            jobctx.setJobHandle( handle );
+            scheduleExpiration( factHandle,
+                                nextTimestamp,
+                                workingMemory );
         }
 
     }
 
+    private void scheduleExpiration(final InternalFactHandle factHandle,
+                                    final long nextTimestamp,
+                                    final InternalWorkingMemory workingMemory) {
+        long tickSize = ((InternalRuleBase) workingMemory.getRuleBase()).getConfiguration().getExpirationTickSize();
+        if ( tickSize > 0 ) {
+            final ObjectTypeNodeMemory memory = (ObjectTypeNodeMemory) workingMemory.getNodeMemory( this );
+            if ( memory.expirationWheel == null ) {
+                memory.expirationWheel = new ExpirationTimingWheel( this,
+                                                                    tickSize );
+            }
+            memory.expirationWheel.scheduleExpiration( factHandle,
+                                                       nextTimestamp,
+                                                       workingMemory );
+            return;
+        }
+
+        TimerService clock = workingMemory.getTimerService();
+        JobContext jobctx = new ExpireJobContext( new WorkingMemoryReteExpireAction( factHandle,
+                                                                                     this ),
+                                                  workingMemory );
+        JobHandle handle = clock.scheduleJob( job,
+                                              jobctx,
+                                              new PointInTimeTrigger( nextTimestamp,
+                                                                      null,
+                                                                      null ) );
+        jobctx.setJobHandle( handle );
+    }
+
     /**
      * Retract the <code>FactHandleimpl</code> from the <code>Rete</code> network. Also remove the
      * <code>FactHandleImpl</code> from the node memory.
@@ -337,7 +364,16 @@ public class ObjectTypeNode extends ObjectSource
 
         if ( objectMemoryEnabled && !(queryNode && !((DroolsQuery) factHandle.getObject()).isOpen()) ) {
             final ObjectTypeNodeMemory memory = (ObjectTypeNodeMemory) workingMemory.getNodeMemory( this );
-            memory.memory.remove(factHandle);
+            memory.memory.remove( factHandle.getId() );
+        }
+
+        if ( this.objectType.isEvent() && this.expirationOffset >= 0 && this.expirationOffset != Long.MAX_VALUE ) {
+            // so that the retracted event isn't held by its expiration bucket until the tick
+            final ObjectTypeNodeMemory memory = (ObjectTypeNodeMemory) workingMemory.getNodeMemory( this );
+            if ( memory.expirationWheel != null ) {
+                memory.expirationWheel.unscheduleExpiration( factHandle,
+                                                             workingMemory );
+            }
         }
 
         for ( RightTuple rightTuple = factHandle.getFirstRightTuple(); rightTuple != null; rightTuple = rightTuple.getHandleNext() ) {
@@ -397,10 +433,10 @@ public class ObjectTypeNode extends ObjectSource
 
         // Regular updateSink
         final ObjectTypeNodeMemory memory = (ObjectTypeNodeMemory) workingMemory.getNodeMemory( this );
-        Iterator it = memory.memory.iterator();
+        Iterator<InternalFactHandle> it = memory.memory.iterator();
 
-        for ( ObjectEntry entry = (ObjectEntry) it.next(); entry != null; entry = (ObjectEntry) it.next() ) {
-            sink.assertObject( (InternalFactHandle) entry.getValue(),
+        for ( InternalFactHandle handle = it.next(); handle != null; handle = it.next() ) {
+            sink.assertObject( handle,
                                context,
                                workingMemory );
         }
@@ -480,9 +516,8 @@ public class ObjectTypeNode extends ObjectSource
             for ( InternalWorkingMemory workingMemory : workingMemories ) {
                 CleanupAdapter adapter = context.getCleanupAdapter();
                 final ObjectTypeNodeMemory memory = (ObjectTypeNodeMemory) workingMemory.getNodeMemory( this );
-                Iterator it = memory.memory.iterator();
-                for ( ObjectEntry entry = (ObjectEntry) it.next(); entry != null; entry = (ObjectEntry) it.next() ) {
-                    InternalFactHandle handle = (InternalFactHandle) entry.getValue();
+                Iterator<InternalFactHandle> it = memory.memory.iterator();
+                for ( InternalFactHandle handle = it.next(); handle != null; handle = it.next() ) {
                     for ( LeftTuple leftTuple = handle.getFirstLeftTuple(); leftTuple != null; leftTuple = leftTuple.getLeftParentNext() ) {
                         adapter.cleanUp( leftTuple,
                                          workingMemory );
@@ -666,37 +701,47 @@ public class ObjectTypeNode extends ObjectSource
             TimersOutputMarshaller {
         public void write(JobContext jobCtx,
                           MarshallerWriteContext outputCtx) throws IOException {
-            outputCtx.writeShort( PersisterEnums.EXPIRE_TIMER );
-
             // ExpireJob, no state            
             ExpireJobContext ejobCtx = (ExpireJobContext) jobCtx;
-            WorkingMemoryReteExpireAction expireAction = ejobCtx.getExpireAction();
+            DefaultJobHandle jobHandle = (DefaultJobHandle) ejobCtx.getJobHandle();
+            PointInTimeTrigger trigger = (PointInTimeTrigger) jobHandle.getTimerJobInstance().getTrigger();
+            write( ejobCtx.getExpireAction(),
+                   trigger.hasNextFireTime().getTime(),
+                   outputCtx );
+        }
+
+        public static void write(WorkingMemoryReteExpireAction expireAction,
+                                 long nextFireTimestamp,
+                                 MarshallerWriteContext outputCtx) throws IOException {
+            outputCtx.writeShort( PersisterEnums.EXPIRE_TIMER );
+
             outputCtx.writeInt( expireAction.getFactHandle().getId() );
             outputCtx.writeUTF( expireAction.getNode().getEntryPoint().getEntryPointId() );
 
             outputCtx.writeUTF( ((ClassObjectType) expireAction.getNode().getObjectType()).getClassType().getName() );
 
-            DefaultJobHandle jobHandle = (DefaultJobHandle) ejobCtx.getJobHandle();
-            PointInTimeTrigger trigger = (PointInTimeTrigger) jobHandle.getTimerJobInstance().getTrigger();
-            outputCtx.writeLong( trigger.hasNextFireTime().getTime() );
-
+            outputCtx.writeLong( nextFireTimestamp );
         }
 
         public ProtobufMessages.Timers.Timer serialize(JobContext jobCtx,
                                                        MarshallerWriteContext outputCtx) {
             // ExpireJob, no state            
             ExpireJobContext ejobCtx = ( ExpireJobContext ) jobCtx;
-            WorkingMemoryReteExpireAction expireAction = ejobCtx.getExpireAction();
             DefaultJobHandle jobHandle = ( DefaultJobHandle ) ejobCtx.getJobHandle();
             PointInTimeTrigger trigger = ( PointInTimeTrigger ) jobHandle.getTimerJobInstance().getTrigger();
-            
+            return serialize( ejobCtx.getExpireAction(),
+                              trigger.hasNextFireTime().getTime() );
+        }
+
+        public static ProtobufMessages.Timers.Timer serialize(WorkingMemoryReteExpireAction expireAction,
+                                                              long nextFireTimestamp) {
             return ProtobufMessages.Timers.Timer.newBuilder()
                     .setType( ProtobufMessages.Timers.TimerType.EXPIRE )
                     .setExpire( ProtobufMessages.Timers.ExpireTimer.newBuilder()
                                 .setHandleId( expireAction.getFactHandle().getId() )
                                 .setEntryPointId( expireAction.getNode().getEntryPoint().getEntryPointId() )
                                 .setClassName( ((ClassObjectType)expireAction.getNode().getObjectType()).getClassType().getName() )
-                                .setNextFireTimestamp( trigger.hasNextFireTime().getTime() )
+                                .setNextFireTimestamp( nextFireTimestamp )
                                 .build() )
                     .build();
         }
@@ -719,16 +764,9 @@ public class ObjectTypeNode extends ObjectSource
 
             long nextTimeStamp = inCtx.readLong();
 
-            TimerService clock = inCtx.wm.getTimerService();
-
-            JobContext jobctx = new ExpireJobContext( new WorkingMemoryReteExpireAction( factHandle, otn ),
-                                                      inCtx.wm );
-            JobHandle handle = clock.scheduleJob( job,
-                                                  jobctx,
-                                                  new PointInTimeTrigger( nextTimeStamp,
-                                                                          null,
-                                                                          null ) );
-            jobctx.setJobHandle( handle );
+            otn.scheduleExpiration( factHandle,
+                                    nextTimeStamp,
+                                    inCtx.wm );
 
         }
         
@@ -740,16 +778,9 @@ public class ObjectTypeNode extends ObjectSource
             Class<?> cls = ((ReteooRuleBase)inCtx.wm.getRuleBase()).getRootClassLoader().loadClass( _expire.getClassName() );
             ObjectTypeNode otn = epn.getObjectTypeNodes().get( new ClassObjectType( cls ) );
             
-            TimerService clock = inCtx.wm.getTimerService();
-            
-            JobContext jobctx = new ExpireJobContext( new WorkingMemoryReteExpireAction(factHandle, otn),
-                                                      inCtx.wm );
-            JobHandle handle = clock.scheduleJob( job,
-                                                  jobctx,
-                                                  new PointInTimeTrigger( _expire.getNextFireTimestamp(),
-                                                                          null,
-                                                                          null ) );
-            jobctx.setJobHandle( handle );
+            otn.scheduleExpiration( factHandle,
+                                    _expire.getNextFireTimestamp(),
+                                    inCtx.wm );
         }
     }
 
@@ -762,7 +793,9 @@ public class ObjectTypeNode extends ObjectSource
 
     
     public static class ObjectTypeNodeMemory implements Memory {
-        public ObjectHashSet memory = new ObjectHashSet();
+        // the handles asserted through the node, by id
+        public IntHashMap<InternalFactHandle> memory = new IntHashMap<InternalFactHandle>();
+        public ExpirationTimingWheel expirationWheel;
 
         public short getNodeType() {
             return NodeTypeEnums.ObjectTypeNode;
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2010 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.reteoo;
+
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.util.Entry;
+import org.drools.core.util.index.LeftTupleList;
+import org.drools.core.spi.PropagationContext;
+
+/**
+ * The parent class of the LeftTuples of the nodes that propagate to other nodes, adding to the BaseLeftTuple
+ * the links to the children and to the left memory of the node. The tuples of the terminal nodes, that never
+ * have children, extend BaseLeftTuple directly.
+ */
+public class ParentLeftTuple extends BaseLeftTuple {
+    private static final long serialVersionUID = 540l;
+
+    // children
+    private LeftTuple         firstChild;
+    private LeftTuple         lastChild;
+
+    // node memory
+    protected LeftTupleList   memory;
+    protected Entry           next;
+    protected Entry           previous;
+
+    public ParentLeftTuple() {
+        // constructor needed for serialisation
+    }
+
+    // ------------------------------------------------------------
+    // Constructors
+    // ------------------------------------------------------------
+    public ParentLeftTuple(final InternalFactHandle factHandle,
+                           final LeftTupleSink sink,
+                           final boolean leftTupleMemoryEnabled) {
+        super( factHandle,
+               sink,
+               leftTupleMemoryEnabled );
+    }
+
+    public ParentLeftTuple(final InternalFactHandle factHandle,
+                           final LeftTuple leftTuple,
+                           final LeftTupleSink sink) {
+        super( factHandle,
+               leftTuple,
+               sink );
+    }
+
+    public ParentLeftTuple(final LeftTuple leftTuple,
+                           final LeftTupleSink sink,
+                           final PropagationContext pctx,
+                           final boolean leftTupleMemoryEnabled) {
+        super( leftTuple,
+               sink,
+               pctx,
+               leftTupleMemoryEnabled );
+    }
+
+    public ParentLeftTuple(final LeftTuple leftTuple,
+                           final RightTuple rightTuple,
+                           final LeftTupleSink sink) {
+        super( leftTuple,
+               rightTuple,
+               sink );
+    }
+
+    public ParentLeftTuple(final LeftTuple leftTuple,
+                           final RightTuple rightTuple,
+                           final LeftTupleSink sink,
+                           final boolean leftTupleMemoryEnabled) {
+        super( leftTuple,
+               rightTuple,
+               sink,
+               leftTupleMemoryEnabled );
+    }
+
+    public ParentLeftTuple(final LeftTuple leftTuple,
+                           final RightTuple rightTuple,
+                           final LeftTuple currentLeftChild,
+                           final LeftTuple currentRightChild,
+                           final LeftTupleSink sink,
+                           final boolean leftTupleMemoryEnabled) {
+        super( leftTuple,
+               rightTuple,
+               currentLeftChild,
+               currentRightChild,
+               sink,
+               leftTupleMemoryEnabled );
+    }
+
+    public void reset() {
+        super.reset();
+        this.firstChild = null;
+        this.lastChild = null;
+        this.memory = null;
+        this.next = null;
+        this.previous = null;
+    }
+
+    public LeftTuple getFirstChild() {
+        return firstChild;
+    }
+
+    public void setFirstChild(LeftTuple firstChild) {
+        this.firstChild = firstChild;
+    }
+
+    public LeftTuple getLastChild() {
+        return lastChild;
+    }
+
+    public void setLastChild(LeftTuple lastChild) {
+        this.lastChild = lastChild;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#getMemory()
+     */
+    public LeftTupleList getMemory() {
+        return this.memory;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#setMemory(org.kie.core.util.LeftTupleList)
+     */
+    public void setMemory(LeftTupleList memory) {
+        this.memory = memory;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#getPrevious()
+     */
+    public Entry getPrevious() {
+        return previous;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#setPrevious(org.kie.core.util.Entry)
+     */
+    public void setPrevious(Entry previous) {
+        this.previous = previous;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#setNext(org.kie.core.util.Entry)
+     */
+    public void setNext(final Entry next) {
+        this.next = next;
+    }
+
+    /* (non-Javadoc)
+     * @see org.kie.reteoo.LeftTuple#getNext()
+     */
+    public Entry getNext() {
+        return this.next;
+    }
+
+    public void clear() {
+        this.previous = null;
+        this.next = null;
+        this.memory = null;
+    }
+}
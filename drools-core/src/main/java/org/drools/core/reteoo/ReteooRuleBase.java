@@ -22,10 +22,12 @@ import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutput;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import org.drools.core.FactException;
@@ -48,6 +50,8 @@ import org.drools.core.impl.KnowledgeBaseImpl;
 import org.drools.core.impl.StatefulKnowledgeSessionImpl;
 import org.drools.core.management.DroolsManagementAgent;
 import org.drools.core.reteoo.ReteooWorkingMemory.WorkingMemoryReteAssertAction;
+import org.drools.core.reteoo.compiled.AlphaNetworkCompilerFactory;
+import org.drools.core.reteoo.compiled.AlphaNetworkCompilerService;
 import org.drools.core.rule.EntryPoint;
 import org.drools.core.rule.InvalidPatternException;
 import org.drools.core.rule.Package;
@@ -62,6 +66,8 @@ import org.kie.internal.marshalling.MarshallerFactory;
 import org.kie.api.marshalling.ObjectMarshallingStrategy;
 import org.kie.api.runtime.Environment;
 import org.kie.api.runtime.KieSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Implementation of <code>RuleBase</code>.
@@ -76,11 +82,16 @@ public class ReteooRuleBase extends AbstractRuleBase {
      */
     private static final long serialVersionUID = 510l;
 
+    protected static transient Logger logger = LoggerFactory.getLogger( ReteooRuleBase.class );
+
     /** The root Rete-OO for this <code>RuleBase</code>. */
     private transient Rete    rete;
 
     private ReteooBuilder     reteooBuilder;
 
+    /** The ObjectTypeNodes whose network changed since the write lock was taken, to compile again before it is released. */
+    private transient Set<ObjectTypeNode> networksToCompile;
+
     public Set<EntryPointNode> addedEntryNodeCache;
     public Set<EntryPointNode> removedEntryNodeCache;
 
@@ -433,6 +444,7 @@ public class ReteooRuleBase extends AbstractRuleBase {
     protected void addRule(final Rule rule) throws InvalidPatternException {
         // This adds the rule. ReteBuilder has a reference to the WorkingMemories and will propagate any existing facts.
         this.reteooBuilder.addRule( rule );
+        dropCompiledNetworks( rule );
     }
 
     protected void addEntryPoint(final String id) throws InvalidPatternException {
@@ -443,12 +455,63 @@ public class ReteooRuleBase extends AbstractRuleBase {
     protected void addWindowDeclaration(final WindowDeclaration window) throws InvalidPatternException {
         // This adds the named window. ReteBuilder has a reference to the WorkingMemories and will propagate any existing facts.
         this.reteooBuilder.addNamedWindow( window );
+        // a window has no rule to find the ObjectTypeNodes it is attached to
+        dropCompiledNetworks( null );
     }
 
     protected void removeRule(final Rule rule) {
+        // the ObjectTypeNodes of the rule are found before its nodes are detached
+        dropCompiledNetworks( rule );
         this.reteooBuilder.removeRule( rule );
     }
 
+    /**
+     * A compiled network only knows the nodes that were there when it was generated, so it is dropped as soon
+     * as the network of its ObjectTypeNode changes, and compiled again when the write lock is released. The
+     * ObjectTypeNodes of the given rule are the ones that change, or all of them when it is null.
+     */
+    private void dropCompiledNetworks(final Rule rule) {
+        if ( !getConfiguration().isCompiledAlphaNetwork() ) {
+            return;
+        }
+        if ( this.networksToCompile == null ) {
+            this.networksToCompile = new HashSet<ObjectTypeNode>();
+        }
+        for ( ObjectTypeNode otn : this.rete.getObjectTypeNodes() ) {
+            if ( rule == null || otn.getAssociations().containsKey( rule ) ) {
+                otn.setCompiledNetwork( null );
+                this.networksToCompile.add( otn );
+            }
+        }
+    }
+
+    @Override
+    protected void networkUpdated() {
+        if ( this.networksToCompile == null || this.networksToCompile.isEmpty() ) {
+            return;
+        }
+        List<ObjectTypeNode> objectTypeNodes = new ArrayList<ObjectTypeNode>();
+        for ( ObjectTypeNode otn : this.rete.getObjectTypeNodes() ) {
+            // the ObjectTypeNodes left without rules are removed from the network
+            if ( this.networksToCompile.contains( otn ) ) {
+                objectTypeNodes.add( otn );
+            }
+        }
+        this.networksToCompile.clear();
+
+        AlphaNetworkCompilerService compiler = AlphaNetworkCompilerFactory.getAlphaNetworkCompilerService();
+        if ( compiler == null ) {
+            logger.warn( "drools.compiledAlphaNetwork is set, but drools-compiler is not available: the alpha network stays interpreted" );
+            return;
+        }
+        try {
+            compiler.compile( this,
+                              objectTypeNodes );
+        } catch ( RuntimeException e ) {
+            logger.warn( "Unable to compile the alpha network, it stays interpreted", e );
+        }
+    }
+
     public int getNodeCount() {
         // may start in 0
         return this.reteooBuilder.getIdGenerator().getLastId() + 1;
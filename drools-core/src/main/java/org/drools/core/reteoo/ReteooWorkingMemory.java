@@ -156,6 +156,7 @@ public class ReteooWorkingMemory extends AbstractWorkingMemory implements Reteoo
             this.ruleBase.readLock();
             this.lock.lock();
 
+            flushPendingInserts();
             this.ruleBase.executeQueuedActions();
             executeQueuedActions();
 
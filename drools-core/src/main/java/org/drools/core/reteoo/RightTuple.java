@@ -65,6 +65,40 @@ public class RightTuple
         handle.addRightTupleInPosition( this );
     }
 
+    /**
+     * Reinitialises a tuple taken from a TuplePool, as the constructor with the same arguments would have done.
+     */
+    public void reInit(InternalFactHandle handle,
+                       RightTupleSink sink) {
+        reset();
+        this.handle = handle;
+        this.sink = sink;
+
+        // add to end of RightTuples on handle
+        handle.addRightTupleInPosition( this );
+    }
+
+    /**
+     * Clears all the references of this tuple, so that once released to a TuplePool
+     * it doesn't retain the fact and the tuples it was joined with.
+     */
+    public void reset() {
+        this.handle = null;
+        this.handlePrevious = null;
+        this.handleNext = null;
+        this.memory = null;
+        this.previous = null;
+        this.next = null;
+        this.firstChild = null;
+        this.lastChild = null;
+        this.blocked = null;
+        this.sink = null;
+        this.stageType = LeftTuple.NONE;
+        this.stageNext = null;
+        this.stagePrevious = null;
+        this.propagationContext = null;
+    }
+
     public RightTupleSink getRightTupleSink() {
         return this.sink;
     }
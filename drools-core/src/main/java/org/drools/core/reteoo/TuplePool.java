@@ -0,0 +1,110 @@
+package org.drools.core.reteoo;
+
+import org.drools.core.common.InternalFactHandle;
+
+/**
+ * A session local pool of the tuples discarded by the phreak JoinNodes, so that a session with a high churn of
+ * inserts, updates and deletes reuses them instead of allocating new ones for each join.
+ *
+ * Only the tuples nothing else can still reference once they have been deleted are pooled:
+ * the plain RightTuples, as their children are unlinked from them before they are released, and the
+ * JoinNodeLeftTuples that had no children and no peers, as the children staged for deletion downstream still
+ * reach their parent. The tuples of the terminal nodes are the activations seen by the consequences and the
+ * listeners, so they are never pooled.
+ *
+ * The pool is enabled with the "drools.tupleRecycling" session option, and holds at most maxSize tuples of
+ * each type: the extra ones are left to the garbage collector.
+ */
+public class TuplePool {
+
+    public static final int           DEFAULT_MAX_SIZE = 1024;
+
+    private final RightTuple[]        rightTuples;
+    private int                       rightTuplesSize;
+
+    private final JoinNodeLeftTuple[] leftTuples;
+    private int                       leftTuplesSize;
+
+    public TuplePool() {
+        this( DEFAULT_MAX_SIZE );
+    }
+
+    public TuplePool(int maxSize) {
+        this.rightTuples = new RightTuple[maxSize];
+        this.leftTuples = new JoinNodeLeftTuple[maxSize];
+    }
+
+    public synchronized RightTuple newRightTuple(InternalFactHandle handle,
+                                                 RightTupleSink sink) {
+        if ( this.rightTuplesSize == 0 ) {
+            return new RightTuple( handle,
+                                   sink );
+        }
+        RightTuple rightTuple = this.rightTuples[--this.rightTuplesSize];
+        this.rightTuples[this.rightTuplesSize] = null;
+        rightTuple.reInit( handle,
+                           sink );
+        return rightTuple;
+    }
+
+    /**
+     * Returns a deleted RightTuple to the pool, if it is a plain RightTuple and the pool isn't full.
+     * The caller must have removed it from the right memory and deleted its children.
+     */
+    public synchronized void release(RightTuple rightTuple) {
+        if ( rightTuple.getClass() != RightTuple.class || this.rightTuplesSize == this.rightTuples.length ) {
+            return;
+        }
+        rightTuple.reset();
+        this.rightTuples[this.rightTuplesSize++] = rightTuple;
+    }
+
+    public synchronized LeftTuple newJoinNodeLeftTuple(LeftTuple leftTuple,
+                                                       RightTuple rightTuple,
+                                                       LeftTuple currentLeftChild,
+                                                       LeftTuple currentRightChild,
+                                                       LeftTupleSink sink,
+                                                       boolean leftTupleMemoryEnabled) {
+        if ( this.leftTuplesSize == 0 ) {
+            return new JoinNodeLeftTuple( leftTuple,
+                                          rightTuple,
+                                          currentLeftChild,
+                                          currentRightChild,
+                                          sink,
+                                          leftTupleMemoryEnabled );
+        }
+        JoinNodeLeftTuple joinTuple = this.leftTuples[--this.leftTuplesSize];
+        this.leftTuples[this.leftTuplesSize] = null;
+        joinTuple.reInit( leftTuple,
+                          rightTuple,
+                          currentLeftChild,
+                          currentRightChild,
+                          sink,
+                          leftTupleMemoryEnabled );
+        return joinTuple;
+    }
+
+    /**
+     * Returns a deleted LeftTuple to the pool, if it is a JoinNodeLeftTuple resulting from a join, without peers,
+     * and the pool isn't full. The root tuples created by the LeftInputAdapterNodes aren't pooled, as they are
+     * referenced by their fact handle. The caller must have removed it from the left memory, and must not release
+     * it if it had children when it was deleted.
+     */
+    public synchronized void release(LeftTuple leftTuple) {
+        if ( leftTuple.getClass() != JoinNodeLeftTuple.class || this.leftTuplesSize == this.leftTuples.length ||
+             leftTuple.getParent() == null || leftTuple.getPeer() != null ) {
+            return;
+        }
+        JoinNodeLeftTuple joinTuple = (JoinNodeLeftTuple) leftTuple;
+        joinTuple.reset();
+        this.leftTuples[this.leftTuplesSize++] = joinTuple;
+    }
+
+    public synchronized int getRightTuplesSize() {
+        return this.rightTuplesSize;
+    }
+
+    public synchronized int getLeftTuplesSize() {
+        return this.leftTuplesSize;
+    }
+}
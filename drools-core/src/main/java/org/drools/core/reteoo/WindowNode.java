@@ -30,8 +30,8 @@ import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.Memory;
 import org.drools.core.common.MemoryFactory;
 import org.drools.core.common.PropagationContextImpl;
+import org.drools.core.util.IntHashMap;
 import org.drools.core.util.Iterator;
-import org.drools.core.util.ObjectHashMap;
 import org.drools.core.reteoo.builder.BuildContext;
 import org.drools.core.rule.Behavior;
 import org.drools.core.rule.BehaviorManager;
@@ -176,7 +176,7 @@ public class WindowNode extends ObjectSource
             // propagate
             WindowTupleList list = new WindowTupleList((EventFactHandle) factHandle, this);
             context.setActiveWindowTupleList(list);
-            memory.events.put(factHandle,
+            memory.events.put(factHandle.getId(),
                     list);
             this.sink.propagateAssertObject(factHandle,
                     context,
@@ -208,7 +208,7 @@ public class WindowNode extends ObjectSource
                 }
             }
             // propagate
-            WindowTupleList list = (WindowTupleList) memory.events.get(factHandle);
+            WindowTupleList list = memory.events.get(factHandle.getId());
             if (isAllowed) {
                 if (list != null) {
                     context.setActiveWindowTupleList(list);
@@ -220,7 +220,7 @@ public class WindowNode extends ObjectSource
                 } else {
                     list = new WindowTupleList((EventFactHandle) factHandle, this);
                     context.setActiveWindowTupleList(list);
-                    memory.events.put(factHandle,
+                    memory.events.put(factHandle.getId(),
                             list);
                     this.sink.propagateAssertObject(factHandle,
                             context,
@@ -228,7 +228,7 @@ public class WindowNode extends ObjectSource
                     context.setActiveWindowTupleList(null);
                 }
             } else {
-                memory.events.remove(factHandle);
+                memory.events.remove(factHandle.getId());
                 // no need to propagate retract if it is no longer allowed
                 // because the algorithm will automatically retract facts
                 // based on the ModifyPreviousTuples parameters 
@@ -263,7 +263,7 @@ public class WindowNode extends ObjectSource
                     workingMemory);
 
             // memory retract
-            memory.events.remove(factHandle);
+            memory.events.remove(factHandle.getId());
 
             // as noted in the javadoc, this node will not propagate retracts, relying
             // on the standard algorithm to do it instead.
@@ -298,10 +298,10 @@ public class WindowNode extends ObjectSource
         memory.gate.lock();
         
         try {
-            Iterator it = memory.events.iterator();
+            Iterator<WindowTupleList> it = memory.events.iterator();
             try {
-                for (ObjectHashMap.ObjectEntry entry = (ObjectHashMap.ObjectEntry) it.next(); entry != null; entry = (ObjectHashMap.ObjectEntry) it.next()) {
-                    sink.assertObject((InternalFactHandle) entry.getValue(),
+                for (WindowTupleList list = it.next(); list != null; list = it.next()) {
+                    sink.assertObject(list.getHandle(),
                             context,
                             workingMemory);
                 }
@@ -397,7 +397,8 @@ public class WindowNode extends ObjectSource
 
     public static class WindowMemory implements Memory {
 
-        public ObjectHashMap           events           = new ObjectHashMap();
+        // the tuple lists of the events in the window, by fact handle id
+        public IntHashMap<WindowTupleList> events       = new IntHashMap<WindowTupleList>();
         public ContextEntry[]          context;
         public Object                  behaviorContext;
 
@@ -19,7 +19,6 @@ package org.drools.core.reteoo.compiled;
 import org.drools.core.base.ClassFieldReader;
 import org.drools.core.reteoo.AlphaNode;
 import org.drools.core.reteoo.Sink;
-import org.drools.core.rule.ContextEntry;
 
 /**
  * This handler is used as a base class for all {@link org.kie.reteoo.compiled.NetworkHandler}s used for
@@ -48,10 +47,21 @@ abstract class AbstractCompilerHandler extends NetworkHandlerAdaptor {
         return getVariableName(variableType, alphaNode.getId());
     }
 
-    protected String getContextVariableName(AlphaNode alphaNode) {
-        Class<?> variableType = ContextEntry.class;
+    protected String getAlphaNodeVariableName(AlphaNode alphaNode) {
+        return getVariableName(AlphaNode.class, alphaNode.getId());
+    }
 
-        return getVariableName(variableType, alphaNode.getId());
+    /**
+     * Returns the expression reading the context entry of the specified alpha from the working memory. The entry
+     * can't be kept in the compiled network, as the network is shared by all the sessions of the kbase.
+     *
+     * @param alphaNode          alpha whose context entry is returned
+     * @param workingMemoryName  name of the working memory variable
+     * @return context entry expression
+     */
+    protected String getContextExpression(AlphaNode alphaNode, String workingMemoryName) {
+        return "((" + AlphaNode.AlphaMemory.class.getCanonicalName() + ") " + workingMemoryName + ".getNodeMemory("
+                + getAlphaNodeVariableName(alphaNode) + ")).context";
     }
 
     protected String getVariableName(Sink sink) {
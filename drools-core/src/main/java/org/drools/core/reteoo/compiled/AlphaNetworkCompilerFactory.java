@@ -0,0 +1,32 @@
+package org.drools.core.reteoo.compiled;
+
+import org.kie.internal.utils.ServiceRegistryImpl;
+
+public class AlphaNetworkCompilerFactory {
+
+    private static AlphaNetworkCompilerService provider;
+
+    public static synchronized void setAlphaNetworkCompilerService(AlphaNetworkCompilerService provider) {
+        AlphaNetworkCompilerFactory.provider = provider;
+    }
+
+    /**
+     * Returns the compiler of the alpha networks, or null when drools-compiler is not in the classpath.
+     */
+    public static synchronized AlphaNetworkCompilerService getAlphaNetworkCompilerService() {
+        if (provider == null) {
+            loadProvider();
+        }
+        return provider;
+    }
+
+    private static void loadProvider() {
+        ServiceRegistryImpl.getInstance().addDefault( AlphaNetworkCompilerService.class, "org.drools.compiler.reteoo.compiled.AlphaNetworkCompilerServiceImpl" );
+        try {
+            setAlphaNetworkCompilerService(ServiceRegistryImpl.getInstance().get( AlphaNetworkCompilerService.class ) );
+        } catch ( IllegalArgumentException e ) {
+            // drools-compiler is not available
+        }
+    }
+
+}
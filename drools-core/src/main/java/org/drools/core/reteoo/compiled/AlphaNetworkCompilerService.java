@@ -0,0 +1,38 @@
+/*
+ * Copyright 2013 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.reteoo.compiled;
+
+import java.util.Collection;
+
+import org.drools.core.common.InternalRuleBase;
+import org.drools.core.reteoo.ObjectTypeNode;
+import org.kie.api.Service;
+
+/**
+ * AlphaNetworkCompilerService is used by the ReteooRuleBase to compile the alpha networks of its
+ * ObjectTypeNodes, when the drools.compiledAlphaNetwork option is set. It is provided by drools-compiler.
+ */
+public interface AlphaNetworkCompilerService extends Service {
+
+    /**
+     * Sets a CompiledNetwork on each of the given ObjectTypeNodes whose network is compilable. The other ones
+     * keep propagating through the interpreted network.
+     */
+    void compile(InternalRuleBase ruleBase,
+                 Collection<ObjectTypeNode> objectTypeNodes);
+
+}
@@ -26,18 +26,20 @@ import org.drools.core.reteoo.ObjectTypeNode;
 import org.drools.core.spi.PropagationContext;
 
 /**
- * todo: document
+ * This handler is used to create the {@link CompiledNetwork#assertObject} method of a generated subclass of
+ * {@link CompiledNetwork}: each non-hashed alpha becomes an IF statement, each set of hashed alphas a switch over
+ * the node ids of a map keyed by the hashed value, and beta and left input adapter nodes are asserted into.
  */
 public class AssertHandler extends AbstractCompilerHandler {
     private static final String LOCAL_FACT_VAR_NAME = "fact";
 
-    private static final String FACT_HANDLE_PARAM_TYPE = InternalFactHandle.class.getName();
-    private static final String PROP_CONTEXT_PARAM_TYPE = PropagationContext.class.getName();
-    private static final String WORKING_MEMORY_PARAM_TYPE = InternalWorkingMemory.class.getName();
+    protected static final String FACT_HANDLE_PARAM_TYPE = InternalFactHandle.class.getName();
+    protected static final String PROP_CONTEXT_PARAM_TYPE = PropagationContext.class.getName();
+    protected static final String WORKING_MEMORY_PARAM_TYPE = InternalWorkingMemory.class.getName();
 
-    private static final String FACT_HANDLE_PARAM_NAME = "handle";
-    private static final String PROP_CONTEXT_PARAM_NAME = "context";
-    private static final String WORKING_MEMORY_PARAM_NAME = "wm";
+    protected static final String FACT_HANDLE_PARAM_NAME = "handle";
+    protected static final String PROP_CONTEXT_PARAM_NAME = "context";
+    protected static final String WORKING_MEMORY_PARAM_NAME = "wm";
 
     private static final String ASSERT_METHOD_SIGNATURE = "public final void assertObject("
             + FACT_HANDLE_PARAM_TYPE + " " + FACT_HANDLE_PARAM_NAME + ","
@@ -53,7 +55,7 @@ public class AssertHandler extends AbstractCompilerHandler {
      */
     private final boolean alphaNetContainsHashedField;
 
-    private final StringBuilder builder;
+    protected final StringBuilder builder;
     private final String factClassName;
 
     AssertHandler(StringBuilder builder, String factClassName) {
@@ -66,9 +68,23 @@ public class AssertHandler extends AbstractCompilerHandler {
         this.alphaNetContainsHashedField = alphaNetContainsHashedField;
     }
 
+    /**
+     * Returns the signature, and the opening brace, of the generated method
+     */
+    protected String getMethodSignature() {
+        return ASSERT_METHOD_SIGNATURE;
+    }
+
+    /**
+     * Returns the arguments passed on to the child beta and left input adapter nodes
+     */
+    protected String getPropagationArguments() {
+        return FACT_HANDLE_PARAM_NAME + "," + PROP_CONTEXT_PARAM_NAME + "," + WORKING_MEMORY_PARAM_NAME;
+    }
+
     @Override
     public void startObjectTypeNode(ObjectTypeNode objectTypeNode) {
-        builder.append(ASSERT_METHOD_SIGNATURE).append(NEWLINE);
+        builder.append(getMethodSignature()).append(NEWLINE);
 
         // we only need to create a reference to the object, not handle, if there is a hashed alpha in the network
         if (alphaNetContainsHashedField) {
@@ -83,18 +99,18 @@ public class AssertHandler extends AbstractCompilerHandler {
 
     @Override
     public void startBetaNode(BetaNode betaNode) {
-        builder.append(getVariableName(betaNode)).append(".assertObject(").
-                append(FACT_HANDLE_PARAM_NAME).append(",").
-                append(PROP_CONTEXT_PARAM_NAME).append(",").
-                append(WORKING_MEMORY_PARAM_NAME).append(");").append(NEWLINE);
+        builder.append(getVariableName(betaNode)).append(".").append(getPropagationMethodName()).append("(").
+                append(getPropagationArguments()).append(");").append(NEWLINE);
     }
 
     @Override
     public void startLeftInputAdapterNode(LeftInputAdapterNode leftInputAdapterNode) {
-        builder.append(getVariableName(leftInputAdapterNode)).append(".assertObject(").
-                append(FACT_HANDLE_PARAM_NAME).append(",").
-                append(PROP_CONTEXT_PARAM_NAME).append(",").
-                append(WORKING_MEMORY_PARAM_NAME).append(");").append(NEWLINE);
+        builder.append(getVariableName(leftInputAdapterNode)).append(".").append(getPropagationMethodName()).append("(").
+                append(getPropagationArguments()).append(");").append(NEWLINE);
+    }
+
+    protected String getPropagationMethodName() {
+        return "assertObject";
     }
 
     @Override
@@ -102,7 +118,7 @@ public class AssertHandler extends AbstractCompilerHandler {
         builder.append("if ( ").append(getVariableName(alphaNode)).
                 append(".isAllowed(").append(FACT_HANDLE_PARAM_NAME).append(",").
                 append(WORKING_MEMORY_PARAM_NAME).append(", ").
-                append(getContextVariableName(alphaNode)).append(") ) {").append(NEWLINE);
+                append(getContextExpression(alphaNode, WORKING_MEMORY_PARAM_NAME)).append(") ) {").append(NEWLINE);
 
     }
 
@@ -117,8 +133,7 @@ public class AssertHandler extends AbstractCompilerHandler {
         String attributeName = hashedFieldReader.getFieldName();
         String localVariableName = attributeName + "NodeId";
 
-        // todo get accessor smarter because of booleans. Note that right now booleans wouldn't be hashed
-        String attributeGetterName = "get" + Character.toTitleCase(attributeName.charAt(0)) + attributeName.substring(1);
+        String attributeGetterName = hashedFieldReader.getNativeReadMethodName();
 
         // get the attribute from the fact that we are switching over
         builder.append("Integer ").append(localVariableName);
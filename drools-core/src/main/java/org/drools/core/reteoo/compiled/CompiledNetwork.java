@@ -16,13 +16,19 @@
 
 package org.drools.core.reteoo.compiled;
 
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.common.InternalWorkingMemory;
 import org.drools.core.common.NetworkNode;
 import org.drools.core.common.RuleBasePartitionId;
 import org.drools.core.reteoo.*;
+import org.drools.core.spi.PropagationContext;
+import org.drools.core.spi.RuleComponent;
+import org.kie.api.definition.rule.Rule;
 
 import java.io.IOException;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
+import java.util.Map;
 
 /**
  * This is the base type for all generated classes that that represent a "compiled" portion of the RETE network.
@@ -50,6 +56,25 @@ public abstract class CompiledNetwork implements ObjectSink {
         return objectTypeNode.getPartitionId();
     }
 
+    public short getType() {
+        return objectTypeNode.getType();
+    }
+
+    public Map<Rule, RuleComponent> getAssociations() {
+        return objectTypeNode.getAssociations();
+    }
+
+    /**
+     * The ObjectTypeNode never bypasses its children, but if it ever does the interpreted network is as good
+     * as a compiled one for it.
+     */
+    public void byPassModifyToBetaNode(final InternalFactHandle factHandle,
+                                       final ModifyPreviousTuples modifyPreviousTuples,
+                                       final PropagationContext context,
+                                       final InternalWorkingMemory workingMemory) {
+        objectTypeNode.getSinkPropagator().byPassModifyToBetaNode( factHandle, modifyPreviousTuples, context, workingMemory );
+    }
+
     /**
      * The object implements the writeExternal method to save its contents
      * by calling the methods of DataOutput for its primitive values or
@@ -21,7 +21,6 @@ import org.drools.core.reteoo.AlphaNode;
 import org.drools.core.reteoo.BetaNode;
 import org.drools.core.reteoo.LeftInputAdapterNode;
 import org.drools.core.reteoo.Sink;
-import org.drools.core.rule.ContextEntry;
 
 import java.util.*;
 
@@ -65,12 +64,12 @@ public class DeclarationsHandler extends AbstractCompilerHandler {
         // comment for variable declaration is just the toString of the node
         String comment = alphaNode.toString();
 
-        return PRIVATE_MODIFIER + " " + variableType.getName() + " " + variableName + "; // " + comment;
+        return PRIVATE_MODIFIER + " " + variableType.getCanonicalName() + " " + variableName + "; // " + comment;
     }
 
-    private String getContextVariableDeclaration(AlphaNode alphaNode){
-        Class<?> variableType = ContextEntry.class;
-        String variableName = getContextVariableName(alphaNode);
+    private String getAlphaNodeVariableDeclaration(AlphaNode alphaNode){
+        Class<?> variableType = AlphaNode.class;
+        String variableName = getAlphaNodeVariableName(alphaNode);
 
         return PRIVATE_MODIFIER + " " + variableType.getName() + " " + variableName + ";";
     }
@@ -81,7 +80,7 @@ public class DeclarationsHandler extends AbstractCompilerHandler {
         // comment for variable declaration is just the toString of the node
         String comment = sink.toString();
 
-        return PRIVATE_MODIFIER + " " + declarationType.getName() + " " + variableName + "; // " + comment;
+        return PRIVATE_MODIFIER + " " + declarationType.getCanonicalName() + " " + variableName + "; // " + comment;
     }
 
     private String getVariableDeclaration(ClassFieldReader fieldReader) {
@@ -102,7 +101,7 @@ public class DeclarationsHandler extends AbstractCompilerHandler {
     @Override
     public void startNonHashedAlphaNode(AlphaNode alphaNode) {
         builder.append(getVariableDeclaration(alphaNode)).append(NEWLINE);
-        builder.append(getContextVariableDeclaration(alphaNode)).append(NEWLINE);
+        builder.append(getAlphaNodeVariableDeclaration(alphaNode)).append(NEWLINE);
     }
 
     @Override
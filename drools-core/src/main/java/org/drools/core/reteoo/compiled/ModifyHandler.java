@@ -0,0 +1,82 @@
+/*
+ * Copyright 2010 JBoss Inc
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.drools.core.reteoo.compiled;
+
+import org.drools.core.reteoo.AlphaNode;
+import org.drools.core.reteoo.ModifyPreviousTuples;
+import org.drools.core.util.BitMaskUtil;
+
+/**
+ * This handler is used to create the {@link CompiledNetwork#modifyObject} method of a generated subclass of
+ * {@link CompiledNetwork}. It generates the same statements as the {@link AssertHandler}, except that a non-hashed
+ * alpha whose inferred mask does not intersect the modification mask is bypassed, as {@link AlphaNode#modifyObject}
+ * does.
+ */
+public class ModifyHandler extends AssertHandler {
+
+    private static final String MODIFY_PREVIOUS_TUPLES_PARAM_TYPE = ModifyPreviousTuples.class.getName();
+
+    private static final String MODIFY_PREVIOUS_TUPLES_PARAM_NAME = "modifyPreviousTuples";
+
+    private static final String MODIFY_METHOD_SIGNATURE = "public final void modifyObject("
+            + FACT_HANDLE_PARAM_TYPE + " " + FACT_HANDLE_PARAM_NAME + ","
+            + MODIFY_PREVIOUS_TUPLES_PARAM_TYPE + " " + MODIFY_PREVIOUS_TUPLES_PARAM_NAME + ","
+            + PROP_CONTEXT_PARAM_TYPE + " " + PROP_CONTEXT_PARAM_NAME + ","
+            + WORKING_MEMORY_PARAM_TYPE + " " + WORKING_MEMORY_PARAM_NAME + "){";
+
+    public ModifyHandler(StringBuilder builder, String factClassName, boolean alphaNetContainsHashedField) {
+        super(builder, factClassName, alphaNetContainsHashedField);
+    }
+
+    @Override
+    protected String getMethodSignature() {
+        return MODIFY_METHOD_SIGNATURE;
+    }
+
+    @Override
+    protected String getPropagationArguments() {
+        return FACT_HANDLE_PARAM_NAME + "," + MODIFY_PREVIOUS_TUPLES_PARAM_NAME + ","
+                + PROP_CONTEXT_PARAM_NAME + "," + WORKING_MEMORY_PARAM_NAME;
+    }
+
+    @Override
+    protected String getPropagationMethodName() {
+        return "modifyObject";
+    }
+
+    @Override
+    public void startNonHashedAlphaNode(AlphaNode alphaNode) {
+        // example of what this will look like
+        // if ( BitMaskUtil.intersect(context.getModificationMask(), alphaNode24.getInferredMask()) ) {
+        //     if ( mvelConstraint24.isAllowed(handle, wm, context entry) ) {
+        builder.append("if ( ").append(BitMaskUtil.class.getName()).append(".intersect(").
+                append(PROP_CONTEXT_PARAM_NAME).append(".getModificationMask(), ").
+                append(getAlphaNodeVariableName(alphaNode)).append(".getInferredMask()) ) {").append(NEWLINE);
+        super.startNonHashedAlphaNode(alphaNode);
+    }
+
+    @Override
+    public void endNonHashedAlphaNode(AlphaNode alphaNode) {
+        // close the isAllowed if statement
+        super.endNonHashedAlphaNode(alphaNode);
+        // the modification does not concern this alpha, so its children only need to keep their tuples
+        builder.append("} else {").append(NEWLINE);
+        builder.append(getAlphaNodeVariableName(alphaNode)).append(".byPassModifyToBetaNode(").
+                append(getPropagationArguments()).append(");").append(NEWLINE);
+        builder.append("}").append(NEWLINE);
+    }
+}
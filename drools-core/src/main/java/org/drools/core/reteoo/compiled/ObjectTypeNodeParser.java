@@ -17,12 +17,17 @@
 package org.drools.core.reteoo.compiled;
 
 import org.drools.core.base.ClassFieldReader;
+import org.drools.core.base.ClassObjectType;
+import org.drools.core.base.ValueType;
 import org.drools.core.util.Iterator;
+import org.drools.core.util.LinkedList;
 import org.drools.core.util.ObjectHashMap;
 import org.drools.core.reteoo.*;
 import org.drools.core.rule.constraint.MvelConstraint;
 import org.drools.core.spi.AlphaNodeFieldConstraint;
 
+import java.lang.reflect.Modifier;
+
 /**
  * This class is used for reading an {@link ObjectTypeNode} using callbacks.
  * <p/>
@@ -80,12 +85,83 @@ public class ObjectTypeNodeParser {
         } else if (propagator instanceof CompositeObjectSinkAdapter) {
             CompositeObjectSinkAdapter composite = (CompositeObjectSinkAdapter) propagator;
 
+            // same order as the CompositeObjectSinkAdapter propagations
+            traverseHashedAlphaNodes(composite.getHashedSinkMap(), handler);
+            traverseRangeIndexedAlphaNodes(composite.getRangeIndexes(), handler);
             traverseSinkLisk(composite.getHashableSinks(), handler);
             traverseSinkLisk(composite.getOthers(), handler);
-            traverseHashedAlphaNodes(composite.getHashedSinkMap(), handler);
         }
     }
 
+    /**
+     * Returns true if every node below the {@link #objectTypeNode} can be reported to a {@link NetworkHandler},
+     * and so can be part of a generated {@link CompiledNetwork}. That is the case when:
+     * <li>the object type is a public class</li>
+     * <li>the children are AlphaNodes with a public constraint class, BetaNodes or LeftInputAdapterNodes</li>
+     * <li>the hashed AlphaNodes of each propagator are hashed on a single String or int field, with no null value</li>
+     * Networks that are not compilable must stay interpreted, as the nodes the parser skips would never get
+     * any propagation.
+     *
+     * @return true if the network can be compiled
+     */
+    public boolean isCompilable() {
+        if (!(objectTypeNode.getObjectType() instanceof ClassObjectType)) {
+            return false;
+        }
+        Class<?> classType = ((ClassObjectType) objectTypeNode.getObjectType()).getClassType();
+        if (classType == null || !Modifier.isPublic(classType.getModifiers()) || classType.getCanonicalName() == null) {
+            return false;
+        }
+        return isCompilable(objectTypeNode.getSinkPropagator());
+    }
+
+    private boolean isCompilable(ObjectSinkPropagator propagator) {
+        for (ObjectSink sink : propagator.getSinks()) {
+            if (sink.getType() == NodeTypeEnums.AlphaNode) {
+                AlphaNode alphaNode = (AlphaNode) sink;
+                if (!Modifier.isPublic(alphaNode.getConstraint().getClass().getModifiers()) ||
+                    !isCompilable(alphaNode.getSinkPropagator())) {
+                    return false;
+                }
+            } else if (!NodeTypeEnums.isBetaNode(sink) && sink.getType() != NodeTypeEnums.LeftInputAdapterNode) {
+                return false;
+            }
+        }
+        if (propagator instanceof CompositeObjectSinkAdapter) {
+            return isCompilable(((CompositeObjectSinkAdapter) propagator).getHashedSinkMap());
+        }
+        return true;
+    }
+
+    private boolean isCompilable(ObjectHashMap hashedAlphaNodes) {
+        if (hashedAlphaNodes == null || hashedAlphaNodes.size() == 0) {
+            return true;
+        }
+        int index = -1;
+        Iterator iter = hashedAlphaNodes.iterator();
+        for (ObjectHashMap.ObjectEntry entry = (ObjectHashMap.ObjectEntry) iter.next(); entry != null; entry = (ObjectHashMap.ObjectEntry) iter.next()) {
+            CompositeObjectSinkAdapter.HashKey hashKey = (CompositeObjectSinkAdapter.HashKey) entry.getKey();
+            AlphaNodeFieldConstraint constraint = ((AlphaNode) entry.getValue()).getConstraint();
+            if (!(constraint instanceof MvelConstraint) ||
+                !(((MvelConstraint) constraint).getFieldExtractor() instanceof ClassFieldReader) ||
+                hashKey.getObjectValue() == null) {
+                return false;
+            }
+            ClassFieldReader reader = (ClassFieldReader) ((MvelConstraint) constraint).getFieldExtractor();
+            ValueType valueType = reader.getValueType();
+            if (reader.getNativeReadMethod() == null ||
+                (valueType != ValueType.STRING_TYPE && valueType != ValueType.PINTEGER_TYPE && valueType != ValueType.INTEGER_TYPE)) {
+                return false;
+            }
+            // the generated code switches over a single field for all the hashed alphas
+            if (index != -1 && index != hashKey.getIndex()) {
+                return false;
+            }
+            index = hashKey.getIndex();
+        }
+        return true;
+    }
+
     private void traversePropagator(LeftTupleSinkPropagator propagator, NetworkHandler handler) {
         if (propagator instanceof SingleLeftTupleSinkAdapter) {
             // we know there is only a single child sink for this propagator
@@ -142,6 +218,17 @@ public class ObjectTypeNodeParser {
         }
     }
 
+    private void traverseRangeIndexedAlphaNodes(LinkedList<CompositeObjectSinkAdapter.RangeIndex> rangeIndexes, NetworkHandler handler) {
+        if (rangeIndexes != null) {
+            // the compiled network evaluates the range indexed alphas as plain ones
+            for (CompositeObjectSinkAdapter.RangeIndex rangeIndex = rangeIndexes.getFirst(); rangeIndex != null; rangeIndex = rangeIndex.getNext()) {
+                for (AlphaNode alphaNode : rangeIndex.getSinks()) {
+                    traverseSink(alphaNode, handler);
+                }
+            }
+        }
+    }
+
     private void traverseSink(ObjectSink sink, NetworkHandler handler) {
         if (sink.getType() == NodeTypeEnums.AlphaNode) {
             AlphaNode alphaNode = (AlphaNode) sink;
@@ -46,7 +46,7 @@ public class SetNodeReferenceHandler extends AbstractCompilerHandler {
         String assignmentStatement;
 
         // for non alphas, we just need to cast to the right variable type
-        assignmentStatement = getVariableName(sink) + " = (" + variableType.getName() + ")" + nodeVariableName + ";";
+        assignmentStatement = getVariableName(sink) + " = (" + variableType.getCanonicalName() + ")" + nodeVariableName + ";";
 
         return assignmentStatement;
     }
@@ -57,21 +57,14 @@ public class SetNodeReferenceHandler extends AbstractCompilerHandler {
 
         // we need the constraint for an alpha node assignment, so generate a cast, plus the method call to get
         // the constraint
-        assignmentStatement = getVariableName(alphaNode) + " = (" + variableType.getName() + ") ((" + AlphaNode.class.getName() + ")" + nodeVariableName + ").getConstraint();";
+        assignmentStatement = getVariableName(alphaNode) + " = (" + variableType.getCanonicalName() + ") ((" + AlphaNode.class.getName() + ")" + nodeVariableName + ").getConstraint();";
 
         return assignmentStatement;
     }
 
-    private String getContextVariableAssignmentStatement(AlphaNode alphaNode) {
-        String contextVariableName = getContextVariableName(alphaNode);
-        String alphaVariableName = getVariableName(alphaNode);
-        String assignmentStatement;
-
-        // we need the constraint for an alpha node assignment, so generate a cast, plus the method call to get
-        // the constraint
-        assignmentStatement = contextVariableName + " = " + alphaVariableName + ".createContextEntry();";
-
-        return assignmentStatement;
+    private String getAlphaNodeVariableAssignmentStatement(AlphaNode alphaNode, String nodeVariableName) {
+        // the alpha itself is needed to get its memory, and to bypass it on modifies
+        return getAlphaNodeVariableName(alphaNode) + " = (" + AlphaNode.class.getName() + ")" + nodeVariableName + ";";
     }
 
 
@@ -95,11 +88,12 @@ public class SetNodeReferenceHandler extends AbstractCompilerHandler {
         // case statement for the non-hashed alphas looks like the following
         // case 24:
         //      variableConstraint24 = (VariableConstraint) ((AlphaNode) node).getConstraint();
+        //      alphaNode24 = (AlphaNode) node;
         //      break;
 
         builder.append("case ").append(alphaNode.getId()).append(": ").append(NEWLINE);
         builder.append(getVariableAssignmentStatement(alphaNode, PARAM_NAME)).append(NEWLINE);
-        builder.append(getContextVariableAssignmentStatement(alphaNode)).append(NEWLINE);
+        builder.append(getAlphaNodeVariableAssignmentStatement(alphaNode, PARAM_NAME)).append(NEWLINE);
         builder.append("break;").append(NEWLINE);
     }
 
@@ -197,6 +197,12 @@ public class MvelConstraint extends MutableTypeConstraint implements IndexableCo
                 createMvelConditionEvaluator(workingMemory);
                 if (TEST_JITTING && !isDynamic) { // Only for test purposes
                     boolean mvelValue = forceJitEvaluator(object, workingMemory, leftTuple);
+                } else if (!isDynamic && isEagerJitting(workingMemory)) {
+                    // mvel resolves the accessors of the condition, required to analyze it, while evaluating it
+                    boolean mvelValue = conditionEvaluator.evaluate(object, workingMemory, leftTuple);
+                    jitted = true;
+                    executeJitting(object, workingMemory, leftTuple);
+                    return mvelValue;
                 }
             }
 
@@ -547,6 +553,10 @@ public class MvelConstraint extends MutableTypeConstraint implements IndexableCo
         return expression;
     }
 
+    private boolean isEagerJitting(InternalWorkingMemory workingMemory) {
+        return ((InternalRuleBase) workingMemory.getRuleBase()).getConfiguration().isEagerJitting();
+    }
+
     protected ParserConfiguration getParserConfiguration(InternalWorkingMemory workingMemory) {
         return getMVELDialectRuntimeData(workingMemory).getParserConfiguration();
     }
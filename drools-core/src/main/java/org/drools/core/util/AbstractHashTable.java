@@ -838,4 +838,313 @@ public abstract class AbstractHashTable
         }
 
     }
+
+    /**
+     * Composite index on any number of fields, used when there are more than three indexed
+     * equality constraints. The hash code and the equality are computed field by field,
+     * so no key object is created on lookup.
+     */
+    public static class CompositeIndex
+        implements
+        Index {
+
+        private static final long serialVersionUID = 510l;
+
+        private FieldIndex[]      indexes;
+
+        private int               startResult;
+
+        public CompositeIndex() {
+
+        }
+
+        public CompositeIndex(final FieldIndex[] indexes,
+                              final int startResult) {
+            this.startResult = startResult;
+            this.indexes = indexes;
+        }
+
+        public void readExternal(ObjectInput in) throws IOException,
+                                                ClassNotFoundException {
+            indexes = (FieldIndex[]) in.readObject();
+            startResult = in.readInt();
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeObject( indexes );
+            out.writeInt( startResult );
+        }
+
+        public FieldIndex getFieldIndex(int index) {
+            if ( index < 0 || index >= indexes.length ) {
+                throw new IllegalArgumentException( "IndexUtil position " + index + " does not exist" );
+            }
+            return indexes[index];
+        }
+
+        public int hashCodeOf(final Object object) {
+            int hashCode = this.startResult;
+            for ( FieldIndex fieldIndex : this.indexes ) {
+                hashCode = LeftTupleIndexHashTable.PRIME * hashCode + fieldIndex.extractor.getHashCode( null,
+                                                                                                        object );
+            }
+            return rehash( hashCode );
+        }
+
+        public int hashCodeOf(final LeftTuple tuple) {
+            int hashCode = this.startResult;
+            for ( FieldIndex fieldIndex : this.indexes ) {
+                hashCode = LeftTupleIndexHashTable.PRIME * hashCode + fieldIndex.declaration.getHashCode( null,
+                                                                                                          tuple.get( fieldIndex.declaration ).getObject() );
+            }
+            return rehash( hashCode );
+        }
+
+        public boolean equal(final Object right,
+                             final LeftTuple tuple) {
+            for ( FieldIndex fieldIndex : this.indexes ) {
+                final Object left = tuple.get( fieldIndex.declaration ).getObject();
+                if ( !fieldIndex.evaluator.evaluate( null,
+                                                     fieldIndex.declaration.getExtractor(),
+                                                     left,
+                                                     fieldIndex.extractor,
+                                                     right ) ) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public boolean equal(final LeftTuple tuple1,
+                             final LeftTuple tuple2) {
+            for ( FieldIndex fieldIndex : this.indexes ) {
+                final Object object1 = tuple1.get( fieldIndex.declaration ).getObject();
+                final Object object2 = tuple2.get( fieldIndex.declaration ).getObject();
+                if ( !fieldIndex.evaluator.evaluate( null,
+                                                     fieldIndex.declaration.getExtractor(),
+                                                     object1,
+                                                     fieldIndex.declaration.getExtractor(),
+                                                     object2 ) ) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        public boolean equal(final Object object1,
+                             final Object object2) {
+            for ( FieldIndex fieldIndex : this.indexes ) {
+                if ( !fieldIndex.evaluator.evaluate( null,
+                                                     fieldIndex.extractor,
+                                                     object1,
+                                                     fieldIndex.extractor,
+                                                     object2 ) ) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Single field index on a primitive field. The values are read through the primitive
+     * accessors of the extractor and of the declaration, so they are never boxed.
+     */
+    public abstract static class AbstractPrimitiveIndex
+        implements
+        Index {
+
+        private static final long      serialVersionUID = 510l;
+
+        protected InternalReadAccessor extractor;
+        protected Declaration          declaration;
+        protected IndexEvaluator       evaluator;
+
+        protected int                  startResult;
+
+        public AbstractPrimitiveIndex() {
+
+        }
+
+        public AbstractPrimitiveIndex(final FieldIndex[] indexes,
+                                      final int startResult) {
+            this.startResult = startResult;
+
+            this.extractor = indexes[0].extractor;
+            this.declaration = indexes[0].declaration;
+            this.evaluator = indexes[0].evaluator;
+        }
+
+        public void readExternal(ObjectInput in) throws IOException,
+                                                ClassNotFoundException {
+            extractor = (InternalReadAccessor) in.readObject();
+            declaration = (Declaration) in.readObject();
+            evaluator = (IndexEvaluator) in.readObject();
+            startResult = in.readInt();
+        }
+
+        public void writeExternal(ObjectOutput out) throws IOException {
+            out.writeObject( extractor );
+            out.writeObject( declaration );
+            out.writeObject( evaluator );
+            out.writeInt( startResult );
+        }
+
+        public FieldIndex getFieldIndex(int index) {
+            if ( index > 0 ) {
+                throw new IllegalArgumentException( "IndexUtil position " + index + " does not exist" );
+            }
+            return new FieldIndex( extractor,
+                                   declaration,
+                                   evaluator );
+        }
+
+        protected int hashCodeOf(final int value) {
+            return rehash( LeftTupleIndexHashTable.PRIME * this.startResult + value );
+        }
+
+        protected Object getLeftObject(final LeftTuple tuple) {
+            return tuple.get( this.declaration ).getObject();
+        }
+    }
+
+    public static class IntIndex extends AbstractPrimitiveIndex {
+
+        private static final long serialVersionUID = 510l;
+
+        public IntIndex() {
+
+        }
+
+        public IntIndex(final FieldIndex[] indexes,
+                        final int startResult) {
+            super( indexes,
+                   startResult );
+        }
+
+        public int hashCodeOf(final Object object) {
+            return hashCodeOf( this.extractor.getIntValue( null,
+                                                           object ) );
+        }
+
+        public int hashCodeOf(final LeftTuple tuple) {
+            return hashCodeOf( this.declaration.getExtractor().getIntValue( null,
+                                                                            getLeftObject( tuple ) ) );
+        }
+
+        public boolean equal(final Object right,
+                             final LeftTuple tuple) {
+            return this.declaration.getExtractor().getIntValue( null, getLeftObject( tuple ) ) == this.extractor.getIntValue( null, right );
+        }
+
+        public boolean equal(final LeftTuple tuple1,
+                             final LeftTuple tuple2) {
+            return this.declaration.getExtractor().getIntValue( null, getLeftObject( tuple1 ) ) == this.declaration.getExtractor().getIntValue( null, getLeftObject( tuple2 ) );
+        }
+
+        public boolean equal(final Object object1,
+                             final Object object2) {
+            return this.extractor.getIntValue( null, object1 ) == this.extractor.getIntValue( null, object2 );
+        }
+    }
+
+    public static class LongIndex extends AbstractPrimitiveIndex {
+
+        private static final long serialVersionUID = 510l;
+
+        public LongIndex() {
+
+        }
+
+        public LongIndex(final FieldIndex[] indexes,
+                         final int startResult) {
+            super( indexes,
+                   startResult );
+        }
+
+        private int hashCodeOf(final long value) {
+            return hashCodeOf( (int) (value ^ (value >>> 32)) );
+        }
+
+        public int hashCodeOf(final Object object) {
+            return hashCodeOf( this.extractor.getLongValue( null,
+                                                            object ) );
+        }
+
+        public int hashCodeOf(final LeftTuple tuple) {
+            return hashCodeOf( this.declaration.getExtractor().getLongValue( null,
+                                                                             getLeftObject( tuple ) ) );
+        }
+
+        public boolean equal(final Object right,
+                             final LeftTuple tuple) {
+            return this.declaration.getExtractor().getLongValue( null, getLeftObject( tuple ) ) == this.extractor.getLongValue( null, right );
+        }
+
+        public boolean equal(final LeftTuple tuple1,
+                             final LeftTuple tuple2) {
+            return this.declaration.getExtractor().getLongValue( null, getLeftObject( tuple1 ) ) == this.declaration.getExtractor().getLongValue( null, getLeftObject( tuple2 ) );
+        }
+
+        public boolean equal(final Object object1,
+                             final Object object2) {
+            return this.extractor.getLongValue( null, object1 ) == this.extractor.getLongValue( null, object2 );
+        }
+    }
+
+    /**
+     * Compares the bits of the values, as Double.equals does, so it agrees with the boxed
+     * evaluation on NaN and on signed zeros.
+     */
+    public static class DoubleIndex extends AbstractPrimitiveIndex {
+
+        private static final long serialVersionUID = 510l;
+
+        public DoubleIndex() {
+
+        }
+
+        public DoubleIndex(final FieldIndex[] indexes,
+                           final int startResult) {
+            super( indexes,
+                   startResult );
+        }
+
+        private long getBits(final Object object) {
+            return Double.doubleToLongBits( this.extractor.getDoubleValue( null,
+                                                                           object ) );
+        }
+
+        private long getBits(final LeftTuple tuple) {
+            return Double.doubleToLongBits( this.declaration.getExtractor().getDoubleValue( null,
+                                                                                            getLeftObject( tuple ) ) );
+        }
+
+        private int hashCodeOf(final long bits) {
+            return hashCodeOf( (int) (bits ^ (bits >>> 32)) );
+        }
+
+        public int hashCodeOf(final Object object) {
+            return hashCodeOf( getBits( object ) );
+        }
+
+        public int hashCodeOf(final LeftTuple tuple) {
+            return hashCodeOf( getBits( tuple ) );
+        }
+
+        public boolean equal(final Object right,
+                             final LeftTuple tuple) {
+            return getBits( tuple ) == getBits( right );
+        }
+
+        public boolean equal(final LeftTuple tuple1,
+                             final LeftTuple tuple2) {
+            return getBits( tuple1 ) == getBits( tuple2 );
+        }
+
+        public boolean equal(final Object object1,
+                             final Object object2) {
+            return getBits( object1 ) == getBits( object2 );
+        }
+    }
 }
@@ -0,0 +1,175 @@
+package org.drools.core.util;
+
+import java.util.Arrays;
+
+/**
+ * A map from int keys to values, that unlike the ObjectHashMap allocates nothing when a mapping is added:
+ * the keys and the values are kept in two parallel arrays, and collisions are resolved by linear probing.
+ * Removals shift back the following mappings of the same cluster, so there are no tombstones and lookups
+ * never get slower as mappings are added and removed.
+ *
+ * Null values aren't allowed, as a null value marks a free slot.
+ */
+public class IntHashMap<V> {
+
+    private static final int   DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR      = 0.5f;
+
+    private int[]              keys;
+    private Object[]           values;
+    private int                size;
+    private int                threshold;
+
+    public IntHashMap() {
+        this( DEFAULT_CAPACITY );
+    }
+
+    public IntHashMap(int capacity) {
+        init( Math.max( Integer.highestOneBit( Math.max( capacity, 2 ) - 1 ) << 1,
+                        DEFAULT_CAPACITY ) );
+    }
+
+    private void init(int capacity) {
+        this.keys = new int[capacity];
+        this.values = new Object[capacity];
+        this.threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    public V get(int key) {
+        int index = indexOf( key );
+        return index < 0 ? null : (V) this.values[index];
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf( key ) >= 0;
+    }
+
+    /**
+     * Maps the key to the value, returning the value it was previously mapped to, if any.
+     */
+    public V put(int key,
+                 V value) {
+        if ( value == null ) {
+            throw new IllegalArgumentException( "IntHashMap doesn't allow null values" );
+        }
+
+        int mask = this.values.length - 1;
+        int index = hash( key ) & mask;
+        while ( this.values[index] != null ) {
+            if ( this.keys[index] == key ) {
+                V previous = (V) this.values[index];
+                this.values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+
+        this.keys[index] = key;
+        this.values[index] = value;
+        if ( ++this.size > this.threshold ) {
+            resize( this.values.length << 1 );
+        }
+        return null;
+    }
+
+    public V remove(int key) {
+        int gap = indexOf( key );
+        if ( gap < 0 ) {
+            return null;
+        }
+        V previous = (V) this.values[gap];
+
+        // move back the mappings following the removed one in its cluster, unless they'd be moved before
+        // their own slot, so that a lookup never stops at a free slot before reaching its key
+        int mask = this.values.length - 1;
+        for ( int index = (gap + 1) & mask; this.values[index] != null; index = (index + 1) & mask ) {
+            int slot = hash( this.keys[index] ) & mask;
+            if ( (index > gap) ? (slot <= gap || slot > index) : (slot <= gap && slot > index) ) {
+                this.keys[gap] = this.keys[index];
+                this.values[gap] = this.values[index];
+                gap = index;
+            }
+        }
+        this.values[gap] = null;
+        this.size--;
+        return previous;
+    }
+
+    public void clear() {
+        Arrays.fill( this.values,
+                     null );
+        this.size = 0;
+    }
+
+    /**
+     * Returns an iterator on the values of this map, whose next() returns null once all of them have been returned.
+     * As for the other hash tables, changing the map while iterating may give unexpected results.
+     */
+    public Iterator<V> iterator() {
+        return new ValueIterator<V>( this.values );
+    }
+
+    private int indexOf(int key) {
+        int mask = this.values.length - 1;
+        for ( int index = hash( key ) & mask; this.values[index] != null; index = (index + 1) & mask ) {
+            if ( this.keys[index] == key ) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    private void resize(int capacity) {
+        int[] oldKeys = this.keys;
+        Object[] oldValues = this.values;
+        init( capacity );
+
+        int mask = capacity - 1;
+        for ( int i = 0; i < oldValues.length; i++ ) {
+            if ( oldValues[i] != null ) {
+                int index = hash( oldKeys[i] ) & mask;
+                while ( this.values[index] != null ) {
+                    index = (index + 1) & mask;
+                }
+                this.keys[index] = oldKeys[i];
+                this.values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(int key) {
+        return AbstractHashTable.rehash( key );
+    }
+
+    private static class ValueIterator<V>
+        implements
+        Iterator<V> {
+
+        private static final long serialVersionUID = 510l;
+
+        private final Object[]    values;
+        private int               index;
+
+        private ValueIterator(Object[] values) {
+            this.values = values;
+        }
+
+        public V next() {
+            while ( this.index < this.values.length ) {
+                Object value = this.values[this.index++];
+                if ( value != null ) {
+                    return (V) value;
+                }
+            }
+            return null;
+        }
+    }
+}
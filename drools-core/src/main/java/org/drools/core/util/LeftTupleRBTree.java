@@ -16,6 +16,7 @@
 
 package org.drools.core.util;
 
+import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.util.index.LeftTupleList;
 
 public class LeftTupleRBTree<K extends Comparable< ? super K>> {
@@ -374,6 +375,13 @@ public class LeftTupleRBTree<K extends Comparable< ? super K>> {
             // Copy key/value from predecessor and then delete it instead
             Node<K> pred = maximumNode( n.left );
             n.key = pred.key;
+            // the node is also the list of its tuples, so they have to follow the key
+            n.clear();
+            for ( LeftTuple tuple = pred.first; tuple != null; ) {
+                LeftTuple next = (LeftTuple) tuple.getNext();
+                n.add( tuple );
+                tuple = next;
+            }
             n = pred;
         }
 
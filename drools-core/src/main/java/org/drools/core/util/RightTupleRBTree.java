@@ -16,6 +16,7 @@
 
 package org.drools.core.util;
 
+import org.drools.core.reteoo.RightTuple;
 import org.drools.core.util.index.RightTupleList;
 
 public class RightTupleRBTree<K extends Comparable< ? super K>> {
@@ -379,6 +380,13 @@ public class RightTupleRBTree<K extends Comparable< ? super K>> {
             // Copy key/value from predecessor and then delete it instead
             Node<K> pred = maximumNode( n.left );
             n.key = pred.key;
+            // the node is also the list of its tuples, so they have to follow the key
+            n.clear();
+            for ( RightTuple tuple = pred.first; tuple != null; ) {
+                RightTuple next = (RightTuple) tuple.getNext();
+                n.add( tuple );
+                tuple = next;
+            }
             n = pred;
         }
 
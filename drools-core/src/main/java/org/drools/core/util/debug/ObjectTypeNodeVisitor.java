@@ -18,8 +18,9 @@ package org.drools.core.util.debug;
 
 import java.util.Stack;
 
+import org.drools.core.common.InternalFactHandle;
 import org.drools.core.common.NetworkNode;
-import org.drools.core.util.ObjectHashSet;
+import org.drools.core.util.IntHashMap;
 import org.drools.core.reteoo.ObjectTypeNode;
 import org.drools.core.reteoo.ObjectTypeNode.ObjectTypeNodeMemory;
 
@@ -39,7 +40,7 @@ public class ObjectTypeNodeVisitor extends AbstractNetworkNodeVisitor {
         ni.setMemoryEnabled( otn.isObjectMemoryEnabled() );
         
         if( otn.isObjectMemoryEnabled() ) {
-            final ObjectHashSet memory = ((ObjectTypeNodeMemory) info.getSession().getNodeMemory( otn )).memory;
+            final IntHashMap<InternalFactHandle> memory = ((ObjectTypeNodeMemory) info.getSession().getNodeMemory( otn )).memory;
             ni.setFactMemorySize( memory.size() );
         }
 
@@ -1,12 +1,19 @@
 package org.drools.core.util.index;
 
 import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.base.ValueType;
+import org.drools.core.util.AbstractHashTable.DoubleIndex;
 import org.drools.core.util.AbstractHashTable.FieldIndex;
+import org.drools.core.util.AbstractHashTable.Index;
+import org.drools.core.util.AbstractHashTable.IntIndex;
+import org.drools.core.util.AbstractHashTable.LongIndex;
+import org.drools.core.util.AbstractHashTable.SingleIndex;
 import org.drools.core.reteoo.BetaMemory;
 import org.drools.core.reteoo.LeftTupleMemory;
 import org.drools.core.reteoo.NodeTypeEnums;
 import org.drools.core.reteoo.RightTupleMemory;
 import org.drools.core.rule.ContextEntry;
+import org.drools.core.rule.Declaration;
 import org.drools.core.rule.IndexableConstraint;
 import org.drools.core.rule.constraint.MvelConstraint;
 import org.drools.core.spi.BetaNodeFieldConstraint;
@@ -19,7 +26,6 @@ import java.util.List;
 public class IndexUtil {
 
     private static final boolean USE_COMPARISON_INDEX = true;
-    private static final boolean USE_RANGE_INDEX = USE_COMPARISON_INDEX && false;
 
     public static boolean compositeAllowed(BetaNodeFieldConstraint[] constraints, short betaNodeType) {
         // 1) If there is 1 or more unification restrictions it cannot be composite
@@ -52,42 +58,71 @@ public class IndexUtil {
         return constraint instanceof IndexableConstraint && ((IndexableConstraint)constraint).isIndexable(nodeType);
     }
 
-    private static boolean canHaveRangeIndex(short nodeType) {
-        return USE_COMPARISON_INDEX && ( nodeType == NodeTypeEnums.NotNode || nodeType == NodeTypeEnums.ExistsNode );
+    private static boolean isIndexable(BetaNodeFieldConstraint constraint, short nodeType, boolean rangeIndex) {
+        return isIndexable(constraint, nodeType) || (rangeIndex && isIndexableForNode(nodeType, constraint, true));
+    }
+
+    /**
+     * Not and exists nodes only need to find one blocker, so they always use comparison indexes.
+     * Join and accumulate nodes iterate all the matches, so they only use them when range indexing
+     * is enabled on the kbase.
+     */
+    private static boolean canHaveRangeIndex(short nodeType, boolean rangeIndex) {
+        if ( !USE_COMPARISON_INDEX ) {
+            return false;
+        }
+        switch ( nodeType ) {
+            case NodeTypeEnums.NotNode:
+            case NodeTypeEnums.ExistsNode:
+                return true;
+            case NodeTypeEnums.JoinNode:
+            case NodeTypeEnums.AccumulateNode:
+                return rangeIndex;
+            default:
+                return false;
+        }
     }
 
     public static boolean isIndexableForNode(short nodeType, BetaNodeFieldConstraint constraint) {
+        return isIndexableForNode(nodeType, constraint, false);
+    }
+
+    public static boolean isIndexableForNode(short nodeType, BetaNodeFieldConstraint constraint, boolean rangeIndex) {
         if ( !(constraint instanceof IndexableConstraint) ) {
             return false;
         }
 
         ConstraintType constraintType = ((IndexableConstraint)constraint).getConstraintType();
-        return constraintType.isIndexableForNode(nodeType);
+        return constraintType.isIndexableForNode(nodeType, rangeIndex);
     }
 
     public static boolean[] isIndexableForNode(IndexPrecedenceOption indexPrecedenceOption, short nodeType, int keyDepth, BetaNodeFieldConstraint[] constraints) {
+        return isIndexableForNode(indexPrecedenceOption, nodeType, keyDepth, constraints, false);
+    }
+
+    public static boolean[] isIndexableForNode(IndexPrecedenceOption indexPrecedenceOption, short nodeType, int keyDepth, BetaNodeFieldConstraint[] constraints, boolean rangeIndex) {
         if (keyDepth < 1) {
             return new boolean[constraints.length];
         }
 
         return indexPrecedenceOption == IndexPrecedenceOption.EQUALITY_PRIORITY ?
-                findIndexableWithEqualityPriority(nodeType, keyDepth, constraints) :
-                findIndexableWithPatternOrder(nodeType, keyDepth, constraints);
+                findIndexableWithEqualityPriority(nodeType, keyDepth, constraints, rangeIndex) :
+                findIndexableWithPatternOrder(nodeType, keyDepth, constraints, rangeIndex);
     }
 
-    private static boolean[] findIndexableWithEqualityPriority(short nodeType, int keyDepth, BetaNodeFieldConstraint[] constraints) {
+    private static boolean[] findIndexableWithEqualityPriority(short nodeType, int keyDepth, BetaNodeFieldConstraint[] constraints, boolean rangeIndex) {
         boolean[] indexable = new boolean[constraints.length];
         if (hasEqualIndexable(keyDepth, indexable, constraints)) {
             return indexable;
         }
 
-        if (!canHaveRangeIndex(nodeType)) {
+        if (!canHaveRangeIndex(nodeType, rangeIndex)) {
             return indexable;
         }
 
         for (int i = 0; i < constraints.length; i++) {
-            if (isIndexable(constraints[i], nodeType)) {
-                sortRangeIndexable(constraints, indexable, i);
+            if (isIndexable(constraints[i], nodeType, rangeIndex)) {
+                sortRangeIndexable(constraints, indexable, i, rangeIndex);
                 break;
             }
         }
@@ -95,14 +130,14 @@ public class IndexUtil {
         return indexable;
     }
 
-    private static boolean[] findIndexableWithPatternOrder(short nodeType, int keyDepth, BetaNodeFieldConstraint[] constraints) {
+    private static boolean[] findIndexableWithPatternOrder(short nodeType, int keyDepth, BetaNodeFieldConstraint[] constraints, boolean rangeIndex) {
         boolean[] indexable = new boolean[constraints.length];
         for (int i = 0; i < constraints.length; i++) {
-            if (isIndexable(constraints[i], nodeType)) {
+            if (isIndexable(constraints[i], nodeType, rangeIndex)) {
                 if (isEqualIndexable(constraints[i])) {
                     sortEqualIndexable(keyDepth, indexable, constraints, i);
                 } else {
-                    sortRangeIndexable(constraints, indexable, i);
+                    sortRangeIndexable(constraints, indexable, i, rangeIndex);
                 }
                 break;
             }
@@ -130,8 +165,8 @@ public class IndexUtil {
         return hasEqualIndexable;
     }
 
-    private static void sortRangeIndexable(BetaNodeFieldConstraint[] constraints, boolean[] indexable, int i) {
-        int dualConstraintPosition = findDualConstraint(constraints, i);
+    private static void sortRangeIndexable(BetaNodeFieldConstraint[] constraints, boolean[] indexable, int i, boolean rangeIndex) {
+        int dualConstraintPosition = rangeIndex ? findDualConstraint(constraints, i) : -1;
         swap(constraints, i, 0);
         indexable[0] = true;
         if (dualConstraintPosition > 0) {
@@ -141,7 +176,7 @@ public class IndexUtil {
     }
 
     private static int findDualConstraint(BetaNodeFieldConstraint[] constraints, int comparisonPos) {
-        if ( !(USE_RANGE_INDEX && constraints[comparisonPos] instanceof MvelConstraint) ) {
+        if ( !(constraints[comparisonPos] instanceof MvelConstraint) ) {
             return -1;
         }
         MvelConstraint firstConstraint = (MvelConstraint) constraints[comparisonPos];
@@ -169,6 +204,34 @@ public class IndexUtil {
         }
     }
 
+    /**
+     * Creates the hash table index for a single equality constraint. When both the indexed field
+     * and the declaration it is compared with are int, long or double, the index reads them
+     * through the primitive accessors, so the values are not boxed on each lookup.
+     */
+    public static Index createSingleIndex(FieldIndex[] indexes, int startResult) {
+        ValueType valueType = getPrimitiveIndexType(indexes[0]);
+        if (valueType == ValueType.PINTEGER_TYPE) {
+            return new IntIndex(indexes, startResult);
+        }
+        if (valueType == ValueType.PLONG_TYPE) {
+            return new LongIndex(indexes, startResult);
+        }
+        if (valueType == ValueType.PDOUBLE_TYPE) {
+            return new DoubleIndex(indexes, startResult);
+        }
+        return new SingleIndex(indexes, startResult);
+    }
+
+    private static ValueType getPrimitiveIndexType(FieldIndex fieldIndex) {
+        Declaration declaration = fieldIndex.getDeclaration();
+        if ( declaration == null || !(fieldIndex.getEvaluator() instanceof MvelConstraint.PlainIndexEvaluator) ) {
+            return null;
+        }
+        ValueType valueType = fieldIndex.getExtractor().getValueType();
+        return valueType == declaration.getExtractor().getValueType() ? valueType : null;
+    }
+
     public enum ConstraintType {
         EQUAL(true),
         NOT_EQUAL(false),
@@ -202,6 +265,10 @@ public class IndexUtil {
         }
 
         public boolean isIndexableForNode(short nodeType) {
+            return isIndexableForNode(nodeType, false);
+        }
+
+        public boolean isIndexableForNode(short nodeType, boolean rangeIndex) {
             switch (this) {
                 case EQUAL:
                     return true;
@@ -209,7 +276,7 @@ public class IndexUtil {
                 case UNKNOWN:
                     return false;
                 default:
-                    return canHaveRangeIndex(nodeType);
+                    return canHaveRangeIndex(nodeType, rangeIndex);
             }
         }
 
@@ -250,7 +317,7 @@ public class IndexUtil {
                                        nodeType );
             }
 
-            IndexSpec indexSpec = new IndexSpec(config.getIndexPrecedenceOption(), keyDepth, nodeType, constraints);
+            IndexSpec indexSpec = new IndexSpec(config.getIndexPrecedenceOption(), keyDepth, nodeType, constraints, config.isRangeIndex());
             return new BetaMemory( createLeftMemory(config, indexSpec),
                                    createRightMemory(config, indexSpec),
                                    createContext(constraints),
@@ -271,7 +338,6 @@ public class IndexUtil {
             }
 
             if (indexSpec.constraintType == ConstraintType.RANGE) {
-                // missing TreeMap based implementation for range indexes
                 return new RightTupleIndexRangeRBTree( indexSpec.ascendingConstraintType, indexSpec.indexes[0],
                                                        indexSpec.descendingConstraintType, indexSpec.indexes[1] );
             }
@@ -296,7 +362,6 @@ public class IndexUtil {
             }
 
             if (indexSpec.constraintType == ConstraintType.RANGE) {
-                // missing TreeMap based implementation for range indexes
                 return new LeftTupleIndexRangeRBTree( indexSpec.ascendingConstraintType, indexSpec.indexes[0],
                                                       indexSpec.descendingConstraintType, indexSpec.indexes[1] );
             }
@@ -319,14 +384,14 @@ public class IndexUtil {
             private ConstraintType ascendingConstraintType = null;
             private ConstraintType descendingConstraintType = null;
 
-            private IndexSpec(IndexPrecedenceOption indexPrecedenceOption, int keyDepth, short nodeType, BetaNodeFieldConstraint[] constraints) {
-                init(indexPrecedenceOption, keyDepth, nodeType, constraints);
+            private IndexSpec(IndexPrecedenceOption indexPrecedenceOption, int keyDepth, short nodeType, BetaNodeFieldConstraint[] constraints, boolean rangeIndex) {
+                init(indexPrecedenceOption, keyDepth, nodeType, constraints, rangeIndex);
             }
 
-            private void init(IndexPrecedenceOption indexPrecedenceOption, int keyDepth, short nodeType, BetaNodeFieldConstraint[] constraints) {
+            private void init(IndexPrecedenceOption indexPrecedenceOption, int keyDepth, short nodeType, BetaNodeFieldConstraint[] constraints, boolean rangeIndex) {
                 int firstIndexableConstraint = indexPrecedenceOption == IndexPrecedenceOption.EQUALITY_PRIORITY ?
-                        determineTypeWithEqualityPriority(nodeType, constraints) :
-                        determineTypeWithPatternOrder(nodeType, constraints);
+                        determineTypeWithEqualityPriority(nodeType, constraints, rangeIndex) :
+                        determineTypeWithPatternOrder(nodeType, constraints, rangeIndex);
 
                 if (constraintType == ConstraintType.EQUAL) {
                     List<FieldIndex> indexList = new ArrayList<FieldIndex>();
@@ -342,7 +407,7 @@ public class IndexUtil {
 
                 } else if (constraintType.isComparison()) {
                     // look for a dual constraint to create a range index
-                    if (USE_RANGE_INDEX && constraints[firstIndexableConstraint] instanceof MvelConstraint) {
+                    if (rangeIndex && constraints[firstIndexableConstraint] instanceof MvelConstraint) {
                         MvelConstraint firstConstraint = (MvelConstraint) constraints[firstIndexableConstraint];
                         String leftValue = getLeftValueInExpression(firstConstraint.getExpression());
                         for (int i = firstIndexableConstraint+1; i < constraints.length; i++) {
@@ -369,7 +434,7 @@ public class IndexUtil {
                 }
             }
 
-            private int determineTypeWithEqualityPriority(short nodeType, BetaNodeFieldConstraint[] constraints) {
+            private int determineTypeWithEqualityPriority(short nodeType, BetaNodeFieldConstraint[] constraints, boolean rangeIndex) {
                 int indexedConstraintPos = 0;
                 for (int i = 0; i < constraints.length; i++) {
                     if (constraints[i] instanceof IndexableConstraint) {
@@ -378,7 +443,7 @@ public class IndexUtil {
                         if (type == ConstraintType.EQUAL) {
                             constraintType = type;
                             return i;
-                        } else if (constraintType == ConstraintType.UNKNOWN && type.isIndexableForNode(nodeType)) {
+                        } else if (constraintType == ConstraintType.UNKNOWN && type.isIndexableForNode(nodeType, rangeIndex)) {
                             constraintType = type;
                             indexedConstraintPos = i;
                         }
@@ -387,10 +452,10 @@ public class IndexUtil {
                 return indexedConstraintPos;
             }
 
-            private int determineTypeWithPatternOrder(short nodeType, BetaNodeFieldConstraint[] constraints) {
+            private int determineTypeWithPatternOrder(short nodeType, BetaNodeFieldConstraint[] constraints, boolean rangeIndex) {
                 for (int i = 0; i < constraints.length; i++) {
                     ConstraintType type = ConstraintType.getType(constraints[i]);
-                    if ( type.isIndexableForNode(nodeType) ) {
+                    if ( type.isIndexableForNode(nodeType, rangeIndex) ) {
                         constraintType = type;
                         return i;
                     }
@@ -28,6 +28,7 @@ import org.drools.core.util.LinkedList;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.LeftTupleMemory;
 import org.drools.core.reteoo.RightTuple;
+import org.drools.core.reteoo.RightTupleMemory.IndexType;
 
 public class LeftTupleIndexHashTable extends AbstractHashTable
     implements
@@ -72,8 +73,8 @@ public class LeftTupleIndexHashTable extends AbstractHashTable
             case 0 :
                 throw new IllegalArgumentException( "FieldIndexHashTable cannot use an index[] of length  0" );
             case 1 :
-                this.index = new SingleIndex( index,
-                                              this.startResult );
+                this.index = IndexUtil.createSingleIndex( index,
+                                                          this.startResult );
                 break;
             case 2 :
                 this.index = new DoubleCompositeIndex( index,
@@ -84,7 +85,9 @@ public class LeftTupleIndexHashTable extends AbstractHashTable
                                                        this.startResult );
                 break;
             default :
-                throw new IllegalArgumentException( "FieldIndexHashTable cannot use an index[] of length  great than 3" );
+                this.index = new CompositeIndex( index,
+                                                 this.startResult );
+                break;
         }
     }
 
@@ -139,6 +142,10 @@ public class LeftTupleIndexHashTable extends AbstractHashTable
         return new FullFastIterator( this.table, row );
     }    
 
+    public IndexType getIndexType() {
+        return IndexType.EQUAL;
+    }
+
     public static class FullFastIterator implements FastIterator {
         private final Entry[]     table;
         private int               row;
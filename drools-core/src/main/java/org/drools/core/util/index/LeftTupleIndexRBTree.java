@@ -10,6 +10,7 @@ import org.drools.core.util.LeftTupleRBTree.Boundary;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.LeftTupleMemory;
 import org.drools.core.reteoo.RightTuple;
+import org.drools.core.reteoo.RightTupleMemory.IndexType;
 
 import java.io.Externalizable;
 import java.io.IOException;
@@ -109,7 +110,7 @@ public class LeftTupleIndexRBTree implements LeftTupleMemory, Externalizable {
     public Iterator iterator() {
         LeftTupleList list = tree.first();
         LeftTuple firstTuple = list != null ? list.first : null;
-        return new FastIterator.IteratorAdapter(fastIterator(), firstTuple);
+        return new FastIterator.IteratorAdapter(fullFastIterator(), firstTuple);
     }
 
     public boolean contains(LeftTuple leftTuple) {
@@ -122,14 +123,16 @@ public class LeftTupleIndexRBTree implements LeftTupleMemory, Externalizable {
     }
 
     public FastIterator fullFastIterator() {
-        return new LeftTupleFastIterator();
+        return new LeftTupleFullFastIterator();
     }
 
     public FastIterator fullFastIterator(LeftTuple leftTuple) {
-        FastIterator fastIterator = fullFastIterator();
-        Comparable key = getIndexedValue(leftTuple);
-        fastIterator.next(getNext(key, true));
-        return fastIterator;
+        // the full iterator has no state, it resumes from the tuple passed to next
+        return fullFastIterator();
+    }
+
+    public IndexType getIndexType() {
+        return IndexType.COMPARISON;
     }
 
     private Comparable getIndexedValue(LeftTuple leftTuple) {
@@ -161,6 +164,15 @@ public class LeftTupleIndexRBTree implements LeftTupleMemory, Externalizable {
         return firstNode == null ? null : firstNode.getFirst();
     }
 
+    private static Comparable getNodeKey(LeftTuple leftTuple) {
+        // the value of the fact may have changed since it was indexed, so use the key of its node
+        return ((Node<Comparable<Comparable>>) leftTuple.getMemory()).key;
+    }
+
+    /**
+     * Iterates the tuples matching the key given to getFirst, moving away from it
+     * in the direction of the constraint.
+     */
     public class LeftTupleFastIterator implements FastIterator {
         public Entry next(Entry object) {
             if (object == null) {
@@ -172,12 +184,35 @@ public class LeftTupleIndexRBTree implements LeftTupleMemory, Externalizable {
             if (next != null) {
                 return next;
             }
-            Comparable key = getIndexedValue(leftTuple);
-            return getNext(key, false);
+            return getNext(getNodeKey(leftTuple), false);
         }
 
         public boolean isFullIterator() {
             return false;
         }
-    }  
+    }
+
+    /**
+     * Iterates all the tuples, in ascending key order.
+     */
+    public class LeftTupleFullFastIterator implements FastIterator {
+        public Entry next(Entry object) {
+            Node<Comparable<Comparable>> nextNode;
+            if (object == null) {
+                nextNode = tree.first();
+            } else {
+                LeftTuple leftTuple = (LeftTuple) object;
+                LeftTuple next = (LeftTuple) leftTuple.getNext();
+                if (next != null) {
+                    return next;
+                }
+                nextNode = tree.findNearestNode(getNodeKey(leftTuple), false, Boundary.LOWER);
+            }
+            return nextNode == null ? null : nextNode.getFirst();
+        }
+
+        public boolean isFullIterator() {
+            return true;
+        }
+    }
 }
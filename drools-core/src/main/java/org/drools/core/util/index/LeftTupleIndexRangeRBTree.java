@@ -8,6 +8,7 @@ import org.drools.core.util.RBTree;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.LeftTupleMemory;
 import org.drools.core.reteoo.RightTuple;
+import org.drools.core.reteoo.RightTupleMemory.IndexType;
 
 import java.io.Externalizable;
 import java.io.IOException;
@@ -148,13 +149,12 @@ public class LeftTupleIndexRangeRBTree implements LeftTupleMemory, Externalizabl
 
     public LeftTuple getFirst(RightTuple rightTuple) {
         Comparable key = getRightIndexedValue(rightTuple);
+        ((LeftTupleFastIterator) fastIterator()).rightKey = key;
         return getFirst(key);
     }
 
     public Iterator iterator() {
-        LeftTupleList list = tree.first().value.first().value;
-        LeftTuple firstTuple = list != null ? list.first : null;
-        return new FastIterator.IteratorAdapter(fastIterator(), firstTuple);
+        return new FastIterator.IteratorAdapter(fullFastIterator(), findFirstAscending(tree.first(), null));
     }
 
     public boolean contains(LeftTuple leftTuple) {
@@ -171,16 +171,16 @@ public class LeftTupleIndexRangeRBTree implements LeftTupleMemory, Externalizabl
     }
 
     public FastIterator fullFastIterator() {
-        if ( leftTupleFastIterator == null ) {
-            leftTupleFastIterator = new LeftTupleFastIterator();
-        }
-        return leftTupleFastIterator;
+        return new LeftTupleFullFastIterator();
     }
 
     public FastIterator fullFastIterator(LeftTuple leftTuple) {
-        FastIterator fastIterator = fullFastIterator();
-        fastIterator.next(getNext(leftTuple));
-        return fastIterator;
+        // the full iterator has no state, it resumes from the tuple passed to next
+        return fullFastIterator();
+    }
+
+    public IndexType getIndexType() {
+        return IndexType.RANGE;
     }
 
     private Comparable getLeftAscendingIndexedValue(LeftTuple leftTuple) {
@@ -196,102 +196,147 @@ public class LeftTupleIndexRangeRBTree implements LeftTupleMemory, Externalizabl
     }
 
     private LeftTuple getFirst(Comparable key) {
-        RBTree.Node<Comparable<Comparable>, RBTree<Comparable<Comparable>, LeftTupleList>> nestedNode = null;
-        RBTree.Node<Comparable<Comparable>, LeftTupleList> firstNode;
-
-        boolean findNextNestedNode = true;
-        while (true) {
-            if (findNextNestedNode) {
-                switch (ascendingConstraintType) {
-                    case GREATER_THAN:
-                        nestedNode = tree.findNearestNode(key, false, RBTree.Boundary.UPPER);
-                        break;
-                    case GREATER_OR_EQUAL:
-                        nestedNode = tree.findNearestNode(key, true, RBTree.Boundary.UPPER);
-                        break;
-                    default:
-                        throw new UnsupportedOperationException("Cannot call getNext constraint of type: " + ascendingConstraintType);
-                }
-            }
+        RBTree.Node<Comparable<Comparable>, RBTree<Comparable<Comparable>, LeftTupleList>> nestedNode;
+        switch (ascendingConstraintType) {
+            case GREATER_THAN:
+                nestedNode = tree.findNearestNode(key, false, RBTree.Boundary.UPPER);
+                break;
+            case GREATER_OR_EQUAL:
+                nestedNode = tree.findNearestNode(key, true, RBTree.Boundary.UPPER);
+                break;
+            default:
+                throw new UnsupportedOperationException("Cannot call getFirst constraint of type: " + ascendingConstraintType);
+        }
+        return findFirst(key, nestedNode, null);
+    }
 
-            findNextNestedNode = true;
-            if (nestedNode == null) {
-                return null;
-            }
-            if (nestedNode.value.isEmpty()) {
-                tree.delete(nestedNode.key);
-                continue;
-            }
+    private LeftTuple getNext(LeftTuple leftTuple, Comparable rightKey) {
+        LeftTuple next = (LeftTuple) leftTuple.getNext();
+        if (next != null) {
+            return next;
+        }
+        Comparable ascendingKey = getLeftAscendingIndexedValue(leftTuple);
+        return findFirst(rightKey,
+                         tree.findNearestNode(ascendingKey, true, RBTree.Boundary.UPPER),
+                         getLeftDescendingIndexedValue(leftTuple));
+    }
 
+    /**
+     * Returns the first tuple matching the given right key, looking in the nested tree of the given node
+     * after the given upper bound (or from the right key when it is null), and then in the nested trees
+     * of the nodes with a lower key.
+     */
+    private LeftTuple findFirst(Comparable rightKey,
+                                RBTree.Node<Comparable<Comparable>, RBTree<Comparable<Comparable>, LeftTupleList>> nestedNode,
+                                Comparable upperBound) {
+        while (nestedNode != null) {
             RBTree<Comparable<Comparable>, LeftTupleList> nestedTree = nestedNode.value;
-            while (true) {
+            RBTree.Node<Comparable<Comparable>, LeftTupleList> firstNode;
+            if (upperBound != null) {
+                firstNode = nestedTree.findNearestNode(upperBound, false, RBTree.Boundary.LOWER);
+            } else {
                 switch (descendingConstraintType) {
                     case LESS_THAN:
-                        firstNode = nestedTree.findNearestNode(key, false, RBTree.Boundary.LOWER);
+                        firstNode = nestedTree.findNearestNode(rightKey, false, RBTree.Boundary.LOWER);
                         break;
                     case LESS_OR_EQUAL:
-                        firstNode = nestedTree.findNearestNode(key, true, RBTree.Boundary.LOWER);
+                        firstNode = nestedTree.findNearestNode(rightKey, true, RBTree.Boundary.LOWER);
                         break;
                     default:
-                        throw new UnsupportedOperationException("Cannot call getNext constraint of type: " + descendingConstraintType);
-                }
-
-                if (firstNode != null && firstNode.value.size() == 0) {
-                    nestedTree.delete(firstNode.key);
-                    firstNode = null;
+                        throw new UnsupportedOperationException("Cannot call getFirst constraint of type: " + descendingConstraintType);
                 }
+            }
 
-                if (firstNode == null) {
-                    nestedNode = tree.findNearestNode(nestedNode.key, false, RBTree.Boundary.UPPER);
-                    if (nestedNode == null) {
-                        return null;
-                    }
-                    findNextNestedNode = false;
-                    break;
-                }
+            LeftTuple first = findFirstInNestedTree(nestedTree, firstNode);
+            if (first != null) {
+                return first;
+            }
 
-                return firstNode.value.getFirst();
+            // delete may move another node's key in this one, so keep the key to find the next node
+            Comparable key = nestedNode.key;
+            if (nestedTree.isEmpty()) {
+                tree.delete(key);
             }
+            nestedNode = tree.findNearestNode(key, false, RBTree.Boundary.UPPER);
+            upperBound = null;
         }
+        return null;
     }
 
-    private Entry getNext(LeftTuple leftTuple) {
-        LeftTuple next = (LeftTuple) leftTuple.getNext();
-        if (next != null) {
-            return next;
-        }
+    /**
+     * Returns the first tuple in ascending order, looking in the nested tree of the given node after
+     * the given upper bound (or from its first node when it is null), and then in the following nodes.
+     */
+    private LeftTuple findFirstAscending(RBTree.Node<Comparable<Comparable>, RBTree<Comparable<Comparable>, LeftTupleList>> nestedNode,
+                                         Comparable upperBound) {
+        while (nestedNode != null) {
+            RBTree<Comparable<Comparable>, LeftTupleList> nestedTree = nestedNode.value;
+            RBTree.Node<Comparable<Comparable>, LeftTupleList> firstNode = upperBound != null ?
+                                                                           nestedTree.findNearestNode(upperBound, false, RBTree.Boundary.LOWER) :
+                                                                           nestedTree.first();
 
-        Comparable ascendingKey = getLeftAscendingIndexedValue(leftTuple);
-        Comparable descendingKey = getLeftDescendingIndexedValue(leftTuple);
-
-        RBTree<Comparable<Comparable>, LeftTupleList> nestedTree = tree.lookup(ascendingKey);
-        while (nestedTree != null) {
-            while (true) {
-                RBTree.Node<Comparable<Comparable>, LeftTupleList> nextNode = nestedTree.findNearestNode(descendingKey, false, RBTree.Boundary.LOWER);
-                if (nextNode == null) {
-                    break;
-                }
-                if (nextNode.value.size() == 0) {
-                    nestedTree.delete(nextNode.key);
-                } else {
-                    return nextNode.value.getFirst();
-                }
+            LeftTuple first = findFirstInNestedTree(nestedTree, firstNode);
+            if (first != null) {
+                return first;
             }
 
-            RBTree.Node<Comparable<Comparable>, RBTree<Comparable<Comparable>, LeftTupleList>> nextNode = tree.findNearestNode(ascendingKey, false, RBTree.Boundary.UPPER);
-            nestedTree = nextNode == null ? null : nextNode.value;
+            Comparable key = nestedNode.key;
+            if (nestedTree.isEmpty()) {
+                tree.delete(key);
+            }
+            nestedNode = tree.findNearestNode(key, false, RBTree.Boundary.LOWER);
+            upperBound = null;
         }
+        return null;
+    }
 
+    private LeftTuple findFirstInNestedTree(RBTree<Comparable<Comparable>, LeftTupleList> nestedTree,
+                                            RBTree.Node<Comparable<Comparable>, LeftTupleList> node) {
+        while (node != null) {
+            if (node.value.size() > 0) {
+                return node.value.getFirst();
+            }
+            Comparable key = node.key;
+            nestedTree.delete(key);
+            node = nestedTree.findNearestNode(key, false, RBTree.Boundary.LOWER);
+        }
         return null;
     }
 
+    /**
+     * Iterates the tuples matching the right tuple given to getFirst.
+     */
     public class LeftTupleFastIterator implements FastIterator {
+        private Comparable rightKey;
+
         public Entry next(Entry object) {
-            return object == null ? null : getNext((LeftTuple) object);
+            return object == null ? null : getNext((LeftTuple) object, rightKey);
         }
 
         public boolean isFullIterator() {
             return false;
         }
-    }  
+    }
+
+    /**
+     * Iterates all the tuples in ascending order, starting from the one passed to next.
+     */
+    public class LeftTupleFullFastIterator implements FastIterator {
+        public Entry next(Entry object) {
+            if (object == null) {
+                return null;
+            }
+            LeftTuple leftTuple = (LeftTuple) object;
+            LeftTuple next = (LeftTuple) leftTuple.getNext();
+            if (next != null) {
+                return next;
+            }
+            return findFirstAscending(tree.findNearestNode(getLeftAscendingIndexedValue(leftTuple), true, RBTree.Boundary.UPPER),
+                                      getLeftDescendingIndexedValue(leftTuple));
+        }
+
+        public boolean isFullIterator() {
+            return true;
+        }
+    }
 }
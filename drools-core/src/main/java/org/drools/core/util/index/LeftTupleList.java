@@ -24,6 +24,7 @@ import org.drools.core.util.LinkedList;
 import org.drools.core.reteoo.LeftTuple;
 import org.drools.core.reteoo.LeftTupleMemory;
 import org.drools.core.reteoo.RightTuple;
+import org.drools.core.reteoo.RightTupleMemory.IndexType;
 
 public class LeftTupleList
     implements
@@ -204,6 +205,10 @@ public class LeftTupleList
         return LinkedList.fastIterator; // contains no state, so ok to be static
     }    
 
+    public IndexType getIndexType() {
+        return IndexType.NONE;
+    }
+
     public Iterator iterator() {
         if ( this.iterator == null ) {
             this.iterator = new TupleHashTableIterator();
@@ -111,7 +111,7 @@ public class RightTupleIndexRBTree implements RightTupleMemory, Externalizable {
     public Iterator iterator() {
         RightTupleList list = tree.first();
         RightTuple firstTuple = list != null ? list.first : null;
-        return new FastIterator.IteratorAdapter(fastIterator(), firstTuple);
+        return new FastIterator.IteratorAdapter(fullFastIterator(), firstTuple);
     }
 
     public boolean contains(RightTuple tuple) {
@@ -124,14 +124,12 @@ public class RightTupleIndexRBTree implements RightTupleMemory, Externalizable {
     }
 
     public FastIterator fullFastIterator() {
-        return new RightTupleFastIterator();
+        return new RightTupleFullFastIterator();
     }
 
     public FastIterator fullFastIterator(RightTuple tuple) {
-        FastIterator fastIterator = fullFastIterator();
-        Comparable key = getIndexedValue(tuple);
-        fastIterator.next(getNext(key, true));
-        return fastIterator;
+        // the full iterator has no state, it resumes from the tuple passed to next
+        return fullFastIterator();
     }
 
     public IndexType getIndexType() {
@@ -150,8 +148,7 @@ public class RightTupleIndexRBTree implements RightTupleMemory, Externalizable {
         Node<Comparable<Comparable>> firstNode;
         switch (constraintType) {
             case LESS_THAN:
-                //firstNode = tree.findNearestNode(key, false, Boundary.UPPER);
-                firstNode = tree.findNearestNode(key, false, first ? Boundary.UPPER : Boundary.LOWER);
+                firstNode = tree.findNearestNode(key, false, Boundary.UPPER);
                 break;
             case LESS_OR_EQUAL:
                 firstNode = tree.findNearestNode(key, first, Boundary.UPPER);
@@ -168,6 +165,15 @@ public class RightTupleIndexRBTree implements RightTupleMemory, Externalizable {
         return firstNode == null ? null : firstNode.getFirst();
     }
 
+    private static Comparable getNodeKey(RightTuple rightTuple) {
+        // the value of the fact may have changed since it was indexed, so use the key of its node
+        return ((Node<Comparable<Comparable>>) rightTuple.getMemory()).key;
+    }
+
+    /**
+     * Iterates the tuples matching the key given to getFirst, moving away from it
+     * in the direction of the constraint.
+     */
     public class RightTupleFastIterator implements FastIterator {
         public Entry next(Entry object) {
             if (object == null) {
@@ -179,12 +185,35 @@ public class RightTupleIndexRBTree implements RightTupleMemory, Externalizable {
             if (next != null) {
                 return next;
             }
-            Comparable key = getIndexedValue(rightTuple);
-            return getNext(key, false);
+            return getNext(getNodeKey(rightTuple), false);
         }
 
         public boolean isFullIterator() {
             return false;
         }
-    }  
+    }
+
+    /**
+     * Iterates all the tuples, in ascending key order.
+     */
+    public class RightTupleFullFastIterator implements FastIterator {
+        public Entry next(Entry object) {
+            Node<Comparable<Comparable>> nextNode;
+            if (object == null) {
+                nextNode = tree.first();
+            } else {
+                RightTuple rightTuple = (RightTuple) object;
+                RightTuple next = (RightTuple) rightTuple.getNext();
+                if (next != null) {
+                    return next;
+                }
+                nextNode = tree.findNearestNode(getNodeKey(rightTuple), false, Boundary.LOWER);
+            }
+            return nextNode == null ? null : nextNode.getFirst();
+        }
+
+        public boolean isFullIterator() {
+            return true;
+        }
+    }
 }
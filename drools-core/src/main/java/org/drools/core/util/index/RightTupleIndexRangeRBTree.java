@@ -69,7 +69,7 @@ public class RightTupleIndexRangeRBTree implements RightTupleMemory, Externaliza
         Comparable key = getRightIndexedValue(tuple);
         RightTupleList list = tree.lookup(key);
         if (list == null) {
-            list = new RightTupleList();
+            list = new KeyedRightTupleList(key);
             tree.insert(key, list);
         }
         list.add(tuple);
@@ -121,7 +121,7 @@ public class RightTupleIndexRangeRBTree implements RightTupleMemory, Externaliza
             tree.delete(key);
         }
 
-        return result.toArray(new LeftTuple[result.size()]);
+        return result.toArray(new RightTuple[result.size()]);
     }
 
     public RightTuple getFirst(LeftTuple leftTuple, InternalFactHandle factHandle, FastIterator rightTupleIterator) {
@@ -140,9 +140,12 @@ public class RightTupleIndexRangeRBTree implements RightTupleMemory, Externaliza
     }
 
     public Iterator iterator() {
-        RightTupleList list = tree.first().value;
-        RightTuple firstTuple = list != null ? list.first : null;
-        return new FastIterator.IteratorAdapter(fastIterator(), firstTuple);
+        RBTree.Node<Comparable<Comparable>, RightTupleList> firstNode = tree.first();
+        RightTuple firstTuple = null;
+        if (firstNode != null) {
+            firstTuple = firstNode.value.size() > 0 ? firstNode.value.getFirst() : getNext(firstNode.key, false);
+        }
+        return new FastIterator.IteratorAdapter(fullFastIterator(), firstTuple);
     }
 
     public boolean contains(RightTuple tuple) {
@@ -151,28 +154,23 @@ public class RightTupleIndexRangeRBTree implements RightTupleMemory, Externaliza
     }
 
     public FastIterator fastIterator() {
-        if ( rightTupleBoundedFastIterator != null ) {
+        if ( rightTupleBoundedFastIterator == null ) {
             rightTupleBoundedFastIterator = new RightTupleBoundedFastIterator();
         }
         return rightTupleBoundedFastIterator;
     }
 
     public FastIterator fullFastIterator() {
-        if ( rightTupleBoundedFastIterator != null ) {
-            rightTupleBoundedFastIterator = new RightTupleBoundedFastIterator();
-        }
-        return rightTupleBoundedFastIterator;
+        return new RightTupleFullFastIterator();
     }
 
     public FastIterator fullFastIterator(RightTuple tuple) {
-        FastIterator fastIterator = fullFastIterator();
-        Comparable key = getRightIndexedValue(tuple);
-        fastIterator.next(getNext(key, true));
-        return fastIterator;
+        // the full iterator has no state, it resumes from the tuple passed to next
+        return fullFastIterator();
     }
 
     public IndexType getIndexType() {
-        return IndexType.COMPARISON;
+        return IndexType.RANGE;
     }
 
     private RightTuple getNext(Comparable lowerBound, boolean first) {
@@ -189,6 +187,7 @@ public class RightTupleIndexRangeRBTree implements RightTupleMemory, Externaliza
                     throw new UnsupportedOperationException("Cannot call getNext constraint of type: " + ascendingConstraintType);
             }
             if (firstNode != null && firstNode.value.size() == 0) {
+                // delete may move another node's key in this one, so carry on from the bound
                 tree.delete(firstNode.key);
             } else {
                 break;
@@ -209,6 +208,19 @@ public class RightTupleIndexRangeRBTree implements RightTupleMemory, Externaliza
         return (Comparable) ascendingIndex.getExtractor().getValue( rightTuple.getFactHandle().getObject() );
     }
 
+    private static Comparable getListKey(RightTuple rightTuple) {
+        // the value of the fact may have changed since it was indexed, so use the key of its list
+        return ((KeyedRightTupleList) rightTuple.getMemory()).key;
+    }
+
+    private static class KeyedRightTupleList extends RightTupleList {
+        private final Comparable key;
+
+        private KeyedRightTupleList(Comparable key) {
+            this.key = key;
+        }
+    }
+
     public class RightTupleBoundedFastIterator implements FastIterator {
 
         private Comparable upperBound;
@@ -226,13 +238,33 @@ public class RightTupleIndexRangeRBTree implements RightTupleMemory, Externaliza
             if (next != null) {
                 return next;
             }
-            Comparable key = getRightIndexedValue(rightTuple);
-            next = getNext(key, false);
+            next = getNext(getListKey(rightTuple), false);
             return next == null ? null : checkUpperBound(next, upperBound);
         }
 
         public boolean isFullIterator() {
             return false;
         }
-    }    
+    }
+
+    /**
+     * Iterates all the tuples in ascending order, starting from the one passed to next.
+     */
+    public class RightTupleFullFastIterator implements FastIterator {
+        public Entry next(Entry object) {
+            if (object == null) {
+                return null;
+            }
+            RightTuple rightTuple = (RightTuple) object;
+            RightTuple next = (RightTuple) rightTuple.getNext();
+            if (next != null) {
+                return next;
+            }
+            return getNext(getListKey(rightTuple), false);
+        }
+
+        public boolean isFullIterator() {
+            return true;
+        }
+    }
 }
@@ -0,0 +1,99 @@
+package org.drools.core.common;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.RuleBaseFactory;
+import org.drools.core.reteoo.WindowNode.WindowMemory;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentNodeMemoriesTest {
+
+    private static class TestNode implements MemoryFactory {
+        private final int           id;
+        private final AtomicInteger created = new AtomicInteger();
+
+        private TestNode(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return this.id;
+        }
+
+        public Memory createMemory(RuleBaseConfiguration config, InternalWorkingMemory wm) {
+            this.created.incrementAndGet();
+            return new WindowMemory();
+        }
+    }
+
+    @Test
+    public void testMemoriesSurviveResize() {
+        InternalRuleBase ruleBase = (InternalRuleBase) RuleBaseFactory.newRuleBase();
+        assertMemoriesSurviveResize( new ConcurrentNodeMemories( ruleBase ) );
+        assertMemoriesSurviveResize( new SingleThreadedNodeMemories( ruleBase ) );
+    }
+
+    private void assertMemoriesSurviveResize(NodeMemories memories) {
+        TestNode node = new TestNode( 1 );
+        Memory memory = memories.getNodeMemory( node, null );
+        assertSame( memory, memories.getNodeMemory( node, null ) );
+
+        TestNode farNode = new TestNode( 1000 );
+        Memory farMemory = memories.getNodeMemory( farNode, null );
+        assertTrue( memories.length() > 1000 );
+        assertSame( memory, memories.peekNodeMemory( 1 ) );
+        assertSame( farMemory, memories.peekNodeMemory( 1000 ) );
+        assertEquals( 1, node.created.get() );
+
+        memories.clearNodeMemory( node );
+        assertNull( memories.peekNodeMemory( 1 ) );
+        assertNotSame( memory, memories.getNodeMemory( node, null ) );
+    }
+
+    @Test(timeout = 10000)
+    public void testConcurrentThreadsShareTheSameMemories() throws Exception {
+        final NodeMemories memories = new ConcurrentNodeMemories( (InternalRuleBase) RuleBaseFactory.newRuleBase() );
+        final TestNode[] nodes = new TestNode[500];
+        for ( int i = 0; i < nodes.length; i++ ) {
+            nodes[i] = new TestNode( i );
+        }
+
+        final Memory[][] seen = new Memory[4][nodes.length];
+        final CountDownLatch start = new CountDownLatch( 1 );
+        Thread[] threads = new Thread[seen.length];
+        for ( int t = 0; t < threads.length; t++ ) {
+            final int thread = t;
+            threads[t] = new Thread( new Runnable() {
+                public void run() {
+                    try {
+                        start.await();
+                    } catch ( InterruptedException e ) {
+                        return;
+                    }
+                    // half of the threads grow the table from the end
+                    for ( int i = 0; i < nodes.length; i++ ) {
+                        int id = thread % 2 == 0 ? i : nodes.length - 1 - i;
+                        seen[thread][id] = memories.getNodeMemory( nodes[id], null );
+                    }
+                }
+            } );
+            threads[t].start();
+        }
+        start.countDown();
+        for ( Thread thread : threads ) {
+            thread.join();
+        }
+
+        for ( int i = 0; i < nodes.length; i++ ) {
+            Memory memory = memories.peekNodeMemory( i );
+            assertNotNull( memory );
+            for ( Memory[] memoriesSeen : seen ) {
+                assertSame( memory, memoriesSeen[i] );
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package org.drools.core.common;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FiringNotifierTest {
+
+    @Test
+    public void testSignalsAreCoalesced() throws Exception {
+        FiringNotifier notifier = new FiringNotifier();
+        assertFalse( notifier.consume() );
+
+        notifier.signal();
+        notifier.signal();
+        notifier.signal();
+        // a pending signal doesn't park
+        notifier.await();
+
+        assertTrue( notifier.consume() );
+        assertFalse( notifier.consume() );
+        assertEquals( 1, notifier.getLatencyCount() );
+        assertTrue( notifier.getMaxLatency() >= 0 );
+
+        notifier.resetLatency();
+        assertEquals( 0, notifier.getLatencyCount() );
+        assertEquals( 0, notifier.getMaxLatency() );
+    }
+
+    @Test(timeout = 10000)
+    public void testSignalWakesUpTheWaiter() throws Exception {
+        final FiringNotifier notifier = new FiringNotifier();
+        final CountDownLatch woken = new CountDownLatch( 1 );
+
+        Thread waiter = new Thread( new Runnable() {
+            public void run() {
+                try {
+                    notifier.await();
+                    woken.countDown();
+                } catch ( InterruptedException e ) {
+                    // not expected, the latch fails the test
+                }
+            }
+        } );
+        waiter.start();
+
+        assertFalse( woken.await( 100, TimeUnit.MILLISECONDS ) );
+        notifier.signal();
+        assertTrue( woken.await( 5, TimeUnit.SECONDS ) );
+        waiter.join();
+
+        assertTrue( notifier.consume() );
+        assertTrue( notifier.getAverageLatency() > 0 );
+    }
+
+    @Test(timeout = 10000)
+    public void testInterruptStopsWaiting() throws Exception {
+        final FiringNotifier notifier = new FiringNotifier();
+        final CountDownLatch interrupted = new CountDownLatch( 1 );
+
+        Thread waiter = new Thread( new Runnable() {
+            public void run() {
+                try {
+                    notifier.await();
+                } catch ( InterruptedException e ) {
+                    interrupted.countDown();
+                }
+            }
+        } );
+        waiter.start();
+        waiter.interrupt();
+
+        assertTrue( interrupted.await( 5, TimeUnit.SECONDS ) );
+        waiter.join();
+        assertFalse( notifier.consume() );
+    }
+}
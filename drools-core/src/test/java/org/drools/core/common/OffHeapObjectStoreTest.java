@@ -0,0 +1,130 @@
+package org.drools.core.common;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.drools.core.RuleBaseConfiguration;
+import org.drools.core.RuleBaseConfiguration.AssertBehaviour;
+import org.drools.core.test.model.Cheese;
+import org.junit.Test;
+import org.kie.api.runtime.ObjectFilter;
+
+import static org.junit.Assert.*;
+
+public class OffHeapObjectStoreTest {
+
+    @Test
+    public void testIdentity() {
+        OffHeapObjectStore store = newStore( AssertBehaviour.IDENTITY );
+
+        Cheese stilton1 = new Cheese( "stilton", 10 );
+        Cheese stilton2 = new Cheese( "stilton", 10 );
+        InternalFactHandle handle1 = new DefaultFactHandle( 1, stilton1 );
+        InternalFactHandle handle2 = new DefaultFactHandle( 2, stilton2 );
+        store.addHandle( handle1, stilton1 );
+        store.addHandle( handle2, stilton2 );
+
+        assertEquals( 2, store.size() );
+        assertSame( handle1, store.getHandleForObject( stilton1 ) );
+        assertSame( handle2, store.getHandleForObject( stilton2 ) );
+        assertSame( handle2, store.getHandleForObjectIdentity( stilton2 ) );
+        assertNull( store.getHandleForObject( new Cheese( "stilton", 10 ) ) );
+        assertSame( stilton1, store.getObjectForHandle( handle1 ) );
+
+        store.removeHandle( handle1 );
+        assertEquals( 1, store.size() );
+        assertNull( store.getHandleForObject( stilton1 ) );
+        assertNull( store.getObjectForHandle( handle1 ) );
+        assertSame( handle2, store.getHandleForObject( stilton2 ) );
+    }
+
+    @Test
+    public void testEquality() {
+        OffHeapObjectStore store = newStore( AssertBehaviour.EQUALITY );
+
+        Cheese stilton = new Cheese( "stilton", 10 );
+        InternalFactHandle handle = new DefaultFactHandle( 1, stilton );
+        store.addHandle( handle, stilton );
+
+        assertSame( handle, store.getHandleForObject( new Cheese( "stilton", 10 ) ) );
+        assertNull( store.getHandleForObjectIdentity( new Cheese( "stilton", 10 ) ) );
+        assertSame( handle, store.getHandleForObjectIdentity( stilton ) );
+
+        Cheese brie = new Cheese( "brie", 10 );
+        store.updateHandle( handle, brie );
+        assertEquals( 1, store.size() );
+        assertNull( store.getHandleForObject( new Cheese( "stilton", 10 ) ) );
+        assertSame( handle, store.getHandleForObject( new Cheese( "brie", 10 ) ) );
+        assertSame( handle, store.getHandleForObjectIdentity( brie ) );
+        assertNull( store.getHandleForObjectIdentity( stilton ) );
+        assertSame( handle, store.reconnect( handle ) );
+
+        store.removeHandle( handle );
+        assertTrue( store.isEmpty() );
+        assertNull( store.getHandleForObject( brie ) );
+        assertNull( store.getHandleForObjectIdentity( brie ) );
+    }
+
+    @Test
+    public void testManyHandles() {
+        OffHeapObjectStore store = newStore( AssertBehaviour.EQUALITY );
+
+        // enough handles to span several slabs and resize the buckets a few times
+        final int count = OffHeapObjectStore.SLAB_SLOTS * 3;
+        InternalFactHandle[] handles = new InternalFactHandle[count];
+        for ( int i = 0; i < count; i++ ) {
+            Cheese cheese = new Cheese( "cheese" + i, i );
+            handles[i] = new DefaultFactHandle( i, cheese );
+            store.addHandle( handles[i], cheese );
+        }
+        assertEquals( count, store.size() );
+
+        for ( int i = 0; i < count; i += 2 ) {
+            store.removeHandle( handles[i] );
+        }
+        assertEquals( count / 2, store.size() );
+
+        // the freed slots are reused
+        for ( int i = 0; i < count; i += 2 ) {
+            Cheese cheese = new Cheese( "other" + i, i );
+            handles[i] = new DefaultFactHandle( count + i, cheese );
+            store.addHandle( handles[i], cheese );
+        }
+        assertEquals( count, store.size() );
+
+        for ( int i = 0; i < count; i++ ) {
+            Cheese cheese = (Cheese) handles[i].getObject();
+            assertSame( handles[i], store.getHandleForObject( new Cheese( cheese.getType(), cheese.getPrice() ) ) );
+            assertSame( cheese, store.getObjectForHandle( handles[i] ) );
+        }
+
+        Set<Object> iterated = new HashSet<Object>();
+        for ( Iterator it = store.iterateFactHandles(); it.hasNext(); ) {
+            iterated.add( it.next() );
+        }
+        assertEquals( count, iterated.size() );
+
+        int expensive = 0;
+        for ( Iterator it = store.iterateObjects( new ObjectFilter() {
+            public boolean accept(Object object) {
+                return ((Cheese) object).getPrice() >= count / 2;
+            }
+        } ); it.hasNext(); it.next() ) {
+            expensive++;
+        }
+        assertEquals( count / 2, expensive );
+
+        store.clear();
+        assertTrue( store.isEmpty() );
+        assertFalse( store.iterateObjects().hasNext() );
+    }
+
+    private OffHeapObjectStore newStore(AssertBehaviour behaviour) {
+        RuleBaseConfiguration conf = new RuleBaseConfiguration();
+        conf.setAssertBehaviour( behaviour );
+        return new OffHeapObjectStore( conf,
+                                       new ReentrantLock() );
+    }
+}
@@ -0,0 +1,120 @@
+package org.drools.core.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class AsyncEventDispatcherTest {
+
+    @Test(timeout = 10000)
+    public void testCallsAreDeliveredInOrderOnTheDispatcherThread() throws Exception {
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher( 16 );
+        final List<Integer> delivered = new ArrayList<Integer>();
+        final List<Thread> threads = new ArrayList<Thread>();
+        final CountDownLatch done = new CountDownLatch( 10 );
+
+        for ( int i = 0; i < 10; i++ ) {
+            final int n = i;
+            assertTrue( dispatcher.dispatch( new Runnable() {
+                public void run() {
+                    delivered.add( n );
+                    threads.add( Thread.currentThread() );
+                    done.countDown();
+                }
+            } ) );
+        }
+
+        assertTrue( done.await( 5, TimeUnit.SECONDS ) );
+        assertEquals( "[0, 1, 2, 3, 4, 5, 6, 7, 8, 9]", delivered.toString() );
+        assertFalse( threads.contains( Thread.currentThread() ) );
+        assertEquals( 0, dispatcher.getDroppedEvents() );
+
+        dispatcher.dispose();
+        assertFalse( dispatcher.dispatch( new Runnable() {
+            public void run() {
+            }
+        } ) );
+        assertEquals( 1, dispatcher.getDroppedEvents() );
+    }
+
+    @Test(timeout = 10000)
+    public void testCallsAreDroppedWhenTheBufferIsFull() throws Exception {
+        AsyncEventDispatcher dispatcher = new AsyncEventDispatcher( 4 );
+        final CountDownLatch blocked = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+
+        // holds the dispatcher thread, so that the next calls wait in the buffer
+        dispatcher.dispatch( new Runnable() {
+            public void run() {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch ( InterruptedException e ) {
+                    // disposed
+                }
+            }
+        } );
+        assertTrue( blocked.await( 5, TimeUnit.SECONDS ) );
+
+        Runnable call = new Runnable() {
+            public void run() {
+            }
+        };
+        for ( int i = 0; i < 4; i++ ) {
+            assertTrue( dispatcher.dispatch( call ) );
+        }
+        assertFalse( dispatcher.dispatch( call ) );
+        assertEquals( 1, dispatcher.getDroppedEvents() );
+        assertEquals( 4, dispatcher.getQueuedEvents() );
+
+        release.countDown();
+        dispatcher.dispose();
+        assertEquals( 0, dispatcher.getQueuedEvents() );
+    }
+
+    @Test(timeout = 10000)
+    public void testDisposeDeliversTheQueuedCallsWithoutInterrupting() throws Exception {
+        final AsyncEventDispatcher dispatcher = new AsyncEventDispatcher( 16 );
+        final CountDownLatch blocked = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        final List<Boolean> interrupted = new ArrayList<Boolean>();
+
+        dispatcher.dispatch( new Runnable() {
+            public void run() {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch ( InterruptedException e ) {
+                    interrupted.add( true );
+                }
+            }
+        } );
+        assertTrue( blocked.await( 5, TimeUnit.SECONDS ) );
+        for ( int i = 0; i < 3; i++ ) {
+            dispatcher.dispatch( new Runnable() {
+                public void run() {
+                    interrupted.add( Thread.currentThread().isInterrupted() );
+                }
+            } );
+        }
+
+        Thread disposer = new Thread( new Runnable() {
+            public void run() {
+                dispatcher.dispose();
+            }
+        } );
+        disposer.start();
+        // lets dispose stop the dispatcher while a call is still running
+        Thread.sleep( 100 );
+        release.countDown();
+        disposer.join();
+
+        assertEquals( "[false, false, false]", interrupted.toString() );
+        assertEquals( 0, dispatcher.getQueuedEvents() );
+    }
+}
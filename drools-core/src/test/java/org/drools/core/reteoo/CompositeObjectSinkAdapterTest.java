@@ -47,9 +47,11 @@ import java.math.BigDecimal;
 import java.math.BigInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 public class CompositeObjectSinkAdapterTest {
@@ -497,6 +499,83 @@ public class CompositeObjectSinkAdapterTest {
 
     }
 
+    @Test
+    public void testRangeIndexedAlphas() {
+        final CompositeObjectSinkAdapter ad = new CompositeObjectSinkAdapter();
+        InternalReadAccessor extractor = store.getReader( Cheese.class,
+                                                          "price",
+                                                          this.getClass().getClassLoader() );
+
+        final AlphaNode al1 = newPriceAlphaNode( "price > 10", 10, extractor );
+        final AlphaNode al2 = newPriceAlphaNode( "price > 20", 20, extractor );
+        final AlphaNode al3 = newPriceAlphaNode( "price < 15", 15, extractor );
+
+        ad.addObjectSink( al1 );
+        ad.addObjectSink( al2 );
+
+        // below the threshold the nodes are evaluated one by one
+        assertEquals( 2,
+                      ad.otherSinks.size() );
+        assertFalse( ad.getRangeIndexes().getFirst().isIndexed() );
+
+        ad.addObjectSink( al3 );
+
+        assertNull( ad.otherSinks );
+        assertTrue( ad.getRangeIndexes().getFirst().isIndexed() );
+        assertEquals( 3,
+                      ad.size() );
+
+        final MockObjectSink sink1 = new MockObjectSink();
+        al1.addObjectSink( sink1 );
+        final MockObjectSink sink2 = new MockObjectSink();
+        al2.addObjectSink( sink2 );
+        final MockObjectSink sink3 = new MockObjectSink();
+        al3.addObjectSink( sink3 );
+
+        ad.propagateAssertObject( newCheeseHandle( 12 ), null, null );
+        assertEquals( 1, sink1.getAsserted().size() );
+        assertEquals( 0, sink2.getAsserted().size() );
+        assertEquals( 1, sink3.getAsserted().size() );
+
+        // the bounds are exclusive
+        ad.propagateAssertObject( newCheeseHandle( 20 ), null, null );
+        assertEquals( 2, sink1.getAsserted().size() );
+        assertEquals( 0, sink2.getAsserted().size() );
+        assertEquals( 1, sink3.getAsserted().size() );
+
+        ad.propagateAssertObject( newCheeseHandle( 5 ), null, null );
+        assertEquals( 2, sink1.getAsserted().size() );
+        assertEquals( 0, sink2.getAsserted().size() );
+        assertEquals( 2, sink3.getAsserted().size() );
+
+        //now remove one, check the indexing is undone
+        ad.removeObjectSink( al2 );
+        assertEquals( 2,
+                      ad.otherSinks.size() );
+        assertFalse( ad.getRangeIndexes().getFirst().isIndexed() );
+
+        ad.removeObjectSink( al1 );
+        ad.removeObjectSink( al3 );
+        assertNull( ad.getRangeIndexes() );
+    }
+
+    private AlphaNode newPriceAlphaNode(String expression, long price, InternalReadAccessor extractor) {
+        final MvelConstraint constraint = new MvelConstraintTestUtil( expression,
+                                                                      new LongFieldImpl( price ),
+                                                                      extractor );
+        return new AlphaNode( buildContext.getNextId(),
+                              constraint,
+                              new MockObjectSource( buildContext.getNextId() ),
+                              buildContext );
+    }
+
+    private InternalFactHandle newCheeseHandle(int price) {
+        return new ReteooFactHandleFactory().newFactHandle( new Cheese( "stilton", price ),
+                                                            null,
+                                                            null,
+                                                            new DisconnectedWorkingMemoryEntryPoint( "DEFAULT" ) );
+    }
+
     public static class MockExtractor
         implements
         InternalReadAccessor {
@@ -0,0 +1,82 @@
+package org.drools.core.reteoo;
+
+import org.drools.core.common.DefaultFactHandle;
+import org.drools.core.common.InternalFactHandle;
+import org.drools.core.test.model.Cheese;
+import org.drools.core.util.index.LeftTupleList;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LeftTupleLayoutTest {
+
+    @Test
+    public void testTerminalTupleLinksToItsParents() {
+        InternalFactHandle stilton = new DefaultFactHandle( 1, new Cheese( "stilton", 10 ) );
+        InternalFactHandle brie = new DefaultFactHandle( 2, new Cheese( "brie", 10 ) );
+
+        LeftTuple parent = new LeftTupleImpl( stilton, null, true );
+        RightTuple rightTuple = new RightTuple( brie, null );
+
+        LeftTuple child1 = new RuleTerminalNodeLeftTuple( parent, rightTuple, null, true );
+        LeftTuple child2 = new RuleTerminalNodeLeftTuple( parent, rightTuple, null, true );
+
+        assertSame( child1, parent.getFirstChild() );
+        assertSame( child2, parent.getLastChild() );
+        assertSame( child1, rightTuple.getFirstChild() );
+        assertSame( child2, child1.getLeftParentNext() );
+        assertSame( child2, child1.getRightParentNext() );
+        assertSame( brie, child1.get( 1 ) );
+        assertSame( stilton, child1.get( 0 ) );
+
+        child1.unlinkFromRightParent();
+        child1.unlinkFromLeftParent();
+        assertSame( child2, parent.getFirstChild() );
+        assertSame( child2, rightTuple.getFirstChild() );
+
+        child2.unlinkFromRightParent();
+        child2.unlinkFromLeftParent();
+        assertNull( parent.getFirstChild() );
+        assertNull( rightTuple.getLastChild() );
+    }
+
+    @Test
+    public void testTerminalTupleHasNoChildrenNorMemory() {
+        InternalFactHandle stilton = new DefaultFactHandle( 1, new Cheese( "stilton", 10 ) );
+        LeftTuple leftTuple = new RuleTerminalNodeLeftTuple( stilton, null, true );
+
+        assertNull( leftTuple.getFirstChild() );
+        assertNull( leftTuple.getLastChild() );
+        assertNull( leftTuple.getMemory() );
+        assertNull( leftTuple.getNext() );
+
+        // the links are cleared for every tuple when it is unlinked
+        leftTuple.setFirstChild( null );
+        leftTuple.setLastChild( null );
+        leftTuple.setMemory( null );
+        leftTuple.setPrevious( null );
+        leftTuple.setNext( null );
+        assertNull( leftTuple.getFirstChild() );
+        assertNull( leftTuple.getMemory() );
+
+        boolean assertionsEnabled = false;
+        assert assertionsEnabled = true;
+        if ( !assertionsEnabled ) {
+            return;
+        }
+
+        try {
+            leftTuple.setFirstChild( new LeftTupleImpl( stilton, null, false ) );
+            fail( "A terminal tuple can't have children" );
+        } catch ( AssertionError e ) {
+            // expected
+        }
+
+        try {
+            new LeftTupleList().add( leftTuple );
+            fail( "A terminal tuple can't be stored in a node memory" );
+        } catch ( AssertionError e ) {
+            // expected
+        }
+    }
+}
@@ -140,7 +140,7 @@ public class ObjectTypeNodeTest extends DroolsTestCase {
         final ObjectTypeNodeMemory memory = (ObjectTypeNodeMemory) workingMemory.getNodeMemory( objectTypeNode );
         assertEquals( 1,
                       memory.memory.size() );
-        assertTrue( memory.memory.contains( handle1 ) );
+        assertTrue( memory.memory.containsKey( handle1.getId() ) );
     }
     
     @Test
@@ -405,7 +405,7 @@ public class ObjectTypeNodeTest extends DroolsTestCase {
         final ObjectTypeNodeMemory memory = (ObjectTypeNodeMemory) workingMemory.getNodeMemory( objectTypeNode );
         assertEquals( 1,
                       memory.memory.size() );
-        assertTrue( memory.memory.contains( handle1 ) );
+        assertTrue( memory.memory.containsKey( handle1.getId() ) );
     }
 
     @Test
@@ -456,7 +456,7 @@ public class ObjectTypeNodeTest extends DroolsTestCase {
         final ObjectTypeNodeMemory memory = (ObjectTypeNodeMemory) workingMemory.getNodeMemory( objectTypeNode );
         assertEquals( 1,
                       memory.memory.size() );
-        assertTrue( memory.memory.contains( handle1 ) );
+        assertTrue( memory.memory.containsKey( handle1.getId() ) );
     }
 
 }
@@ -0,0 +1,85 @@
+package org.drools.core.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.drools.core.test.model.Cheese;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class IntHashMapTest {
+
+    @Test
+    public void testPutGetRemove() {
+        IntHashMap<Cheese> map = new IntHashMap<Cheese>();
+        Cheese stilton = new Cheese( "stilton", 5 );
+        Cheese cheddar = new Cheese( "cheddar", 5 );
+
+        assertNull( map.put( 1, stilton ) );
+        assertSame( stilton, map.get( 1 ) );
+        assertTrue( map.containsKey( 1 ) );
+        assertFalse( map.containsKey( 2 ) );
+        assertEquals( 1, map.size() );
+
+        assertSame( stilton, map.put( 1, cheddar ) );
+        assertSame( cheddar, map.get( 1 ) );
+        assertEquals( 1, map.size() );
+
+        assertSame( cheddar, map.remove( 1 ) );
+        assertNull( map.remove( 1 ) );
+        assertNull( map.get( 1 ) );
+        assertTrue( map.isEmpty() );
+    }
+
+    @Test
+    public void testNegativeKeys() {
+        IntHashMap<String> map = new IntHashMap<String>();
+        map.put( -1, "minus one" );
+        map.put( Integer.MIN_VALUE, "min" );
+        map.put( 0, "zero" );
+
+        assertEquals( "minus one", map.get( -1 ) );
+        assertEquals( "min", map.get( Integer.MIN_VALUE ) );
+        assertEquals( "zero", map.get( 0 ) );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullValue() {
+        new IntHashMap<String>().put( 1, null );
+    }
+
+    @Test
+    public void testRandomOperations() {
+        // checks the backward shifting of the removals against a HashMap, with colliding keys
+        IntHashMap<Integer> map = new IntHashMap<Integer>();
+        Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        Random random = new Random( 0 );
+        for ( int i = 0; i < 100000; i++ ) {
+            int key = random.nextInt( 2000 ) * 64;
+            if ( random.nextInt( 3 ) == 0 ) {
+                assertEquals( expected.remove( key ), map.remove( key ) );
+            } else {
+                assertEquals( expected.put( key, i ), map.put( key, i ) );
+            }
+            assertEquals( expected.size(), map.size() );
+        }
+
+        for ( int key = 0; key < 2000 * 64; key += 64 ) {
+            assertEquals( expected.get( key ), map.get( key ) );
+        }
+
+        int count = 0;
+        Iterator<Integer> it = map.iterator();
+        for ( Integer value = it.next(); value != null; value = it.next() ) {
+            assertTrue( expected.containsValue( value ) );
+            count++;
+        }
+        assertEquals( expected.size(), count );
+
+        map.clear();
+        assertTrue( map.isEmpty() );
+        assertNull( map.iterator().next() );
+    }
+}
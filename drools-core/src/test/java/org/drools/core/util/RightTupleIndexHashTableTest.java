@@ -41,6 +41,7 @@ import java.util.List;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class RightTupleIndexHashTableTest {
 
@@ -626,4 +627,62 @@ public class RightTupleIndexHashTableTest {
                                                  true ), stiltonHandle, null ) );
     }
 
+    @Test
+    public void testPrimitiveIntIndex() throws Exception {
+        final InternalReadAccessor extractor = store.getReader( Cheese.class,
+                                                                "price",
+                                                                getClass().getClassLoader() );
+
+        final Pattern pattern = new Pattern( 0,
+                                             new ClassObjectType( Cheese.class ) );
+
+        final Declaration declaration = new Declaration( "priceOfCheese",
+                                                         extractor,
+                                                         pattern );
+
+        final FieldIndex fieldIndex = new FieldIndex( extractor,
+                                                      declaration,
+                                                      MvelConstraint.INDEX_EVALUATOR );
+
+        final RightTupleIndexHashTable map = new RightTupleIndexHashTable( new FieldIndex[]{fieldIndex} );
+        assertTrue( map.getIndex() instanceof AbstractHashTable.IntIndex );
+
+        final Cheese stilton = new Cheese( "stilton",
+                                           35 );
+        RightTuple stiltonRightTuple = new RightTuple( new DefaultFactHandle( 1,
+                                                                              stilton ),
+                                                       null );
+        map.add( stiltonRightTuple );
+
+        final Cheese cheddar = new Cheese( "cheddar",
+                                           35 );
+        RightTuple cheddarRightTuple = new RightTuple( new DefaultFactHandle( 2,
+                                                                              cheddar ),
+                                                       null );
+        map.add( cheddarRightTuple );
+
+        final Cheese brie = new Cheese( "brie",
+                                        20 );
+        map.add( new RightTuple( new DefaultFactHandle( 3,
+                                                        brie ),
+                                 null ) );
+
+        assertEquals( 3,
+                      map.size() );
+        assertEquals( 2,
+                      tablePopulationSize( map ) );
+
+        final InternalFactHandle gorgonzolaHandle = new DefaultFactHandle( 4,
+                                                                           new Cheese( "gorgonzola",
+                                                                                       35 ) );
+        final RightTupleList list = map.get( new LeftTupleImpl( gorgonzolaHandle,
+                                                                null,
+                                                                true ), gorgonzolaHandle );
+        assertSame( stiltonRightTuple,
+                    list.first );
+        assertSame( cheddarRightTuple,
+                    list.first.getNext() );
+        assertNull( list.first.getNext().getNext() );
+    }
+
 }
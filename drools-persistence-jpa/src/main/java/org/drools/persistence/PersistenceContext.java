@@ -1,5 +1,8 @@
 package org.drools.persistence;
 
+import java.util.List;
+
+import org.drools.persistence.info.SessionDeltaInfo;
 import org.drools.persistence.info.SessionInfo;
 import org.drools.persistence.info.WorkItemInfo;
 
@@ -25,4 +28,10 @@ public interface PersistenceContext {
 
     WorkItemInfo merge(WorkItemInfo workItemInfo);
 
+    void persist(SessionDeltaInfo sessionDeltaInfo);
+
+    List<SessionDeltaInfo> findSessionDeltas(Integer sessionId);
+
+    void removeSessionDeltas(Integer sessionId);
+
 }
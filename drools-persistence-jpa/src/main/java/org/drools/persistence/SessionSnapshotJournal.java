@@ -0,0 +1,100 @@
+package org.drools.persistence;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import org.drools.core.common.InternalKnowledgeRuntime;
+import org.drools.persistence.info.SessionDeltaInfo;
+import org.drools.persistence.info.SessionInfo;
+
+/**
+ * Keeps a persistent session in its SessionInfo as a full snapshot, the checkpoint, followed
+ * by the binary deltas of the snapshots taken at the end of each transaction.
+ *
+ * The session is still marshalled at the end of each transaction, but only the delta from the
+ * previous snapshot is written, in a new SessionDeltaInfo, while only the version of the SessionInfo
+ * is incremented, so a delta and a checkpoint committed concurrently conflict. After checkpointInterval
+ * deltas the next snapshot is stored in the SessionInfo and the deltas are removed. Loading the session
+ * applies the deltas to the checkpoint, in sequence order.
+ */
+public class SessionSnapshotJournal {
+
+    private final SessionMarshallingHelper helper;
+    private final int                      checkpointInterval;
+
+    // the last snapshot written, the one the next delta is computed against
+    private byte[]                         snapshot;
+    private int                            sequenceNumber;
+    private int                            deltas;
+
+    public SessionSnapshotJournal(SessionMarshallingHelper helper,
+                                  int checkpointInterval) {
+        this.helper = helper;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Returns the snapshot of the session, applying the journaled deltas to its checkpoint.
+     */
+    public byte[] recover(SessionInfo sessionInfo,
+                          PersistenceContext persistenceContext) {
+        byte[] data = sessionInfo.getData();
+        List<SessionDeltaInfo> sessionDeltas = persistenceContext.findSessionDeltas( sessionInfo.getId() );
+        this.sequenceNumber = 0;
+        for ( SessionDeltaInfo delta : sessionDeltas ) {
+            try {
+                data = SnapshotDelta.patch( data,
+                                            delta.getData() );
+            } catch ( RuntimeException e ) {
+                throw new RuntimeException( "Unable to apply delta " + delta.getSequenceNumber() + " to session " + sessionInfo.getId(),
+                                            e );
+            }
+            this.sequenceNumber = delta.getSequenceNumber();
+        }
+        this.snapshot = data;
+        this.deltas = sessionDeltas.size();
+        return data;
+    }
+
+    /**
+     * Stores the current snapshot of the session in the SessionInfo.
+     */
+    public void checkpoint(SessionInfo sessionInfo) {
+        checkpoint( sessionInfo,
+                    this.helper.getSnapshot() );
+    }
+
+    /**
+     * Writes the changes made to the session since the previous call, either as a new delta or,
+     * once checkpointInterval deltas have been written, as a new checkpoint.
+     */
+    public void journal(SessionInfo sessionInfo,
+                        PersistenceContext persistenceContext) {
+        byte[] next = this.helper.getSnapshot();
+        if ( Arrays.equals( next, this.snapshot ) ) {
+            return;
+        }
+
+        if ( this.deltas >= this.checkpointInterval ) {
+            persistenceContext.removeSessionDeltas( sessionInfo.getId() );
+            checkpoint( sessionInfo,
+                        next );
+        } else {
+            persistenceContext.persist( new SessionDeltaInfo( sessionInfo.getId(),
+                                                              ++this.sequenceNumber,
+                                                              SnapshotDelta.diff( this.snapshot,
+                                                                                  next ) ) );
+            this.snapshot = next;
+            this.deltas++;
+        }
+    }
+
+    private void checkpoint(SessionInfo sessionInfo,
+                            byte[] data) {
+        sessionInfo.setData( data );
+        sessionInfo.setLastModificationDate( new Date( ((InternalKnowledgeRuntime) this.helper.getObject()).getLastIdleTimestamp() ) );
+        this.snapshot = data;
+        this.deltas = 0;
+    }
+}
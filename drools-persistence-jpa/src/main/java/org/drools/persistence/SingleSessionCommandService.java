@@ -38,6 +38,7 @@ import org.drools.persistence.info.SessionInfo;
 import org.drools.persistence.jpa.JpaPersistenceContextManager;
 import org.drools.persistence.jpa.processinstance.JPAWorkItemManager;
 import org.drools.persistence.jta.JtaTransactionManager;
+import org.drools.persistence.map.NonTransactionalPersistentSession;
 import org.drools.core.runtime.process.InternalProcessRuntime;
 import org.drools.core.time.AcceptsTimerJobFactoryManager;
 import org.kie.api.KieBase;
@@ -60,6 +61,7 @@ public class SingleSessionCommandService
 
     private SessionInfo                sessionInfo;
     private SessionMarshallingHelper   marshallingHelper;
+    private SessionSnapshotJournal     journal;
 
     private KieSession                 ksession;
     private Environment                env;
@@ -125,6 +127,9 @@ public class SingleSessionCommandService
             registerRollbackSync();
 
             persistenceContext.joinTransaction();
+            if ( this.journal != null ) {
+                this.journal.checkpoint( this.sessionInfo );
+            }
             persistenceContext.persist( this.sessionInfo );
 
             txm.commit( transactionOwner );
@@ -157,8 +162,12 @@ public class SingleSessionCommandService
         config.setMarshallWorkItems( false );
 
         this.sessionInfo.setJPASessionMashallingHelper( this.marshallingHelper );
-        
-        ((InternalKnowledgeRuntime) this.ksession).setEndOperationListener( new EndOperationListenerImpl( this.sessionInfo ) );
+
+        initSnapshotJournal( conf );
+
+        if ( this.journal == null ) {
+            ((InternalKnowledgeRuntime) this.ksession).setEndOperationListener( new EndOperationListenerImpl( this.sessionInfo ) );
+        }
         
         this.kContext = new FixedKnowledgeCommandContext( null,
                                                           null,
@@ -243,24 +252,36 @@ public class SingleSessionCommandService
                     this.marshallingHelper.getMarshaller().getMarshallingConfiguration();
             config.setMarshallProcessInstances( false );
             config.setMarshallWorkItems( false );
+
+            initSnapshotJournal( conf );
         }
 
         this.sessionInfo.setJPASessionMashallingHelper( this.marshallingHelper );
+        this.sessionInfo.setSnapshotJournal( this.journal );
 
         // The CommandService for the TimerJobFactoryManager must be set before any timer jobs are scheduled. 
         // Otherwise, if overdue jobs are scheduled (and then run before the .commandService field can be set), 
         //  they will retrieve a null commandService (instead of a reference to this) and fail.
         ((SessionConfiguration) conf).getTimerJobFactoryManager().setCommandService(this);
 
+        byte[] data = this.sessionInfo.getData();
+        if ( this.journal != null ) {
+            data = this.journal.recover( this.sessionInfo,
+                                         persistenceContext );
+        }
+
         // if this.ksession is null, it'll create a new one, else it'll use the existing one
         this.ksession = (StatefulKnowledgeSession)
-    		this.marshallingHelper.loadSnapshot( this.sessionInfo.getData(),
+    		this.marshallingHelper.loadSnapshot( data,
                                                  this.ksession );
 
         // update the session id to be the same as the session info id
         ((InternalKnowledgeRuntime) ksession).setId( this.sessionInfo.getId() );
 
-        ((InternalKnowledgeRuntime) this.ksession).setEndOperationListener( new EndOperationListenerImpl( this.sessionInfo ) );
+        if ( this.journal == null ) {
+            // with the journal the SessionInfo is only updated at the checkpoints
+            ((InternalKnowledgeRuntime) this.ksession).setEndOperationListener( new EndOperationListenerImpl( this.sessionInfo ) );
+        }
 
         if ( this.kContext == null ) {
             // this should only happen when this class is first constructed
@@ -274,6 +295,20 @@ public class SingleSessionCommandService
         this.commandService = new DefaultCommandService(kContext);
     }
 
+    private void initSnapshotJournal(KieSessionConfiguration conf) {
+        int checkpointInterval = ((SessionConfiguration) conf).getCheckpointInterval();
+        if ( checkpointInterval > 0 ) {
+            if ( this.jpm.getApplicationScopedPersistenceContext() instanceof NonTransactionalPersistentSession ) {
+                // a KnowledgeSessionStorage only stores the SessionInfo, the deltas would be lost
+                throw new IllegalArgumentException( "drools.persistence.checkpointInterval is not supported by the map based persistence, " +
+                                                    "it must be 0 when the session is stored in a KnowledgeSessionStorage" );
+            }
+            this.journal = new SessionSnapshotJournal( this.marshallingHelper,
+                                                       checkpointInterval );
+            this.sessionInfo.setSnapshotJournal( this.journal );
+        }
+    }
+
     public void initTransactionManager(Environment env) {
         Object tm = env.get( EnvironmentName.TRANSACTION_MANAGER );
         if ( env.get( EnvironmentName.PERSISTENCE_CONTEXT_MANAGER ) != null &&
@@ -376,6 +411,11 @@ public class SingleSessionCommandService
                 result = commandService.execute( (GenericCommand<T>) command );
             }
 
+            if ( this.journal != null ) {
+                this.journal.journal( this.sessionInfo,
+                                      persistenceContext );
+            }
+
             txm.commit( transactionOwner );
 
             return result;
@@ -431,6 +471,9 @@ public class SingleSessionCommandService
                     this.marshallingHelper.getConf(),
                     persistenceContext );
 
+            if ( this.journal != null ) {
+                persistenceContext.removeSessionDeltas( this.sessionInfo.getId() );
+            }
             persistenceContext.remove(this.sessionInfo);
 
             txm.commit( transactionOwner );
@@ -0,0 +1,188 @@
+package org.drools.persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.zip.CRC32;
+
+/**
+ * Computes and applies the binary deltas between two snapshots of the same session.
+ *
+ * The base snapshot is split in blocks of BLOCK_SIZE bytes, indexed by a rolling checksum,
+ * and the target snapshot is scanned one byte at a time looking for blocks of the base, as
+ * rsync does. Each match is extended as far as both snapshots agree, and it is written as
+ * a copy of the base, while the bytes not found in the base are written as they are. So a
+ * command changing a few facts of a big session produces a delta of a few blocks, even if
+ * the changes shift the rest of the snapshot.
+ *
+ * A delta starts with the length and the CRC32 of the base snapshot it was computed against,
+ * and applying it to any other snapshot fails.
+ */
+public final class SnapshotDelta {
+
+    public static final int     BLOCK_SIZE = 128;
+
+    private static final byte   COPY       = 0;
+    private static final byte   LITERAL    = 1;
+
+    private SnapshotDelta() {
+    }
+
+    public static byte[] diff(byte[] base,
+                              byte[] target) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream( bytes );
+        try {
+            out.writeInt( base.length );
+            out.writeLong( checksum( base ) );
+            out.writeInt( target.length );
+
+            int blocks = base.length / BLOCK_SIZE;
+            int literalStart = 0;
+
+            if ( blocks > 0 && target.length >= BLOCK_SIZE ) {
+                // block index + 1 by checksum, 0 is an empty slot. Colliding blocks just overwrite each other.
+                int[] table = new int[Integer.highestOneBit( blocks ) << 2];
+                int mask = table.length - 1;
+                for ( int i = 0; i < blocks; i++ ) {
+                    int offset = i * BLOCK_SIZE;
+                    table[hash( sumOf( base, offset ), weightedSumOf( base, offset ) ) & mask] = i + 1;
+                }
+
+                int pos = 0;
+                int a = sumOf( target, pos );
+                int b = weightedSumOf( target, pos );
+                while ( pos + BLOCK_SIZE <= target.length ) {
+                    int block = table[hash( a, b ) & mask];
+                    if ( block != 0 && matches( base, (block - 1) * BLOCK_SIZE, target, pos, BLOCK_SIZE ) ) {
+                        int from = (block - 1) * BLOCK_SIZE;
+                        // the bytes before the block may match the base as well
+                        while ( pos > literalStart && from > 0 && base[from - 1] == target[pos - 1] ) {
+                            pos--;
+                            from--;
+                        }
+                        int length = 0;
+                        while ( from + length < base.length && pos + length < target.length && base[from + length] == target[pos + length] ) {
+                            length++;
+                        }
+
+                        writeLiteral( out, target, literalStart, pos );
+                        out.writeByte( COPY );
+                        out.writeInt( from );
+                        out.writeInt( length );
+
+                        pos += length;
+                        literalStart = pos;
+                        if ( pos + BLOCK_SIZE <= target.length ) {
+                            a = sumOf( target, pos );
+                            b = weightedSumOf( target, pos );
+                        }
+                    } else {
+                        if ( pos + BLOCK_SIZE < target.length ) {
+                            int removed = target[pos] & 0xff;
+                            int added = target[pos + BLOCK_SIZE] & 0xff;
+                            a = a - removed + added;
+                            b = b - BLOCK_SIZE * removed + a;
+                        }
+                        pos++;
+                    }
+                }
+            }
+
+            writeLiteral( out, target, literalStart, target.length );
+            out.flush();
+        } catch ( IOException e ) {
+            throw new RuntimeException( "Unable to compute session snapshot delta",
+                                        e );
+        }
+        return bytes.toByteArray();
+    }
+
+    public static byte[] patch(byte[] base,
+                               byte[] delta) {
+        DataInputStream in = new DataInputStream( new ByteArrayInputStream( delta ) );
+        try {
+            if ( in.readInt() != base.length || in.readLong() != checksum( base ) ) {
+                throw new RuntimeException( "The session snapshot delta was computed against a different snapshot" );
+            }
+            byte[] target = new byte[in.readInt()];
+            int pos = 0;
+            while ( pos < target.length ) {
+                byte op = in.readByte();
+                if ( op == COPY ) {
+                    int from = in.readInt();
+                    int length = in.readInt();
+                    System.arraycopy( base, from, target, pos, length );
+                    pos += length;
+                } else if ( op == LITERAL ) {
+                    int length = in.readInt();
+                    in.readFully( target, pos, length );
+                    pos += length;
+                } else {
+                    throw new RuntimeException( "Unknown operation " + op + " in session snapshot delta" );
+                }
+            }
+            return target;
+        } catch ( IOException e ) {
+            throw new RuntimeException( "Unable to apply session snapshot delta",
+                                        e );
+        }
+    }
+
+    private static void writeLiteral(DataOutputStream out,
+                                     byte[] target,
+                                     int start,
+                                     int end) throws IOException {
+        if ( end > start ) {
+            out.writeByte( LITERAL );
+            out.writeInt( end - start );
+            out.write( target, start, end - start );
+        }
+    }
+
+    private static boolean matches(byte[] base,
+                                   int from,
+                                   byte[] target,
+                                   int pos,
+                                   int length) {
+        for ( int i = 0; i < length; i++ ) {
+            if ( base[from + i] != target[pos + i] ) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int sumOf(byte[] bytes,
+                             int offset) {
+        int a = 0;
+        for ( int i = 0; i < BLOCK_SIZE; i++ ) {
+            a += bytes[offset + i] & 0xff;
+        }
+        return a;
+    }
+
+    private static int weightedSumOf(byte[] bytes,
+                                     int offset) {
+        int b = 0;
+        for ( int i = 0; i < BLOCK_SIZE; i++ ) {
+            b += (BLOCK_SIZE - i) * (bytes[offset + i] & 0xff);
+        }
+        return b;
+    }
+
+    private static int hash(int a,
+                            int b) {
+        int h = (a & 0xffff) | (b << 16);
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static long checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update( bytes );
+        return crc.getValue();
+    }
+}
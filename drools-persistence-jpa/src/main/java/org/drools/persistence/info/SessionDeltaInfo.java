@@ -0,0 +1,72 @@
+package org.drools.persistence.info;
+
+import java.util.Date;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+/**
+ * A delta journaled by a persistent session, that turns the session snapshot left by the
+ * previous delta (or by the last checkpoint, stored in the SessionInfo) into the next one.
+ *
+ * The unique constraint on the session id and the sequence number makes two sessions
+ * loaded from the same state fail to commit concurrently, as the SessionInfo version does
+ * when every transaction writes a full snapshot.
+ */
+@Entity
+@SequenceGenerator(name="sessionDeltaInfoIdSeq", sequenceName="SESSIONDELTAINFO_ID_SEQ")
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = { "sessionId", "sequenceNumber" }))
+public class SessionDeltaInfo {
+
+    private @Id
+    @GeneratedValue(strategy = GenerationType.AUTO, generator="sessionDeltaInfoIdSeq")
+    Long                       id;
+
+    private Integer            sessionId;
+    private int                sequenceNumber;
+    private Date               creationDate;
+
+    @Lob
+    @Column(length=2147483647)
+    private byte[]             deltaByteArray;
+
+    protected SessionDeltaInfo() {
+    }
+
+    public SessionDeltaInfo(Integer sessionId,
+                            int sequenceNumber,
+                            byte[] data) {
+        this.sessionId = sessionId;
+        this.sequenceNumber = sequenceNumber;
+        this.deltaByteArray = data;
+        this.creationDate = new Date();
+    }
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public Integer getSessionId() {
+        return this.sessionId;
+    }
+
+    public int getSequenceNumber() {
+        return this.sequenceNumber;
+    }
+
+    public Date getCreationDate() {
+        return this.creationDate;
+    }
+
+    public byte[] getData() {
+        return this.deltaByteArray;
+    }
+
+}
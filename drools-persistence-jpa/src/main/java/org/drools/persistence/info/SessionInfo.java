@@ -15,6 +15,7 @@ import javax.persistence.Transient;
 import javax.persistence.Version;
 
 import org.drools.persistence.SessionMarshallingHelper;
+import org.drools.persistence.SessionSnapshotJournal;
 
 @Entity
 @SequenceGenerator(name="sessionInfoIdSeq", sequenceName="SESSIONINFO_ID_SEQ")
@@ -37,6 +38,9 @@ public class SessionInfo {
 
     @Transient
     SessionMarshallingHelper helper;
+
+    @Transient
+    SessionSnapshotJournal   journal;
     
     public SessionInfo() {
         this.startDate = new Date();
@@ -57,6 +61,14 @@ public class SessionInfo {
     public SessionMarshallingHelper getJPASessionMashallingHelper() {
         return helper;
     }
+
+    public void setSnapshotJournal(SessionSnapshotJournal journal) {
+        this.journal = journal;
+    }
+
+    public SessionSnapshotJournal getSnapshotJournal() {
+        return journal;
+    }
     
     public void setData( byte[] data) {
         this.rulesByteArray = data;
@@ -82,7 +94,10 @@ public class SessionInfo {
     @PrePersist 
     @PreUpdate 
     public void update() {
-        this.rulesByteArray  = this.helper.getSnapshot();
+        // when journaled, the snapshot is only stored at the checkpoints
+        if ( this.journal == null ) {
+            this.rulesByteArray  = this.helper.getSnapshot();
+        }
     }
 
     public void setId(Integer ksessionId) {
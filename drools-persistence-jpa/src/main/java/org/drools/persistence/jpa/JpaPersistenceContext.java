@@ -1,8 +1,12 @@
 package org.drools.persistence.jpa;
 
+import java.util.List;
+
 import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
 
 import org.drools.persistence.PersistenceContext;
+import org.drools.persistence.info.SessionDeltaInfo;
 import org.drools.persistence.info.SessionInfo;
 import org.drools.persistence.info.WorkItemInfo;
 
@@ -62,6 +66,34 @@ public class JpaPersistenceContext implements PersistenceContext {
     public WorkItemInfo merge(WorkItemInfo workItemInfo) {
         return em.merge( workItemInfo );
     }
+
+    public void persist(SessionDeltaInfo sessionDeltaInfo) {
+        // a checkpoint rewrites the SessionInfo and removes its deltas, bumping the version of the SessionInfo
+        // makes a checkpoint and a delta committed concurrently fail with an OptimisticLockException
+        em.lock( em.find( SessionInfo.class, sessionDeltaInfo.getSessionId() ),
+                 LockModeType.OPTIMISTIC_FORCE_INCREMENT );
+        em.persist( sessionDeltaInfo );
+        // the deltas are never read back by this entity manager, don't keep them until it's closed
+        em.flush();
+        em.detach( sessionDeltaInfo );
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<SessionDeltaInfo> findSessionDeltas(Integer sessionId) {
+        List<SessionDeltaInfo> deltas = em.createQuery( "select d from SessionDeltaInfo d where d.sessionId = :sessionId order by d.sequenceNumber" )
+                                          .setParameter( "sessionId", sessionId )
+                                          .getResultList();
+        for ( SessionDeltaInfo delta : deltas ) {
+            em.detach( delta );
+        }
+        return deltas;
+    }
+
+    public void removeSessionDeltas(Integer sessionId) {
+        em.createQuery( "delete from SessionDeltaInfo d where d.sessionId = :sessionId" )
+          .setParameter( "sessionId", sessionId )
+          .executeUpdate();
+    }
     
     protected EntityManager getEntityManager() {
         return this.em;
@@ -7,6 +7,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.drools.persistence.PersistenceContext;
+import org.drools.persistence.info.SessionDeltaInfo;
 import org.drools.persistence.info.SessionInfo;
 import org.drools.persistence.info.WorkItemInfo;
 
@@ -101,4 +102,17 @@ public class MapBasedPersistenceContext
         return workItemInfo;
     }
 
+    public void persist(SessionDeltaInfo sessionDeltaInfo) {
+        // never called, SingleSessionCommandService rejects the journal for a KnowledgeSessionStorage
+        throw new UnsupportedOperationException( "Session deltas can't be stored in a KnowledgeSessionStorage, " +
+                                                 "use drools.persistence.checkpointInterval = 0" );
+    }
+
+    public List<SessionDeltaInfo> findSessionDeltas(Integer sessionId) {
+        return Collections.emptyList();
+    }
+
+    public void removeSessionDeltas(Integer sessionId) {
+    }
+
 }
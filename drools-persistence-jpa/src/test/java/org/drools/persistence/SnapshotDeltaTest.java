@@ -0,0 +1,122 @@
+package org.drools.persistence;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SnapshotDeltaTest {
+
+    private final Random random = new Random( 42 );
+
+    @Test
+    public void testEmptySnapshots() {
+        assertPatched( new byte[0],
+                       new byte[0] );
+        assertPatched( new byte[0],
+                       randomBytes( 300 ) );
+        assertPatched( randomBytes( 300 ),
+                       new byte[0] );
+    }
+
+    @Test
+    public void testIdenticalSnapshots() {
+        byte[] base = randomBytes( 10 * SnapshotDelta.BLOCK_SIZE );
+        byte[] delta = assertPatched( base,
+                                      base.clone() );
+        // a single copy of the whole base, no literal
+        assertTrue( delta.length < 64 );
+    }
+
+    @Test
+    public void testShiftedInsertion() {
+        byte[] base = randomBytes( 20 * SnapshotDelta.BLOCK_SIZE );
+        byte[] inserted = randomBytes( 7 );
+        byte[] target = concat( Arrays.copyOfRange( base, 0, 1000 ),
+                                inserted,
+                                Arrays.copyOfRange( base, 1000, base.length ) );
+
+        byte[] delta = assertPatched( base,
+                                      target );
+        // everything after the insertion is still copied from the base, despite the shift
+        assertTrue( delta.length < 4 * SnapshotDelta.BLOCK_SIZE );
+    }
+
+    @Test
+    public void testShiftedDeletion() {
+        byte[] base = randomBytes( 20 * SnapshotDelta.BLOCK_SIZE );
+        byte[] target = concat( Arrays.copyOfRange( base, 0, 1000 ),
+                                Arrays.copyOfRange( base, 1013, base.length ) );
+
+        byte[] delta = assertPatched( base,
+                                      target );
+        assertTrue( delta.length < 4 * SnapshotDelta.BLOCK_SIZE );
+    }
+
+    @Test
+    public void testSizesNotMultipleOfBlockSize() {
+        byte[] base = randomBytes( 5 * SnapshotDelta.BLOCK_SIZE + 37 );
+        byte[] target = concat( base,
+                                randomBytes( 11 ) );
+        target[3] = (byte) (target[3] + 1);
+        assertPatched( base,
+                       target );
+
+        // shorter than a block, nothing can be copied
+        assertPatched( randomBytes( SnapshotDelta.BLOCK_SIZE - 1 ),
+                       randomBytes( SnapshotDelta.BLOCK_SIZE - 3 ) );
+
+        // a target shorter than a block, against a base of several blocks
+        assertPatched( base,
+                       Arrays.copyOfRange( base, 100, 150 ) );
+    }
+
+    @Test
+    public void testChecksumMismatch() {
+        byte[] base = randomBytes( 4 * SnapshotDelta.BLOCK_SIZE );
+        byte[] delta = SnapshotDelta.diff( base,
+                                           randomBytes( 300 ) );
+
+        byte[] other = base.clone();
+        other[200] = (byte) (other[200] + 1);
+        try {
+            SnapshotDelta.patch( other,
+                                 delta );
+            fail( "The delta was computed against a different snapshot" );
+        } catch ( RuntimeException e ) {
+            // expected
+        }
+    }
+
+    private byte[] assertPatched(byte[] base,
+                                 byte[] target) {
+        byte[] delta = SnapshotDelta.diff( base,
+                                           target );
+        assertArrayEquals( target,
+                           SnapshotDelta.patch( base,
+                                                delta ) );
+        return delta;
+    }
+
+    private byte[] randomBytes(int length) {
+        byte[] bytes = new byte[length];
+        this.random.nextBytes( bytes );
+        return bytes;
+    }
+
+    private static byte[] concat(byte[]... arrays) {
+        int length = 0;
+        for ( byte[] array : arrays ) {
+            length += array.length;
+        }
+        byte[] result = new byte[length];
+        int pos = 0;
+        for ( byte[] array : arrays ) {
+            System.arraycopy( array, 0, result, pos, array.length );
+            pos += array.length;
+        }
+        return result;
+    }
+}
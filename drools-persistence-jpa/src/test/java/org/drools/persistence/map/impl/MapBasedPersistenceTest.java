@@ -24,13 +24,17 @@ import org.drools.persistence.map.EnvironmentBuilder;
 import org.drools.persistence.map.KnowledgeSessionStorage;
 import org.drools.persistence.map.KnowledgeSessionStorageEnvironmentBuilder;
 import org.junit.Before;
+import org.junit.Test;
 import org.kie.internal.KnowledgeBase;
 import org.kie.internal.KnowledgeBaseFactory;
 import org.kie.internal.persistence.jpa.JPAKnowledgeService;
 import org.kie.api.runtime.Environment;
 import org.kie.api.runtime.EnvironmentName;
+import org.kie.api.runtime.KieSessionConfiguration;
 import org.kie.internal.runtime.StatefulKnowledgeSession;
 
+import static org.junit.Assert.*;
+
 public class MapBasedPersistenceTest extends MapPersistenceTest{
     
     private SimpleKnowledgeSessionStorage storage;
@@ -70,6 +74,29 @@ public class MapBasedPersistenceTest extends MapPersistenceTest{
         return JPAKnowledgeService.loadStatefulKnowledgeSession( sessionId, kbase, null, env );
     }
     
+    @Test
+    public void testSnapshotJournalIsRejected() {
+        EnvironmentBuilder envBuilder = new KnowledgeSessionStorageEnvironmentBuilder( storage );
+        Environment env = KnowledgeBaseFactory.newEnvironment();
+        env.set( EnvironmentName.TRANSACTION_MANAGER,
+                 envBuilder.getTransactionManager() );
+        env.set( EnvironmentName.PERSISTENCE_CONTEXT_MANAGER,
+                 envBuilder.getPersistenceContextManager() );
+
+        KieSessionConfiguration conf = KnowledgeBaseFactory.newKnowledgeSessionConfiguration();
+        conf.setProperty( "drools.persistence.checkpointInterval", "10" );
+        try {
+            JPAKnowledgeService.newStatefulKnowledgeSession( KnowledgeBaseFactory.newKnowledgeBase(),
+                                                             conf,
+                                                             env );
+            fail( "the deltas can't be stored in a KnowledgeSessionStorage" );
+        } catch ( IllegalStateException e ) {
+            // thrown by the constructor of the command service
+            assertTrue( e.getCause().getCause() instanceof IllegalArgumentException );
+        }
+        assertTrue( storage.ksessions.isEmpty() );
+    }
+
     @Override
     protected long getSavedSessionsCount() {
         return storage.ksessions.size();
@@ -27,6 +27,8 @@ import java.util.Properties;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.naming.InitialContext;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
 import javax.transaction.UserTransaction;
 
 import org.drools.compiler.Person;
@@ -35,6 +37,7 @@ import org.drools.core.command.impl.CommandBasedStatefulKnowledgeSession;
 import org.drools.core.command.impl.FireAllRulesInterceptor;
 import org.drools.core.command.impl.LoggingInterceptor;
 import org.drools.persistence.SingleSessionCommandService;
+import org.drools.persistence.info.SessionInfo;
 import org.drools.persistence.util.PersistenceUtil;
 import org.junit.After;
 import org.junit.Before;
@@ -49,6 +52,7 @@ import org.kie.internal.runtime.StatefulKnowledgeSession;
 import org.kie.api.io.ResourceType;
 import org.kie.internal.persistence.jpa.JPAKnowledgeService;
 import org.kie.api.runtime.Environment;
+import org.kie.api.runtime.EnvironmentName;
 import org.kie.api.runtime.KieSessionConfiguration;
 import org.kie.api.runtime.rule.FactHandle;
 import org.slf4j.Logger;
@@ -347,6 +351,91 @@ public class JpaPersistentStatefulSessionTest {
                       list.size() );
     }
     
+    @Test
+    public void testJournaledSession() {
+        String str = "";
+        str += "package org.kie.test\n";
+        str += "rule rule1\n";
+        str += "when\n";
+        str += "  Integer(intValue > 0)\n";
+        str += "then\n";
+        str += "end\n";
+        str += "\n";
+
+        KnowledgeBuilder kbuilder = KnowledgeBuilderFactory.newKnowledgeBuilder();
+        kbuilder.add( ResourceFactory.newByteArrayResource( str.getBytes() ),
+                      ResourceType.DRL );
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+
+        if ( kbuilder.hasErrors() ) {
+            fail( kbuilder.getErrors().toString() );
+        }
+
+        kbase.addKnowledgePackages( kbuilder.getKnowledgePackages() );
+
+        Properties properties = new Properties();
+        properties.put( "drools.persistence.checkpointInterval", "2" );
+        KieSessionConfiguration config = KnowledgeBaseFactory.newKnowledgeSessionConfiguration( properties );
+
+        StatefulKnowledgeSession ksession = JPAKnowledgeService.newStatefulKnowledgeSession( kbase, config, env );
+
+        // the first 2 commands are journaled as deltas, the third one is a checkpoint, then 2 more deltas
+        for ( int i = 1; i <= 5; i++ ) {
+            ksession.insert( i );
+        }
+
+        ksession = JPAKnowledgeService.loadStatefulKnowledgeSession( ksession.getId(), kbase, config, env );
+        assertEquals( 5,
+                      ksession.getFactCount() );
+
+        assertEquals( 5,
+                      ksession.fireAllRules() );
+        ksession.insert( 6 );
+
+        ksession = JPAKnowledgeService.loadStatefulKnowledgeSession( ksession.getId(), kbase, config, env );
+        assertEquals( 6,
+                      ksession.getFactCount() );
+        assertEquals( 1,
+                      ksession.fireAllRules() );
+
+        int ksessionId = ksession.getId();
+        ksession.destroy();
+
+        try {
+            JPAKnowledgeService.loadStatefulKnowledgeSession( ksessionId, kbase, config, env );
+            fail( "There should not be any session with id " + ksessionId );
+        } catch ( Exception e ) {
+
+        }
+    }
+
+    @Test
+    public void testJournaledDeltaIncrementsSessionVersion() {
+        KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase();
+        Properties properties = new Properties();
+        properties.put( "drools.persistence.checkpointInterval", "10" );
+        KieSessionConfiguration config = KnowledgeBaseFactory.newKnowledgeSessionConfiguration( properties );
+
+        StatefulKnowledgeSession ksession = JPAKnowledgeService.newStatefulKnowledgeSession( kbase, config, env );
+        int version = getSessionInfoVersion( ksession.getId() );
+
+        // the delta leaves the SessionInfo data alone, but it must still conflict with a concurrent checkpoint
+        ksession.insert( 1 );
+        assertTrue( getSessionInfoVersion( ksession.getId() ) > version );
+
+        ksession.dispose();
+    }
+
+    private int getSessionInfoVersion(int ksessionId) {
+        EntityManagerFactory emf = (EntityManagerFactory) env.get( EnvironmentName.ENTITY_MANAGER_FACTORY );
+        EntityManager em = emf.createEntityManager();
+        try {
+            return em.find( SessionInfo.class, ksessionId ).getVersion();
+        } finally {
+            em.close();
+        }
+    }
+
     @Test
     public void testSharedReferences() {
         KnowledgeBase kbase = KnowledgeBaseFactory.newKnowledgeBase();